@@ -10,10 +10,17 @@ import java.util.function.Function;
 import com.amazonaws.services.elasticache.AmazonElastiCacheClient;
 import com.here.object.cache.client.CachingClient;
 import com.here.object.cache.config.*;
+import com.here.object.cache.config.local.WeightEstimate;
+import com.here.object.cache.config.redis.BloomFilterConfig;
+import com.here.object.cache.config.redis.ChangeFeedConfig;
+import com.here.object.cache.config.redis.CircuitBreakerConfig;
+import com.here.object.cache.config.redis.ReadPolicy;
 import com.here.object.cache.config.redis.RedisCacheConfig;
-import com.here.object.cache.data.DataCache;
+import com.here.object.cache.data.*;
 import com.here.object.cache.exceptions.InvalidConfigException;
 import com.here.object.cache.config.redis.ServerAddress;
+import com.here.object.cache.config.redis.ValueSizeConfig;
+import com.here.object.cache.serializer.KeyCodec;
 import com.here.object.cache.serializer.Serializer;
 
 /**
@@ -37,6 +44,39 @@ public class CacheBuilder {
 	private String cacheId;
 	private Serializer serializer;
 	private int numThreads = MIN_NETTY_THREADS;
+	private ReadPolicy readPolicy = ReadPolicy.MASTER;
+	private String sentinelMasterId;
+	private String snapshotDirectory;
+	private long snapshotInterval;
+	private TimeUnit snapshotIntervalUnit;
+	private String diskCacheDirectory;
+	private long maxDiskSizeInBytes;
+	private String[] warmUpPatterns;
+	private boolean hotKeyWarmUp;
+	private int warmUpConcurrency;
+	private int shardVirtualNodes;
+	private long commandTimeout;
+	private long readTimeout;
+	private long writeTimeout;
+	private TimeUnit timeoutUnit;
+	private CircuitBreakerConfig circuitBreakerConfig;
+	private BloomFilterConfig bloomFilterConfig;
+	private ChangeFeedConfig changeFeedConfig;
+	private ValueSizeConfig valueSizeConfig;
+	private long negativeCacheTtl;
+	private TimeUnit negativeCacheTtlUnit;
+	private double ttlJitter;
+	private int pipelineMaxBatchSize;
+	private long pipelineWindow;
+	private TimeUnit pipelineWindowUnit;
+	private double earlyExpirationBeta;
+	private long expectedLoadTime;
+	private TimeUnit expectedLoadTimeUnit;
+	private long maxWeightInBytes;
+	private double heapFraction;
+	private WeightEstimate weightEstimate;
+	private boolean softValues;
+	private final List<CacheOperationListener> operationListeners = new ArrayList<>();
 
 
 	private CacheBuilder() {
@@ -54,7 +94,8 @@ public class CacheBuilder {
 	public CacheBuilder withCachingMode(CachingMode cachingMode) {
 		Objects.nonNull(cachingMode);
 		this.mode = cachingMode;
-		if (CachingMode.STAND_ALONE_REDIS_CACHE.equals(cachingMode) || CachingMode.CLUSTER_MODE_REDIS_CACHE.equals(cachingMode)|| CachingMode.AWS_ELASTICACHE.equals(cachingMode))
+		if (CachingMode.STAND_ALONE_REDIS_CACHE.equals(cachingMode) || CachingMode.CLUSTER_MODE_REDIS_CACHE.equals(cachingMode)|| CachingMode.AWS_ELASTICACHE.equals(cachingMode)
+				|| CachingMode.SENTINEL.equals(cachingMode) || CachingMode.MASTER_REPLICA.equals(cachingMode) || CachingMode.SHARDED_REDIS_CACHE.equals(cachingMode))
 			this.serverAdresses = new ArrayList<>();
 		return this;
 	}
@@ -112,6 +153,357 @@ public class CacheBuilder {
 		return this;
 	}
 
+	/**
+	 * Route the reads to the replicas as per the given policy, writes are always sent to the master.
+	 * @param readPolicy the {@link ReadPolicy} to be used
+	 * @return the builder
+	 */
+	public CacheBuilder withReadPolicy(ReadPolicy readPolicy){
+		this.readPolicy = Objects.requireNonNull(readPolicy, "Read Policy cannot be null");
+		return this;
+	}
+
+	/**
+	 * The name of the master monitored by the sentinels, required for the {@link CachingMode#SENTINEL} mode.
+	 * The server addresses in this mode are the addresses of the sentinels.
+	 * @param sentinelMasterId the master name as configured on the sentinels
+	 * @return the builder
+	 */
+	public CacheBuilder withSentinelMaster(String sentinelMasterId){
+		this.sentinelMasterId = sentinelMasterId;
+		return this;
+	}
+
+	/**
+	 * Persist the local cache to a snapshot file so that a restarted JVM starts with a warm local cache.
+	 * Applies to the {@link CachingMode#LOCAL_JVM_CACHE} mode and to the local cache of the remote modes, requires a stable cache id.
+	 * @param snapshotDirectory the directory in which the snapshot file is stored
+	 * @param snapshotInterval the interval between two snapshots, 0 to write the snapshot only when the JVM shuts down
+	 * @param timeUnit the time unit for snapshotInterval
+	 * @return the builder
+	 */
+	public CacheBuilder withLocalCacheSnapshot(String snapshotDirectory, long snapshotInterval, TimeUnit timeUnit){
+		Objects.requireNonNull(snapshotDirectory, "Snapshot directory cannot be null");
+		this.snapshotDirectory = snapshotDirectory;
+		this.snapshotInterval = snapshotInterval;
+		this.snapshotIntervalUnit = Objects.requireNonNull(timeUnit, "Time unit cannot be null");
+		return this;
+	}
+
+	/**
+	 * Keep the entries evicted from the local cache on the disk until they expire, the disk is looked up before querying redis.
+	 * Applies to the {@link CachingMode#LOCAL_JVM_CACHE} mode and to the local cache of the remote modes, requires a stable cache id for the entries to survive a restart.
+	 * @param diskCacheDirectory the directory in which the segment files are stored
+	 * @param maxDiskSizeInBytes the max size of the segment files on the disk
+	 * @return the builder
+	 */
+	public CacheBuilder withDiskCache(String diskCacheDirectory, long maxDiskSizeInBytes){
+		this.diskCacheDirectory = Objects.requireNonNull(diskCacheDirectory, "Disk cache directory cannot be null");
+		this.maxDiskSizeInBytes = maxDiskSizeInBytes;
+		return this;
+	}
+
+	/**
+	 * Bound the local cache by the size of its entries rather than by their number.
+	 * Applies to the {@link CachingMode#LOCAL_JVM_CACHE} mode and to the local cache of the remote modes.
+	 * @param maxWeightInBytes the max size of the entries held on the heap
+	 * @param weightEstimate how the entries are measured, see {@link WeightEstimate}
+	 * @return the builder
+	 */
+	public CacheBuilder withMaxWeight(long maxWeightInBytes, WeightEstimate weightEstimate){
+		this.maxWeightInBytes = maxWeightInBytes;
+		this.heapFraction = 0;
+		this.weightEstimate = Objects.requireNonNull(weightEstimate, "Weight estimate cannot be null");
+		return this;
+	}
+
+	/**
+	 * Bound the local cache by the size of its entries, the budget being the given fraction of the max heap size of the JVM.
+	 * Applies to the {@link CachingMode#LOCAL_JVM_CACHE} mode and to the local cache of the remote modes.
+	 * @param heapFraction the share of the max heap size, within (0, 1)
+	 * @param weightEstimate how the entries are measured, see {@link WeightEstimate}
+	 * @return the builder
+	 */
+	public CacheBuilder withMaxHeapFraction(double heapFraction, WeightEstimate weightEstimate){
+		this.heapFraction = heapFraction;
+		this.maxWeightInBytes = 0;
+		this.weightEstimate = Objects.requireNonNull(weightEstimate, "Weight estimate cannot be null");
+		return this;
+	}
+
+	/**
+	 * Hold the values of the local cache through soft references, reclaimed by the garbage collector when the heap runs short.
+	 * Applies to the {@link CachingMode#LOCAL_JVM_CACHE} mode and to the local cache of the remote modes.
+	 * @return the builder
+	 */
+	public CacheBuilder withSoftValues(){
+		this.softValues = true;
+		return this;
+	}
+
+	/**
+	 * Load the keys matching the given patterns from redis into the local cache when the cache is built, requires the local cache.
+	 * The progress of the warm-up can be followed through {@link com.here.object.cache.data.RedisCache#getWarmUpFuture()}
+	 * @param keyPatterns the key patterns to be loaded
+	 * @return the builder
+	 */
+	public CacheBuilder withWarmUp(String... keyPatterns){
+		this.warmUpPatterns = keyPatterns;
+		return this;
+	}
+
+	/**
+	 * Load the keys held by the local cache when the cache with the same id was last closed, requires the local cache.
+	 * @return the builder
+	 */
+	public CacheBuilder withHotKeyWarmUp(){
+		this.hotKeyWarmUp = true;
+		return this;
+	}
+
+	/**
+	 * The max number of scans and batch fetches running in parallel while warming up the local cache
+	 * @param warmUpConcurrency the concurrency limit
+	 * @return the builder
+	 */
+	public CacheBuilder withWarmUpConcurrency(int warmUpConcurrency){
+		this.warmUpConcurrency = warmUpConcurrency;
+		return this;
+	}
+
+	/**
+	 * The number of points of a server of weight 1 on the hash ring of the {@link CachingMode#SHARDED_REDIS_CACHE} mode,
+	 * more points spread the keys more evenly across the servers at the expense of a larger ring.
+	 * The weight of a server is set through {@link ServerAddress#withWeight(int)}
+	 * @param shardVirtualNodes the number of points
+	 * @return the builder
+	 */
+	public CacheBuilder withShardVirtualNodes(int shardVirtualNodes){
+		this.shardVirtualNodes = shardVirtualNodes;
+		return this;
+	}
+
+	/**
+	 * The timeout applied by the client to every command of the remote modes, including the batch and the bulk ones, defaults to 2 seconds
+	 * so that the callers fail fast while redis is slow, it should be raised for caches holding large values or running long scripts.
+	 * @param commandTimeout the timeout
+	 * @param timeUnit the time unit for commandTimeout
+	 * @return the builder
+	 */
+	public CacheBuilder withCommandTimeout(long commandTimeout, TimeUnit timeUnit){
+		this.commandTimeout = commandTimeout;
+		this.timeoutUnit = Objects.requireNonNull(timeUnit, "Time unit cannot be null");
+		return this;
+	}
+
+	/**
+	 * The time the single key operations wait for redis before failing, both default to the command timeout.
+	 * @param readTimeout the timeout of the reads
+	 * @param writeTimeout the timeout of the writes and of the atomic operations
+	 * @param timeUnit the time unit for the timeouts
+	 * @return the builder
+	 */
+	public CacheBuilder withTimeouts(long readTimeout, long writeTimeout, TimeUnit timeUnit){
+		this.readTimeout = readTimeout;
+		this.writeTimeout = writeTimeout;
+		this.timeoutUnit = Objects.requireNonNull(timeUnit, "Time unit cannot be null");
+		return this;
+	}
+
+	/**
+	 * Guard the calls to redis with a circuit breaker, see {@link CircuitBreakerConfig}.
+	 * While the breaker is open the reads are served by the local cache, if enabled, and the writes are dropped or queued.
+	 * @param circuitBreakerConfig the settings of the breaker
+	 * @return the builder
+	 */
+	public CacheBuilder withCircuitBreaker(CircuitBreakerConfig circuitBreakerConfig){
+		this.circuitBreakerConfig = Objects.requireNonNull(circuitBreakerConfig, "Circuit breaker config cannot be null");
+		return this;
+	}
+
+	/**
+	 * Spread the expiry of the entries written with the TTL of the cache, the time to live of each write is drawn
+	 * between <code>ttl * (1 - jitter)</code> and the TTL. Applies to the remote modes.
+	 * @param jitter the fraction of the TTL, within [0, 1)
+	 * @return the builder
+	 */
+	public CacheBuilder withTtlJitter(double jitter){
+		this.ttlJitter = jitter;
+		return this;
+	}
+
+	/**
+	 * Refresh the entries in the background before they expire, the closer the expiry and the slower the load, the more likely the refresh.
+	 * Applies to the caches of the remote modes built with a cache loader.
+	 * @param beta scales the probability of an early refresh, 1 is a sensible default
+	 * @param expectedLoadTime the expected duration of a load, replaced by the measured one as the values get loaded
+	 * @param timeUnit the time unit for expectedLoadTime
+	 * @return the builder
+	 */
+	public CacheBuilder withEarlyExpiration(double beta, long expectedLoadTime, TimeUnit timeUnit){
+		this.earlyExpirationBeta = beta;
+		this.expectedLoadTime = expectedLoadTime;
+		this.expectedLoadTimeUnit = Objects.requireNonNull(timeUnit, "Time unit cannot be null");
+		return this;
+	}
+
+	/**
+	 * Coalesce the commands issued concurrently by the threads using the cache into a single flush of the connection.
+	 * A command waits for the window to elapse at most, or for the batch to fill up. Applies to the remote modes.
+	 * @param maxBatchSize the number of pending commands flushed without waiting for the window to elapse
+	 * @param window the time a command may wait for other commands before being flushed
+	 * @param timeUnit the time unit for window
+	 * @return the builder
+	 */
+	public CacheBuilder withAutoPipelining(int maxBatchSize, long window, TimeUnit timeUnit){
+		this.pipelineMaxBatchSize = maxBatchSize;
+		this.pipelineWindow = window;
+		this.pipelineWindowUnit = Objects.requireNonNull(timeUnit, "Time unit cannot be null");
+		return this;
+	}
+
+	/**
+	 * Guard the reads with a bloom filter of the keys written, see {@link BloomFilterConfig}.
+	 * The reads of the keys never written return without calling redis. Applies to the remote modes.
+	 * @param bloomFilterConfig the settings of the filter
+	 * @return the builder
+	 */
+	public CacheBuilder withBloomFilter(BloomFilterConfig bloomFilterConfig){
+		this.bloomFilterConfig = Objects.requireNonNull(bloomFilterConfig, "Bloom filter config cannot be null");
+		return this;
+	}
+
+	/**
+	 * Publish the changes of the keys to a redis stream, read by the other processes through
+	 * {@link com.here.object.cache.data.RedisCache#consumeChanges(String, String)}, see {@link ChangeFeedConfig}. Applies to the remote modes.
+	 * @param changeFeedConfig the settings of the change feed
+	 * @return the builder
+	 */
+	public CacheBuilder withChangeFeed(ChangeFeedConfig changeFeedConfig){
+		this.changeFeedConfig = Objects.requireNonNull(changeFeedConfig, "Change feed config cannot be null");
+		return this;
+	}
+
+	/**
+	 * Record the size of the values written in a histogram, and report or reject the values larger than the given thresholds,
+	 * see {@link ValueSizeConfig}. The statistics are read through {@link com.here.object.cache.data.RedisCache#valueSizeStats()}.
+	 * Applies to the remote modes.
+	 * @param valueSizeConfig the settings of the tracking
+	 * @return the builder
+	 */
+	public CacheBuilder withValueSizeTracking(ValueSizeConfig valueSizeConfig){
+		this.valueSizeConfig = Objects.requireNonNull(valueSizeConfig, "Value size config cannot be null");
+		return this;
+	}
+
+	/**
+	 * Remember for a short time the keys for which the cache loader found no value, the gets of these keys then return
+	 * <code>null</code> without calling the loader again. The misses are remembered in the local cache and in redis.
+	 * @param negativeCacheTtl the time a miss is remembered
+	 * @param timeUnit the time unit for negativeCacheTtl
+	 * @return the builder
+	 */
+	public CacheBuilder withNegativeCaching(long negativeCacheTtl, TimeUnit timeUnit){
+		this.negativeCacheTtl = negativeCacheTtl;
+		this.negativeCacheTtlUnit = Objects.requireNonNull(timeUnit, "Time unit cannot be null");
+		return this;
+	}
+
+	/**
+	 * Notify the listener of the start and the end of the blocking operations of the cache, such as to trace the slow calls,
+	 * see {@link CacheOperationListener}. Applies to the caches built by {@link #build()} and {@link #build(Function)}.
+	 * @param listener the listener
+	 * @return the builder
+	 */
+	public CacheBuilder withOperationListener(CacheOperationListener listener){
+		this.operationListeners.add(Objects.requireNonNull(listener, "Listener cannot be null"));
+		return this;
+	}
+
+	private <T> DataCache<T> withListeners(DataCache<T> cache) {
+		operationListeners.forEach(cache::addOperationListener);
+		return cache;
+	}
+
+	private void configureRemoteCache(ObjectCacheClientConfig config) {
+		if (CachingMode.LOCAL_JVM_CACHE.equals(this.mode)) {
+			if (commandTimeout != 0 || readTimeout != 0 || circuitBreakerConfig != null)
+				throw new InvalidConfigException("Timeouts and circuit breaker only apply to the remote modes");
+			if (ttlJitter != 0 || earlyExpirationBeta != 0)
+				throw new InvalidConfigException("TTL jitter and early expiration only apply to the remote modes");
+			if (bloomFilterConfig != null)
+				throw new InvalidConfigException("Bloom filter only applies to the remote modes");
+			if (changeFeedConfig != null)
+				throw new InvalidConfigException("Change feed only applies to the remote modes");
+			if (pipelineWindowUnit != null)
+				throw new InvalidConfigException("Auto pipelining only applies to the remote modes");
+			if (valueSizeConfig != null)
+				throw new InvalidConfigException("Value size tracking only applies to the remote modes");
+			return;
+		}
+
+		if (commandTimeout != 0)
+			config.useRedisCache().setCommandTimeout(commandTimeout, timeoutUnit);
+		if (readTimeout != 0 || writeTimeout != 0)
+			config.useRedisCache().withTimeouts(readTimeout, writeTimeout, timeoutUnit);
+		if (circuitBreakerConfig != null)
+			config.useRedisCache().withCircuitBreaker(circuitBreakerConfig);
+		if (ttlJitter != 0)
+			config.useRedisCache().withTtlJitter(ttlJitter);
+		if (earlyExpirationBeta != 0)
+			config.useRedisCache().withEarlyExpiration(earlyExpirationBeta, expectedLoadTime, expectedLoadTimeUnit);
+		if (bloomFilterConfig != null)
+			config.useRedisCache().withBloomFilter(bloomFilterConfig);
+		if (changeFeedConfig != null)
+			config.useRedisCache().withChangeFeed(changeFeedConfig);
+		if (valueSizeConfig != null)
+			config.useRedisCache().withValueSizeTracking(valueSizeConfig);
+		if (pipelineWindowUnit != null)
+			config.useRedisCache().withAutoPipelining(pipelineMaxBatchSize, pipelineWindow, pipelineWindowUnit);
+		if (negativeCacheTtlUnit != null)
+			config.useRedisCache().withNegativeCaching(negativeCacheTtl, negativeCacheTtlUnit);
+	}
+
+	private void configureLocalCache(ObjectCacheClientConfig config) {
+		if (CachingMode.LOCAL_JVM_CACHE.equals(this.mode)) {
+			if (snapshotDirectory != null)
+				config.useLocalCache().withSnapshot(snapshotDirectory, snapshotInterval, snapshotIntervalUnit);
+			if (diskCacheDirectory != null)
+				config.useLocalCache().withDiskCache(diskCacheDirectory, maxDiskSizeInBytes);
+			if (maxWeightInBytes != 0)
+				config.useLocalCache().withMaxWeight(maxWeightInBytes, weightEstimate);
+			if (heapFraction != 0)
+				config.useLocalCache().withMaxHeapFraction(heapFraction, weightEstimate);
+			if (softValues)
+				config.useLocalCache().withSoftValues();
+			if (negativeCacheTtlUnit != null)
+				config.useLocalCache().withNegativeCaching(negativeCacheTtl, negativeCacheTtlUnit);
+			return;
+		}
+
+		if (this.useLocalCache)
+			config.useRedisCache().withLocalCache();
+		if (snapshotDirectory != null)
+			config.useRedisCache().withLocalCacheSnapshot(snapshotDirectory, snapshotInterval, snapshotIntervalUnit);
+		if (diskCacheDirectory != null)
+			config.useRedisCache().withLocalDiskCache(diskCacheDirectory, maxDiskSizeInBytes);
+		if (maxWeightInBytes != 0)
+			config.useRedisCache().withLocalCacheMaxWeight(maxWeightInBytes, weightEstimate);
+		if (heapFraction != 0)
+			config.useRedisCache().withLocalCacheHeapFraction(heapFraction, weightEstimate);
+		if (softValues)
+			config.useRedisCache().withLocalCacheSoftValues();
+
+		if ((warmUpPatterns != null || hotKeyWarmUp) && !this.useLocalCache)
+			throw new InvalidConfigException("Warm-up requires the local cache to be enabled");
+		if (warmUpPatterns != null)
+			config.useRedisCache().withWarmUp(warmUpPatterns);
+		if (hotKeyWarmUp)
+			config.useRedisCache().withHotKeyWarmUp();
+		if (warmUpConcurrency != 0)
+			config.useRedisCache().setWarmUpConcurrency(warmUpConcurrency);
+	}
+
 	private ObjectCacheClientConfig buildConfig() {
 		ObjectCacheClientConfig config = null;
 
@@ -137,6 +529,7 @@ public class CacheBuilder {
 					config.useRedisCache().withCustomSerializer(serializer);
 
 				config.useRedisCache().setNumThreads(this.numThreads);
+				config.useRedisCache().withReadPolicy(this.readPolicy);
 				return config;
 
 			case CLUSTER_MODE_REDIS_CACHE:
@@ -154,6 +547,45 @@ public class CacheBuilder {
 					config.useRedisCache().withCustomSerializer(serializer);
 
 				config.useRedisCache().setNumThreads(this.numThreads);
+				config.useRedisCache().withReadPolicy(this.readPolicy);
+				return config;
+
+			case SHARDED_REDIS_CACHE:
+				if (serverAdresses == null || serverAdresses.isEmpty())
+					throw new InvalidConfigException("Server Adresses not set");
+
+				if (ttlUnit != null && ttl != 0)
+					config = new ObjectCacheClientConfig(CachingMode.SHARDED_REDIS_CACHE, ttl, ttlUnit, serverAdresses.toArray(new ServerAddress[0]));
+				else
+					config = new ObjectCacheClientConfig(CachingMode.SHARDED_REDIS_CACHE, serverAdresses.toArray(new ServerAddress[0]));
+
+				if (serializer != null)
+					config.useRedisCache().withCustomSerializer(serializer);
+
+				if (shardVirtualNodes != 0)
+					config.useRedisCache().setShardVirtualNodes(shardVirtualNodes);
+				config.useRedisCache().setNumThreads(this.numThreads);
+				return config;
+
+			case SENTINEL:
+			case MASTER_REPLICA:
+				if (serverAdresses == null || serverAdresses.isEmpty())
+					throw new InvalidConfigException("Server Adresses not set");
+
+				if (CachingMode.SENTINEL.equals(this.mode) && sentinelMasterId == null)
+					throw new InvalidConfigException("Sentinel master not set");
+
+				if (ttlUnit != null && ttl != 0)
+					config = new ObjectCacheClientConfig(this.mode, ttl, ttlUnit, serverAdresses.toArray(new ServerAddress[0]));
+				else
+					config = new ObjectCacheClientConfig(this.mode, serverAdresses.toArray(new ServerAddress[0]));
+
+				if (serializer != null)
+					config.useRedisCache().withCustomSerializer(serializer);
+
+				config.useRedisCache().withSentinelMasterId(this.sentinelMasterId);
+				config.useRedisCache().setNumThreads(this.numThreads);
+				config.useRedisCache().withReadPolicy(this.readPolicy);
 				return config;
 
 			case AWS_ELASTICACHE:
@@ -170,6 +602,7 @@ public class CacheBuilder {
 					config.useRedisCache().withCustomSerializer(serializer);
 
 				config.useRedisCache().setNumThreads(this.numThreads);
+				config.useRedisCache().withReadPolicy(this.readPolicy);
 				return config;
 
 			default:
@@ -179,24 +612,83 @@ public class CacheBuilder {
 
 	public <T> DataCache<T> build() {
 		ObjectCacheClientConfig config = buildConfig();
-		if (this.useLocalCache)
-			config.useRedisCache().withLocalCache();
+		configureLocalCache(config);
+		configureRemoteCache(config);
 
 		CachingClient<T> cachingClient = new CachingClient<>(config);
 		if(this.cacheId!=null)
-			return cachingClient.getCache(cacheId);
-		return cachingClient.getCache();
+			return withListeners(cachingClient.getCache(cacheId));
+		return withListeners(cachingClient.getCache());
 		
 	}
 
+	/**
+	 * Build a non blocking cache, see {@link ReactiveDataCache}
+	 * @return the cache
+	 */
+	public <T> ReactiveDataCache<T> buildReactive() {
+		return this.<T>build().reactive();
+	}
+
+	/**
+	 * Build a cache keyed by numeric ids, see {@link LongKeyDataCache}.
+	 * The local cache, its snapshot, disk tier and warm-up are not supported by the long keyed caches of the remote modes.
+	 * @return the cache
+	 */
+	public <T> LongKeyDataCache<T> buildLongKeyCache() {
+		ObjectCacheClientConfig config = buildTypedKeyConfig();
+		if (CachingMode.LOCAL_JVM_CACHE.equals(this.mode))
+			return new LongKeyLocalCache<>(config.useLocalCache());
+		return new LongKeyRedisCache<>(config.useRedisCache());
+	}
+
+	/**
+	 * Build a cache with keys of any type, see {@link TypedDataCache}.
+	 * The local cache, its snapshot, disk tier and warm-up are not supported by the typed caches of the remote modes.
+	 * @param keyCodec encodes the keys in the remote modes, unused in the {@link CachingMode#LOCAL_JVM_CACHE} mode
+	 * @return the cache
+	 */
+	public <K, V> TypedDataCache<K, V> buildTypedCache(KeyCodec<K> keyCodec) {
+		Objects.requireNonNull(keyCodec, "Key codec cannot be null");
+		ObjectCacheClientConfig config = buildTypedKeyConfig();
+		if (CachingMode.LOCAL_JVM_CACHE.equals(this.mode))
+			return new TypedLocalCache<>(config.useLocalCache());
+		return new TypedRedisCache<>(config.useRedisCache(), keyCodec);
+	}
+
+	/**
+	 * Build a cache of counters keyed by numeric ids, see {@link LongCounterCache}.
+	 * The local cache, its snapshot, disk tier and warm-up are not supported by the counter caches of the remote modes.
+	 * @return the cache
+	 */
+	public LongCounterCache buildCounterCache() {
+		ObjectCacheClientConfig config = buildTypedKeyConfig();
+		if (CachingMode.LOCAL_JVM_CACHE.equals(this.mode))
+			return new LongCounterLocalCache(config.useLocalCache());
+		return new LongCounterRedisCache(config.useRedisCache());
+	}
+
+	private ObjectCacheClientConfig buildTypedKeyConfig() {
+		ObjectCacheClientConfig config = buildConfig();
+		configureRemoteCache(config);
+		if (!CachingMode.LOCAL_JVM_CACHE.equals(this.mode)) {
+			if (this.useLocalCache)
+				throw new InvalidConfigException("Local cache not supported by the typed caches of the remote modes");
+			if (CachingMode.SHARDED_REDIS_CACHE.equals(this.mode))
+				throw new InvalidConfigException("Typed caches not supported in the sharded mode");
+			config.useRedisCache().setCacheId(this.cacheId);
+		}
+		return config;
+	}
+
 	public <T> DataCache<T> build(Function<String, T> cacheLoader) {
 		ObjectCacheClientConfig config = buildConfig();
-		if (this.useLocalCache)
-			config.useRedisCache().withLocalCache();
+		configureLocalCache(config);
+		configureRemoteCache(config);
 
 		CachingClient<T> cachingClient = new CachingClient<>(config);
 		if(this.cacheId!=null)
-			return cachingClient.getCache(cacheLoader, cacheId);
-		return cachingClient.getCache(cacheLoader);
+			return withListeners(cachingClient.getCache(cacheLoader, cacheId));
+		return withListeners(cachingClient.getCache(cacheLoader));
 	}
 }
@@ -43,7 +43,10 @@ public class CachingClient<T> {
 				cache = new LocalCache<>(localCacheConfig);
 		} else if (CachingMode.STAND_ALONE_REDIS_CACHE.equals(clientConfig.getCachingMode()) ||
 				CachingMode.CLUSTER_MODE_REDIS_CACHE.equals(clientConfig.getCachingMode()) ||
-				CachingMode.AWS_ELASTICACHE.equals(clientConfig.getCachingMode())) {
+				CachingMode.AWS_ELASTICACHE.equals(clientConfig.getCachingMode()) ||
+				CachingMode.SENTINEL.equals(clientConfig.getCachingMode()) ||
+				CachingMode.MASTER_REPLICA.equals(clientConfig.getCachingMode()) ||
+				CachingMode.SHARDED_REDIS_CACHE.equals(clientConfig.getCachingMode())) {
 			RedisCacheConfig redisCacheConfig = (RedisCacheConfig) clientConfig.getCacheConfig();
 			redisCacheConfig.setCacheId(redisCacheConfig.getCacheId() != null ? redisCacheConfig.getCacheId() : cache_id);
 			cache = new RedisCache<>(redisCacheConfig);
@@ -66,7 +69,10 @@ public class CachingClient<T> {
 				cache = new LocalCache<>(localCacheConfig, valueLoader);
 		} else if (CachingMode.STAND_ALONE_REDIS_CACHE.equals(clientConfig.getCachingMode()) ||
 				CachingMode.CLUSTER_MODE_REDIS_CACHE.equals(clientConfig.getCachingMode()) ||
-				CachingMode.AWS_ELASTICACHE.equals(clientConfig.getCachingMode())) {
+				CachingMode.AWS_ELASTICACHE.equals(clientConfig.getCachingMode()) ||
+				CachingMode.SENTINEL.equals(clientConfig.getCachingMode()) ||
+				CachingMode.MASTER_REPLICA.equals(clientConfig.getCachingMode()) ||
+				CachingMode.SHARDED_REDIS_CACHE.equals(clientConfig.getCachingMode())) {
 			RedisCacheConfig redisCacheConfig = (RedisCacheConfig) clientConfig.getCacheConfig();
 			redisCacheConfig.setCacheId(cache_id);
 			cache = new RedisCache<>(redisCacheConfig, valueLoader);
@@ -9,5 +9,19 @@ public enum CachingMode {
 	LOCAL_JVM_CACHE,
 	STAND_ALONE_REDIS_CACHE,
 	CLUSTER_MODE_REDIS_CACHE,
-	AWS_ELASTICACHE;
+	AWS_ELASTICACHE,
+	/**
+	 * Redis master/replica setup managed by sentinels, the server addresses are the addresses of the sentinels
+	 */
+	SENTINEL,
+	/**
+	 * Redis master/replica setup without sentinels, the server addresses are the master and the replicas
+	 * or a single node from which the rest of the topology is discovered
+	 */
+	MASTER_REPLICA,
+	/**
+	 * Independent standalone redis servers, the keys are distributed across the servers through a consistent hash ring
+	 * so that adding or removing a server only remaps the keys of that server
+	 */
+	SHARDED_REDIS_CACHE;
 }
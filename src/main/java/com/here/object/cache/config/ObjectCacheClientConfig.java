@@ -69,6 +69,18 @@ public class ObjectCacheClientConfig {
 		}
 	}
 
+	/**
+	 *
+	 * @return
+	 */
+	public LocalCacheConfig useLocalCache(){
+		if(this.cacheConfig instanceof LocalCacheConfig){
+			return (LocalCacheConfig) this.cacheConfig;
+		}else{
+			throw new RuntimeException("Local cache configuration not available, current caching mode: "+ this.cachingMode);
+		}
+	}
+
 	/**
 	 *
 	 * @param client
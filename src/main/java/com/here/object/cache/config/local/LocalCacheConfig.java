@@ -1,9 +1,13 @@
 package com.here.object.cache.config.local;
 
+import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
 import com.here.object.cache.config.CacheConfig;
 import com.here.object.cache.config.CachingMode;
+import com.here.object.cache.exceptions.InvalidConfigException;
+import com.here.object.cache.serializer.ByteSerializer;
+import com.here.object.cache.serializer.Serializer;
 
 /**
  * 
@@ -14,6 +18,15 @@ public class LocalCacheConfig implements CacheConfig {
 	
 	private long expirationInMs;
 	private int cacheSize;
+	private String snapshotDirectory;
+	private long snapshotIntervalInMs;
+	private String diskCacheDirectory;
+	private long maxDiskSizeInBytes;
+	private long maxWeightInBytes;
+	private WeightEstimate weightEstimate;
+	private boolean softValues;
+	private long negativeCacheTtlInMs;
+	private Serializer serializer = new ByteSerializer();
 
 	/**
 	 * Configuration for local cache
@@ -36,6 +49,87 @@ public class LocalCacheConfig implements CacheConfig {
 		this.expirationInMs = TimeUnit.MILLISECONDS.convert(cacheValidDuration, timeUnit);
 	}
 
+	/**
+	 * Persist the cache entries along with their remaining time to live to a snapshot file, the file is written periodically and when the JVM shuts down.
+	 * On start-up the entries of the snapshot are loaded lazily when they are first requested, so that a restarted JVM does not start with a cold cache.
+	 * The snapshot file is named after the cache id, hence a stable cache id is required for the snapshot to be picked up after a restart.
+	 * @param snapshotDirectory the directory in which the snapshot file is stored
+	 * @param snapshotInterval the interval between two snapshots, 0 to write the snapshot only when the JVM shuts down
+	 * @param timeUnit the time unit for snapshotInterval
+	 */
+	public void withSnapshot(String snapshotDirectory, long snapshotInterval, TimeUnit timeUnit) {
+		this.snapshotDirectory = snapshotDirectory;
+		this.snapshotIntervalInMs = TimeUnit.MILLISECONDS.convert(snapshotInterval, timeUnit);
+	}
+
+	/**
+	 * Keep the entries evicted from the heap on the disk until they expire, the entries held on the disk are looked up
+	 * before the remote cache is queried. The entries are stored in memory-mapped segment files, once the disk size limit is reached
+	 * the oldest segment is dropped. The directory is named after the cache id, hence a stable cache id is required for the entries to be picked up after a restart.
+	 * Only the values which are {@link java.io.Serializable} are moved to the disk.
+	 * @param diskCacheDirectory the directory in which the segment files are stored
+	 * @param maxDiskSizeInBytes the max size of the segment files on the disk
+	 */
+	public void withDiskCache(String diskCacheDirectory, long maxDiskSizeInBytes) {
+		if (maxDiskSizeInBytes <= 0)
+			throw new InvalidConfigException("Max disk size should be greater than 0");
+		this.diskCacheDirectory = diskCacheDirectory;
+		this.maxDiskSizeInBytes = maxDiskSizeInBytes;
+	}
+
+	/**
+	 * Bound the cache by the size of its entries rather than by their number, the max number of elements is then ignored.
+	 * The entries are measured once, when they are written, as per the given {@link WeightEstimate}.
+	 * @param maxWeightInBytes the max size of the entries held on the heap
+	 * @param weightEstimate how the entries are measured
+	 */
+	public void withMaxWeight(long maxWeightInBytes, WeightEstimate weightEstimate) {
+		if (maxWeightInBytes <= 0)
+			throw new InvalidConfigException("Max weight should be greater than 0");
+		this.maxWeightInBytes = maxWeightInBytes;
+		this.weightEstimate = Objects.requireNonNull(weightEstimate, "Weight estimate cannot be null");
+	}
+
+	/**
+	 * Bound the cache by the size of its entries, the budget being the given fraction of the max heap size of the JVM.
+	 * See {@link #withMaxWeight(long, WeightEstimate)}
+	 * @param heapFraction the share of the max heap size, within (0, 1)
+	 * @param weightEstimate how the entries are measured
+	 */
+	public void withMaxHeapFraction(double heapFraction, WeightEstimate weightEstimate) {
+		if (heapFraction <= 0 || heapFraction >= 1)
+			throw new InvalidConfigException("Heap fraction should be within (0, 1)");
+		withMaxWeight((long) (Runtime.getRuntime().maxMemory() * heapFraction), weightEstimate);
+	}
+
+	/**
+	 * Hold the values through soft references, so that the garbage collector reclaims them when the heap runs short
+	 * rather than failing with an {@link OutOfMemoryError}. The values reclaimed this way are not moved to the disk cache.
+	 */
+	public void withSoftValues() {
+		this.softValues = true;
+	}
+
+	/**
+	 * Remember for a short time the keys for which the value loader found no value, the gets of these keys then return
+	 * <code>null</code> without calling the loader again. The misses are held apart from the values and cleared when the key is written.
+	 * @param negativeCacheTtl the time a miss is remembered
+	 * @param timeUnit the time unit for negativeCacheTtl
+	 */
+	public void withNegativeCaching(long negativeCacheTtl, TimeUnit timeUnit) {
+		if (negativeCacheTtl <= 0)
+			throw new InvalidConfigException("Negative cache TTL should be positive");
+		this.negativeCacheTtlInMs = TimeUnit.MILLISECONDS.convert(negativeCacheTtl, timeUnit);
+	}
+
+	/**
+	 * The serializer used to write the values to the snapshot file and the disk
+	 * @param serializer the serializer
+	 */
+	public void withCustomSerializer(Serializer serializer) {
+		this.serializer = serializer;
+	}
+
 	/**
 	 * The Max elements to be saved on the cache;
 	 * @return
@@ -51,6 +145,63 @@ public class LocalCacheConfig implements CacheConfig {
 		return expirationInMs;
 	}
 
+	/**
+	 * The directory of the snapshot file, <code>null</code> if the snapshot is disabled
+	 * @return the snapshotDirectory
+	 */
+	public String getSnapshotDirectory() {
+		return snapshotDirectory;
+	}
+
+	/**
+	 * @return the snapshotIntervalInMs
+	 */
+	public long getSnapshotIntervalInMs() {
+		return snapshotIntervalInMs;
+	}
+
+	/**
+	 * The directory of the disk cache, <code>null</code> if the disk cache is disabled
+	 * @return the diskCacheDirectory
+	 */
+	public String getDiskCacheDirectory() {
+		return diskCacheDirectory;
+	}
+
+	/**
+	 * @return the maxDiskSizeInBytes
+	 */
+	public long getMaxDiskSizeInBytes() {
+		return maxDiskSizeInBytes;
+	}
+
+	/**
+	 * The max size of the entries in bytes, 0 if the cache is bounded by the number of entries
+	 * @return the maxWeightInBytes
+	 */
+	public long getMaxWeightInBytes() {
+		return maxWeightInBytes;
+	}
+
+	public WeightEstimate getWeightEstimate() {
+		return weightEstimate;
+	}
+
+	public boolean isSoftValues() {
+		return softValues;
+	}
+
+	/**
+	 * @return the time a miss of the value loader is remembered, 0 if the misses are not cached
+	 */
+	public long getNegativeCacheTtlInMs() {
+		return negativeCacheTtlInMs;
+	}
+
+	public Serializer getSerializer() {
+		return serializer;
+	}
+
 	@Override
 	public CachingMode getCachingMode() {
 		return CachingMode.LOCAL_JVM_CACHE;
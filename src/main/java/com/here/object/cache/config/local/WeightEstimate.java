@@ -0,0 +1,20 @@
+package com.here.object.cache.config.local;
+
+/**
+ * Decides how the size of an entry is measured when the local cache is bounded by a number of bytes rather than a number of entries.
+ * The size of an entry is measured once, when it is written.
+ *
+ * @author amajha
+ */
+public enum WeightEstimate {
+	/**
+	 * The length of the value serialized with the serializer of the cache, accurate for the on-the-wire size
+	 * but costs a serialization per write. The values which are not {@link java.io.Serializable} are estimated.
+	 */
+	SERIALIZED,
+	/**
+	 * An estimate of the heap footprint of the value, computed for the strings, the primitive wrappers, the arrays,
+	 * the collections and the maps of these types. The values of any other type are measured by their serialized length.
+	 */
+	ESTIMATED;
+}
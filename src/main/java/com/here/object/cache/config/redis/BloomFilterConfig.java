@@ -0,0 +1,110 @@
+package com.here.object.cache.config.redis;
+
+import com.here.object.cache.exceptions.InvalidConfigException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Settings of the bloom filter guarding the reads of a cache against the keys which were never written.
+ * <p>
+ * The filter is held in memory and records the keys written through the cache, a read of a key the filter has never seen
+ * returns without calling redis. The filter is rebuilt periodically from a scan of the keys of the cache, which clears the deleted
+ * and expired keys. The keys written by other processes are only seen after the next rebuild, unless the filter is shared :
+ * a shared filter is also kept in a redis bitmap updated by every writer and fetched periodically by every reader.
+ * The reads are not guarded until the first rebuild completes.
+ *
+ * @author amajha
+ */
+public class BloomFilterConfig {
+
+	// the max size of a redis bitmap
+	private static final long MAX_BITS = 1L << 32;
+
+	private final long expectedInsertions;
+	private final double falsePositiveProbability;
+	private long rebuildIntervalInMs = TimeUnit.HOURS.toMillis(1);
+	private boolean shared;
+	private long syncIntervalInMs;
+
+	/**
+	 * @param expectedInsertions       the number of keys the cache is expected to hold, the false positive probability is exceeded beyond it
+	 * @param falsePositiveProbability the probability of a read of a missing key still being sent to redis
+	 */
+	public BloomFilterConfig(long expectedInsertions, double falsePositiveProbability) {
+		if (expectedInsertions < 1)
+			throw new InvalidConfigException("Expected insertions should be at-least 1");
+		if (falsePositiveProbability <= 0 || falsePositiveProbability >= 1)
+			throw new InvalidConfigException("False positive probability should be within (0, 1)");
+		if (getBitCount(expectedInsertions, falsePositiveProbability) > MAX_BITS)
+			throw new InvalidConfigException("Bloom filter too large, lower the expected insertions or raise the false positive probability");
+		this.expectedInsertions = expectedInsertions;
+		this.falsePositiveProbability = falsePositiveProbability;
+	}
+
+	/**
+	 * @param rebuildInterval the time between two rebuilds of the filter from a scan of the keys, defaults to 1 hour
+	 * @param timeUnit        the time unit for rebuildInterval
+	 * @return the config
+	 */
+	public BloomFilterConfig withRebuildInterval(long rebuildInterval, TimeUnit timeUnit) {
+		if (rebuildInterval <= 0)
+			throw new InvalidConfigException("Rebuild interval should be positive");
+		this.rebuildIntervalInMs = TimeUnit.MILLISECONDS.convert(rebuildInterval, timeUnit);
+		return this;
+	}
+
+	/**
+	 * Share the filter with the other processes using the same cache id through a redis bitmap, a single process
+	 * rebuilds the bitmap at each rebuild interval and the others fetch it.
+	 *
+	 * @param syncInterval the time between two fetches of the shared bitmap
+	 * @param timeUnit     the time unit for syncInterval
+	 * @return the config
+	 */
+	public BloomFilterConfig withSharing(long syncInterval, TimeUnit timeUnit) {
+		if (syncInterval <= 0)
+			throw new InvalidConfigException("Sync interval should be positive");
+		this.shared = true;
+		this.syncIntervalInMs = TimeUnit.MILLISECONDS.convert(syncInterval, timeUnit);
+		return this;
+	}
+
+	private static double getBitCount(long expectedInsertions, double falsePositiveProbability) {
+		return -expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2));
+	}
+
+	/**
+	 * @return the number of bits of the filter, a multiple of 64
+	 */
+	public long getBitCount() {
+		long bitCount = (long) Math.ceil(getBitCount(expectedInsertions, falsePositiveProbability));
+		return Math.max(1, (bitCount + Long.SIZE - 1) / Long.SIZE) * Long.SIZE;
+	}
+
+	/**
+	 * @return the number of bits set per key
+	 */
+	public int getHashCount() {
+		return Math.max(1, (int) Math.round((double) getBitCount() / expectedInsertions * Math.log(2)));
+	}
+
+	public long getExpectedInsertions() {
+		return expectedInsertions;
+	}
+
+	public double getFalsePositiveProbability() {
+		return falsePositiveProbability;
+	}
+
+	public long getRebuildIntervalInMs() {
+		return rebuildIntervalInMs;
+	}
+
+	public boolean isShared() {
+		return shared;
+	}
+
+	public long getSyncIntervalInMs() {
+		return syncIntervalInMs;
+	}
+}
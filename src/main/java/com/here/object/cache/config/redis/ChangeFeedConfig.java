@@ -0,0 +1,51 @@
+package com.here.object.cache.config.redis;
+
+import com.here.object.cache.exceptions.InvalidConfigException;
+
+/**
+ * Settings of the change feed of a cache.
+ * <p>
+ * The writes and the deletes done through the cache append an event holding the type of the change and the key to a redis stream
+ * kept per cache id, the other processes read the stream through a consumer group and update their derived data from the keys changed
+ * rather than rescanning the cache. The events are appended once the write succeeds, without waiting for the append, hence an event
+ * may be lost if redis fails in between. The stream is capped to about the max length, the oldest events being trimmed first.
+ *
+ * @author amajha
+ */
+public class ChangeFeedConfig {
+
+	private long maxLength = 100000;
+	private boolean expirations;
+
+	/**
+	 * @param maxLength the number of events kept in the stream, trimmed approximately for efficiency, defaults to 100000.
+	 *                  A consumer lagging behind by more events misses the trimmed ones
+	 * @return the config
+	 */
+	public ChangeFeedConfig withMaxLength(long maxLength) {
+		if (maxLength < 1)
+			throw new InvalidConfigException("Max length should be at-least 1");
+		this.maxLength = maxLength;
+		return this;
+	}
+
+	/**
+	 * Also publish the expiry of the keys. The expiries are received from the keyspace notifications of the servers,
+	 * which must be enabled with <code>notify-keyspace-events Ex</code>. Each process publishing the changes subscribes
+	 * to the notifications, an expiry is appended once whatever the number of processes.
+	 *
+	 * @return the config
+	 */
+	public ChangeFeedConfig withExpirations() {
+		this.expirations = true;
+		return this;
+	}
+
+	public long getMaxLength() {
+		return maxLength;
+	}
+
+	public boolean isExpirations() {
+		return expirations;
+	}
+}
@@ -0,0 +1,147 @@
+package com.here.object.cache.config.redis;
+
+import com.here.object.cache.exceptions.InvalidConfigException;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Settings of the circuit breaker guarding the calls to redis.
+ * <p>
+ * The outcome of the last calls is kept in a sliding window, the breaker opens once the share of the failed calls,
+ * or of the calls slower than the slow call duration, reaches its threshold. While the breaker is open the calls
+ * are not sent to redis : the reads are served from the local cache, possibly stale, and the writes are dropped or queued
+ * as per the {@link WriteFallback}. After the wait duration a few calls are let through, the breaker closes if they all succeed.
+ *
+ * @author amajha
+ */
+public class CircuitBreakerConfig {
+
+	/**
+	 * What happens to the writes while the breaker is open, the local cache is updated in both cases
+	 */
+	public enum WriteFallback {
+		/**
+		 * The writes are not sent to redis
+		 */
+		DROP,
+		/**
+		 * The last write of each key is kept and sent to redis once the breaker closes,
+		 * the oldest writes are dropped once the queue is full
+		 */
+		QUEUE;
+	}
+
+	private float failureRateThreshold = 50;
+	private float slowCallRateThreshold = 100;
+	private long slowCallDurationInMs = 1000;
+	private int slidingWindowSize = 100;
+	private int minimumNumberOfCalls = 20;
+	private long waitDurationInOpenStateInMs = 30000;
+	private int permittedCallsInHalfOpenState = 5;
+	private WriteFallback writeFallback = WriteFallback.DROP;
+	private int maxQueuedWrites = 10000;
+
+	/**
+	 * @param failureRateThreshold the percentage of failed calls opening the breaker, defaults to 50
+	 * @return the config
+	 */
+	public CircuitBreakerConfig withFailureRateThreshold(float failureRateThreshold) {
+		if (failureRateThreshold <= 0 || failureRateThreshold > 100)
+			throw new InvalidConfigException("Failure rate threshold should be within (0, 100]");
+		this.failureRateThreshold = failureRateThreshold;
+		return this;
+	}
+
+	/**
+	 * @param slowCallRateThreshold the percentage of slow calls opening the breaker, defaults to 100
+	 * @param slowCallDuration      the duration above which a call is slow, defaults to 1 second
+	 * @param timeUnit              the time unit for slowCallDuration
+	 * @return the config
+	 */
+	public CircuitBreakerConfig withSlowCallThreshold(float slowCallRateThreshold, long slowCallDuration, TimeUnit timeUnit) {
+		if (slowCallRateThreshold <= 0 || slowCallRateThreshold > 100)
+			throw new InvalidConfigException("Slow call rate threshold should be within (0, 100]");
+		if (slowCallDuration <= 0)
+			throw new InvalidConfigException("Slow call duration should be positive");
+		this.slowCallRateThreshold = slowCallRateThreshold;
+		this.slowCallDurationInMs = TimeUnit.MILLISECONDS.convert(slowCallDuration, timeUnit);
+		return this;
+	}
+
+	/**
+	 * @param slidingWindowSize    the number of the last calls the rates are computed on, defaults to 100
+	 * @param minimumNumberOfCalls the number of calls required before the rates are computed, defaults to 20
+	 * @return the config
+	 */
+	public CircuitBreakerConfig withSlidingWindow(int slidingWindowSize, int minimumNumberOfCalls) {
+		if (slidingWindowSize < 1 || minimumNumberOfCalls < 1 || minimumNumberOfCalls > slidingWindowSize)
+			throw new InvalidConfigException("Minimum number of calls should be within [1, sliding window size]");
+		this.slidingWindowSize = slidingWindowSize;
+		this.minimumNumberOfCalls = minimumNumberOfCalls;
+		return this;
+	}
+
+	/**
+	 * @param waitDuration                  the time the breaker stays open before letting calls through, defaults to 30 seconds
+	 * @param timeUnit                      the time unit for waitDuration
+	 * @param permittedCallsInHalfOpenState the number of calls let through once the wait is over, defaults to 5
+	 * @return the config
+	 */
+	public CircuitBreakerConfig withWaitInOpenState(long waitDuration, TimeUnit timeUnit, int permittedCallsInHalfOpenState) {
+		if (waitDuration <= 0 || permittedCallsInHalfOpenState < 1)
+			throw new InvalidConfigException("Wait duration and permitted calls should be positive");
+		this.waitDurationInOpenStateInMs = TimeUnit.MILLISECONDS.convert(waitDuration, timeUnit);
+		this.permittedCallsInHalfOpenState = permittedCallsInHalfOpenState;
+		return this;
+	}
+
+	/**
+	 * @param writeFallback   what happens to the writes while the breaker is open, defaults to {@link WriteFallback#DROP}
+	 * @param maxQueuedWrites the max number of keys with a queued write, only used by {@link WriteFallback#QUEUE}
+	 * @return the config
+	 */
+	public CircuitBreakerConfig withWriteFallback(WriteFallback writeFallback, int maxQueuedWrites) {
+		if (maxQueuedWrites < 1)
+			throw new InvalidConfigException("Max queued writes should be at-least 1");
+		this.writeFallback = Objects.requireNonNull(writeFallback, "Write fallback cannot be null");
+		this.maxQueuedWrites = maxQueuedWrites;
+		return this;
+	}
+
+	public float getFailureRateThreshold() {
+		return failureRateThreshold;
+	}
+
+	public float getSlowCallRateThreshold() {
+		return slowCallRateThreshold;
+	}
+
+	public long getSlowCallDurationInMs() {
+		return slowCallDurationInMs;
+	}
+
+	public int getSlidingWindowSize() {
+		return slidingWindowSize;
+	}
+
+	public int getMinimumNumberOfCalls() {
+		return minimumNumberOfCalls;
+	}
+
+	public long getWaitDurationInOpenStateInMs() {
+		return waitDurationInOpenStateInMs;
+	}
+
+	public int getPermittedCallsInHalfOpenState() {
+		return permittedCallsInHalfOpenState;
+	}
+
+	public WriteFallback getWriteFallback() {
+		return writeFallback;
+	}
+
+	public int getMaxQueuedWrites() {
+		return maxQueuedWrites;
+	}
+}
@@ -0,0 +1,49 @@
+package com.here.object.cache.config.redis;
+
+import io.lettuce.core.ReadFrom;
+
+/**
+ * Decides which node of a replicated redis deployment serves the read commands (GET, EXISTS, SCAN, KEYS).
+ * Write commands are always sent to the master, irrespective of the selected policy.
+ *
+ * @author amajha
+ */
+public enum ReadPolicy {
+	/**
+	 * Read only from the master, this is the default behaviour
+	 */
+	MASTER(ReadFrom.MASTER),
+	/**
+	 * Read from the master, fall back to a replica if the master is not available
+	 */
+	MASTER_PREFERRED(ReadFrom.MASTER_PREFERRED),
+	/**
+	 * Read only from the replicas
+	 */
+	REPLICA(ReadFrom.REPLICA),
+	/**
+	 * Read from the replicas, fall back to the master if no replica is available
+	 */
+	REPLICA_PREFERRED(ReadFrom.REPLICA_PREFERRED),
+	/**
+	 * Read from the node with the lowest measured latency
+	 */
+	NEAREST(ReadFrom.NEAREST),
+	/**
+	 * Read from any node of the deployment
+	 */
+	ANY(ReadFrom.ANY);
+
+	private final ReadFrom readFrom;
+
+	ReadPolicy(ReadFrom readFrom) {
+		this.readFrom = readFrom;
+	}
+
+	/**
+	 * @return the lettuce {@link ReadFrom} setting for this policy
+	 */
+	public ReadFrom getReadFrom() {
+		return readFrom;
+	}
+}
@@ -3,12 +3,16 @@ package com.here.object.cache.config.redis;
 import static java.util.stream.Collectors.toList;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
 import com.here.object.cache.builder.CacheBuilder;
 import com.here.object.cache.config.CacheConfig;
 import com.here.object.cache.config.CachingMode;
+import com.here.object.cache.config.local.LocalCacheConfig;
+import com.here.object.cache.config.local.WeightEstimate;
 import com.here.object.cache.exceptions.InvalidConfigException;
 import com.here.object.cache.serializer.ByteSerializer;
 import com.here.object.cache.serializer.Serializer;
@@ -22,18 +26,52 @@ public class RedisCacheConfig implements CacheConfig{
 	
 	public enum RedisConnectionType{
 		SINGLE_SERVER,
-		CLUSTER_CONNECTION;
+		CLUSTER_CONNECTION,
+		SENTINEL_CONNECTION,
+		MASTER_REPLICA_CONNECTION,
+		SHARDED_CONNECTION;
 	}
 
+	// stateless, shared by all the configs so that caches using the default serializer can share their connections
+	private static final Serializer DEFAULT_SERIALIZER = new ByteSerializer();
+	// fails fast in a brownout, within a couple of the slow calls of the default circuit breaker
+	private static final long DEFAULT_COMMAND_TIMEOUT_IN_MS = 2000;
+
 	private String cacheId;
 	private final List<ServerAddress> redisServers;
 	private final RedisConnectionType redisConnectionType;
 	private final CachingMode cachingMode;
 	private boolean enableLocalCaching;
 	private int localCacheSize;
+	private String localCacheSnapshotDirectory;
+	private long localCacheSnapshotIntervalInMs;
+	private String localDiskCacheDirectory;
+	private long localDiskCacheMaxSizeInBytes;
+	private long localCacheMaxWeightInBytes;
+	private WeightEstimate localCacheWeightEstimate;
+	private boolean localCacheSoftValues;
+	private List<String> warmUpPatterns = Collections.emptyList();
+	private boolean hotKeyWarmUp;
+	private int warmUpConcurrency = 4;
 	private long expirationInMs;
+	private double ttlJitter;
+	private double earlyExpirationBeta;
+	private long expectedLoadTimeInMs;
+	private long negativeCacheTtlInMs;
+	private int pipelineMaxBatchSize;
+	private long pipelineWindowInNanos;
 	private int numThreads;
-	private Serializer serializer = new ByteSerializer();
+	private ReadPolicy readPolicy = ReadPolicy.MASTER;
+	private String sentinelMasterId;
+	private int shardVirtualNodes = 160;
+	private long commandTimeoutInMs = DEFAULT_COMMAND_TIMEOUT_IN_MS;
+	private long readTimeoutInMs;
+	private long writeTimeoutInMs;
+	private CircuitBreakerConfig circuitBreakerConfig;
+	private BloomFilterConfig bloomFilterConfig;
+	private ChangeFeedConfig changeFeedConfig;
+	private ValueSizeConfig valueSizeConfig;
+	private Serializer serializer = DEFAULT_SERIALIZER;
 
 
 	/**
@@ -47,7 +85,7 @@ public class RedisCacheConfig implements CacheConfig{
 			throw new InvalidConfigException("At-least one server is required while using the redis caching mode");
 
 		redisServers = Arrays.stream(servers).collect(toList());
-		redisConnectionType= serverCount>1?RedisConnectionType.CLUSTER_CONNECTION:RedisConnectionType.SINGLE_SERVER;
+		redisConnectionType= getConnectionType(cachingMode, serverCount);
 		this.cachingMode= cachingMode;
 		this.enableLocalCaching=false;
 	}
@@ -64,7 +102,7 @@ public class RedisCacheConfig implements CacheConfig{
 			throw new InvalidConfigException("At-least one server is required while using the redis caching mode");
 		
 		redisServers = Arrays.stream(servers).collect(toList());
-		redisConnectionType= serverCount>1?RedisConnectionType.CLUSTER_CONNECTION:RedisConnectionType.SINGLE_SERVER;
+		redisConnectionType= getConnectionType(cachingMode, serverCount);
 		this.cachingMode= cachingMode;
 		this.enableLocalCaching=enableLocalCaching;
 	}
@@ -83,11 +121,21 @@ public class RedisCacheConfig implements CacheConfig{
 
 		this.cacheId = cacheId;
 		redisServers = Arrays.stream(servers).collect(toList());
-		redisConnectionType= serverCount > 1 ? RedisConnectionType.CLUSTER_CONNECTION:RedisConnectionType.SINGLE_SERVER;
+		redisConnectionType= getConnectionType(cachingMode, serverCount);
 		this.cachingMode= cachingMode;
 		this.enableLocalCaching=enableLocalCaching;
 	}
 
+	private static RedisConnectionType getConnectionType(CachingMode cachingMode, int serverCount) {
+		if (CachingMode.SENTINEL.equals(cachingMode))
+			return RedisConnectionType.SENTINEL_CONNECTION;
+		if (CachingMode.MASTER_REPLICA.equals(cachingMode))
+			return RedisConnectionType.MASTER_REPLICA_CONNECTION;
+		if (CachingMode.SHARDED_REDIS_CACHE.equals(cachingMode))
+			return RedisConnectionType.SHARDED_CONNECTION;
+		return serverCount > 1 ? RedisConnectionType.CLUSTER_CONNECTION : RedisConnectionType.SINGLE_SERVER;
+	}
+
 	/**
 	 * This Expires the element in the cache after the specified time from the time element is first inserted
 	 * @param timeToLive
@@ -97,6 +145,63 @@ public class RedisCacheConfig implements CacheConfig{
 			this.expirationInMs = TimeUnit.MILLISECONDS.convert(timeToLive, timeUnit);
 	}
 
+	/**
+	 * Spread the expiry of the entries written with the default time to live, the time to live of each write is drawn
+	 * between <code>ttl * (1 - jitter)</code> and the time to live, so that the entries written together do not expire together.
+	 * @param jitter the fraction of the time to live, within [0, 1)
+	 */
+	public void withTtlJitter(double jitter){
+		if (jitter < 0 || jitter >= 1)
+			throw new InvalidConfigException("TTL jitter should be within [0, 1)");
+		this.ttlJitter = jitter;
+	}
+
+	/**
+	 * Refresh the entries before they expire, a read refreshes an entry in the background with a probability growing
+	 * as its expiry comes near and as the load of its value is slower. Only applies to the caches created with a value loader.
+	 * @param beta scales the probability of an early refresh, 1 is a sensible default, a larger value refreshes earlier
+	 * @param expectedLoadTime the expected duration of a load, replaced by the measured one as the values get loaded
+	 * @param timeUnit the time unit for expectedLoadTime
+	 */
+	public void withEarlyExpiration(double beta, long expectedLoadTime, TimeUnit timeUnit){
+		if (beta <= 0)
+			throw new InvalidConfigException("Early expiration beta should be positive");
+		if (expectedLoadTime < 0)
+			throw new InvalidConfigException("Expected load time cannot be negative");
+		this.earlyExpirationBeta = beta;
+		this.expectedLoadTimeInMs = TimeUnit.MILLISECONDS.convert(expectedLoadTime, timeUnit);
+	}
+
+	/**
+	 * Remember for a short time the keys for which the value loader found no value, the gets of these keys then return
+	 * <code>null</code> without calling the loader again. A miss is recorded in redis under a marker key holding an empty value,
+	 * read along with the value by a single command, and in the local cache if enabled, in which case the misses of redis are remembered as well.
+	 * @param negativeCacheTtl the time a miss is remembered
+	 * @param timeUnit the time unit for negativeCacheTtl
+	 */
+	public void withNegativeCaching(long negativeCacheTtl, TimeUnit timeUnit){
+		if (negativeCacheTtl <= 0)
+			throw new InvalidConfigException("Negative cache TTL should be positive");
+		this.negativeCacheTtlInMs = TimeUnit.MILLISECONDS.convert(negativeCacheTtl, timeUnit);
+	}
+
+	/**
+	 * Coalesce the commands issued concurrently by the threads using the cache into a single flush of the connection,
+	 * rather than a system call per command. A command waits for the window to elapse at most, or for the batch to fill up.
+	 * The caches with the same settings share a connection dedicated to the pipelining.
+	 * @param maxBatchSize the number of pending commands flushed without waiting for the window to elapse
+	 * @param window the time a command may wait for other commands before being flushed, a few tens of microseconds
+	 * @param timeUnit the time unit for window
+	 */
+	public void withAutoPipelining(int maxBatchSize, long window, TimeUnit timeUnit){
+		if (maxBatchSize < 1)
+			throw new InvalidConfigException("Max batch size should be at-least 1");
+		if (window <= 0)
+			throw new InvalidConfigException("Flush window should be positive");
+		this.pipelineMaxBatchSize = maxBatchSize;
+		this.pipelineWindowInNanos = TimeUnit.NANOSECONDS.convert(window, timeUnit);
+	}
+
 	/**
 	 * Enables local cache for faster retrieval, use this option only if your cache is not write intensive, back sync is not supported while using local cache
 	 * @param cacheSize the max number of elements to be stored on the cache
@@ -110,6 +215,101 @@ public class RedisCacheConfig implements CacheConfig{
 		this.serializer = serializer;
 	}
 
+	/**
+	 * Persist the local cache to a snapshot file, so that a restarted JVM starts with a warm local cache. Only applicable if the local cache is enabled.
+	 * @param snapshotDirectory the directory in which the snapshot file is stored
+	 * @param snapshotInterval the interval between two snapshots, 0 to write the snapshot only when the JVM shuts down
+	 * @param timeUnit the time unit for snapshotInterval
+	 * @see LocalCacheConfig#withSnapshot(String, long, TimeUnit)
+	 */
+	public void withLocalCacheSnapshot(String snapshotDirectory, long snapshotInterval, TimeUnit timeUnit){
+		this.localCacheSnapshotDirectory = snapshotDirectory;
+		this.localCacheSnapshotIntervalInMs = TimeUnit.MILLISECONDS.convert(snapshotInterval, timeUnit);
+	}
+
+	/**
+	 * Keep the entries evicted from the local cache on the disk, the disk is looked up before querying redis. Only applicable if the local cache is enabled.
+	 * @param diskCacheDirectory the directory in which the segment files are stored
+	 * @param maxDiskSizeInBytes the max size of the segment files on the disk
+	 * @see LocalCacheConfig#withDiskCache(String, long)
+	 */
+	public void withLocalDiskCache(String diskCacheDirectory, long maxDiskSizeInBytes){
+		if (maxDiskSizeInBytes <= 0)
+			throw new InvalidConfigException("Max disk size should be greater than 0");
+		this.localDiskCacheDirectory = diskCacheDirectory;
+		this.localDiskCacheMaxSizeInBytes = maxDiskSizeInBytes;
+	}
+
+	/**
+	 * Bound the local cache by the size of its entries rather than by their number. Only applicable if the local cache is enabled.
+	 * @param maxWeightInBytes the max size of the entries held on the heap
+	 * @param weightEstimate how the entries are measured
+	 * @see LocalCacheConfig#withMaxWeight(long, WeightEstimate)
+	 */
+	public void withLocalCacheMaxWeight(long maxWeightInBytes, WeightEstimate weightEstimate){
+		if (maxWeightInBytes <= 0)
+			throw new InvalidConfigException("Max weight should be greater than 0");
+		this.localCacheMaxWeightInBytes = maxWeightInBytes;
+		this.localCacheWeightEstimate = Objects.requireNonNull(weightEstimate, "Weight estimate cannot be null");
+	}
+
+	/**
+	 * Bound the local cache by the size of its entries, the budget being the given fraction of the max heap size of the JVM.
+	 * Only applicable if the local cache is enabled.
+	 * @param heapFraction the share of the max heap size, within (0, 1)
+	 * @param weightEstimate how the entries are measured
+	 * @see LocalCacheConfig#withMaxHeapFraction(double, WeightEstimate)
+	 */
+	public void withLocalCacheHeapFraction(double heapFraction, WeightEstimate weightEstimate){
+		if (heapFraction <= 0 || heapFraction >= 1)
+			throw new InvalidConfigException("Heap fraction should be within (0, 1)");
+		withLocalCacheMaxWeight((long) (Runtime.getRuntime().maxMemory() * heapFraction), weightEstimate);
+	}
+
+	/**
+	 * Hold the values of the local cache through soft references, reclaimed by the garbage collector when the heap runs short.
+	 * Only applicable if the local cache is enabled.
+	 */
+	public void withLocalCacheSoftValues(){
+		this.localCacheSoftValues = true;
+	}
+
+	/**
+	 * Load the keys matching the given patterns from redis into the local cache when the cache is created. Only applicable if the local cache is enabled.
+	 * @param keyPatterns the key patterns to be loaded
+	 */
+	public void withWarmUp(String... keyPatterns){
+		this.warmUpPatterns = Arrays.asList(keyPatterns);
+	}
+
+	/**
+	 * Record the keys held by the local cache in redis when the cache is closed,
+	 * and load these keys into the local cache when the cache is created again. Only applicable if the local cache is enabled.
+	 */
+	public void withHotKeyWarmUp(){
+		this.hotKeyWarmUp = true;
+	}
+
+	/**
+	 * The max number of scans and batch fetches running in parallel while warming up the local cache, defaults to 4
+	 * @param warmUpConcurrency the concurrency limit
+	 */
+	public void setWarmUpConcurrency(int warmUpConcurrency) {
+		if (warmUpConcurrency < 1)
+			throw new InvalidConfigException("Warm-up concurrency should be at-least 1");
+		this.warmUpConcurrency = warmUpConcurrency;
+	}
+
+	/**
+	 * Route the read commands as per the given policy, write commands are always sent to the master.
+	 * In the stand-alone mode any policy other than {@link ReadPolicy#MASTER} connects to the given servers as a master/replica setup,
+	 * if a single server is given the replicas are discovered from it.
+	 * @param readPolicy the {@link ReadPolicy} to be used for reads
+	 */
+	public void withReadPolicy(ReadPolicy readPolicy){
+		this.readPolicy = Objects.requireNonNull(readPolicy, "Read Policy cannot be null");
+	}
+
 	/**
 	 * Enables using the local-caching with local cache size as 500
 	 */
@@ -118,6 +318,85 @@ public class RedisCacheConfig implements CacheConfig{
 		this.localCacheSize=500;
 	}
 
+	/**
+	 * The name of the master monitored by the sentinels, required while using the {@link CachingMode#SENTINEL} mode
+	 * @param sentinelMasterId the master name as configured on the sentinels
+	 */
+	public void withSentinelMasterId(String sentinelMasterId){
+		this.sentinelMasterId = sentinelMasterId;
+	}
+
+	/**
+	 * The number of points of a server of weight 1 on the hash ring of the {@link CachingMode#SHARDED_REDIS_CACHE} mode, defaults to 160.
+	 * More points spread the keys more evenly across the servers at the cost of a larger ring.
+	 * @param shardVirtualNodes the number of points per unit of weight
+	 * @see ServerAddress#withWeight(int)
+	 */
+	public void setShardVirtualNodes(int shardVirtualNodes){
+		if (shardVirtualNodes < 1)
+			throw new InvalidConfigException("Virtual nodes should be at-least 1");
+		this.shardVirtualNodes = shardVirtualNodes;
+	}
+
+	/**
+	 * The timeout applied by the client to every command of this cache, including the batch and the bulk ones, defaults to 2 seconds.
+	 * @param commandTimeout the timeout
+	 * @param timeUnit the time unit for commandTimeout
+	 */
+	public void setCommandTimeout(long commandTimeout, TimeUnit timeUnit){
+		if (commandTimeout <= 0)
+			throw new InvalidConfigException("Command timeout should be positive");
+		this.commandTimeoutInMs = TimeUnit.MILLISECONDS.convert(commandTimeout, timeUnit);
+	}
+
+	/**
+	 * The time the single key operations of this cache wait for redis before failing with a {@link io.lettuce.core.RedisCommandTimeoutException},
+	 * both default to the command timeout.
+	 * @param readTimeout the timeout of the reads
+	 * @param writeTimeout the timeout of the writes and of the atomic operations
+	 * @param timeUnit the time unit for the timeouts
+	 */
+	public void withTimeouts(long readTimeout, long writeTimeout, TimeUnit timeUnit){
+		if (readTimeout <= 0 || writeTimeout <= 0)
+			throw new InvalidConfigException("Timeouts should be positive");
+		this.readTimeoutInMs = TimeUnit.MILLISECONDS.convert(readTimeout, timeUnit);
+		this.writeTimeoutInMs = TimeUnit.MILLISECONDS.convert(writeTimeout, timeUnit);
+	}
+
+	/**
+	 * Guard the calls to redis with a circuit breaker, while the breaker is open the reads are served by the local cache
+	 * and the writes are dropped or queued. The atomic operations fail with a {@link com.here.object.cache.exceptions.CacheUnavailableException}.
+	 * @param circuitBreakerConfig the settings of the breaker
+	 */
+	public void withCircuitBreaker(CircuitBreakerConfig circuitBreakerConfig){
+		this.circuitBreakerConfig = Objects.requireNonNull(circuitBreakerConfig, "Circuit breaker config cannot be null");
+	}
+
+	/**
+	 * Guard the reads with a bloom filter of the keys written, the reads of the keys never written return without calling redis.
+	 * All the processes writing to the cache should enable the filter, see {@link BloomFilterConfig}.
+	 * @param bloomFilterConfig the settings of the filter
+	 */
+	public void withBloomFilter(BloomFilterConfig bloomFilterConfig){
+		this.bloomFilterConfig = Objects.requireNonNull(bloomFilterConfig, "Bloom filter config cannot be null");
+	}
+
+	/**
+	 * Publish the changes of the keys to a redis stream read by the other processes through consumer groups, see {@link ChangeFeedConfig}.
+	 * @param changeFeedConfig the settings of the change feed
+	 */
+	public void withChangeFeed(ChangeFeedConfig changeFeedConfig){
+		this.changeFeedConfig = Objects.requireNonNull(changeFeedConfig, "Change feed config cannot be null");
+	}
+
+	/**
+	 * Track the size of the values written and report or reject the large ones, see {@link ValueSizeConfig}.
+	 * @param valueSizeConfig the settings of the tracking
+	 */
+	public void withValueSizeTracking(ValueSizeConfig valueSizeConfig){
+		this.valueSizeConfig = Objects.requireNonNull(valueSizeConfig, "Value size config cannot be null");
+	}
+
 	/**
 	 * @return the redisServers
 	 */
@@ -162,10 +441,63 @@ public class RedisCacheConfig implements CacheConfig{
 	}
 
 	/**
-	 * Set the number of netty threads to be used for Redis Transport
+	 * The directory of the local cache snapshot file, <code>null</code> if the snapshot is disabled
+	 * @return the directory
+	 */
+	public String getLocalCacheSnapshotDirectory() {
+		return localCacheSnapshotDirectory;
+	}
+
+	public long getLocalCacheSnapshotIntervalInMs() {
+		return localCacheSnapshotIntervalInMs;
+	}
+
+	/**
+	 * The directory of the local disk cache, <code>null</code> if the disk cache is disabled
+	 * @return the directory
+	 */
+	public String getLocalDiskCacheDirectory() {
+		return localDiskCacheDirectory;
+	}
+
+	public long getLocalDiskCacheMaxSizeInBytes() {
+		return localDiskCacheMaxSizeInBytes;
+	}
+
+	/**
+	 * The max size of the entries of the local cache in bytes, 0 if the local cache is bounded by the number of entries
+	 * @return the size
+	 */
+	public long getLocalCacheMaxWeightInBytes() {
+		return localCacheMaxWeightInBytes;
+	}
+
+	public WeightEstimate getLocalCacheWeightEstimate() {
+		return localCacheWeightEstimate;
+	}
+
+	public boolean isLocalCacheSoftValues() {
+		return localCacheSoftValues;
+	}
+
+	public List<String> getWarmUpPatterns() {
+		return warmUpPatterns;
+	}
+
+	public boolean isHotKeyWarmUp() {
+		return hotKeyWarmUp;
+	}
+
+	public int getWarmUpConcurrency() {
+		return warmUpConcurrency;
+	}
+
+	/**
+	 * Set the number of netty threads to be used for Redis Transport, the value is applied to both the I/O and the computation thread pools.
 	 * Min Value is CacheBuilder.MIN_NETTY_THREADS, and Max Value is CacheBuilder.MAX_NETTY_THREADS
 	 * even if you set the value to a lower value than MIN_NETTY_THREADS, 32 threads will be used,
 	 * and if you set it more than MAX_NETTY_THREADS then MAX_NETTY_THREADS would be used.
+	 * The threads are shared by all the caches pointing to the same servers, these caches must set the same value or fail to build.
 	 * @param numThreads
 	 */
 	public void setNumThreads(int numThreads) {
@@ -185,7 +517,105 @@ public class RedisCacheConfig implements CacheConfig{
 		return expirationInMs;
 	}
 
+	public double getTtlJitter() {
+		return ttlJitter;
+	}
+
+	/**
+	 * @return the factor of the early expiration, 0 if disabled
+	 */
+	public double getEarlyExpirationBeta() {
+		return earlyExpirationBeta;
+	}
+
+	public long getExpectedLoadTimeInMs() {
+		return expectedLoadTimeInMs;
+	}
+
+	/**
+	 * @return the time a miss of the value loader is remembered, 0 if the misses are not cached
+	 */
+	public long getNegativeCacheTtlInMs() {
+		return negativeCacheTtlInMs;
+	}
+
+	public boolean isAutoPipelining() {
+		return pipelineMaxBatchSize != 0;
+	}
+
+	public int getPipelineMaxBatchSize() {
+		return pipelineMaxBatchSize;
+	}
+
+	public long getPipelineWindowInNanos() {
+		return pipelineWindowInNanos;
+	}
+
 	public Serializer getSerializer() {
 		return serializer;
 	}
+
+	/**
+	 * The name of the master monitored by the sentinels
+	 * @return the master name
+	 */
+	public String getSentinelMasterId() {
+		return sentinelMasterId;
+	}
+
+	public int getShardVirtualNodes() {
+		return shardVirtualNodes;
+	}
+
+	public long getCommandTimeoutInMs() {
+		return commandTimeoutInMs;
+	}
+
+	public long getReadTimeoutInMs() {
+		return readTimeoutInMs != 0 ? readTimeoutInMs : commandTimeoutInMs;
+	}
+
+	public long getWriteTimeoutInMs() {
+		return writeTimeoutInMs != 0 ? writeTimeoutInMs : commandTimeoutInMs;
+	}
+
+	/**
+	 * The settings of the circuit breaker, <code>null</code> if the breaker is disabled
+	 * @return the config
+	 */
+	public CircuitBreakerConfig getCircuitBreakerConfig() {
+		return circuitBreakerConfig;
+	}
+
+	/**
+	 * The settings of the bloom filter, <code>null</code> if the filter is disabled
+	 * @return the config
+	 */
+	public BloomFilterConfig getBloomFilterConfig() {
+		return bloomFilterConfig;
+	}
+
+	/**
+	 * The settings of the change feed, <code>null</code> if the change feed is disabled
+	 * @return the config
+	 */
+	public ChangeFeedConfig getChangeFeedConfig() {
+		return changeFeedConfig;
+	}
+
+	/**
+	 * The settings of the tracking of the value sizes, <code>null</code> if the tracking is disabled
+	 * @return the config
+	 */
+	public ValueSizeConfig getValueSizeConfig() {
+		return valueSizeConfig;
+	}
+
+	/**
+	 * The policy used for routing the read commands
+	 * @return the {@link ReadPolicy}
+	 */
+	public ReadPolicy getReadPolicy() {
+		return readPolicy;
+	}
 }
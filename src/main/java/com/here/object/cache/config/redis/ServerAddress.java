@@ -1,5 +1,6 @@
 package com.here.object.cache.config.redis;
 
+import com.here.object.cache.exceptions.InvalidConfigException;
 import io.lettuce.core.RedisURI;
 
 /**
@@ -13,6 +14,7 @@ public class ServerAddress{
 	private String connectionString;
 	private boolean isSSL;
 	private int database = -1;
+	private int weight = 1;
 	
 	/**
 	 * @param host host-name of the server to connect
@@ -75,4 +77,20 @@ public class ServerAddress{
 	public int getDatabase() {
 		return database;
 	}
+
+	/**
+	 * The share of the keys held by this server relative to the other servers, only used by the sharded mode
+	 * @param weight the weight of the server, defaults to 1
+	 * @return this server address
+	 */
+	public ServerAddress withWeight(int weight) {
+		if (weight < 1)
+			throw new InvalidConfigException("Weight should be at-least 1");
+		this.weight = weight;
+		return this;
+	}
+
+	public int getWeight() {
+		return weight;
+	}
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.here.object.cache.config.redis;
+
+import com.here.object.cache.exceptions.InvalidConfigException;
+
+/**
+ * Settings of the tracking of the size of the values written to a cache.
+ * <p>
+ * The values are serialized by the writing thread rather than by the event loop of the connection, their sizes are recorded
+ * in a histogram per cache id, and the values larger than the threshold are reported along with their keys so that the callers
+ * writing them can be found. The values larger than the max size, if any, are rejected before anything is sent.
+ * The cache uses a connection of its own, hence a large value only delays the commands of the cache writing it.
+ *
+ * @author amajha
+ */
+public class ValueSizeConfig {
+
+	private long largeValueThresholdInBytes = 1024 * 1024;
+	private long maxValueSizeInBytes;
+
+	/**
+	 * @param largeValueThresholdInBytes the size above which the values are reported, defaults to 1 MB
+	 * @return the config
+	 */
+	public ValueSizeConfig withLargeValueThreshold(long largeValueThresholdInBytes) {
+		if (largeValueThresholdInBytes < 1)
+			throw new InvalidConfigException("Large value threshold should be at-least 1 byte");
+		this.largeValueThresholdInBytes = largeValueThresholdInBytes;
+		return this;
+	}
+
+	/**
+	 * Reject the values above the given size, no limit is applied by default
+	 *
+	 * @param maxValueSizeInBytes the size of the largest value accepted
+	 * @return the config
+	 */
+	public ValueSizeConfig withMaxValueSize(long maxValueSizeInBytes) {
+		if (maxValueSizeInBytes < 1)
+			throw new InvalidConfigException("Max value size should be at-least 1 byte");
+		this.maxValueSizeInBytes = maxValueSizeInBytes;
+		return this;
+	}
+
+	public long getLargeValueThresholdInBytes() {
+		return largeValueThresholdInBytes;
+	}
+
+	/**
+	 * @return the size of the largest value accepted, 0 if there is no limit
+	 */
+	public long getMaxValueSizeInBytes() {
+		return maxValueSizeInBytes;
+	}
+}
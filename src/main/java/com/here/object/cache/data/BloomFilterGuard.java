@@ -0,0 +1,219 @@
+package com.here.object.cache.data;
+
+import com.here.object.cache.config.redis.BloomFilterConfig;
+import io.lettuce.core.cluster.api.reactive.RedisClusterReactiveCommands;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.output.ByteArrayOutput;
+import io.lettuce.core.output.IntegerOutput;
+import io.lettuce.core.output.StatusOutput;
+import io.lettuce.core.protocol.CommandArgs;
+import io.lettuce.core.protocol.CommandType;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the bloom filter of the keys of a cache, see {@link BloomFilterConfig}.
+ * <p>
+ * A rebuild fills a new filter from a scan of the keys while the keys written in the meantime are recorded in both filters,
+ * the new filter replaces the current one once the scan completes.
+ * <p>
+ * A shared filter is kept in two redis bitmaps : the filter, only written once it has been rebuilt, and the pending bitmap
+ * recording the keys written since the start of the last rebuild. A rebuild clears the pending bitmap, scans the keys
+ * and replaces the filter with the union of the keys scanned and the pending bitmap, hence the keys written during the scan are kept.
+ * The keys of both bitmaps share a hash tag so that the scripts run on a single node of a cluster.
+ *
+ * @param <T> The datatype that can be held within the cache
+ * @author amajha
+ */
+final class BloomFilterGuard<T> {
+
+	private static final String FILTER_KEY_PREFIX = "__object_cache_bloom:";
+
+	// KEYS[1] : filter, KEYS[2] : pending bitmap, ARGV : the offsets of the bits of the key
+	private static final String RECORD_SCRIPT =
+			"local filter = redis.call('EXISTS', KEYS[1]) == 1 " +
+			"for i = 1, #ARGV do " +
+			"if filter then redis.call('SETBIT', KEYS[1], ARGV[i], 1) end " +
+			"redis.call('SETBIT', KEYS[2], ARGV[i], 1) " +
+			"end " +
+			"return 0";
+
+	// KEYS[1] : filter, KEYS[2] : pending bitmap, ARGV[1] : the bits of the keys scanned, ARGV[2] : time to live of the filter in ms
+	private static final String PUBLISH_SCRIPT =
+			"redis.call('SET', KEYS[1], ARGV[1]) " +
+			"if redis.call('EXISTS', KEYS[2]) == 1 then redis.call('BITOP', 'OR', KEYS[1], KEYS[1], KEYS[2]) end " +
+			"redis.call('PEXPIRE', KEYS[1], ARGV[2]) " +
+			"return 0";
+
+	private final RedisCache<T> cache;
+	private final BloomFilterConfig config;
+	private final String cacheId;
+	private final Supplier<Flux<String>> keyScanner;
+	// null unless the filter is shared
+	private final RedisClusterReactiveCommands<String, T> commands;
+	private final RedisCodec<String, T> codec;
+	private final String filterKey;
+	private final String pendingKey;
+	private final String lockKey;
+	private final AtomicBoolean refreshing = new AtomicBoolean();
+	private final List<ScheduledFuture<?>> tasks = new ArrayList<>();
+	private volatile KeyBloomFilter filter;
+	// receives the keys written during a rebuild, null otherwise
+	private volatile KeyBloomFilter nextFilter;
+	// false until the filter holds all the keys of the cache
+	private volatile boolean ready;
+
+	/**
+	 * @param cache      the cache the failures of the filter are reported to
+	 * @param keyScanner scans the keys of the cache, without their prefix
+	 * @param commands   the commands of the server holding the shared filter, ignored unless the filter is shared
+	 */
+	BloomFilterGuard(RedisCache<T> cache, BloomFilterConfig config, String cacheId, Supplier<Flux<String>> keyScanner,
+					 RedisClusterReactiveCommands<String, T> commands, RedisCodec<String, T> codec) {
+		this.cache = cache;
+		this.config = config;
+		this.cacheId = cacheId;
+		this.keyScanner = keyScanner;
+		this.commands = config.isShared() ? commands : null;
+		this.codec = codec;
+		this.filterKey = getFilterKey(cacheId);
+		this.pendingKey = filterKey + ":pending";
+		this.lockKey = filterKey + ":lock";
+		this.filter = new KeyBloomFilter(config.getBitCount(), config.getHashCount());
+
+		tasks.add(CacheExecutors.getScheduler().scheduleWithFixedDelay(() -> refresh(this::rebuild),
+				0, config.getRebuildIntervalInMs(), TimeUnit.MILLISECONDS));
+		if (config.isShared())
+			tasks.add(CacheExecutors.getScheduler().scheduleWithFixedDelay(() -> refresh(this::sync),
+					config.getSyncIntervalInMs(), config.getSyncIntervalInMs(), TimeUnit.MILLISECONDS));
+	}
+
+	/**
+	 * @return the key of the shared filter, routes the commands on the shared filter
+	 */
+	static String getFilterKey(String cacheId) {
+		return FILTER_KEY_PREFIX + "{" + cacheId + "}";
+	}
+
+	/**
+	 * @return false if the key has definitely not been written, true if it may have been or if the filter is not built yet
+	 */
+	boolean mightContain(String key) {
+		return !ready || filter.mightContain(key);
+	}
+
+	/**
+	 * Record a key about to be written
+	 */
+	void record(String key) {
+		// read before the current filter, see replace()
+		KeyBloomFilter next = this.nextFilter;
+		filter.put(key);
+		if (next != null)
+			next.put(key);
+
+		if (commands == null)
+			return;
+
+		CommandArgs<String, T> args = new CommandArgs<>(codec).add(RECORD_SCRIPT).add(2).addKey(filterKey).addKey(pendingKey);
+		for (long offset : filter.offsets(key))
+			args.add(offset);
+		commands.dispatch(CommandType.EVAL, new IntegerOutput<>(codec), args)
+				.subscribe(e -> {
+				}, e -> cache.reportFailure(CacheOperation.BLOOM_FILTER_SYNC, key, e));
+	}
+
+	/**
+	 * The rebuilds and the syncs run on the refresh threads, one at a time, as they may take long
+	 */
+	private void refresh(Runnable task) {
+		if (!refreshing.compareAndSet(false, true))
+			return;
+
+		CacheExecutors.getRefreshExecutor().execute(() -> {
+			try {
+				task.run();
+			} catch (RuntimeException e) {
+				cache.reportFailure(CacheOperation.BLOOM_FILTER_SYNC, null, e);
+			} finally {
+				refreshing.set(false);
+			}
+		});
+	}
+
+	private void rebuild() {
+		if (commands == null) {
+			KeyBloomFilter fresh = filter.emptyCopy();
+			nextFilter = fresh;
+			try {
+				keyScanner.get().doOnNext(fresh::put).then().block();
+				replace(fresh);
+			} finally {
+				nextFilter = null;
+			}
+			return;
+		}
+
+		// a single process rebuilds the shared filter, the others fetch it
+		CommandArgs<String, T> lockArgs = new CommandArgs<>(codec).addKey(lockKey).add(cacheId).add("NX").add("PX").add(config.getRebuildIntervalInMs());
+		String locked = commands.<String>dispatch(CommandType.SET, new StatusOutput<>(codec), lockArgs).next().block();
+		if (!"OK".equals(locked)) {
+			sync();
+			return;
+		}
+
+		KeyBloomFilter fresh = filter.emptyCopy();
+		nextFilter = fresh;
+		try {
+			commands.dispatch(CommandType.DEL, new IntegerOutput<>(codec), new CommandArgs<>(codec).addKey(pendingKey)).next().block();
+			keyScanner.get().doOnNext(fresh::put).then().block();
+
+			// the filter outlives a missed rebuild, but not a cache no longer in use
+			CommandArgs<String, T> args = new CommandArgs<>(codec).add(PUBLISH_SCRIPT).add(2).addKey(filterKey).addKey(pendingKey)
+					.add(fresh.toByteArray()).add(3 * config.getRebuildIntervalInMs());
+			commands.dispatch(CommandType.EVAL, new IntegerOutput<>(codec), args).next().block();
+			fetchInto(fresh);
+			replace(fresh);
+		} finally {
+			nextFilter = null;
+		}
+	}
+
+	/**
+	 * Replace the filter with the shared one, the filter is left as is until a process has rebuilt the shared one
+	 */
+	private void sync() {
+		KeyBloomFilter fresh = filter.emptyCopy();
+		nextFilter = fresh;
+		try {
+			if (fetchInto(fresh))
+				replace(fresh);
+		} finally {
+			nextFilter = null;
+		}
+	}
+
+	private boolean fetchInto(KeyBloomFilter fresh) {
+		byte[] bitmap = commands.<byte[]>dispatch(CommandType.GET, new ByteArrayOutput<>(codec), new CommandArgs<>(codec).addKey(filterKey)).next().block();
+		if (bitmap == null)
+			return false;
+		fresh.or(bitmap);
+		return true;
+	}
+
+	private void replace(KeyBloomFilter fresh) {
+		// the filter is replaced before the next filter is cleared, hence a concurrent record() puts its key in the new filter
+		filter = fresh;
+		ready = true;
+	}
+
+	void close() {
+		tasks.forEach(e -> e.cancel(false));
+	}
+}
@@ -0,0 +1,63 @@
+package com.here.object.cache.data;
+
+import com.here.object.cache.exceptions.NonUniqueKeyException;
+import com.here.object.cache.exceptions.ObjectNotSerialzableException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A batch of operations of a cache sent together, see {@link DataCache#batch()}.
+ * <p>
+ * The operations are queued until {@link #execute()}, the remote caches then send them in a single write per server,
+ * hence the batch costs a single round trip whatever the number and the mix of the operations.
+ * The operations are not atomic, each one completes or fails on its own through its future.
+ * A batch is executed once, it is not thread safe.
+ *
+ * @param <T> The datatype that can be held within the cache
+ * @author amajha
+ */
+public interface CacheBatch<T> {
+
+	/**
+	 * @return the future of the value, completing with <code>null</code> if the key is not present
+	 */
+	CompletableFuture<T> get(String key);
+
+	/**
+	 * @return the future of the stored value, failing with a {@link NonUniqueKeyException} if the key is already present
+	 * @throws ObjectNotSerialzableException when the object that is being stored cannot be serialized
+	 */
+	CompletableFuture<T> store(String key, T t);
+
+	/**
+	 * @return the future of the stored value, failing with a {@link NonUniqueKeyException} if the key is already present
+	 * @throws ObjectNotSerialzableException when the object that is being stored cannot be serialized
+	 */
+	CompletableFuture<T> store(String key, T t, long timeToLive, TimeUnit timeUnit);
+
+	/**
+	 * @return the future of the stored value
+	 * @throws ObjectNotSerialzableException when the object that is being stored cannot be serialized
+	 */
+	CompletableFuture<T> replace(String key, T t);
+
+	/**
+	 * @return the future of the stored value
+	 * @throws ObjectNotSerialzableException when the object that is being stored cannot be serialized
+	 */
+	CompletableFuture<T> replace(String key, T t, long timeToLive, TimeUnit timeUnit);
+
+	/**
+	 * @return the future completing with <code>true</code> if the key was deleted, <code>false</code> if it was not present
+	 */
+	CompletableFuture<Boolean> delete(String key);
+
+	/**
+	 * Send the queued operations
+	 *
+	 * @return the future completing once all the operations completed, failing if any of them failed
+	 * @throws IllegalStateException if the batch has already been executed
+	 */
+	CompletableFuture<Void> execute();
+}
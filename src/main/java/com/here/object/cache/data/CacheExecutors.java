@@ -0,0 +1,63 @@
+package com.here.object.cache.data;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * The background threads shared by all the caches, used for the house-keeping tasks which must not run on the caller thread.
+ *
+ * @author amajha
+ */
+final class CacheExecutors {
+
+	private static ScheduledExecutorService scheduler;
+	private static ExecutorService eventExecutor;
+	private static ExecutorService refreshExecutor;
+	private static ScheduledExecutorService flushScheduler;
+
+	private CacheExecutors() {
+	}
+
+	/**
+	 * @return the daemon scheduler for periodic house-keeping tasks
+	 */
+	static synchronized ScheduledExecutorService getScheduler() {
+		if (scheduler == null)
+			scheduler = Executors.newSingleThreadScheduledExecutor(
+					new ThreadFactoryBuilder().setDaemon(true).setNameFormat("object-cache-scheduler-%d").build());
+		return scheduler;
+	}
+
+	/**
+	 * @return the daemon thread delivering the events to the listeners, a single thread so that the events are delivered in order
+	 */
+	static synchronized ExecutorService getEventExecutor() {
+		if (eventExecutor == null)
+			eventExecutor = Executors.newSingleThreadExecutor(
+					new ThreadFactoryBuilder().setDaemon(true).setNameFormat("object-cache-events-%d").build());
+		return eventExecutor;
+	}
+
+	/**
+	 * @return the daemon threads running the background loads, the loads may block hence the threads are created on demand
+	 */
+	static synchronized ExecutorService getRefreshExecutor() {
+		if (refreshExecutor == null)
+			refreshExecutor = Executors.newCachedThreadPool(
+					new ThreadFactoryBuilder().setDaemon(true).setNameFormat("object-cache-refresh-%d").build());
+		return refreshExecutor;
+	}
+
+	/**
+	 * @return the daemon scheduler flushing the pipelined commands, apart from the house-keeping tasks which may take long
+	 */
+	static synchronized ScheduledExecutorService getFlushScheduler() {
+		if (flushScheduler == null)
+			flushScheduler = Executors.newSingleThreadScheduledExecutor(
+					new ThreadFactoryBuilder().setDaemon(true).setNameFormat("object-cache-flush-%d").build());
+		return flushScheduler;
+	}
+}
@@ -0,0 +1,59 @@
+package com.here.object.cache.data;
+
+import com.here.object.cache.serializer.KeyCodec;
+import io.lettuce.core.codec.RedisCodec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+
+/**
+ * Encodes the keys of the typed caches as the id of the cache followed by the bytes written by the {@link KeyCodec},
+ * the key is written straight to the buffer sent to redis without any intermediate string.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ * @author amajha
+ */
+final class CacheKeyCodec<K, V> implements RedisCodec<K, V> {
+
+	private final byte[] prefix;
+	private final KeyCodec<K> keyCodec;
+	private final Function<V, byte[]> valueEncoder;
+	private final Function<byte[], V> valueDecoder;
+
+	CacheKeyCodec(String cacheId, KeyCodec<K> keyCodec, Function<V, byte[]> valueEncoder, Function<byte[], V> valueDecoder) {
+		this.prefix = cacheId.getBytes(StandardCharsets.UTF_8);
+		this.keyCodec = keyCodec;
+		this.valueEncoder = valueEncoder;
+		this.valueDecoder = valueDecoder;
+	}
+
+	@Override
+	public K decodeKey(ByteBuffer bytes) {
+		ByteBuffer key = bytes.duplicate();
+		key.position(key.position() + prefix.length);
+		return keyCodec.decode(key);
+	}
+
+	@Override
+	public V decodeValue(ByteBuffer bytes) {
+		byte[] arr = new byte[bytes.remaining()];
+		bytes.get(arr);
+		return valueDecoder.apply(arr);
+	}
+
+	@Override
+	public ByteBuffer encodeKey(K key) {
+		ByteBuffer buffer = ByteBuffer.allocate(prefix.length + keyCodec.encodedLength(key));
+		buffer.put(prefix);
+		keyCodec.encode(key, buffer);
+		buffer.flip();
+		return buffer;
+	}
+
+	@Override
+	public ByteBuffer encodeValue(V value) {
+		return ByteBuffer.wrap(valueEncoder.apply(value));
+	}
+}
@@ -0,0 +1,64 @@
+package com.here.object.cache.data;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * A named lock shared through a cache, see {@link DataCache#getLock(String)}.
+ * <p>
+ * The lock is reentrant and held per thread, like a {@link java.util.concurrent.locks.ReentrantLock}. The remote locks are leased :
+ * a lock acquired without a lease time is renewed in the background while held, a lock acquired with a lease time is released
+ * by the server once the lease elapses, whether or not it has been unlocked, so that the lock of a dead process is not held forever.
+ * <p>
+ * Each acquisition of a lock gets a fencing token greater than the tokens of the previous acquisitions, the resources guarded by the lock
+ * should reject the writes carrying a token lower than the last one seen, since a holder whose lease elapsed may still be running.
+ *
+ * @author amajha
+ */
+public interface CacheLock extends Lock {
+
+	/**
+	 * Acquire the lock, waiting until it is available
+	 *
+	 * @param leaseTime the time after which the lock is released if not unlocked
+	 * @param timeUnit  the time unit for leaseTime
+	 */
+	void lock(long leaseTime, TimeUnit timeUnit);
+
+	/**
+	 * Acquire the lock if it becomes available within the wait time
+	 *
+	 * @param waitTime  the max time to wait for the lock
+	 * @param leaseTime the time after which the lock is released if not unlocked
+	 * @param timeUnit  the time unit for waitTime and leaseTime
+	 * @return true if the lock has been acquired
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 */
+	boolean tryLock(long waitTime, long leaseTime, TimeUnit timeUnit) throws InterruptedException;
+
+	/**
+	 * The fencing token of the current hold, shared by the reentrant acquisitions of the hold
+	 *
+	 * @return the token
+	 * @throws IllegalMonitorStateException if the current thread does not hold the lock
+	 */
+	long getFencingToken();
+
+	/**
+	 * @return true if the lock is held by any thread of any process
+	 */
+	boolean isLocked();
+
+	boolean isHeldByCurrentThread();
+
+	/**
+	 * @return the number of holds on the lock by the current thread, 0 if it does not hold the lock
+	 */
+	int getHoldCount();
+
+	@Override
+	default Condition newCondition() {
+		throw new UnsupportedOperationException("Conditions not supported by the cache locks");
+	}
+}
@@ -0,0 +1,13 @@
+package com.here.object.cache.data;
+
+/**
+ * The operations of a {@link DataCache} reported to the {@link CacheOperationListener},
+ * the tasks run by the cache in the background are only reported when they fail, see {@link CacheOperationListener#onBackgroundFailure}
+ *
+ * @author amajha
+ */
+public enum CacheOperation {
+	GET, STORE, REPLACE, PUT_IF_ABSENT, REPLACE_IF_PRESENT, COMPARE_AND_REPLACE, GET_AND_DELETE, GET_AND_SET, COMPUTE_IF_ABSENT, DELETE, STORE_BATCH,
+	// the background tasks
+	LOCK_RENEWAL, SNAPSHOT_SAVE, EVICTION_NOTIFICATION, REFRESH_AHEAD, BLOOM_FILTER_SYNC, CHANGE_FEED_PUBLISH, HOT_KEYS_SAVE
+}
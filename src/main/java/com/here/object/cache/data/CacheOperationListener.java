@@ -0,0 +1,47 @@
+package com.here.object.cache.data;
+
+/**
+ * Notified of the start and the end of the blocking operations of a cache, such as to trace the slow calls, see {@link CacheOperation}.
+ * <p>
+ * The callbacks run on the calling thread, around the operation, hence they should not block.
+ * The operations run by another operation, such as the store of a value loaded by a get, are part of the outer one and not reported.
+ * No callback is made, and nothing is allocated for the tracing, while no listener is registered.
+ *
+ * @author amajha
+ */
+public interface CacheOperationListener {
+
+	/**
+	 * @param cacheId   the id of the cache
+	 * @param operation the operation
+	 * @param key       the key, <code>null</code> for the batches
+	 * @return a context handed back to {@link #onEnd}, such as a span, may be <code>null</code>
+	 */
+	default Object onStart(String cacheId, CacheOperation operation, String key) {
+		return null;
+	}
+
+	/**
+	 * @param cacheId         the id of the cache
+	 * @param operation       the operation
+	 * @param key             the key, <code>null</code> for the batches
+	 * @param context         the context returned by {@link #onStart}
+	 * @param tier            the tier which served the value read, or holding the value written, <code>null</code> if no value was found
+	 * @param bytes           the size of the serialized value read or written, -1 if unknown such as for the values served by the heap
+	 * @param durationInNanos the duration of the operation
+	 * @param error           the error raised by the operation, <code>null</code> if it completed
+	 */
+	void onEnd(String cacheId, CacheOperation operation, String key, Object context, CacheTier tier, long bytes, long durationInNanos, Throwable error);
+
+	/**
+	 * A task run by the cache in the background failed, such as the renewal of the lease of a lock,
+	 * the failures are printed to the standard error while no listener is registered.
+	 *
+	 * @param cacheId   the id of the cache
+	 * @param operation the background task
+	 * @param key       the key, <code>null</code> if the task covers several keys
+	 * @param error     the error
+	 */
+	default void onBackgroundFailure(String cacheId, CacheOperation operation, String key, Throwable error) {
+	}
+}
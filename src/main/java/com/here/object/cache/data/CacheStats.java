@@ -0,0 +1,158 @@
+package com.here.object.cache.data;
+
+/**
+ * Snapshot of the statistics of a local cache, the counts are cumulative since the cache was created.
+ *
+ * @author amajha
+ */
+public final class CacheStats {
+
+	private final long hitCount;
+	private final long missCount;
+	private final long loadSuccessCount;
+	private final long loadFailureCount;
+	private final long totalLoadTimeInNanos;
+	private final long sizeEvictionCount;
+	private final long expiredCount;
+	private final long collectedCount;
+	private final long droppedEventCount;
+	private final long negativeHitCount;
+	private final long backgroundFailureCount;
+
+	static final CacheStats EMPTY = new CacheStats(0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0);
+
+	CacheStats(long hitCount, long missCount, long loadSuccessCount, long loadFailureCount, long totalLoadTimeInNanos,
+			   long sizeEvictionCount, long expiredCount, long collectedCount, long droppedEventCount, long negativeHitCount,
+			   long backgroundFailureCount) {
+		this.hitCount = hitCount;
+		this.missCount = missCount;
+		this.loadSuccessCount = loadSuccessCount;
+		this.loadFailureCount = loadFailureCount;
+		this.totalLoadTimeInNanos = totalLoadTimeInNanos;
+		this.sizeEvictionCount = sizeEvictionCount;
+		this.expiredCount = expiredCount;
+		this.collectedCount = collectedCount;
+		this.droppedEventCount = droppedEventCount;
+		this.negativeHitCount = negativeHitCount;
+		this.backgroundFailureCount = backgroundFailureCount;
+	}
+
+	/**
+	 * @return a copy of these statistics with the given number of negative hits added
+	 */
+	CacheStats plusNegativeHits(long count) {
+		return new CacheStats(hitCount, missCount, loadSuccessCount, loadFailureCount, totalLoadTimeInNanos,
+				sizeEvictionCount, expiredCount, collectedCount, droppedEventCount, negativeHitCount + count, backgroundFailureCount);
+	}
+
+	/**
+	 * @return a copy of these statistics with the given number of failures of the background tasks added
+	 */
+	CacheStats plusBackgroundFailures(long count) {
+		return new CacheStats(hitCount, missCount, loadSuccessCount, loadFailureCount, totalLoadTimeInNanos,
+				sizeEvictionCount, expiredCount, collectedCount, droppedEventCount, negativeHitCount, backgroundFailureCount + count);
+	}
+
+	/**
+	 * @return the number of lookups served from the heap
+	 */
+	public long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * @return the number of lookups not served from the heap, each of them triggers a load unless the lookup only checks the heap
+	 */
+	public long getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * @return the share of the lookups served from the heap, 1 if there was no lookup
+	 */
+	public double getHitRate() {
+		long requestCount = hitCount + missCount;
+		return requestCount == 0 ? 1 : (double) hitCount / requestCount;
+	}
+
+	/**
+	 * @return the number of values loaded from the snapshot, the disk, the remote cache or the value loader
+	 */
+	public long getLoadSuccessCount() {
+		return loadSuccessCount;
+	}
+
+	/**
+	 * @return the number of loads which failed or found no value
+	 */
+	public long getLoadFailureCount() {
+		return loadFailureCount;
+	}
+
+	/**
+	 * @return the time spent loading the values, successfully or not
+	 */
+	public long getTotalLoadTimeInNanos() {
+		return totalLoadTimeInNanos;
+	}
+
+	/**
+	 * @return the average time spent per load
+	 */
+	public double getAverageLoadPenaltyInNanos() {
+		long loadCount = loadSuccessCount + loadFailureCount;
+		return loadCount == 0 ? 0 : (double) totalLoadTimeInNanos / loadCount;
+	}
+
+	/**
+	 * @return the number of entries evicted to keep the cache within its max size
+	 */
+	public long getSizeEvictionCount() {
+		return sizeEvictionCount;
+	}
+
+	/**
+	 * @return the number of entries removed as their time to live elapsed
+	 */
+	public long getExpiredCount() {
+		return expiredCount;
+	}
+
+	/**
+	 * @return the number of values reclaimed by the garbage collector, see {@link com.here.object.cache.config.local.LocalCacheConfig#withSoftValues()}
+	 */
+	public long getCollectedCount() {
+		return collectedCount;
+	}
+
+	/**
+	 * @return the number of eviction events dropped since the listeners did not keep up with them
+	 */
+	public long getDroppedEventCount() {
+		return droppedEventCount;
+	}
+
+	/**
+	 * @return the number of gets answered by a cached miss of the value loader, see {@link com.here.object.cache.config.local.LocalCacheConfig#withNegativeCaching(long, java.util.concurrent.TimeUnit)}
+	 */
+	public long getNegativeHitCount() {
+		return negativeHitCount;
+	}
+
+	/**
+	 * @return the number of failures of the tasks run by the cache in the background, such as the snapshot writes,
+	 * see {@link CacheOperationListener#onBackgroundFailure}
+	 */
+	public long getBackgroundFailureCount() {
+		return backgroundFailureCount;
+	}
+
+	@Override
+	public String toString() {
+		return "CacheStats{hitCount=" + hitCount + ", missCount=" + missCount + ", loadSuccessCount=" + loadSuccessCount
+				+ ", loadFailureCount=" + loadFailureCount + ", totalLoadTimeInNanos=" + totalLoadTimeInNanos
+				+ ", sizeEvictionCount=" + sizeEvictionCount + ", expiredCount=" + expiredCount
+				+ ", collectedCount=" + collectedCount + ", droppedEventCount=" + droppedEventCount
+				+ ", negativeHitCount=" + negativeHitCount + ", backgroundFailureCount=" + backgroundFailureCount + "}";
+	}
+}
@@ -0,0 +1,21 @@
+package com.here.object.cache.data;
+
+/**
+ * The tier serving an operation of a cache, see {@link CacheOperationListener}
+ *
+ * @author amajha
+ */
+public enum CacheTier {
+	/**
+	 * The heap of the process, along with the snapshot and the disk cache of the local cache
+	 */
+	LOCAL,
+	/**
+	 * Redis
+	 */
+	REMOTE,
+	/**
+	 * The value loader of the cache
+	 */
+	LOADER
+}
@@ -0,0 +1,75 @@
+package com.here.object.cache.data;
+
+import com.here.object.cache.exceptions.NonUniqueKeyException;
+import com.here.object.cache.exceptions.ObjectNotSerialzableException;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A group of writes of a cache applied atomically, see {@link DataCache#transaction()}.
+ * <p>
+ * The writes are queued until {@link #execute()}, they are then applied together so that the readers never see part of them.
+ * As with redis, a write failing on its own, such as a store of a key already present, does not roll back the others.
+ * The keys watched before the writes guard the transaction, it is aborted if any of them was written meanwhile,
+ * the caller then reads the keys again and retries.
+ * A transaction is executed once, it is not thread safe, and must be closed if it is not executed.
+ *
+ * @param <T> The datatype that can be held within the cache
+ * @author amajha
+ */
+public interface CacheTransaction<T> extends AutoCloseable {
+
+	/**
+	 * Watch the given keys, the transaction is aborted if any of them is written before it is executed
+	 *
+	 * @param keys the keys read to decide the writes
+	 * @return this transaction
+	 * @throws IllegalStateException if writes have already been queued
+	 */
+	CacheTransaction<T> watch(String... keys);
+
+	/**
+	 * @return the future of the stored value, failing with a {@link NonUniqueKeyException} if the key is already present
+	 * @throws ObjectNotSerialzableException when the object that is being stored cannot be serialized
+	 */
+	CompletableFuture<T> store(String key, T t);
+
+	/**
+	 * @return the future of the stored value, failing with a {@link NonUniqueKeyException} if the key is already present
+	 * @throws ObjectNotSerialzableException when the object that is being stored cannot be serialized
+	 */
+	CompletableFuture<T> store(String key, T t, long timeToLive, TimeUnit timeUnit);
+
+	/**
+	 * @return the future of the stored value
+	 * @throws ObjectNotSerialzableException when the object that is being stored cannot be serialized
+	 */
+	CompletableFuture<T> replace(String key, T t);
+
+	/**
+	 * @return the future of the stored value
+	 * @throws ObjectNotSerialzableException when the object that is being stored cannot be serialized
+	 */
+	CompletableFuture<T> replace(String key, T t, long timeToLive, TimeUnit timeUnit);
+
+	/**
+	 * @return the future completing with <code>true</code> if the key was deleted, <code>false</code> if it was not present
+	 */
+	CompletableFuture<Boolean> delete(String key);
+
+	/**
+	 * Apply the queued writes atomically, the futures of the writes fail with a {@link CancellationException} if the transaction is aborted
+	 *
+	 * @return the future completing with <code>true</code> once the writes are applied, <code>false</code> if a watched key was written meanwhile
+	 * @throws IllegalStateException if the transaction has already been executed or closed
+	 */
+	CompletableFuture<Boolean> execute();
+
+	/**
+	 * Discard the transaction if it was not executed, the keys are no longer watched
+	 */
+	@Override
+	void close();
+}
@@ -0,0 +1,85 @@
+package com.here.object.cache.data;
+
+/**
+ * A change of a key of a cache read from its change feed, see {@link com.here.object.cache.config.redis.ChangeFeedConfig}.
+ * The event only holds the key, the current value is to be read from the cache.
+ *
+ * @author amajha
+ */
+public final class ChangeEvent {
+
+	public enum Type {
+		/**
+		 * Written by {@link DataCache#store(String, Object)} and the other writes of a new key
+		 */
+		STORED("S"),
+		/**
+		 * Written by {@link DataCache#replace(String, Object)} and the other writes of an existing key
+		 */
+		REPLACED("R"),
+		DELETED("D"),
+		/**
+		 * The time to live of the key elapsed, only published if the expirations are enabled
+		 */
+		EXPIRED("E");
+
+		// the compact code held by the stream entries
+		private final String code;
+
+		Type(String code) {
+			this.code = code;
+		}
+
+		String getCode() {
+			return code;
+		}
+
+		static Type fromCode(String code) {
+			for (Type type : values()) {
+				if (type.code.equals(code))
+					return type;
+			}
+			throw new IllegalArgumentException("Unknown change type : " + code);
+		}
+	}
+
+	private final String id;
+	private final Type type;
+	private final String key;
+
+	ChangeEvent(String id, Type type, String key) {
+		this.id = id;
+		this.type = type;
+		this.key = key;
+	}
+
+	/**
+	 * @return the id of the stream entry, used for acknowledging the event
+	 */
+	public String getId() {
+		return id;
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	/**
+	 * @return the key, without the prefix of the cache
+	 */
+	public String getKey() {
+		return key;
+	}
+
+	/**
+	 * @return the time in ms the event was appended at, as per the clock of the server holding the stream
+	 */
+	public long getTimestamp() {
+		return Long.parseLong(id.substring(0, id.indexOf('-')));
+	}
+
+	@Override
+	public String toString() {
+		return "ChangeEvent{id=" + id + ", type=" + type + ", key=" + key + "}";
+	}
+}
@@ -0,0 +1,119 @@
+package com.here.object.cache.data;
+
+import io.lettuce.core.Consumer;
+import io.lettuce.core.RedisBusyException;
+import io.lettuce.core.StreamMessage;
+import io.lettuce.core.XGroupCreateArgs;
+import io.lettuce.core.XReadArgs;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.api.sync.RedisStreamCommands;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the change feed of a cache as a member of a consumer group, see {@link RedisCache#consumeChanges(String, String)}.
+ * <p>
+ * The events are spread over the consumers of a group, each consumer getting its own share, and every group gets all the events.
+ * An event read stays pending until acknowledged, the events of a consumer restarted after a failure are fetched with {@link #pollPending(int)}.
+ * The group is created if missing, starting from the events appended from then on.
+ * <p>
+ * A consumer holds its own connection, it is not thread safe and should be closed before the cache.
+ *
+ * @author amajha
+ */
+public final class ChangeFeedConsumer implements AutoCloseable {
+
+	private final StatefulConnection<String, String> connection;
+	private final RedisStreamCommands<String, String> commands;
+	private final String streamKey;
+	private final Consumer<String> consumer;
+	private final long commandTimeoutInMs;
+
+	ChangeFeedConsumer(StatefulConnection<String, String> connection, RedisStreamCommands<String, String> commands, String streamKey,
+					   String group, String consumerName, long commandTimeoutInMs) {
+		this.connection = connection;
+		this.commands = commands;
+		this.streamKey = streamKey;
+		this.consumer = Consumer.from(group, consumerName);
+		this.commandTimeoutInMs = commandTimeoutInMs;
+
+		try {
+			commands.xgroupCreate(XReadArgs.StreamOffset.latest(streamKey), group, new XGroupCreateArgs().mkstream(true));
+		} catch (RedisBusyException e) {
+			// BUSYGROUP : the group already exists
+		}
+	}
+
+	/**
+	 * Read the next events not yet delivered to the group
+	 *
+	 * @param maxCount the max number of events returned
+	 * @param timeout  the time to wait for an event if none is available, 0 to return at once.
+	 *                 It should stay below the command timeout of the cache
+	 * @param timeUnit the time unit for timeout
+	 * @return the events, empty if none was appended within the timeout
+	 */
+	@SuppressWarnings("unchecked")
+	public List<ChangeEvent> poll(int maxCount, long timeout, TimeUnit timeUnit) {
+		long timeoutInMs = TimeUnit.MILLISECONDS.convert(timeout, timeUnit);
+		if (timeoutInMs >= commandTimeoutInMs)
+			throw new IllegalArgumentException("Poll timeout should be lower than the command timeout : " + commandTimeoutInMs + " ms");
+
+		XReadArgs args = XReadArgs.Builder.count(maxCount);
+		if (timeoutInMs > 0)
+			args.block(timeoutInMs);
+		return toEvents(commands.xreadgroup(consumer, args, XReadArgs.StreamOffset.lastConsumed(streamKey)));
+	}
+
+	/**
+	 * Read the events delivered to this consumer but not acknowledged yet, oldest first
+	 *
+	 * @param maxCount the max number of events returned
+	 * @return the events
+	 */
+	@SuppressWarnings("unchecked")
+	public List<ChangeEvent> pollPending(int maxCount) {
+		return toEvents(commands.xreadgroup(consumer, XReadArgs.Builder.count(maxCount), XReadArgs.StreamOffset.from(streamKey, "0")));
+	}
+
+	private List<ChangeEvent> toEvents(List<StreamMessage<String, String>> messages) {
+		List<ChangeEvent> events = new ArrayList<>(messages.size());
+		List<String> trimmed = new ArrayList<>();
+		for (StreamMessage<String, String> message : messages) {
+			// a pending entry trimmed from the stream has no body
+			if (message.getBody() == null || message.getBody().isEmpty()) {
+				trimmed.add(message.getId());
+				continue;
+			}
+			events.add(new ChangeEvent(message.getId(), ChangeEvent.Type.fromCode(message.getBody().get(ChangeFeedPublisher.TYPE_FIELD)),
+					message.getBody().get(ChangeFeedPublisher.KEY_FIELD)));
+		}
+		if (!trimmed.isEmpty())
+			commands.xack(streamKey, consumer.getGroup(), trimmed.toArray(new String[0]));
+		return events;
+	}
+
+	/**
+	 * Acknowledge the events processed, they are no longer returned by {@link #pollPending(int)}
+	 *
+	 * @return the number of events acknowledged
+	 */
+	public long acknowledge(Collection<ChangeEvent> events) {
+		if (events.isEmpty())
+			return 0;
+		return commands.xack(streamKey, consumer.getGroup(), events.stream().map(ChangeEvent::getId).toArray(String[]::new));
+	}
+
+	public long acknowledge(ChangeEvent... events) {
+		return acknowledge(Arrays.asList(events));
+	}
+
+	@Override
+	public void close() {
+		connection.close();
+	}
+}
@@ -0,0 +1,137 @@
+package com.here.object.cache.data;
+
+import com.here.object.cache.config.redis.ChangeFeedConfig;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.cluster.api.reactive.RedisClusterReactiveCommands;
+import io.lettuce.core.cluster.models.partitions.RedisClusterNode;
+import io.lettuce.core.cluster.pubsub.RedisClusterPubSubAdapter;
+import io.lettuce.core.cluster.pubsub.StatefulRedisClusterPubSubConnection;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.output.IntegerOutput;
+import io.lettuce.core.output.StatusOutput;
+import io.lettuce.core.protocol.CommandArgs;
+import io.lettuce.core.protocol.CommandType;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Appends the changes of the keys of a cache to its change feed, see {@link ChangeFeedConfig}.
+ * <p>
+ * Each event is an entry of the stream holding the code of its {@link ChangeEvent.Type} and the key, without the prefix of the cache.
+ * The expiries are received from the keyspace notifications of every server, and deduplicated through a marker key
+ * so that a single entry is appended whatever the number of processes subscribed. The marker shares the hash tag of the stream
+ * so that the script runs on a single node of a cluster.
+ *
+ * @param <T> The datatype that can be held within the cache
+ * @author amajha
+ */
+final class ChangeFeedPublisher<T> {
+
+	private static final String STREAM_KEY_PREFIX = "__object_cache_changes:";
+	private static final String EXPIRED_CHANNEL_PATTERN = "__keyevent@*__:expired";
+	private static final long EXPIRY_MARKER_TTL_IN_MS = 5000;
+	static final String TYPE_FIELD = "op";
+	static final String KEY_FIELD = "key";
+
+	// KEYS[1] : stream, KEYS[2] : marker of the expiry, ARGV[1] : marker time to live in ms, ARGV[2] : max length, ARGV[3] : key
+	private static final String EXPIRED_SCRIPT =
+			"if not redis.call('SET', KEYS[2], '1', 'NX', 'PX', ARGV[1]) then return 0 end " +
+			"redis.call('XADD', KEYS[1], 'MAXLEN', '~', ARGV[2], '*', '" + TYPE_FIELD + "', '" + ChangeEvent.Type.EXPIRED.getCode() + "', '" + KEY_FIELD + "', ARGV[3]) " +
+			"return 1";
+
+	private final RedisCache<T> cache;
+	private final ChangeFeedConfig config;
+	private final String keyPrefix;
+	private final RedisClusterReactiveCommands<String, T> commands;
+	private final RedisCodec<String, T> codec;
+	private final String streamKey;
+	private final List<StatefulConnection<?, ?>> subscriptions = new ArrayList<>();
+
+	/**
+	 * @param cache     the cache the failed appends are reported to
+	 * @param keyPrefix the prefix of the keys of the cache
+	 * @param commands  the commands of the server holding the stream
+	 */
+	ChangeFeedPublisher(RedisCache<T> cache, ChangeFeedConfig config, String cacheId, String keyPrefix,
+						RedisClusterReactiveCommands<String, T> commands, RedisCodec<String, T> codec) {
+		this.cache = cache;
+		this.config = config;
+		this.keyPrefix = keyPrefix;
+		this.commands = commands;
+		this.codec = codec;
+		this.streamKey = getStreamKey(cacheId);
+	}
+
+	/**
+	 * @return the key of the stream, routes the commands on the stream
+	 */
+	static String getStreamKey(String cacheId) {
+		return STREAM_KEY_PREFIX + "{" + cacheId + "}";
+	}
+
+	/**
+	 * Append an event per key, without waiting for the appends
+	 *
+	 * @param keys the keys, without the prefix of the cache
+	 */
+	void publish(ChangeEvent.Type type, String... keys) {
+		for (String key : keys) {
+			CommandArgs<String, T> args = new CommandArgs<>(codec).addKey(streamKey).add("MAXLEN").add("~").add(config.getMaxLength())
+					.add("*").add(TYPE_FIELD).add(type.getCode()).add(KEY_FIELD).add(key);
+			commands.dispatch(CommandType.XADD, new StatusOutput<>(codec), args)
+					.subscribe(e -> {
+					}, e -> cache.reportFailure(CacheOperation.CHANGE_FEED_PUBLISH, key, e));
+		}
+	}
+
+	/**
+	 * Publish the expiries notified on the given connections, the connections are closed along with the publisher
+	 */
+	void subscribeExpirations(List<StatefulRedisPubSubConnection<String, String>> connections) {
+		for (StatefulRedisPubSubConnection<String, String> connection : connections) {
+			subscriptions.add(connection);
+			connection.addListener(new RedisPubSubAdapter<String, String>() {
+				@Override
+				public void message(String pattern, String channel, String message) {
+					onExpired(message);
+				}
+			});
+			connection.async().psubscribe(EXPIRED_CHANNEL_PATTERN);
+		}
+	}
+
+	/**
+	 * Publish the expiries notified by the masters of the cluster, the masters added after the subscription are not subscribed to
+	 */
+	void subscribeExpirations(StatefulRedisClusterPubSubConnection<String, String> connection) {
+		subscriptions.add(connection);
+		connection.setNodeMessagePropagation(true);
+		connection.addListener(new RedisClusterPubSubAdapter<String, String>() {
+			@Override
+			public void message(RedisClusterNode node, String pattern, String channel, String message) {
+				onExpired(message);
+			}
+		});
+		connection.async().masters().commands().psubscribe(EXPIRED_CHANNEL_PATTERN);
+	}
+
+	private void onExpired(String key) {
+		if (!key.startsWith(keyPrefix))
+			return;
+
+		String cacheKey = key.substring(keyPrefix.length());
+		CommandArgs<String, T> args = new CommandArgs<>(codec).add(EXPIRED_SCRIPT).add(2).addKey(streamKey).addKey(streamKey + ":expired:" + cacheKey)
+				.add(EXPIRY_MARKER_TTL_IN_MS).add(config.getMaxLength()).add(cacheKey);
+		commands.dispatch(CommandType.EVAL, new IntegerOutput<>(codec), args)
+				.subscribe(e -> {
+				}, e -> cache.reportFailure(CacheOperation.CHANGE_FEED_PUBLISH, cacheKey, e));
+	}
+
+	void close() {
+		subscriptions.forEach(StatefulConnection::close);
+		subscriptions.clear();
+	}
+}
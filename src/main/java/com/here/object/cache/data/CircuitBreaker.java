@@ -0,0 +1,145 @@
+package com.here.object.cache.data;
+
+import com.here.object.cache.config.redis.CircuitBreakerConfig;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Count based circuit breaker, see {@link CircuitBreakerConfig}.
+ * <p>
+ * Every call permitted by {@link #tryAcquire()} must be followed by a call to {@link #onSuccess(long)} or {@link #onError(long)}.
+ *
+ * @author amajha
+ */
+final class CircuitBreaker {
+
+	enum State {
+		CLOSED,
+		OPEN,
+		HALF_OPEN;
+	}
+
+	private final CircuitBreakerConfig config;
+	private final long slowCallDurationInNanos;
+	private final Runnable onClose;
+
+	// the outcome of the last calls, as a ring
+	private final boolean[] failed;
+	private final boolean[] slow;
+	private int position;
+	private int recordedCalls;
+	private int failedCalls;
+	private int slowCalls;
+
+	private State state = State.CLOSED;
+	private long openedAt;
+	private int halfOpenPermits;
+	private int halfOpenSuccesses;
+
+	/**
+	 * @param config  the settings of the breaker
+	 * @param onClose invoked once the breaker closes again after having been open, on the thread reporting the last probe
+	 */
+	CircuitBreaker(CircuitBreakerConfig config, Runnable onClose) {
+		this.config = config;
+		this.slowCallDurationInNanos = TimeUnit.NANOSECONDS.convert(config.getSlowCallDurationInMs(), TimeUnit.MILLISECONDS);
+		this.onClose = onClose;
+		this.failed = new boolean[config.getSlidingWindowSize()];
+		this.slow = new boolean[config.getSlidingWindowSize()];
+	}
+
+	/**
+	 * @return true if the call may be sent, false if the breaker is open
+	 */
+	synchronized boolean tryAcquire() {
+		if (state == State.CLOSED)
+			return true;
+
+		if (state == State.OPEN) {
+			if (System.currentTimeMillis() - openedAt < config.getWaitDurationInOpenStateInMs())
+				return false;
+			state = State.HALF_OPEN;
+			halfOpenPermits = 0;
+			halfOpenSuccesses = 0;
+		}
+
+		if (halfOpenPermits >= config.getPermittedCallsInHalfOpenState())
+			return false;
+		halfOpenPermits++;
+		return true;
+	}
+
+	/**
+	 * @return true if the calls are being rejected, unlike {@link #tryAcquire()} no permit is taken
+	 */
+	synchronized boolean isOpen() {
+		return state == State.OPEN && System.currentTimeMillis() - openedAt < config.getWaitDurationInOpenStateInMs();
+	}
+
+	synchronized State getState() {
+		return state;
+	}
+
+	void onSuccess(long durationInNanos) {
+		if (record(false, durationInNanos))
+			onClose.run();
+	}
+
+	void onError(long durationInNanos) {
+		record(true, durationInNanos);
+	}
+
+	/**
+	 * @return true if the breaker has just closed
+	 */
+	private synchronized boolean record(boolean isFailure, long durationInNanos) {
+		boolean isSlow = durationInNanos >= slowCallDurationInNanos;
+		switch (state) {
+			case HALF_OPEN:
+				if (isFailure || isSlow) {
+					open();
+				} else if (++halfOpenSuccesses >= config.getPermittedCallsInHalfOpenState()) {
+					reset();
+					state = State.CLOSED;
+					return true;
+				}
+				return false;
+
+			case OPEN:
+				// a call sent before the breaker opened
+				return false;
+
+			default:
+				if (recordedCalls == failed.length) {
+					failedCalls -= failed[position] ? 1 : 0;
+					slowCalls -= slow[position] ? 1 : 0;
+				} else {
+					recordedCalls++;
+				}
+				failed[position] = isFailure;
+				slow[position] = isSlow;
+				failedCalls += isFailure ? 1 : 0;
+				slowCalls += isSlow ? 1 : 0;
+				position = (position + 1) % failed.length;
+
+				if (recordedCalls >= config.getMinimumNumberOfCalls()
+						&& (failedCalls * 100f >= config.getFailureRateThreshold() * recordedCalls
+						|| slowCalls * 100f >= config.getSlowCallRateThreshold() * recordedCalls))
+					open();
+				return false;
+		}
+	}
+
+	private void open() {
+		state = State.OPEN;
+		openedAt = System.currentTimeMillis();
+		reset();
+	}
+
+	private void reset() {
+		position = 0;
+		recordedCalls = 0;
+		failedCalls = 0;
+		slowCalls = 0;
+	}
+}
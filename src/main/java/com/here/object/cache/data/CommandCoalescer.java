@@ -0,0 +1,137 @@
+package com.here.object.cache.data;
+
+import io.lettuce.core.api.StatefulConnection;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Coalesces the commands issued concurrently on a connection into a single flush.
+ * <p>
+ * The connection does not flush its commands on its own, a command written starts a flush window unless one is already running,
+ * the commands written within the window are flushed together once it elapses, or as soon as the max batch size is reached.
+ * The commands are hence delayed by the window at most, in exchange for a single system call per batch.
+ * <p>
+ * Every command of the connection must go through the commands returned by {@link #wrap(Object, Class)},
+ * a command dispatched on the connection directly must be flushed explicitly.
+ *
+ * @author amajha
+ */
+final class CommandCoalescer {
+
+	private final StatefulConnection<?, ?> connection;
+	private final int maxBatchSize;
+	private final long windowInNanos;
+	private final AtomicInteger pending = new AtomicInteger();
+	private final AtomicBoolean flushScheduled = new AtomicBoolean();
+	private final LongAdder flushCount = new LongAdder();
+	private final LongAdder commandCount = new LongAdder();
+	private final LongAccumulator maxFlushedBatchSize = new LongAccumulator(Math::max, 0);
+
+	CommandCoalescer(StatefulConnection<?, ?> connection, int maxBatchSize, long windowInNanos) {
+		this.connection = connection;
+		this.maxBatchSize = maxBatchSize;
+		this.windowInNanos = windowInNanos;
+		connection.setAutoFlushCommands(false);
+	}
+
+	/**
+	 * Wrap the commands of the connection, the commands are counted once written
+	 *
+	 * @param commands the commands of the connection
+	 * @param type     the interface of the commands
+	 * @return the wrapped commands
+	 */
+	@SuppressWarnings("unchecked")
+	<C> C wrap(C commands, Class<C> type) {
+		return (C) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+			Object result;
+			try {
+				result = method.invoke(commands, args);
+			} catch (InvocationTargetException e) {
+				throw e.getCause();
+			}
+			if (result instanceof Mono)
+				return Mono.from(afterRequest((Mono<?>) result));
+			if (result instanceof Flux)
+				return Flux.from(afterRequest((Flux<?>) result));
+			return result;
+		});
+	}
+
+	/**
+	 * The command of a lettuce publisher is written when the publisher is first requested, hence it is counted right after the first request,
+	 * the later requests of the subscription do not write it again
+	 */
+	private <R> Publisher<R> afterRequest(Publisher<R> command) {
+		return subscriber -> command.subscribe(new Subscriber<R>() {
+			@Override
+			public void onSubscribe(Subscription subscription) {
+				AtomicBoolean requested = new AtomicBoolean();
+				subscriber.onSubscribe(new Subscription() {
+					@Override
+					public void request(long n) {
+						subscription.request(n);
+						if (requested.compareAndSet(false, true))
+							onCommand();
+					}
+
+					@Override
+					public void cancel() {
+						subscription.cancel();
+					}
+				});
+			}
+
+			@Override
+			public void onNext(R r) {
+				subscriber.onNext(r);
+			}
+
+			@Override
+			public void onError(Throwable t) {
+				subscriber.onError(t);
+			}
+
+			@Override
+			public void onComplete() {
+				subscriber.onComplete();
+			}
+		});
+	}
+
+	private void onCommand() {
+		if (pending.incrementAndGet() >= maxBatchSize) {
+			flush();
+			return;
+		}
+		if (flushScheduled.compareAndSet(false, true))
+			CacheExecutors.getFlushScheduler().schedule(this::flush, windowInNanos, TimeUnit.NANOSECONDS);
+	}
+
+	private void flush() {
+		// a command counted after the reset starts a new window
+		flushScheduled.set(false);
+		int batchSize = pending.getAndSet(0);
+		connection.flushCommands();
+		if (batchSize == 0)
+			return;
+		flushCount.increment();
+		commandCount.add(batchSize);
+		maxFlushedBatchSize.accumulate(batchSize);
+	}
+
+	PipelineStats stats() {
+		return new PipelineStats(flushCount.sum(), commandCount.sum(), maxFlushedBatchSize.get());
+	}
+}
@@ -0,0 +1,155 @@
+package com.here.object.cache.data;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Consistent hash ring distributing the keys across the nodes, each node is placed on the ring at a number of points
+ * (virtual nodes) proportional to its weight, and a key belongs to the first node found clockwise from the hash of the key.
+ * <p>
+ * The points of a node are derived from its name only, so adding or removing a node only remaps the keys
+ * falling between the points of that node and their predecessors, about 1/n of the keys, and the other nodes keep their keys.
+ * <p>
+ * The ring is immutable, {@link #with(String, Object, int)} and {@link #without(String)} build a new ring.
+ *
+ * @param <N> the type of the nodes
+ * @author amajha
+ */
+final class ConsistentHashRing<N> {
+
+	static final int DEFAULT_VIRTUAL_NODES = 160;
+
+	private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+	private final int virtualNodes;
+	private final Map<String, N> nodes;
+	private final Map<String, Integer> weights;
+	private final long[] points;
+	private final Object[] pointNodes;
+
+	private ConsistentHashRing(int virtualNodes, Map<String, N> nodes, Map<String, Integer> weights) {
+		this.virtualNodes = virtualNodes;
+		this.nodes = nodes;
+		this.weights = weights;
+
+		int pointCount = weights.values().stream().mapToInt(e -> e * virtualNodes).sum();
+		long[] hashes = new long[pointCount];
+		String[] names = new String[pointCount];
+		int i = 0;
+		for (Map.Entry<String, Integer> weight : weights.entrySet()) {
+			for (int v = 0; v < weight.getValue() * virtualNodes; v++) {
+				hashes[i] = hash(weight.getKey() + "#" + v);
+				names[i++] = weight.getKey();
+			}
+		}
+
+		// sort the points, ties are broken by the node name so that the ring does not depend on the order of the nodes
+		Integer[] order = new Integer[pointCount];
+		for (int j = 0; j < pointCount; j++)
+			order[j] = j;
+		Arrays.sort(order, (a, b) -> hashes[a] != hashes[b] ? Long.compare(hashes[a], hashes[b]) : names[a].compareTo(names[b]));
+
+		this.points = new long[pointCount];
+		this.pointNodes = new Object[pointCount];
+		for (int j = 0; j < pointCount; j++) {
+			points[j] = hashes[order[j]];
+			pointNodes[j] = nodes.get(names[order[j]]);
+		}
+	}
+
+	/**
+	 * @param virtualNodes the number of points of a node of weight 1
+	 * @return an empty ring
+	 */
+	static <N> ConsistentHashRing<N> create(int virtualNodes) {
+		return new ConsistentHashRing<>(virtualNodes, Collections.emptyMap(), Collections.emptyMap());
+	}
+
+	/**
+	 * A ring holding a single node, all the keys belong to it
+	 */
+	static <N> ConsistentHashRing<N> singleNode(N node) {
+		return ConsistentHashRing.<N>create(1).with("", node, 1);
+	}
+
+	/**
+	 * @param name   the name of the node, identifies the points of the node on the ring
+	 * @param node   the node
+	 * @param weight the share of the keys of the node relative to the other nodes
+	 * @return a new ring with the given node added, or replaced if a node with the same name exists
+	 */
+	ConsistentHashRing<N> with(String name, N node, int weight) {
+		if (weight < 1)
+			throw new IllegalArgumentException("Weight should be at-least 1");
+
+		Map<String, N> newNodes = new LinkedHashMap<>(nodes);
+		Map<String, Integer> newWeights = new LinkedHashMap<>(weights);
+		newNodes.put(name, node);
+		newWeights.put(name, weight);
+		return new ConsistentHashRing<>(virtualNodes, newNodes, newWeights);
+	}
+
+	/**
+	 * @param name the name of the node
+	 * @return a new ring without the given node
+	 */
+	ConsistentHashRing<N> without(String name) {
+		Map<String, N> newNodes = new LinkedHashMap<>(nodes);
+		Map<String, Integer> newWeights = new LinkedHashMap<>(weights);
+		newNodes.remove(name);
+		newWeights.remove(name);
+		return new ConsistentHashRing<>(virtualNodes, newNodes, newWeights);
+	}
+
+	private static long hash(String key) {
+		return HASH_FUNCTION.hashString(key, StandardCharsets.UTF_8).asLong();
+	}
+
+	/**
+	 * @param key the key
+	 * @return the node the key belongs to
+	 */
+	@SuppressWarnings("unchecked")
+	N get(String key) {
+		if (pointNodes.length == 1)
+			return (N) pointNodes[0];
+		if (pointNodes.length == 0)
+			throw new IllegalStateException("No node on the ring");
+
+		int index = Arrays.binarySearch(points, hash(key));
+		if (index < 0)
+			index = -index - 1;
+		// wrap around the ring
+		return (N) pointNodes[index == points.length ? 0 : index];
+	}
+
+	/**
+	 * Group the keys by the node they belong to
+	 *
+	 * @param keys   the keys
+	 * @param mapper the key to be hashed for an element
+	 * @return the elements of each node
+	 */
+	<E> Map<N, List<E>> partition(Iterable<E> keys, Function<E, String> mapper) {
+		Map<N, List<E>> partitions = new LinkedHashMap<>();
+		for (E key : keys)
+			partitions.computeIfAbsent(get(mapper.apply(key)), e -> new ArrayList<>()).add(key);
+		return partitions;
+	}
+
+	/**
+	 * @return the nodes, in the order in which they were added
+	 */
+	List<N> getNodes() {
+		return new ArrayList<>(nodes.values());
+	}
+}
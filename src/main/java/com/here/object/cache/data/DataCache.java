@@ -10,6 +10,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
 /**
  * @param <T> The Data type to be stored inside the cache
@@ -103,6 +104,79 @@ public interface DataCache<T> {
 		throw new AbstractMethodError("Method not implemented in the used cache");
 	}
 
+	/**
+	 * Atomically store the value only if the key is not already present in the cache
+	 *
+	 * @param key {@link String} Key against which the given object will be stored
+	 * @param t   The value to be stored
+	 * @return the value already present against the key, <code>null</code> if the given value was stored
+	 * @throws ObjectNotSerialzableException when the object that is being stored cannot be serialized
+	 */
+	public default T putIfAbsent(String key, T t) {
+		throw new AbstractMethodError("Method not implemented in the used cache");
+	}
+
+	/**
+	 * Atomically replace the value only if the key is already present in the cache
+	 *
+	 * @param key The key against which the value is to be replaced
+	 * @param t   the new value
+	 * @return {@link Boolean} <code>true</code> if the value was replaced, <code>false</code> if the key is not present in the cache
+	 * @throws ObjectNotSerialzableException when the object that is being stored cannot be serialized
+	 */
+	public default boolean replaceIfPresent(String key, T t) {
+		throw new AbstractMethodError("Method not implemented in the used cache");
+	}
+
+	/**
+	 * Atomically replace the value only if the current value is equal to the expected value.
+	 * The remote caches compare the serialized form of the values, the local cache compares them using {@link Object#equals(Object)}
+	 *
+	 * @param key      The key against which the value is to be replaced
+	 * @param expected the value expected to be present against the key
+	 * @param newValue the new value
+	 * @return {@link Boolean} <code>true</code> if the value was replaced, <code>false</code> otherwise
+	 * @throws ObjectNotSerialzableException when the object that is being stored cannot be serialized
+	 */
+	public default boolean compareAndReplace(String key, T expected, T newValue) {
+		throw new AbstractMethodError("Method not implemented in the used cache");
+	}
+
+	/**
+	 * Atomically delete the value associated with the given key and return it
+	 *
+	 * @param key The key for which the value is to be removed
+	 * @return the removed value, <code>null</code> if the key is not present in the cache
+	 */
+	public default T getAndDelete(String key) {
+		throw new AbstractMethodError("Method not implemented in the used cache");
+	}
+
+	/**
+	 * Atomically replace the value associated with the given key and return the previous value.
+	 * New Object is created in the cache if the key does not exist already
+	 *
+	 * @param key The key against which the value is to be replaced
+	 * @param t   the new value
+	 * @return the previous value, <code>null</code> if the key was not present in the cache
+	 * @throws ObjectNotSerialzableException when the object that is being stored cannot be serialized
+	 */
+	public default T getAndSet(String key, T t) {
+		throw new AbstractMethodError("Method not implemented in the used cache");
+	}
+
+	/**
+	 * Return the value associated with the given key, if the key is not present the value is computed and stored
+	 * unless another caller stored a value in the meantime, in which case that value is returned.
+	 *
+	 * @param key             The key for which the value is to be fetched
+	 * @param mappingFunction the function computing the value for a missing key
+	 * @return the current (existing or computed) value, <code>null</code> if the computed value is null
+	 */
+	public default T computeIfAbsent(String key, Function<String, T> mappingFunction) {
+		throw new AbstractMethodError("Method not implemented in the used cache");
+	}
+
 	/**
 	 * Delete the value associated with the given key in the cache. This does nothing if the value is not found.
 	 *
@@ -140,6 +214,48 @@ public interface DataCache<T> {
 		throw new AbstractMethodError("Method not implemented in the used cache. Method call unexpected");
 	}
 
+	/**
+	 * Start a batch of operations sent together once executed, see {@link CacheBatch}
+	 *
+	 * @return the batch
+	 */
+	public default CacheBatch<T> batch() {
+		throw new AbstractMethodError("Method not implemented in the used cache. Method call unexpected");
+	}
+
+	/**
+	 * Register a listener notified of the start and the end of the blocking operations of the cache, see {@link CacheOperationListener}
+	 *
+	 * @param listener the listener
+	 */
+	public default void addOperationListener(CacheOperationListener listener) {
+		throw new AbstractMethodError("Method not implemented in the used cache. Method call unexpected");
+	}
+
+	public default void removeOperationListener(CacheOperationListener listener) {
+		throw new AbstractMethodError("Method not implemented in the used cache. Method call unexpected");
+	}
+
+	/**
+	 * Start a group of writes applied atomically, optionally guarded by watched keys, see {@link CacheTransaction}
+	 *
+	 * @return the transaction
+	 */
+	public default CacheTransaction<T> transaction() {
+		throw new AbstractMethodError("Method not implemented in the used cache. Method call unexpected");
+	}
+
+	/**
+	 * Get the lock of the given name shared through the cache, see {@link CacheLock}.
+	 * The remote caches share the lock with all the processes using the same cache id
+	 *
+	 * @param name the name of the lock
+	 * @return the lock
+	 */
+	public default CacheLock getLock(String name) {
+		throw new AbstractMethodError("Method not implemented in the used cache. Method call unexpected");
+	}
+
 	/**
 	 * Get All Keys Stored in the Redis
 	 *
@@ -205,4 +321,35 @@ public interface DataCache<T> {
 	public default Mono<String> purgeCacheAsync() {
 		throw new AbstractMethodError("Method not implemented in the used cache. Method call unexpected");
 	}
+
+	/**
+	 * Non blocking view of this cache, sharing the connection and the local cache of this cache
+	 *
+	 * @return the reactive view of this cache
+	 */
+	public default ReactiveDataCache<T> reactive() {
+		throw new AbstractMethodError("Method not implemented in the used cache. Method call unexpected");
+	}
+
+	/**
+	 * The statistics of the local cache : hits, misses, loads and evictions
+	 *
+	 * @return the statistics
+	 */
+	public default CacheStats stats() {
+		throw new AbstractMethodError("Method not implemented in the used cache. Method call unexpected");
+	}
+
+	/**
+	 * Notify the given listener of the entries evicted from the local cache, see {@link EvictionListener}
+	 *
+	 * @param listener the listener
+	 */
+	public default void addEvictionListener(EvictionListener<T> listener) {
+		throw new AbstractMethodError("Method not implemented in the used cache. Method call unexpected");
+	}
+
+	public default void removeEvictionListener(EvictionListener<T> listener) {
+		throw new AbstractMethodError("Method not implemented in the used cache. Method call unexpected");
+	}
 }
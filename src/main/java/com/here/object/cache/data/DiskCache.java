@@ -0,0 +1,463 @@
+package com.here.object.cache.data;
+
+import com.here.object.cache.serializer.Serializer;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * On-disk tier of a {@link LocalCache}, holding the entries evicted from the heap until they expire or the disk budget is exhausted.
+ * <p>
+ * The entries are appended to fixed size, memory-mapped segment files and located through an in-memory index.
+ * Each record is stored as key length, key, expiry time in epoch ms, value length and the serialized value,
+ * a value length of -1 marks the deletion of the key. The index is rebuilt from the segments when the cache is created again.
+ * <p>
+ * The segments are sized as a quarter of the disk budget, within bounds, and never larger than the budget.
+ * Once the disk budget is exhausted the oldest segment is dropped. A periodic task drops the expired entries
+ * and compacts the segments holding mostly dead records by moving their live records to the active segment,
+ * the segment being compacted is not dropped meanwhile.
+ *
+ * @author amajha
+ */
+final class DiskCache {
+
+	private static final String SEGMENT_SUFFIX = ".segment";
+	private static final int RECORD_HEADER_SIZE = 16;
+	private static final int TOMBSTONE = -1;
+	private static final int MAX_SEGMENT_SIZE = 64 * 1024 * 1024;
+	private static final int MIN_SEGMENT_SIZE = 64 * 1024;
+	private static final double COMPACTION_THRESHOLD = 0.5;
+	private static final long HOUSE_KEEPING_INTERVAL_IN_MS = TimeUnit.MINUTES.toMillis(1);
+
+	private final Path directory;
+	private final long maxDiskSize;
+	private final int segmentSize;
+	private final Serializer serializer;
+	private final Map<String, Location> index = new ConcurrentHashMap<>();
+	// guarded by this
+	private final TreeMap<Long, Segment> segments = new TreeMap<>();
+	private Segment activeSegment;
+	// the segment whose records are moved to the active segment, null if none
+	private Segment compactingSegment;
+	private final ScheduledFuture<?> houseKeeping;
+
+	private static final class Segment {
+		private final long id;
+		private final Path file;
+		private final MappedByteBuffer buffer;
+		private int writePosition;
+		private long liveBytes;
+
+		private Segment(long id, Path file, MappedByteBuffer buffer) {
+			this.id = id;
+			this.file = file;
+			this.buffer = buffer;
+		}
+	}
+
+	private static final class Location {
+		private final Segment segment;
+		private final int offset;
+		private final int recordSize;
+		private final long expiresAt;
+
+		private Location(Segment segment, int offset, int recordSize, long expiresAt) {
+			this.segment = segment;
+			this.offset = offset;
+			this.recordSize = recordSize;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	/**
+	 * An entry read from the disk
+	 */
+	static final class DiskEntry {
+		private final long expiresAt;
+		private final byte[] value;
+
+		private DiskEntry(long expiresAt, byte[] value) {
+			this.expiresAt = expiresAt;
+			this.value = value;
+		}
+
+		long getExpiresAt() {
+			return expiresAt;
+		}
+	}
+
+	/**
+	 * A record read while scanning a segment
+	 */
+	private static final class Record {
+		private final String key;
+		private final int offset;
+		private final int recordSize;
+		private final long expiresAt;
+		private final int valueLength;
+
+		private Record(String key, int offset, int recordSize, long expiresAt, int valueLength) {
+			this.key = key;
+			this.offset = offset;
+			this.recordSize = recordSize;
+			this.expiresAt = expiresAt;
+			this.valueLength = valueLength;
+		}
+	}
+
+	DiskCache(Path directory, long maxDiskSize, Serializer serializer) {
+		this.directory = directory;
+		this.maxDiskSize = maxDiskSize;
+		this.segmentSize = (int) Math.min(maxDiskSize, Math.max(MIN_SEGMENT_SIZE, Math.min(MAX_SEGMENT_SIZE, maxDiskSize / 4)));
+		this.serializer = serializer;
+		try {
+			Files.createDirectories(directory);
+			recover();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Unable to open the disk cache at " + directory, e);
+		}
+		this.houseKeeping = CacheExecutors.getScheduler().scheduleWithFixedDelay(this::houseKeeping,
+				HOUSE_KEEPING_INTERVAL_IN_MS, HOUSE_KEEPING_INTERVAL_IN_MS, TimeUnit.MILLISECONDS);
+	}
+
+	private synchronized void recover() throws IOException {
+		List<Path> files = new ArrayList<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+			stream.forEach(files::add);
+		}
+
+		long now = System.currentTimeMillis();
+		for (Path file : files) {
+			String name = file.getFileName().toString();
+			long id;
+			try {
+				id = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+			} catch (NumberFormatException e) {
+				continue;
+			}
+			segments.put(id, new Segment(id, file, map(file)));
+		}
+
+		for (Segment segment : segments.values()) {
+			for (Record record : scan(segment)) {
+				if (record.valueLength == TOMBSTONE || record.expiresAt <= now)
+					unlink(index.remove(record.key));
+				else
+					link(record.key, new Location(segment, record.offset, record.recordSize, record.expiresAt));
+			}
+		}
+
+		activeSegment = segments.isEmpty() ? newSegment() : segments.lastEntry().getValue();
+	}
+
+	private MappedByteBuffer map(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			// the mapping stays valid after the channel is closed
+			return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+		}
+	}
+
+	/**
+	 * Read the records of the segment, the write position of the segment is moved past the last record
+	 */
+	private List<Record> scan(Segment segment) {
+		List<Record> records = new ArrayList<>();
+		ByteBuffer buffer = segment.buffer.duplicate();
+		int position = 0;
+		while (position + RECORD_HEADER_SIZE <= segmentSize) {
+			buffer.position(position);
+			int keyLength = buffer.getInt();
+			if (keyLength <= 0 || position + RECORD_HEADER_SIZE + keyLength > segmentSize)
+				break;
+
+			byte[] key = new byte[keyLength];
+			buffer.get(key);
+			long expiresAt = buffer.getLong();
+			int valueLength = buffer.getInt();
+			int recordSize = RECORD_HEADER_SIZE + keyLength + Math.max(valueLength, 0);
+			if (valueLength < TOMBSTONE || position + recordSize > segmentSize)
+				break;
+
+			records.add(new Record(new String(key, StandardCharsets.UTF_8), position, recordSize, expiresAt, valueLength));
+			position += recordSize;
+		}
+		segment.writePosition = position;
+		return records;
+	}
+
+	private Segment newSegment() throws IOException {
+		long id = segments.isEmpty() ? 0 : segments.lastKey() + 1;
+		Path file = directory.resolve(id + SEGMENT_SUFFIX);
+		Files.deleteIfExists(file);
+		Segment segment = new Segment(id, file, map(file));
+		segments.put(id, segment);
+		return segment;
+	}
+
+	/**
+	 * Store the value on the disk
+	 *
+	 * @param key       the key
+	 * @param value     the value, the values which are not serializable are not stored
+	 * @param expiresAt the expiry time in epoch ms
+	 */
+	void put(String key, Object value, long expiresAt) {
+		if (!(value instanceof Serializable) || expiresAt <= System.currentTimeMillis())
+			return;
+
+		byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+		byte[] valueBytes;
+		try {
+			valueBytes = serializer.serialize((Serializable) value);
+		} catch (RuntimeException e) {
+			return;
+		}
+
+		synchronized (this) {
+			int recordSize = RECORD_HEADER_SIZE + keyBytes.length + valueBytes.length;
+			if (recordSize > segmentSize)
+				return;
+
+			Location location = append(keyBytes, expiresAt, valueBytes, recordSize);
+			if (location != null)
+				link(key, location);
+		}
+	}
+
+	/**
+	 * Remove the entry of the given key from the disk and return it
+	 *
+	 * @param key the key
+	 * @return the entry, <code>null</code> if the disk has no live entry for the key
+	 */
+	DiskEntry take(String key) {
+		if (!index.containsKey(key))
+			return null;
+
+		// the record is read before a compaction or a rollover moves or drops its segment
+		synchronized (this) {
+			Location location = index.get(key);
+			if (location == null)
+				return null;
+
+			DiskEntry entry = null;
+			if (location.expiresAt > System.currentTimeMillis()) {
+				ByteBuffer buffer = location.segment.buffer.duplicate();
+				int keyLength = buffer.getInt(location.offset);
+				byte[] value = new byte[location.recordSize - RECORD_HEADER_SIZE - keyLength];
+				buffer.position(location.offset + RECORD_HEADER_SIZE + keyLength);
+				buffer.get(value);
+				entry = new DiskEntry(location.expiresAt, value);
+			}
+			remove(key);
+			return entry;
+		}
+	}
+
+	<T> T getValue(DiskEntry entry) {
+		return serializer.deserialize(entry.value);
+	}
+
+	boolean containsKey(String key) {
+		Location location = index.get(key);
+		return location != null && location.expiresAt > System.currentTimeMillis();
+	}
+
+	/**
+	 * @return the keys of the live entries
+	 */
+	Set<String> keySet() {
+		long now = System.currentTimeMillis();
+		return index.entrySet().stream().filter(e -> e.getValue().expiresAt > now).map(Map.Entry::getKey).collect(Collectors.toSet());
+	}
+
+	/**
+	 * Remove the entry of the given key from the disk
+	 *
+	 * @param key the key
+	 */
+	void remove(String key) {
+		if (!index.containsKey(key))
+			return;
+
+		synchronized (this) {
+			Location location = index.remove(key);
+			if (location == null)
+				return;
+
+			unlink(location);
+			// record the deletion so that the entry is not recovered after a restart
+			byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+			append(keyBytes, 0, null, RECORD_HEADER_SIZE + keyBytes.length);
+		}
+	}
+
+	/**
+	 * Remove all the entries from the disk
+	 */
+	synchronized void clear() {
+		index.clear();
+		for (Segment segment : segments.values())
+			deleteQuietly(segment.file);
+		segments.clear();
+		try {
+			activeSegment = newSegment();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	// guarded by this
+	private void link(String key, Location location) {
+		unlink(index.put(key, location));
+		location.segment.liveBytes += location.recordSize;
+	}
+
+	// guarded by this
+	private void unlink(Location location) {
+		if (location != null)
+			location.segment.liveBytes -= location.recordSize;
+	}
+
+	/**
+	 * Append a record to the active segment, rolling over to a new segment and dropping the oldest segments as required,
+	 * except the segment being compacted
+	 * guarded by this
+	 */
+	private Location append(byte[] key, long expiresAt, byte[] value, int recordSize) {
+		try {
+			if (activeSegment.writePosition + recordSize > segmentSize) {
+				activeSegment = newSegment();
+				while ((long) segments.size() * segmentSize > maxDiskSize) {
+					Segment oldest = segments.values().stream().filter(e -> e != activeSegment && e != compactingSegment).findFirst().orElse(null);
+					if (oldest == null)
+						break;
+					drop(oldest);
+				}
+			}
+		} catch (IOException e) {
+			return null;
+		}
+
+		ByteBuffer buffer = activeSegment.buffer.duplicate();
+		int offset = activeSegment.writePosition;
+		buffer.position(offset);
+		buffer.putInt(key.length).put(key).putLong(expiresAt);
+		if (value == null) {
+			buffer.putInt(TOMBSTONE);
+		} else {
+			buffer.putInt(value.length).put(value);
+		}
+		activeSegment.writePosition += recordSize;
+		return new Location(activeSegment, offset, recordSize, expiresAt);
+	}
+
+	// guarded by this
+	private void drop(Segment segment) {
+		for (Record record : scan(segment)) {
+			Location location = index.get(record.key);
+			if (location != null && location.segment == segment)
+				index.remove(record.key);
+		}
+		segments.remove(segment.id);
+		deleteQuietly(segment.file);
+	}
+
+	/**
+	 * Drop the expired entries and compact the segments holding mostly dead records
+	 */
+	private void houseKeeping() {
+		long now = System.currentTimeMillis();
+		index.forEach((key, location) -> {
+			if (location.expiresAt <= now) {
+				synchronized (this) {
+					if (index.remove(key, location))
+						unlink(location);
+				}
+			}
+		});
+
+		List<Segment> candidates = new ArrayList<>();
+		synchronized (this) {
+			for (Segment segment : segments.values()) {
+				if (segment != activeSegment && segment.liveBytes < segment.writePosition * COMPACTION_THRESHOLD)
+					candidates.add(segment);
+			}
+		}
+		candidates.forEach(this::compact);
+	}
+
+	private synchronized void compact(Segment segment) {
+		if (!segments.containsKey(segment.id))
+			return;
+
+		boolean oldest = segments.firstKey() == segment.id;
+		ByteBuffer buffer = segment.buffer.duplicate();
+		Iterator<Record> records = scan(segment).iterator();
+		compactingSegment = segment;
+		try {
+			while (records.hasNext()) {
+				Record record = records.next();
+				Location location = index.get(record.key);
+				boolean live = location != null && location.segment == segment && location.offset == record.offset;
+				// deletions must be kept as long as an older segment may hold the deleted entry
+				boolean deletion = record.valueLength == TOMBSTONE && location == null && !oldest;
+				if (!live && !deletion)
+					continue;
+
+				byte[] key = record.key.getBytes(StandardCharsets.UTF_8);
+				byte[] value = null;
+				if (live) {
+					value = new byte[record.valueLength];
+					buffer.position(record.offset + RECORD_HEADER_SIZE + key.length);
+					buffer.get(value);
+				}
+				Location moved = append(key, record.expiresAt, value, record.recordSize);
+				if (moved == null)
+					return;
+				if (live)
+					link(record.key, moved);
+			}
+		} finally {
+			compactingSegment = null;
+		}
+		segments.remove(segment.id);
+		deleteQuietly(segment.file);
+	}
+
+	/**
+	 * Stop the house-keeping and flush the segments to the disk
+	 */
+	synchronized void close() {
+		houseKeeping.cancel(false);
+		for (Segment segment : segments.values())
+			segment.buffer.force();
+	}
+
+	private static void deleteQuietly(Path file) {
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException e) {
+			// the segment is no longer referenced, it is overwritten when its id is reused
+		}
+	}
+}
@@ -0,0 +1,63 @@
+package com.here.object.cache.data;
+
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.protocol.CommandArgs;
+
+/**
+ * A value written by a {@link RedisCache}, either serialized by the writing thread, its bytes are then written as they are,
+ * or serialized by the codec of the connection when the command is written.
+ *
+ * @param <T> The datatype that can be held within the cache
+ * @author amajha
+ */
+final class EncodedValue<T> {
+
+	private final T value;
+	// null unless serialized by the writing thread
+	private final byte[] bytes;
+
+	private EncodedValue(T value, byte[] bytes) {
+		this.value = value;
+		this.bytes = bytes;
+	}
+
+	/**
+	 * @return the value, serialized by the codec of the connection
+	 */
+	static <T> EncodedValue<T> of(T value) {
+		return new EncodedValue<>(value, null);
+	}
+
+	/**
+	 * @param bytes the value serialized by the writing thread
+	 */
+	static <T> EncodedValue<T> serialized(T value, byte[] bytes) {
+		return new EncodedValue<>(value, bytes);
+	}
+
+	/**
+	 * @return the size in bytes of the value, -1 if it is not serialized yet
+	 */
+	long getSize() {
+		return bytes != null ? bytes.length : -1;
+	}
+
+	/**
+	 * Add the value to the arguments of a command
+	 */
+	CommandArgs<String, T> addTo(CommandArgs<String, T> args) {
+		return bytes != null ? args.add(bytes) : args.addValue(value);
+	}
+
+	/**
+	 * @param setArgs the arguments of the <code>SET</code>, <code>null</code> if none
+	 * @return the arguments of a <code>SET</code> of the value under the given key
+	 */
+	CommandArgs<String, T> toSetArgs(RedisCodec<String, T> codec, String key, SetArgs setArgs) {
+		CommandArgs<String, T> args = addTo(new CommandArgs<>(codec).addKey(key));
+		if (setArgs != null)
+			setArgs.build(args);
+		return args;
+	}
+}
@@ -0,0 +1,88 @@
+package com.here.object.cache.data;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Bounded multi-producer ring buffer handing the events over to a single consumer running on the event thread.
+ * <p>
+ * Publishing never blocks : a producer claims a slot by moving the tail forward and the event is dropped
+ * if the buffer is full. A drain is submitted to the event thread when the buffer turns non empty.
+ *
+ * @param <E> the type of the events
+ * @author amajha
+ */
+final class EventRingBuffer<E> {
+
+	private final AtomicReferenceArray<E> slots;
+	private final int mask;
+	private final Consumer<E> consumer;
+	private final BiConsumer<E, RuntimeException> failureHandler;
+	private final AtomicLong tail = new AtomicLong();
+	private final AtomicLong droppedCount = new AtomicLong();
+	private final AtomicBoolean drainScheduled = new AtomicBoolean();
+	// only written by the consumer
+	private volatile long head;
+
+	/**
+	 * @param capacity the max number of pending events, rounded up to a power of 2
+	 * @param consumer       invoked for each event on the event thread
+	 * @param failureHandler notified of the events the consumer failed on, the drain goes on with the next events
+	 */
+	EventRingBuffer(int capacity, Consumer<E> consumer, BiConsumer<E, RuntimeException> failureHandler) {
+		int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+		this.slots = new AtomicReferenceArray<>(size);
+		this.mask = size - 1;
+		this.consumer = consumer;
+		this.failureHandler = failureHandler;
+	}
+
+	/**
+	 * @param event the event
+	 * @return false if the event has been dropped as the buffer is full
+	 */
+	boolean publish(E event) {
+		long position;
+		do {
+			position = tail.get();
+			if (position - head > mask) {
+				droppedCount.incrementAndGet();
+				return false;
+			}
+		} while (!tail.compareAndSet(position, position + 1));
+
+		slots.lazySet((int) (position & mask), event);
+		if (drainScheduled.compareAndSet(false, true))
+			CacheExecutors.getEventExecutor().execute(this::drain);
+		return true;
+	}
+
+	long getDroppedCount() {
+		return droppedCount.get();
+	}
+
+	private void drain() {
+		do {
+			drainScheduled.set(false);
+			long position = head;
+			while (position < tail.get()) {
+				int slot = (int) (position & mask);
+				E event = slots.get(slot);
+				// the slot is claimed but the event is not written yet, the producer schedules a new drain
+				if (event == null)
+					break;
+				slots.lazySet(slot, null);
+				head = ++position;
+				try {
+					consumer.accept(event);
+				} catch (RuntimeException e) {
+					failureHandler.accept(event, e);
+				}
+			}
+			// an event published during the drain may have found the drain still scheduled
+		} while (head < tail.get() && slots.get((int) (head & mask)) != null && drainScheduled.compareAndSet(false, true));
+	}
+}
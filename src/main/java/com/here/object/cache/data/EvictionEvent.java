@@ -0,0 +1,52 @@
+package com.here.object.cache.data;
+
+/**
+ * An entry removed from a local cache without being deleted by the application
+ *
+ * @param <T> The datatype that can be held within the cache
+ * @author amajha
+ */
+public final class EvictionEvent<T> {
+
+	public enum Cause {
+		/**
+		 * Evicted to keep the cache within its max size
+		 */
+		SIZE,
+		/**
+		 * The time to live of the entry elapsed
+		 */
+		EXPIRED,
+		/**
+		 * The value was reclaimed by the garbage collector, the value of the event is <code>null</code>
+		 */
+		COLLECTED;
+	}
+
+	private final String key;
+	private final T value;
+	private final Cause cause;
+
+	EvictionEvent(String key, T value, Cause cause) {
+		this.key = key;
+		this.value = value;
+		this.cause = cause;
+	}
+
+	public String getKey() {
+		return key;
+	}
+
+	public T getValue() {
+		return value;
+	}
+
+	public Cause getCause() {
+		return cause;
+	}
+
+	@Override
+	public String toString() {
+		return "EvictionEvent{key=" + key + ", cause=" + cause + "}";
+	}
+}
@@ -0,0 +1,15 @@
+package com.here.object.cache.data;
+
+/**
+ * Notified of the entries evicted from a local cache.
+ * The events are delivered in order on a background thread shared by all the caches, hence the listener should not block.
+ * The events published while the listeners lag behind by more than the size of the event buffer are dropped.
+ *
+ * @param <T> The datatype that can be held within the cache
+ * @author amajha
+ */
+@FunctionalInterface
+public interface EvictionListener<T> {
+
+	void onEviction(EvictionEvent<T> event);
+}
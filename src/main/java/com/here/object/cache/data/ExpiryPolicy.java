@@ -0,0 +1,70 @@
+package com.here.object.cache.data;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.here.object.cache.config.redis.RedisCacheConfig;
+
+/**
+ * The expiry of the entries written to redis with the default time to live of a cache.
+ * <p>
+ * The time to live of each write is drawn uniformly between <code>ttl * (1 - jitter)</code> and the time to live,
+ * so that the entries written together do not expire together.
+ * <p>
+ * With the early expiration enabled, a read refreshes an entry when <code>loadTime * beta * -ln(random)</code>
+ * exceeds its remaining time to live (XFetch), the refreshes of an entry are hence spread over the time preceding its expiry.
+ * The load time is a moving average of the measured loads, starting from the expected load time.
+ *
+ * @author amajha
+ */
+final class ExpiryPolicy {
+
+	private final long timeToLive;
+	private final double jitter;
+	private final double beta;
+	// updated without synchronization, a lost sample only delays the average
+	private volatile long loadTimeInNanos;
+
+	ExpiryPolicy(long timeToLive, double jitter, double beta, long expectedLoadTimeInNanos) {
+		this.timeToLive = timeToLive;
+		this.jitter = jitter;
+		this.beta = beta;
+		this.loadTimeInNanos = expectedLoadTimeInNanos;
+	}
+
+	static ExpiryPolicy of(RedisCacheConfig cacheConfig) {
+		return new ExpiryPolicy(cacheConfig.getExpirationInMs(), cacheConfig.getTtlJitter(), cacheConfig.getEarlyExpirationBeta(),
+				TimeUnit.NANOSECONDS.convert(cacheConfig.getExpectedLoadTimeInMs(), TimeUnit.MILLISECONDS));
+	}
+
+	/**
+	 * @return the time to live in ms of the next write with the default time to live, 0 for no expiry
+	 */
+	long nextTimeToLive() {
+		if (timeToLive == 0 || jitter == 0)
+			return timeToLive;
+		return Math.max(1, timeToLive - (long) (ThreadLocalRandom.current().nextDouble() * jitter * timeToLive));
+	}
+
+	boolean isEarlyExpirationEnabled() {
+		return beta > 0;
+	}
+
+	/**
+	 * @param remainingTimeToLive the remaining time to live in ms as returned by PTTL, negative if the key has no expiry or does not exist
+	 * @return true if the entry should be refreshed now
+	 */
+	boolean shouldRefresh(long remainingTimeToLive) {
+		if (beta <= 0 || remainingTimeToLive < 0)
+			return false;
+
+		// 1 - random lies within (0, 1], hence the logarithm is finite
+		double gap = loadTimeInNanos / 1e6 * beta * -Math.log(1 - ThreadLocalRandom.current().nextDouble());
+		return gap >= remainingTimeToLive;
+	}
+
+	void recordLoadTime(long nanos) {
+		long average = loadTimeInNanos;
+		loadTimeInNanos = average + ((nanos - average) >> 3);
+	}
+}
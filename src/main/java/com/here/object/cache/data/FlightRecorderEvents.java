@@ -0,0 +1,196 @@
+package com.here.object.cache.data;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * JDK Flight Recorder events of the caches, recorded in the category <code>Object Cache</code> while a recording enables them.
+ * <p>
+ * The library targets java 8, hence the events are defined at runtime through <code>jdk.jfr.EventFactory</code> and driven by method handles,
+ * they are no-ops on a runtime without the flight recorder. An event is allocated only while it is enabled, its duration is the one measured by
+ * the recorder, and it is committed only if it lasts longer than its threshold, which the recording settings may override,
+ * such as <code>com.here.object.cache.RemoteCall#threshold=50 ms</code>.
+ * <p>
+ * Every event carries the id of the cache, the hash of the key, <code>0</code> if the event covers several keys, and a size,
+ * in bytes for the events of a value, <code>-1</code> if unknown, and in keys for the batches and the scans.
+ *
+ * @author amajha
+ */
+final class FlightRecorderEvents {
+
+	private static final String EVENT_PREFIX = "com.here.object.cache.";
+	private static final String CATEGORY = "Object Cache";
+
+	// the fields of the events, in order
+	private static final int CACHE_ID = 0;
+	private static final int KEY_HASH = 1;
+	private static final int SIZE = 2;
+
+	private static final MethodHandle NEW_EVENT;
+	private static final MethodHandle IS_ENABLED;
+	private static final MethodHandle BEGIN;
+	private static final MethodHandle END;
+	private static final MethodHandle SHOULD_COMMIT;
+	private static final MethodHandle SET;
+	private static final MethodHandle COMMIT;
+
+	static {
+		MethodHandle newEvent = null, isEnabled = null, begin = null, end = null, shouldCommit = null, set = null, commit = null;
+		try {
+			Class<?> factoryClass = Class.forName("jdk.jfr.EventFactory");
+			Class<?> eventTypeClass = Class.forName("jdk.jfr.EventType");
+			Class<?> eventClass = Class.forName("jdk.jfr.Event");
+			MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+			newEvent = adapt(lookup.findVirtual(factoryClass, "newEvent", MethodType.methodType(eventClass)), Object.class, Object.class);
+			isEnabled = adapt(lookup.findVirtual(eventTypeClass, "isEnabled", MethodType.methodType(boolean.class)), boolean.class, Object.class);
+			begin = adapt(lookup.findVirtual(eventClass, "begin", MethodType.methodType(void.class)), void.class, Object.class);
+			end = adapt(lookup.findVirtual(eventClass, "end", MethodType.methodType(void.class)), void.class, Object.class);
+			shouldCommit = adapt(lookup.findVirtual(eventClass, "shouldCommit", MethodType.methodType(boolean.class)), boolean.class, Object.class);
+			set = adapt(lookup.findVirtual(eventClass, "set", MethodType.methodType(void.class, int.class, Object.class)), void.class, Object.class, int.class, Object.class);
+			commit = adapt(lookup.findVirtual(eventClass, "commit", MethodType.methodType(void.class)), void.class, Object.class);
+		} catch (ReflectiveOperationException | LinkageError e) {
+			// no flight recorder in this runtime
+			newEvent = null;
+		}
+		NEW_EVENT = newEvent;
+		IS_ENABLED = isEnabled;
+		BEGIN = begin;
+		END = end;
+		SHOULD_COMMIT = shouldCommit;
+		SET = set;
+		COMMIT = commit;
+	}
+
+	// defined once the method handles are resolved
+	static final FlightRecorderEvents REMOTE_CALL = new FlightRecorderEvents("RemoteCall", "Remote Call",
+			"A redis command slower than the threshold", "10 ms", true);
+	static final FlightRecorderEvents LOAD = new FlightRecorderEvents("Load", "Loader Execution",
+			"An execution of the value loader of a cache", "0 ns", true);
+	static final FlightRecorderEvents EVICTION = new FlightRecorderEvents("Eviction", "Eviction",
+			"An entry evicted from a local cache for want of space, expired or collected", "0 ns", true);
+	static final FlightRecorderEvents BATCH_WRITE = new FlightRecorderEvents("BatchWrite", "Batch Write",
+			"A batch of commands sent to redis at once", "0 ns", false);
+	static final FlightRecorderEvents SCAN = new FlightRecorderEvents("Scan", "Key Scan",
+			"A scan of the keys of a cache, by the warm up or the rebuild of the bloom filter", "0 ns", false);
+
+	// the factory must be held for the event to stay registered, null if the events are not available
+	private final Object factory;
+	private final Object eventType;
+
+	private FlightRecorderEvents(String name, String label, String description, String threshold, boolean sizeInBytes) {
+		Object eventFactory = null;
+		Object type = null;
+		if (NEW_EVENT != null) {
+			try {
+				eventFactory = define(name, label, description, threshold, sizeInBytes);
+				type = eventFactory.getClass().getMethod("getEventType").invoke(eventFactory);
+			} catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+				System.err.println("Unable to define the flight recorder event " + EVENT_PREFIX + name + " : " + e);
+				eventFactory = null;
+			}
+		}
+		this.factory = eventFactory;
+		this.eventType = type;
+	}
+
+	private static MethodHandle adapt(MethodHandle handle, Class<?> returnType, Class<?>... parameterTypes) {
+		return handle.asType(MethodType.methodType(returnType, parameterTypes));
+	}
+
+	private static Object define(String name, String label, String description, String threshold, boolean sizeInBytes) throws ReflectiveOperationException {
+		Class<?> factoryClass = Class.forName("jdk.jfr.EventFactory");
+		Class<?> annotationClass = Class.forName("jdk.jfr.AnnotationElement");
+		Class<?> descriptorClass = Class.forName("jdk.jfr.ValueDescriptor");
+		Constructor<?> annotation = annotationClass.getConstructor(Class.class, Object.class);
+		Constructor<?> descriptor = descriptorClass.getConstructor(Class.class, String.class, List.class);
+
+		List<Object> eventAnnotations = Arrays.asList(
+				annotation.newInstance(jfrAnnotation("Name"), EVENT_PREFIX + name),
+				annotation.newInstance(jfrAnnotation("Label"), label),
+				annotation.newInstance(jfrAnnotation("Description"), description),
+				annotation.newInstance(jfrAnnotation("Category"), new String[]{CATEGORY}),
+				annotation.newInstance(jfrAnnotation("Threshold"), threshold));
+
+		List<Object> sizeAnnotations = sizeInBytes
+				? Arrays.asList(annotation.newInstance(jfrAnnotation("Label"), "Size"), annotation.newInstance(jfrAnnotation("DataAmount"), "BYTES"))
+				: Collections.singletonList(annotation.newInstance(jfrAnnotation("Label"), "Keys"));
+		List<Object> fields = Arrays.asList(
+				descriptor.newInstance(String.class, "cacheId", Collections.singletonList(annotation.newInstance(jfrAnnotation("Label"), "Cache Id"))),
+				descriptor.newInstance(int.class, "keyHash", Collections.singletonList(annotation.newInstance(jfrAnnotation("Label"), "Key Hash"))),
+				descriptor.newInstance(long.class, "size", sizeAnnotations));
+
+		return factoryClass.getMethod("create", List.class, List.class).invoke(null, eventAnnotations, fields);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Class<? extends Annotation> jfrAnnotation(String name) throws ClassNotFoundException {
+		return (Class<? extends Annotation>) Class.forName("jdk.jfr." + name);
+	}
+
+	/**
+	 * @return true if a recording enables the event
+	 */
+	boolean isEnabled() {
+		if (factory == null)
+			return false;
+		try {
+			return (boolean) IS_ENABLED.invokeExact(eventType);
+		} catch (Throwable e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Start timing an event
+	 *
+	 * @return the event begun, <code>null</code> if the event is not enabled
+	 */
+	Object begin() {
+		if (!isEnabled())
+			return null;
+		try {
+			Object event = (Object) NEW_EVENT.invokeExact(factory);
+			BEGIN.invokeExact(event);
+			return event;
+		} catch (Throwable e) {
+			return null;
+		}
+	}
+
+	/**
+	 * End an event begun, it is committed if it lasted longer than its threshold
+	 *
+	 * @param event the event begun, nothing is recorded if <code>null</code>
+	 * @param key   the key of the event, <code>null</code> if it covers several keys
+	 */
+	void end(Object event, String cacheId, String key, long size) {
+		if (event == null)
+			return;
+		try {
+			END.invokeExact(event);
+			if (!(boolean) SHOULD_COMMIT.invokeExact(event))
+				return;
+			SET.invokeExact(event, CACHE_ID, (Object) cacheId);
+			SET.invokeExact(event, KEY_HASH, (Object) (key != null ? key.hashCode() : 0));
+			SET.invokeExact(event, SIZE, (Object) size);
+			COMMIT.invokeExact(event);
+		} catch (Throwable e) {
+			// the event is lost
+		}
+	}
+
+	/**
+	 * Record an event without duration
+	 *
+	 * @param key the key of the event, <code>null</code> if it covers several keys
+	 */
+	void record(String cacheId, String key, long size) {
+		end(begin(), cacheId, key, size);
+	}
+}
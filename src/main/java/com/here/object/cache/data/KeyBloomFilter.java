@@ -0,0 +1,106 @@
+package com.here.object.cache.data;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over the keys of a cache, safe for concurrent use.
+ * <p>
+ * The bits are laid out as in a redis bitmap : the bit at offset 0 is the most significant bit of the first byte,
+ * hence the filter can be copied to and merged from a bitmap as is.
+ *
+ * @author amajha
+ */
+final class KeyBloomFilter {
+
+	private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+	private final AtomicLongArray bits;
+	private final long bitCount;
+	private final int hashCount;
+
+	/**
+	 * @param bitCount  the number of bits, a multiple of 64
+	 * @param hashCount the number of bits set per key
+	 */
+	KeyBloomFilter(long bitCount, int hashCount) {
+		this.bits = new AtomicLongArray((int) (bitCount / Long.SIZE));
+		this.bitCount = bitCount;
+		this.hashCount = hashCount;
+	}
+
+	/**
+	 * @return an empty filter of the same size
+	 */
+	KeyBloomFilter emptyCopy() {
+		return new KeyBloomFilter(bitCount, hashCount);
+	}
+
+	/**
+	 * The offsets of the bits of the key, derived from two 64 bit hashes as <code>h1 + i * h2</code>
+	 */
+	long[] offsets(String key) {
+		HashCode hashCode = HASH_FUNCTION.hashString(key, StandardCharsets.UTF_8);
+		ByteBuffer hash = ByteBuffer.wrap(hashCode.asBytes()).order(ByteOrder.LITTLE_ENDIAN);
+		long combined = hash.getLong(0);
+		long increment = hash.getLong(8);
+
+		long[] offsets = new long[hashCount];
+		for (int i = 0; i < hashCount; i++) {
+			offsets[i] = (combined & Long.MAX_VALUE) % bitCount;
+			combined += increment;
+		}
+		return offsets;
+	}
+
+	void put(String key) {
+		for (long offset : offsets(key)) {
+			long mask = mask(offset);
+			int index = (int) (offset >>> 6);
+			if ((bits.get(index) & mask) == 0)
+				bits.getAndAccumulate(index, mask, (a, b) -> a | b);
+		}
+	}
+
+	boolean mightContain(String key) {
+		for (long offset : offsets(key)) {
+			if ((bits.get((int) (offset >>> 6)) & mask(offset)) == 0)
+				return false;
+		}
+		return true;
+	}
+
+	private static long mask(long offset) {
+		return 1L << (Long.SIZE - 1 - (offset & (Long.SIZE - 1)));
+	}
+
+	/**
+	 * @return the bits in the layout of a redis bitmap
+	 */
+	byte[] toByteArray() {
+		ByteBuffer buffer = ByteBuffer.allocate(bits.length() * Long.BYTES);
+		for (int i = 0; i < bits.length(); i++)
+			buffer.putLong(bits.get(i));
+		return buffer.array();
+	}
+
+	/**
+	 * Set the bits set in the given redis bitmap, a bitmap shorter than the filter is padded with zeros
+	 */
+	void or(byte[] bitmap) {
+		byte[] padded = new byte[bits.length() * Long.BYTES];
+		System.arraycopy(bitmap, 0, padded, 0, Math.min(bitmap.length, padded.length));
+		ByteBuffer buffer = ByteBuffer.wrap(padded);
+		for (int i = 0; i < bits.length(); i++) {
+			long mask = buffer.getLong();
+			if (mask != 0)
+				bits.getAndAccumulate(i, mask, (a, b) -> a | b);
+		}
+	}
+}
@@ -0,0 +1,48 @@
+package com.here.object.cache.data;
+
+/**
+ * A value written to a cache larger than the threshold of the cache, see {@link com.here.object.cache.config.redis.ValueSizeConfig}
+ *
+ * @author amajha
+ */
+public final class LargeValueEvent {
+
+	private final String cacheId;
+	private final String key;
+	private final long sizeInBytes;
+	private final boolean rejected;
+
+	LargeValueEvent(String cacheId, String key, long sizeInBytes, boolean rejected) {
+		this.cacheId = cacheId;
+		this.key = key;
+		this.sizeInBytes = sizeInBytes;
+		this.rejected = rejected;
+	}
+
+	public String getCacheId() {
+		return cacheId;
+	}
+
+	public String getKey() {
+		return key;
+	}
+
+	/**
+	 * @return the size of the serialized value
+	 */
+	public long getSizeInBytes() {
+		return sizeInBytes;
+	}
+
+	/**
+	 * @return true if the value was larger than the max size, in which case it was not written
+	 */
+	public boolean isRejected() {
+		return rejected;
+	}
+
+	@Override
+	public String toString() {
+		return "LargeValueEvent{cacheId=" + cacheId + ", key=" + key + ", sizeInBytes=" + sizeInBytes + ", rejected=" + rejected + "}";
+	}
+}
@@ -0,0 +1,13 @@
+package com.here.object.cache.data;
+
+/**
+ * Notified of the values written to a cache larger than its threshold.
+ * The events are delivered on the writing thread before the value is sent, hence the listener should not block.
+ *
+ * @author amajha
+ */
+@FunctionalInterface
+public interface LargeValueListener {
+
+	void onLargeValue(LargeValueEvent event);
+}
@@ -1,15 +1,25 @@
 package com.here.object.cache.data;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
 import com.here.object.cache.config.local.LocalCacheConfig;
 import com.here.object.cache.exceptions.NonUniqueKeyException;
 import reactor.core.publisher.Mono;
@@ -24,12 +34,39 @@ public class LocalCache<T>  implements DataCache<T>{
 	private LocalCacheConfig cacheConfig;
 	private LoadingCache<String, T> localCache;
 	private Cache<String, Collection<T>> collectionLocalCache;
+	// the keys the loader found no value for, null unless the misses are cached
+	private Cache<String, Boolean> loaderMisses;
+	private final LongAdder negativeHitCount = new LongAdder();
 
 	private RedisCache<T> remoteCache;
 	private Function<String, T> valueSupplier;
 
 	private String cacheId;
 
+	private LocalCacheSnapshot snapshot;
+	private DiskCache diskCache;
+	// the time at which the entries were written, only tracked when the snapshot or the disk cache is enabled
+	private Map<String, Long> writeTimes;
+
+	private static final int EVENT_BUFFER_SIZE = 4096;
+	private final LongAdder sizeEvictionCount = new LongAdder();
+	private final LongAdder expiredCount = new LongAdder();
+	private final LongAdder collectedCount = new LongAdder();
+	private final LongAdder backgroundFailureCount = new LongAdder();
+	private final List<EvictionListener<T>> evictionListeners = new CopyOnWriteArrayList<>();
+	// created along with the first listener
+	private volatile EventRingBuffer<EvictionEvent<T>> evictionEvents;
+
+	// the locks are kept for the life of the cache
+	private final Map<String, LocalCacheLock> locks = new ConcurrentHashMap<>();
+	// null while no operation listener is registered
+	private volatile OperationTracer tracer;
+	// held exclusively while a transaction commits, shared by the writes, the gets only validate it unless a commit is running
+	private final StampedLock transactionLock = new StampedLock();
+	// the number of times the current thread holds the lock, as the lock is not reentrant : the writes of a committing transaction
+	// and the writes of a mapping function run within computeIfAbsent run without taking it again
+	private final ThreadLocal<int[]> lockHolds = ThreadLocal.withInitial(() -> new int[1]);
+
 	private static HashMap<String, LocalCache<?>> cacheMap= new HashMap<>();
 
 	/**
@@ -43,6 +80,7 @@ public class LocalCache<T>  implements DataCache<T>{
 		this.collectionLocalCache=configureCollectionCache();
 		this.cacheId = UUID.randomUUID().toString();
 		LocalCache.cacheMap.put(cacheId, this);
+		configurePersistence();
 	}
 
 	/**
@@ -57,6 +95,7 @@ public class LocalCache<T>  implements DataCache<T>{
 		this.collectionLocalCache=configureCollectionCache();
 		this.cacheId = cacheId;
 		LocalCache.cacheMap.put(cacheId, this);
+		configurePersistence();
 	}
 
 	/**
@@ -72,6 +111,7 @@ public class LocalCache<T>  implements DataCache<T>{
 		this.valueSupplier = valueSupplier;
 		this.cacheId = UUID.randomUUID().toString();
 		LocalCache.cacheMap.put(cacheId, this);
+		configurePersistence();
 	}
 
 	/**
@@ -88,6 +128,7 @@ public class LocalCache<T>  implements DataCache<T>{
 		this.valueSupplier = valueSupplier;
 		this.cacheId = cacheId;
 		LocalCache.cacheMap.put(cacheId, this);
+		configurePersistence();
 	}
 
 
@@ -104,6 +145,7 @@ public class LocalCache<T>  implements DataCache<T>{
 		this.remoteCache = redisCache;
 		this.cacheId = UUID.randomUUID().toString();
 		LocalCache.cacheMap.put(cacheId, this);
+		configurePersistence();
 	}
 
 	/**
@@ -121,6 +163,7 @@ public class LocalCache<T>  implements DataCache<T>{
 		if(cacheId == null)
 			this.cacheId = UUID.randomUUID().toString();
 		LocalCache.cacheMap.put(cacheId, this);
+		configurePersistence();
 	}
 
 
@@ -139,6 +182,7 @@ public class LocalCache<T>  implements DataCache<T>{
 		this.valueSupplier = valueSupplier;
 		this.cacheId = UUID.randomUUID().toString();
 		LocalCache.cacheMap.put(cacheId, this);
+		configurePersistence();
 	}
 
 	/**
@@ -159,6 +203,7 @@ public class LocalCache<T>  implements DataCache<T>{
 		if(cacheId == null)
 			this.cacheId = UUID.randomUUID().toString();
 		LocalCache.cacheMap.put(cacheId, this);
+		configurePersistence();
 	}
 
 	private LoadingCache<String, T> configureLocalCache() {
@@ -166,13 +211,37 @@ public class LocalCache<T>  implements DataCache<T>{
 		CacheLoader<String, T> cacheLoader = new CacheLoader<String, T>() {
 			@Override
 			public T load(String key) throws Exception {
+
+				if (snapshot != null) {
+					LocalCacheSnapshot.SnapshotEntry entry = snapshot.take(key);
+					if (entry != null) {
+						recordWrite(key, entry.getExpiresAt() - cacheConfig.getExpirationInMs());
+						return snapshot.getValue(entry);
+					}
+				}
+
+				if (diskCache != null) {
+					DiskCache.DiskEntry entry = diskCache.take(key);
+					if (entry != null) {
+						recordWrite(key, entry.getExpiresAt() - cacheConfig.getExpirationInMs());
+						return diskCache.getValue(entry);
+					}
+				}
 				
 				if (remoteCache != null) {
 					return remoteCache.getFromRemote(key);
 				}
 				
 				if(valueSupplier!=null) {
-					T t = valueSupplier.apply(key);
+					Object event = FlightRecorderEvents.LOAD.begin();
+					T t;
+					try {
+						t = valueSupplier.apply(key);
+					} finally {
+						FlightRecorderEvents.LOAD.end(event, cacheId, key, -1);
+					}
+					if (t != null)
+						markTier(CacheTier.LOADER);
 					Optional.ofNullable(t).ifPresent(e->{
 						if(remoteCache!=null)
 							remoteCache.store(key, e);
@@ -184,10 +253,220 @@ public class LocalCache<T>  implements DataCache<T>{
 			}
 		};
 		
+		CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder()
+				.expireAfterWrite(cacheConfig.getExpirationInMs(), TimeUnit.MILLISECONDS);
+		if (cacheConfig.getMaxWeightInBytes() != 0)
+			cacheBuilder = cacheBuilder.maximumWeight(cacheConfig.getMaxWeightInBytes())
+					.weigher(ObjectSizeEstimator.weigher(cacheConfig.getWeightEstimate(), cacheConfig.getSerializer()));
+		else
+			cacheBuilder.maximumSize(cacheConfig.getCacheSize());
+		if (cacheConfig.isSoftValues())
+			cacheBuilder.softValues();
+		cacheBuilder.recordStats();
+
+		if (cacheConfig.getSnapshotDirectory() != null || cacheConfig.getDiskCacheDirectory() != null)
+			this.writeTimes = new ConcurrentHashMap<>();
+		RemovalListener<String, T> removalListener = notification -> {
+			if (notification.getCause() == RemovalCause.REPLACED)
+				return;
+
+			recordEviction(notification);
+			if (writeTimes == null)
+				return;
+
+			Long writeTime = writeTimes.remove(notification.getKey());
+			if (diskCache == null)
+				return;
+
+			// entries evicted for want of heap space move to the disk, the others are gone for good
+			if (notification.getCause() == RemovalCause.SIZE) {
+				long expiresAt = (writeTime == null ? System.currentTimeMillis() : writeTime) + cacheConfig.getExpirationInMs();
+				diskCache.put(notification.getKey(), notification.getValue(), expiresAt);
+			} else if (notification.getCause() != RemovalCause.COLLECTED) {
+				diskCache.remove(notification.getKey());
+			}
+		};
+		this.loaderMisses = configureMissCache();
+		return cacheBuilder.removalListener(removalListener).build(cacheLoader);
+	}
+
+	private Cache<String, Boolean> configureMissCache() {
+		if (cacheConfig.getNegativeCacheTtlInMs() == 0)
+			return null;
 		return CacheBuilder.newBuilder()
-				.expireAfterWrite(cacheConfig.getExpirationInMs(), TimeUnit.MILLISECONDS)
+				.expireAfterWrite(cacheConfig.getNegativeCacheTtlInMs(), TimeUnit.MILLISECONDS)
 				.maximumSize(cacheConfig.getCacheSize())
-				.build(cacheLoader);
+				.build();
+	}
+
+	/**
+	 * @return true if the loader found no value for the key within the negative cache TTL, counted as a negative hit
+	 */
+	boolean isCachedMiss(String key) {
+		if (loaderMisses == null || loaderMisses.getIfPresent(key) == null)
+			return false;
+		negativeHitCount.increment();
+		return true;
+	}
+
+	/**
+	 * Count the entries removed without being deleted by the application, and publish them to the eviction listeners if any.
+	 * Runs on the thread of the cache operation, hence the listeners are only notified through the event buffer.
+	 */
+	private void recordEviction(RemovalNotification<String, T> notification) {
+		EvictionEvent.Cause cause;
+		switch (notification.getCause()) {
+			case SIZE:
+				sizeEvictionCount.increment();
+				cause = EvictionEvent.Cause.SIZE;
+				break;
+			case EXPIRED:
+				expiredCount.increment();
+				cause = EvictionEvent.Cause.EXPIRED;
+				break;
+			case COLLECTED:
+				collectedCount.increment();
+				cause = EvictionEvent.Cause.COLLECTED;
+				break;
+			default:
+				return;
+		}
+		// the heap holds the values deserialized, their size is unknown
+		FlightRecorderEvents.EVICTION.record(cacheId, notification.getKey(), -1);
+
+		EventRingBuffer<EvictionEvent<T>> events = this.evictionEvents;
+		if (events != null)
+			events.publish(new EvictionEvent<>(notification.getKey(), notification.getValue(), cause));
+	}
+
+	private void dispatchEviction(EvictionEvent<T> event) {
+		for (EvictionListener<T> listener : evictionListeners) {
+			try {
+				listener.onEviction(event);
+			} catch (RuntimeException e) {
+				reportFailure(CacheOperation.EVICTION_NOTIFICATION, event.getKey(), e);
+			}
+		}
+	}
+
+	@Override
+	public synchronized void addEvictionListener(EvictionListener<T> listener) {
+		evictionListeners.add(Objects.requireNonNull(listener, "Eviction listener cannot be null"));
+		if (evictionEvents == null)
+			evictionEvents = new EventRingBuffer<>(EVENT_BUFFER_SIZE, this::dispatchEviction,
+					(event, e) -> reportFailure(CacheOperation.EVICTION_NOTIFICATION, event.getKey(), e));
+	}
+
+	@Override
+	public void removeEvictionListener(EvictionListener<T> listener) {
+		evictionListeners.remove(listener);
+	}
+
+	@Override
+	public CacheStats stats() {
+		com.google.common.cache.CacheStats stats = localCache.stats();
+		EventRingBuffer<EvictionEvent<T>> events = this.evictionEvents;
+		return new CacheStats(stats.hitCount(), stats.missCount(), stats.loadSuccessCount(), stats.loadExceptionCount(),
+				stats.totalLoadTime(), sizeEvictionCount.sum(), expiredCount.sum(), collectedCount.sum(),
+				events == null ? 0 : events.getDroppedCount(), negativeHitCount.sum(), backgroundFailureCount.sum());
+	}
+
+	/**
+	 * Report the failure of a task run in the background to the operation listeners and to the statistics,
+	 * the ones of the remote cache holding this cache if any
+	 *
+	 * @param key the key, <code>null</code> if the task covers several keys
+	 */
+	private void reportFailure(CacheOperation operation, String key, Throwable error) {
+		if (remoteCache != null) {
+			remoteCache.reportFailure(operation, key, error);
+			return;
+		}
+		backgroundFailureCount.increment();
+		OperationTracer.reportFailure(tracer, cacheId, operation, key, error);
+	}
+
+	private void configurePersistence() {
+		if (cacheConfig.getDiskCacheDirectory() != null) {
+			Path diskCacheDirectory = Paths.get(cacheConfig.getDiskCacheDirectory(), this.cacheId);
+			this.diskCache = new DiskCache(diskCacheDirectory, cacheConfig.getMaxDiskSizeInBytes(), cacheConfig.getSerializer());
+		}
+
+		if (cacheConfig.getSnapshotDirectory() != null) {
+			Path snapshotFile = Paths.get(cacheConfig.getSnapshotDirectory(), this.cacheId + ".snapshot");
+			this.snapshot = new LocalCacheSnapshot(snapshotFile, cacheConfig.getSerializer());
+			this.snapshot.schedule(this::saveSnapshotQuietly, cacheConfig.getSnapshotIntervalInMs());
+		}
+	}
+
+	/**
+	 * Move the entry of the given key from the snapshot or the disk back to the heap, so that the conditional writes see the value held there
+	 */
+	private void promote(String key) {
+		if ((snapshot != null && snapshot.containsKey(key)) || (diskCache != null && diskCache.containsKey(key)))
+			get(key);
+	}
+
+	/**
+	 * Drop the entry of the given key from the snapshot and the disk, so that a deleted key is not loaded back
+	 *
+	 * @return true if either held the key
+	 */
+	private boolean removePersisted(String key) {
+		boolean removed = snapshot != null && snapshot.remove(key);
+		if (diskCache != null && diskCache.containsKey(key)) {
+			diskCache.remove(key);
+			removed = true;
+		}
+		return removed;
+	}
+
+	private void recordWrite(String key) {
+		if (writeTimes != null)
+			writeTimes.put(key, System.currentTimeMillis());
+		if (loaderMisses != null)
+			loaderMisses.invalidate(key);
+	}
+
+	private void recordWrite(String key, long writeTime) {
+		if (writeTimes != null)
+			writeTimes.put(key, writeTime);
+	}
+
+	/**
+	 * Entries restored from the snapshot expire as per their remaining time to live rather than a full expiry period
+	 */
+	private boolean isExpired(String key) {
+		if (writeTimes == null)
+			return false;
+
+		Long writeTime = writeTimes.get(key);
+		return writeTime != null && writeTime + cacheConfig.getExpirationInMs() <= System.currentTimeMillis();
+	}
+
+	/**
+	 * Write the entries of this cache to the snapshot file
+	 *
+	 * @throws IOException if the snapshot cannot be written
+	 * @throws IllegalStateException if the snapshot is not enabled for this cache
+	 */
+	public void saveSnapshot() throws IOException {
+		if (snapshot == null)
+			throw new IllegalStateException("Snapshot not enabled for the cache : " + cacheId);
+
+		// drop the write times of the entries which were evicted while being loaded
+		writeTimes.keySet().retainAll(localCache.asMap().keySet());
+
+		long now = System.currentTimeMillis();
+		snapshot.save(localCache.asMap(), key -> writeTimes.getOrDefault(key, now) + cacheConfig.getExpirationInMs());
+	}
+
+	private void saveSnapshotQuietly() {
+		try {
+			saveSnapshot();
+		} catch (IOException | RuntimeException e) {
+			reportFailure(CacheOperation.SNAPSHOT_SAVE, null, e);
+		}
 	}
 	
 	private Cache<String, Collection<T>> configureCollectionCache(){
@@ -200,6 +479,12 @@ public class LocalCache<T>  implements DataCache<T>{
 
 	public void deleteCacheReference() {
 		LocalCache.cacheMap.remove(this.cacheId);
+		if (snapshot != null) {
+			snapshot.cancel();
+			saveSnapshotQuietly();
+		}
+		if (diskCache != null)
+			diskCache.close();
 	}
 
 	public static <T> LocalCache<T> getCacheById(String cacheId){
@@ -208,35 +493,200 @@ public class LocalCache<T>  implements DataCache<T>{
 
 	@Override
 	public T store(String key, T t) {
-		if(!Objects.isNull(localCache.getIfPresent(key)))
+		OperationTracer tracer = this.tracer;
+		if (tracer == null)
+			return runWrite(() -> doStore(key, t));
+		return tracer.traceWrite(CacheOperation.STORE, key, () -> runWrite(() -> doStore(key, t)));
+	}
+
+	private T doStore(String key, T t) {
+		promote(key);
+		if(!Objects.isNull(localCache.asMap().putIfAbsent(key, t)))
 			throw new NonUniqueKeyException("Key : "+key +" already present in the cache, to replace the value, use DataCache::replace() instead.");
 		
-		localCache.put(key, t);
+		recordWrite(key);
 		return t;
 	}
 
 
 	@Override
 	public T get(String key) {
+		OperationTracer tracer = this.tracer;
+		if (tracer == null)
+			return doGet(key);
+		return tracer.traceRead(CacheOperation.GET, key, () -> doGet(key));
+	}
+
+	private T doGet(String key) {
+		long stamp = transactionLock.tryOptimisticRead();
+		T t = read(key);
+		if (transactionLock.validate(stamp))
+			return t;
+		// the current thread commits a transaction or runs within a write
+		if (lockHolds.get()[0] > 0)
+			return read(key);
+
+		// a transaction committed meanwhile, read again once it is over
+		stamp = transactionLock.readLock();
 		try {
-			return localCache.getUnchecked(key);
+			return read(key);
+		} finally {
+			transactionLock.unlockRead(stamp);
+		}
+	}
+
+	private T read(String key) {
+		if (isExpired(key))
+			localCache.invalidate(key);
+		if (isCachedMiss(key))
+			return null;
+
+		try {
+			T t = localCache.getUnchecked(key);
+			// the loaded entries are written at the time of the first get
+			if (writeTimes != null)
+				writeTimes.putIfAbsent(key, System.currentTimeMillis());
+			return t;
 		}catch (CacheLoader.InvalidCacheLoadException e){
+			if (loaderMisses != null && (remoteCache != null || valueSupplier != null))
+				loaderMisses.put(key, Boolean.TRUE);
 			return null;
 		}
 	}
 
+	/**
+	 * Fetch the value held on the heap, neither the disk nor the loader are looked up
+	 */
+	T getIfPresent(String key) {
+		if (isExpired(key))
+			localCache.invalidate(key);
+		return localCache.getIfPresent(key);
+	}
+
 	@Override
 	public T replace(String key, T t) {
+		OperationTracer tracer = this.tracer;
+		if (tracer == null)
+			return runWrite(() -> doReplace(key, t));
+		return tracer.traceWrite(CacheOperation.REPLACE, key, () -> runWrite(() -> doReplace(key, t)));
+	}
+
+	private T doReplace(String key, T t) {
 		localCache.put(key, t);
+		recordWrite(key);
 		return t;
 	}
 
 
+	@Override
+	public T putIfAbsent(String key, T t) {
+		OperationTracer tracer = this.tracer;
+		if (tracer == null)
+			return runWrite(() -> doPutIfAbsent(key, t));
+		return tracer.traceWrite(CacheOperation.PUT_IF_ABSENT, key, () -> runWrite(() -> doPutIfAbsent(key, t)));
+	}
+
+	private T doPutIfAbsent(String key, T t) {
+		promote(key);
+		T existing = localCache.asMap().putIfAbsent(key, t);
+		if (existing == null)
+			recordWrite(key);
+		return existing;
+	}
+
+	@Override
+	public boolean replaceIfPresent(String key, T t) {
+		OperationTracer tracer = this.tracer;
+		if (tracer == null)
+			return runWrite(() -> doReplaceIfPresent(key, t));
+		return tracer.traceWrite(CacheOperation.REPLACE_IF_PRESENT, key, () -> runWrite(() -> doReplaceIfPresent(key, t)));
+	}
+
+	private boolean doReplaceIfPresent(String key, T t) {
+		promote(key);
+		boolean replaced = localCache.asMap().replace(key, t) != null;
+		if (replaced)
+			recordWrite(key);
+		return replaced;
+	}
+
+	@Override
+	public boolean compareAndReplace(String key, T expected, T newValue) {
+		OperationTracer tracer = this.tracer;
+		if (tracer == null)
+			return runWrite(() -> doCompareAndReplace(key, expected, newValue));
+		return tracer.traceWrite(CacheOperation.COMPARE_AND_REPLACE, key, () -> runWrite(() -> doCompareAndReplace(key, expected, newValue)));
+	}
+
+	private boolean doCompareAndReplace(String key, T expected, T newValue) {
+		promote(key);
+		boolean replaced = localCache.asMap().replace(key, expected, newValue);
+		if (replaced)
+			recordWrite(key);
+		return replaced;
+	}
+
+	@Override
+	public T getAndDelete(String key) {
+		OperationTracer tracer = this.tracer;
+		if (tracer == null)
+			return runWrite(() -> doGetAndDelete(key));
+		return tracer.traceRead(CacheOperation.GET_AND_DELETE, key, () -> runWrite(() -> doGetAndDelete(key)));
+	}
+
+	private T doGetAndDelete(String key) {
+		promote(key);
+		return localCache.asMap().remove(key);
+	}
+
+	@Override
+	public T getAndSet(String key, T t) {
+		OperationTracer tracer = this.tracer;
+		if (tracer == null)
+			return runWrite(() -> doGetAndSet(key, t));
+		return tracer.traceWrite(CacheOperation.GET_AND_SET, key, () -> runWrite(() -> doGetAndSet(key, t)));
+	}
+
+	private T doGetAndSet(String key, T t) {
+		promote(key);
+		T previous = localCache.asMap().put(key, t);
+		recordWrite(key);
+		return previous;
+	}
+
+	@Override
+	public T computeIfAbsent(String key, Function<String, T> mappingFunction) {
+		OperationTracer tracer = this.tracer;
+		if (tracer == null)
+			return runWrite(() -> doComputeIfAbsent(key, mappingFunction));
+		return tracer.traceRead(CacheOperation.COMPUTE_IF_ABSENT, key, () -> runWrite(() -> doComputeIfAbsent(key, mappingFunction)));
+	}
+
+	private T doComputeIfAbsent(String key, Function<String, T> mappingFunction) {
+		promote(key);
+		return localCache.asMap().computeIfAbsent(key, e -> {
+			T t = mappingFunction.apply(e);
+			if (t != null) {
+				recordWrite(e);
+				markTier(CacheTier.LOADER);
+			}
+			return t;
+		});
+	}
+
 	@Override
 	public boolean deleteIfPresent(String key) {
+		OperationTracer tracer = this.tracer;
+		if (tracer == null)
+			return runWrite(() -> doDeleteIfPresent(key));
+		return tracer.traceWrite(CacheOperation.DELETE, key, () -> runWrite(() -> doDeleteIfPresent(key)));
+	}
+
+	private boolean doDeleteIfPresent(String key) {
 		T t= localCache.getIfPresent(key);
 		localCache.invalidate(key);
-		return t!=null;
+		boolean persisted = removePersisted(key);
+		return t != null || persisted;
 	}
 
 	@Override
@@ -260,6 +710,10 @@ public class LocalCache<T>  implements DataCache<T>{
 		Set<String> keys = new HashSet<>();
 		keys.addAll(localCache.asMap().keySet());
 		keys.addAll(collectionLocalCache.asMap().keySet());
+		if (snapshot != null)
+			keys.addAll(snapshot.keySet());
+		if (diskCache != null)
+			keys.addAll(diskCache.keySet());
 		return keys;
 	}
 
@@ -276,15 +730,22 @@ public class LocalCache<T>  implements DataCache<T>{
 
 	@Override
 	public long deleteByKeys(String... keys) {
+		return runWrite(() -> doDeleteByKeys(keys));
+	}
+
+	private long doDeleteByKeys(String... keys) {
 		long deleteCount=0;
 		for(String key: keys){
 			T t= localCache.getIfPresent(key);
+			boolean persisted = removePersisted(key);
 			if(t!=null){
 				localCache.invalidate(key);
 				deleteCount++;
 			}else if(collectionLocalCache.getIfPresent(key)!=null){
 				collectionLocalCache.invalidate(key);
 				deleteCount++;
+			}else if(persisted){
+				deleteCount++;
 			}
 		}
 		return deleteCount;
@@ -312,10 +773,98 @@ public class LocalCache<T>  implements DataCache<T>{
 	}
 
 
+	@Override
+	public ReactiveDataCache<T> reactive() {
+		return new ReactiveLocalCache<>(this);
+	}
+
+	@Override
+	public CacheBatch<T> batch() {
+		return new LocalCacheBatch<>(this);
+	}
+
+	@Override
+	public synchronized void addOperationListener(CacheOperationListener listener) {
+		this.tracer = OperationTracer.with(tracer, cacheId, CacheTier.LOCAL, Objects.requireNonNull(listener, "Listener cannot be null"));
+	}
+
+	@Override
+	public synchronized void removeOperationListener(CacheOperationListener listener) {
+		this.tracer = OperationTracer.without(tracer, listener);
+	}
+
+	private void markTier(CacheTier tier) {
+		OperationTracer tracer = this.tracer;
+		if (tracer != null)
+			tracer.markTier(tier);
+	}
+
+	@Override
+	public CacheTransaction<T> transaction() {
+		return new LocalCacheTransaction<>(this);
+	}
+
+	/**
+	 * Run the writes of a transaction, no get sees part of them and no other write runs between the check of the watched keys and the writes
+	 *
+	 * @param watched the watched keys and the instances they held when watched
+	 * @param writes  the writes
+	 * @return false if a watched key no longer holds the same instance, the writes are then not run
+	 */
+	boolean commit(Map<String, T> watched, Runnable writes) {
+		int[] holds = lockHolds.get();
+		if (holds[0] > 0)
+			throw new IllegalStateException("A transaction cannot be committed from within a write of the cache");
+		long stamp = transactionLock.writeLock();
+		holds[0]++;
+		try {
+			for (Map.Entry<String, T> entry : watched.entrySet()) {
+				if (getIfPresent(entry.getKey()) != entry.getValue())
+					return false;
+			}
+			writes.run();
+			return true;
+		} finally {
+			holds[0]--;
+			transactionLock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Run a write of the cache, a transaction commits either before or after it, hence a watched key written meanwhile aborts the transaction.
+	 * A write run by a thread already holding the lock, such as a write of the committing transaction or of a mapping function,
+	 * does not take it again, a new read lock would otherwise wait behind the commit queued meanwhile, which waits for the lock held.
+	 */
+	private <R> R runWrite(Supplier<R> write) {
+		int[] holds = lockHolds.get();
+		if (holds[0] > 0)
+			return write.get();
+
+		long stamp = transactionLock.readLock();
+		holds[0]++;
+		try {
+			return write.get();
+		} finally {
+			holds[0]--;
+			transactionLock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	public CacheLock getLock(String name) {
+		return locks.computeIfAbsent(name, e -> new LocalCacheLock());
+	}
+
 	@Override
 	public void purgeCache(){
 		localCache.invalidateAll();
+		if (loaderMisses != null)
+			loaderMisses.invalidateAll();
 		localCache.cleanUp();
+		if (snapshot != null)
+			snapshot.clear();
+		if (diskCache != null)
+			diskCache.clear();
 	}
 
 	@Override
@@ -0,0 +1,85 @@
+package com.here.object.cache.data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * {@link CacheBatch} of a {@link LocalCache}, the operations run in order on the executing thread since they only touch the heap.
+ *
+ * @param <T> The datatype that can be held by this class
+ * @author amajha
+ */
+final class LocalCacheBatch<T> implements CacheBatch<T> {
+
+	private final LocalCache<T> localCache;
+	private final List<Runnable> operations = new ArrayList<>();
+	private final List<CompletableFuture<?>> futures = new ArrayList<>();
+	private boolean executed;
+
+	LocalCacheBatch(LocalCache<T> localCache) {
+		this.localCache = localCache;
+	}
+
+	private <R> CompletableFuture<R> enqueue(Supplier<R> operation) {
+		CompletableFuture<R> future = new CompletableFuture<>();
+		operations.add(() -> {
+			try {
+				future.complete(operation.get());
+			} catch (RuntimeException e) {
+				future.completeExceptionally(e);
+			}
+		});
+		futures.add(future);
+		return future;
+	}
+
+	private <R> CompletableFuture<R> unsupportedTimeToLive() {
+		CompletableFuture<R> future = new CompletableFuture<>();
+		future.completeExceptionally(new UnsupportedOperationException("Per key time to live not supported by the local cache"));
+		futures.add(future);
+		return future;
+	}
+
+	@Override
+	public CompletableFuture<T> get(String key) {
+		return enqueue(() -> localCache.get(key));
+	}
+
+	@Override
+	public CompletableFuture<T> store(String key, T t) {
+		return enqueue(() -> localCache.store(key, t));
+	}
+
+	@Override
+	public CompletableFuture<T> store(String key, T t, long timeToLive, TimeUnit timeUnit) {
+		return unsupportedTimeToLive();
+	}
+
+	@Override
+	public CompletableFuture<T> replace(String key, T t) {
+		return enqueue(() -> localCache.replace(key, t));
+	}
+
+	@Override
+	public CompletableFuture<T> replace(String key, T t, long timeToLive, TimeUnit timeUnit) {
+		return unsupportedTimeToLive();
+	}
+
+	@Override
+	public CompletableFuture<Boolean> delete(String key) {
+		return enqueue(() -> localCache.deleteIfPresent(key));
+	}
+
+	@Override
+	public CompletableFuture<Void> execute() {
+		if (executed)
+			throw new IllegalStateException("Batch already executed");
+		executed = true;
+
+		operations.forEach(Runnable::run);
+		return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+	}
+}
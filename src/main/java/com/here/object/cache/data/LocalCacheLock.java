@@ -0,0 +1,89 @@
+package com.here.object.cache.data;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link CacheLock} of a {@link LocalCache}, shared by the threads of the process only.
+ * The lease times are ignored as a holder cannot die without the process, the lock is only released by {@link #unlock()}.
+ *
+ * @author amajha
+ */
+final class LocalCacheLock implements CacheLock {
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final AtomicLong lastToken = new AtomicLong();
+	// only read by the holder
+	private long token;
+
+	private void onAcquired() {
+		if (lock.getHoldCount() == 1)
+			token = lastToken.incrementAndGet();
+	}
+
+	@Override
+	public void lock() {
+		lock.lock();
+		onAcquired();
+	}
+
+	@Override
+	public void lock(long leaseTime, TimeUnit timeUnit) {
+		lock();
+	}
+
+	@Override
+	public void lockInterruptibly() throws InterruptedException {
+		lock.lockInterruptibly();
+		onAcquired();
+	}
+
+	@Override
+	public boolean tryLock() {
+		if (!lock.tryLock())
+			return false;
+		onAcquired();
+		return true;
+	}
+
+	@Override
+	public boolean tryLock(long waitTime, TimeUnit timeUnit) throws InterruptedException {
+		if (!lock.tryLock(waitTime, timeUnit))
+			return false;
+		onAcquired();
+		return true;
+	}
+
+	@Override
+	public boolean tryLock(long waitTime, long leaseTime, TimeUnit timeUnit) throws InterruptedException {
+		return tryLock(waitTime, timeUnit);
+	}
+
+	@Override
+	public void unlock() {
+		lock.unlock();
+	}
+
+	@Override
+	public long getFencingToken() {
+		if (!lock.isHeldByCurrentThread())
+			throw new IllegalMonitorStateException("Lock not held by the current thread");
+		return token;
+	}
+
+	@Override
+	public boolean isLocked() {
+		return lock.isLocked();
+	}
+
+	@Override
+	public boolean isHeldByCurrentThread() {
+		return lock.isHeldByCurrentThread();
+	}
+
+	@Override
+	public int getHoldCount() {
+		return lock.getHoldCount();
+	}
+}
@@ -0,0 +1,266 @@
+package com.here.object.cache.data;
+
+import com.here.object.cache.serializer.Serializer;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Persists the entries of a {@link LocalCache} to a memory-mapped file so that a restarted JVM does not start with a cold cache.
+ * <p>
+ * The file holds a header (magic, version, entry count) followed by the entries, each stored as
+ * key length, key, expiry time in epoch ms, value length and the serialized value.
+ * On start-up only the index of the previous snapshot is read, the values are deserialized when the key is first requested.
+ *
+ * @author amajha
+ */
+final class LocalCacheSnapshot {
+
+	private static final int MAGIC = 0x4f43534e;
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 12;
+
+	private final Path snapshotFile;
+	private final Serializer serializer;
+	private final Map<String, SnapshotEntry> pendingEntries = new ConcurrentHashMap<>();
+	private ScheduledFuture<?> scheduledSave;
+	private Thread shutdownHook;
+
+	/**
+	 * An entry of the previous snapshot which is not yet loaded in the cache
+	 */
+	static final class SnapshotEntry {
+		private final long expiresAt;
+		private final ByteBuffer value;
+
+		private SnapshotEntry(long expiresAt, ByteBuffer value) {
+			this.expiresAt = expiresAt;
+			this.value = value;
+		}
+
+		long getExpiresAt() {
+			return expiresAt;
+		}
+
+		private byte[] getBytes() {
+			byte[] bytes = new byte[value.remaining()];
+			value.duplicate().get(bytes);
+			return bytes;
+		}
+	}
+
+	LocalCacheSnapshot(Path snapshotFile, Serializer serializer) {
+		this.snapshotFile = snapshotFile;
+		this.serializer = serializer;
+		readIndex();
+	}
+
+	private void readIndex() {
+		if (!Files.isRegularFile(snapshotFile))
+			return;
+
+		try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+			// the mapping stays valid after the channel is closed
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+				return;
+
+			int entryCount = buffer.getInt();
+			long now = System.currentTimeMillis();
+			for (int i = 0; i < entryCount; i++) {
+				byte[] key = new byte[buffer.getInt()];
+				buffer.get(key);
+				long expiresAt = buffer.getLong();
+				int valueLength = buffer.getInt();
+
+				ByteBuffer value = buffer.slice();
+				value.limit(valueLength);
+				buffer.position(buffer.position() + valueLength);
+
+				if (expiresAt > now)
+					pendingEntries.put(new String(key, StandardCharsets.UTF_8), new SnapshotEntry(expiresAt, value));
+			}
+		} catch (IOException | RuntimeException e) {
+			// A missing or corrupt snapshot only means a cold start
+			pendingEntries.clear();
+		}
+	}
+
+	/**
+	 * Remove the entry of the given key from the previous snapshot
+	 *
+	 * @param key the key to be loaded
+	 * @return the entry, <code>null</code> if the snapshot has no live entry for the key
+	 */
+	SnapshotEntry take(String key) {
+		if (pendingEntries.isEmpty())
+			return null;
+
+		SnapshotEntry entry = pendingEntries.remove(key);
+		if (entry == null || entry.getExpiresAt() <= System.currentTimeMillis())
+			return null;
+		return entry;
+	}
+
+	/**
+	 * @return true if the previous snapshot holds a live entry for the key which is not yet loaded
+	 */
+	boolean containsKey(String key) {
+		if (pendingEntries.isEmpty())
+			return false;
+
+		SnapshotEntry entry = pendingEntries.get(key);
+		return entry != null && entry.getExpiresAt() > System.currentTimeMillis();
+	}
+
+	/**
+	 * @return the keys of the live entries of the previous snapshot which are not yet loaded
+	 */
+	Set<String> keySet() {
+		long now = System.currentTimeMillis();
+		return pendingEntries.entrySet().stream()
+				.filter(e -> e.getValue().getExpiresAt() > now)
+				.map(Map.Entry::getKey)
+				.collect(Collectors.toSet());
+	}
+
+	/**
+	 * Drop the entry of the given key from the previous snapshot, so that a deleted key is not restored by a later load
+	 *
+	 * @return true if the snapshot held a live entry for the key
+	 */
+	boolean remove(String key) {
+		if (pendingEntries.isEmpty())
+			return false;
+
+		SnapshotEntry entry = pendingEntries.remove(key);
+		return entry != null && entry.getExpiresAt() > System.currentTimeMillis();
+	}
+
+	/**
+	 * Drop all the entries of the previous snapshot which are not yet loaded
+	 */
+	void clear() {
+		pendingEntries.clear();
+	}
+
+	<T> T getValue(SnapshotEntry entry) {
+		return serializer.deserialize(entry.getBytes());
+	}
+
+	/**
+	 * Write the given entries, along with the entries of the previous snapshot which are not yet loaded, to the snapshot file.
+	 * The file is written to a temporary file first and then moved in place, so a crash never leaves a partial snapshot behind.
+	 *
+	 * @param entries   the entries of the cache
+	 * @param expiresAt the expiry time in epoch ms of a key
+	 * @throws IOException if the snapshot cannot be written
+	 */
+	synchronized <T> void save(Map<String, T> entries, ToLongFunction<String> expiresAt) throws IOException {
+		long now = System.currentTimeMillis();
+		List<byte[]> keys = new ArrayList<>();
+		List<Long> expiryTimes = new ArrayList<>();
+		List<byte[]> values = new ArrayList<>();
+		long size = HEADER_SIZE;
+
+		for (Map.Entry<String, T> entry : entries.entrySet()) {
+			long expiry = expiresAt.applyAsLong(entry.getKey());
+			if (expiry <= now || !(entry.getValue() instanceof Serializable))
+				continue;
+
+			byte[] value;
+			try {
+				value = serializer.serialize((Serializable) entry.getValue());
+			} catch (RuntimeException e) {
+				continue;
+			}
+			byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+			long entrySize = 16L + key.length + value.length;
+			if (size + entrySize > Integer.MAX_VALUE)
+				break;
+			size += entrySize;
+
+			keys.add(key);
+			expiryTimes.add(expiry);
+			values.add(value);
+		}
+
+		for (Map.Entry<String, SnapshotEntry> entry : pendingEntries.entrySet()) {
+			if (entries.containsKey(entry.getKey()) || entry.getValue().getExpiresAt() <= now)
+				continue;
+
+			byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+			byte[] value = entry.getValue().getBytes();
+			long entrySize = 16L + key.length + value.length;
+			if (size + entrySize > Integer.MAX_VALUE)
+				break;
+			size += entrySize;
+
+			keys.add(key);
+			expiryTimes.add(entry.getValue().getExpiresAt());
+			values.add(value);
+		}
+
+		Files.createDirectories(snapshotFile.toAbsolutePath().getParent());
+		Path tempFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+		try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+			buffer.putInt(MAGIC).putInt(VERSION).putInt(keys.size());
+			for (int i = 0; i < keys.size(); i++) {
+				buffer.putInt(keys.get(i).length).put(keys.get(i));
+				buffer.putLong(expiryTimes.get(i));
+				buffer.putInt(values.get(i).length).put(values.get(i));
+			}
+			buffer.force();
+		}
+		Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Save the snapshot periodically and when the JVM shuts down
+	 *
+	 * @param saveTask     the task saving the snapshot
+	 * @param intervalInMs the interval between two snapshots, 0 to save only on shut down
+	 */
+	synchronized void schedule(Runnable saveTask, long intervalInMs) {
+		if (intervalInMs > 0)
+			scheduledSave = CacheExecutors.getScheduler().scheduleWithFixedDelay(saveTask, intervalInMs, intervalInMs, TimeUnit.MILLISECONDS);
+
+		shutdownHook = new Thread(saveTask, "object-cache-snapshot-shutdown");
+		Runtime.getRuntime().addShutdownHook(shutdownHook);
+	}
+
+	/**
+	 * Stop saving the snapshot
+	 */
+	synchronized void cancel() {
+		if (scheduledSave != null)
+			scheduledSave.cancel(false);
+
+		if (shutdownHook != null) {
+			try {
+				Runtime.getRuntime().removeShutdownHook(shutdownHook);
+			} catch (IllegalStateException e) {
+				// the JVM is already shutting down, the hook will run anyway
+			}
+		}
+	}
+}
@@ -0,0 +1,109 @@
+package com.here.object.cache.data;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * {@link CacheTransaction} of a {@link LocalCache}, the writes run in order while the gets and the other writes of the cache are held off, see {@link LocalCache#commit(Map, Runnable)}.
+ * A watched key is considered written if it no longer holds the same instance.
+ *
+ * @param <T> The datatype that can be held by this class
+ * @author amajha
+ */
+final class LocalCacheTransaction<T> implements CacheTransaction<T> {
+
+	private final LocalCache<T> localCache;
+	private final Map<String, T> watched = new HashMap<>();
+	private final List<Runnable> operations = new ArrayList<>();
+	private final List<CompletableFuture<?>> futures = new ArrayList<>();
+	private boolean executed;
+
+	LocalCacheTransaction(LocalCache<T> localCache) {
+		this.localCache = localCache;
+	}
+
+	@Override
+	public CacheTransaction<T> watch(String... keys) {
+		if (executed)
+			throw new IllegalStateException("Transaction already executed");
+		if (!operations.isEmpty())
+			throw new IllegalStateException("Keys must be watched before the writes are queued");
+
+		for (String key : keys)
+			watched.put(key, localCache.getIfPresent(key));
+		return this;
+	}
+
+	private <R> CompletableFuture<R> enqueue(Supplier<R> operation) {
+		if (executed)
+			throw new IllegalStateException("Transaction already executed");
+
+		CompletableFuture<R> future = new CompletableFuture<>();
+		operations.add(() -> {
+			try {
+				future.complete(operation.get());
+			} catch (RuntimeException e) {
+				future.completeExceptionally(e);
+			}
+		});
+		futures.add(future);
+		return future;
+	}
+
+	private <R> CompletableFuture<R> unsupportedTimeToLive() {
+		CompletableFuture<R> future = new CompletableFuture<>();
+		future.completeExceptionally(new UnsupportedOperationException("Per key time to live not supported by the local cache"));
+		futures.add(future);
+		return future;
+	}
+
+	@Override
+	public CompletableFuture<T> store(String key, T t) {
+		return enqueue(() -> localCache.store(key, t));
+	}
+
+	@Override
+	public CompletableFuture<T> store(String key, T t, long timeToLive, TimeUnit timeUnit) {
+		return unsupportedTimeToLive();
+	}
+
+	@Override
+	public CompletableFuture<T> replace(String key, T t) {
+		return enqueue(() -> localCache.replace(key, t));
+	}
+
+	@Override
+	public CompletableFuture<T> replace(String key, T t, long timeToLive, TimeUnit timeUnit) {
+		return unsupportedTimeToLive();
+	}
+
+	@Override
+	public CompletableFuture<Boolean> delete(String key) {
+		return enqueue(() -> localCache.deleteIfPresent(key));
+	}
+
+	@Override
+	public CompletableFuture<Boolean> execute() {
+		if (executed)
+			throw new IllegalStateException("Transaction already executed");
+		executed = true;
+
+		if (!localCache.commit(watched, () -> operations.forEach(Runnable::run))) {
+			futures.forEach(e -> e.completeExceptionally(new CancellationException("Transaction aborted, a watched key was written")));
+			return CompletableFuture.completedFuture(false);
+		}
+		// the failed writes do not fail the transaction, as with redis
+		return CompletableFuture.completedFuture(true);
+	}
+
+	@Override
+	public void close() {
+		executed = true;
+	}
+}
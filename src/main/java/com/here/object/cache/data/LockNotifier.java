@@ -0,0 +1,109 @@
+package com.here.object.cache.data;
+
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wakes up the threads waiting for the remote locks when a lock is released, rather than having them poll redis.
+ * <p>
+ * A channel is subscribed to while a thread waits for its lock, on a single pub/sub connection shared by the locks of a server.
+ * A waiter reads the generation of the channel before trying the lock and waits for the generation to move,
+ * hence a release published in between is not missed.
+ *
+ * @author amajha
+ */
+final class LockNotifier {
+
+	private final StatefulRedisPubSubConnection<String, String> connection;
+	private final long commandTimeoutInMs;
+	// guarded by this
+	private final Map<String, Subscription> subscriptions = new HashMap<>();
+
+	LockNotifier(StatefulRedisPubSubConnection<String, String> connection, long commandTimeoutInMs) {
+		this.connection = connection;
+		this.commandTimeoutInMs = commandTimeoutInMs;
+		connection.addListener(new RedisPubSubAdapter<String, String>() {
+			@Override
+			public void message(String channel, String message) {
+				Subscription subscription;
+				synchronized (LockNotifier.this) {
+					subscription = subscriptions.get(channel);
+				}
+				if (subscription != null)
+					subscription.signal();
+			}
+		});
+	}
+
+	static final class Subscription {
+		private final String channel;
+		private final RedisFuture<Void> subscribed;
+		// guarded by the notifier
+		private int waiters;
+		// guarded by this
+		private long generation;
+
+		private Subscription(String channel, RedisFuture<Void> subscribed) {
+			this.channel = channel;
+			this.subscribed = subscribed;
+		}
+
+		synchronized long getGeneration() {
+			return generation;
+		}
+
+		private synchronized void signal() {
+			generation++;
+			notifyAll();
+		}
+
+		/**
+		 * Wait for a release after the given generation
+		 */
+		synchronized void await(long generation, long timeoutInMs) throws InterruptedException {
+			long deadline = System.nanoTime() + TimeUnit.NANOSECONDS.convert(timeoutInMs, TimeUnit.MILLISECONDS);
+			while (this.generation == generation) {
+				long remaining = TimeUnit.MILLISECONDS.convert(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+				if (remaining <= 0)
+					return;
+				wait(remaining);
+			}
+		}
+	}
+
+	/**
+	 * Subscribe to the releases of a lock, every call must be matched by a call to {@link #unsubscribe(Subscription)}
+	 */
+	Subscription subscribe(String channel) throws InterruptedException {
+		Subscription subscription;
+		synchronized (this) {
+			// the commands are sent within the lock, hence a subscription follows the unsubscription of the previous waiters
+			subscription = subscriptions.computeIfAbsent(channel, e -> new Subscription(e, connection.async().subscribe(e)));
+			subscription.waiters++;
+		}
+		// a waiter subscribed too late is woken up once the lease elapses at the latest
+		try {
+			subscription.subscribed.await(commandTimeoutInMs, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			unsubscribe(subscription);
+			throw e;
+		}
+		return subscription;
+	}
+
+	synchronized void unsubscribe(Subscription subscription) {
+		if (--subscription.waiters > 0)
+			return;
+		subscriptions.remove(subscription.channel);
+		connection.async().unsubscribe(subscription.channel);
+	}
+
+	void close() {
+		connection.close();
+	}
+}
@@ -0,0 +1,65 @@
+package com.here.object.cache.data;
+
+/**
+ * A cache of counters keyed by numeric ids, the keys and the counts are held as primitive longs locally
+ * and stored as native redis integers remotely, so that the updates are applied atomically by redis.
+ * The time to live of a counter starts when the counter is created and is not extended by the increments.
+ *
+ * @author amajha
+ */
+public interface LongCounterCache {
+
+	/**
+	 * Fetch the value of a counter
+	 *
+	 * @param key the key of the counter
+	 * @return the value of the counter, 0 if the counter does not exist
+	 */
+	public long get(long key);
+
+	/**
+	 * Add the given delta to a counter, the counter is created with the value 0 if it does not exist
+	 *
+	 * @param key   the key of the counter
+	 * @param delta the value to be added, negative to decrement the counter
+	 * @return the value of the counter after the update
+	 */
+	public long incrementBy(long key, long delta);
+
+	/**
+	 * @param key the key of the counter
+	 * @return the value of the counter after the increment
+	 */
+	public default long increment(long key) {
+		return incrementBy(key, 1);
+	}
+
+	/**
+	 * @param key the key of the counter
+	 * @return the value of the counter after the decrement
+	 */
+	public default long decrement(long key) {
+		return incrementBy(key, -1);
+	}
+
+	/**
+	 * Set the value of a counter, the time to live of the counter is restarted
+	 *
+	 * @param key   the key of the counter
+	 * @param value the new value
+	 */
+	public void set(long key, long value);
+
+	/**
+	 * Delete a counter
+	 *
+	 * @param key the key of the counter
+	 * @return true if the counter was present
+	 */
+	public boolean deleteIfPresent(long key);
+
+	/**
+	 * Delete all the counters held by the cache
+	 */
+	public void purgeCache();
+}
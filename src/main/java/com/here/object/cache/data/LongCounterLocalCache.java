@@ -0,0 +1,116 @@
+package com.here.object.cache.data;
+
+import com.here.object.cache.config.local.LocalCacheConfig;
+
+/**
+ * Local {@link LongCounterCache} backed by primitive open addressing tables, neither the keys nor the counts are boxed.
+ *
+ * @author amajha
+ */
+public class LongCounterLocalCache implements LongCounterCache {
+
+	private static final int SEGMENT_BITS = 4;
+
+	private final Segment[] segments;
+
+	private static final class Segment extends LongHashTable {
+		private long[] counts;
+
+		private Segment(int maxSize, long expirationInMs) {
+			super(maxSize, expirationInMs);
+			this.counts = new long[capacity()];
+		}
+
+		@Override
+		protected Object replaceValues(int capacity) {
+			long[] oldCounts = counts;
+			counts = new long[capacity];
+			return oldCounts;
+		}
+
+		@Override
+		protected void transferValue(Object oldValues, int from, int to) {
+			counts[to] = ((long[]) oldValues)[from];
+		}
+
+		@Override
+		protected void moveValue(int from, int to) {
+			counts[to] = counts[from];
+		}
+
+		@Override
+		protected void clearValue(int slot) {
+			counts[slot] = 0;
+		}
+	}
+
+	/**
+	 * @param cacheConfig the size and the expiry of the cache
+	 */
+	public LongCounterLocalCache(LocalCacheConfig cacheConfig) {
+		int segmentCount = 1 << SEGMENT_BITS;
+		int segmentSize = (int) ((cacheConfig.getCacheSize() + (long) segmentCount - 1) / segmentCount);
+		this.segments = new Segment[segmentCount];
+		for (int i = 0; i < segmentCount; i++)
+			segments[i] = new Segment(segmentSize, cacheConfig.getExpirationInMs());
+	}
+
+	private Segment segmentFor(long key) {
+		return segments[LongHashTable.hash(key) >>> (32 - SEGMENT_BITS)];
+	}
+
+	@Override
+	public long get(long key) {
+		Segment segment = segmentFor(key);
+		synchronized (segment) {
+			int slot = segment.indexOf(key);
+			return slot < 0 ? 0 : segment.counts[slot];
+		}
+	}
+
+	@Override
+	public long incrementBy(long key, long delta) {
+		Segment segment = segmentFor(key);
+		synchronized (segment) {
+			int slot = segment.insert(key);
+			if (slot < 0)
+				slot = ~slot;
+			return segment.counts[slot] += delta;
+		}
+	}
+
+	@Override
+	public void set(long key, long value) {
+		Segment segment = segmentFor(key);
+		synchronized (segment) {
+			int slot = segment.insert(key);
+			if (slot < 0) {
+				slot = ~slot;
+			} else {
+				segment.touch(slot);
+			}
+			segment.counts[slot] = value;
+		}
+	}
+
+	@Override
+	public boolean deleteIfPresent(long key) {
+		Segment segment = segmentFor(key);
+		synchronized (segment) {
+			int slot = segment.indexOf(key);
+			if (slot < 0)
+				return false;
+			segment.removeAt(slot);
+			return true;
+		}
+	}
+
+	@Override
+	public void purgeCache() {
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				segment.clear();
+			}
+		}
+	}
+}
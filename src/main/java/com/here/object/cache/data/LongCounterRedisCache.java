@@ -0,0 +1,105 @@
+package com.here.object.cache.data;
+
+import com.here.object.cache.config.redis.RedisCacheConfig;
+import com.here.object.cache.serializer.KeyCodec;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.cluster.api.reactive.RedisClusterReactiveCommands;
+import io.lettuce.core.output.IntegerOutput;
+import io.lettuce.core.protocol.CommandArgs;
+import io.lettuce.core.protocol.CommandType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Redis backed {@link LongCounterCache}, the counters are stored as redis integers and updated through INCRBY.
+ *
+ * @author amajha
+ */
+public class LongCounterRedisCache implements LongCounterCache {
+
+	// KEYS[1] : key, ARGV[1] : delta, ARGV[2] : time to live in ms of a new counter
+	private static final String INCREMENT_WITH_TTL_SCRIPT =
+			"local v = redis.call('INCRBY', KEYS[1], ARGV[1]) " +
+			"if redis.call('PTTL', KEYS[1]) < 0 then redis.call('PEXPIRE', KEYS[1], ARGV[2]) end " +
+			"return v";
+
+	private final String cacheId;
+	private final CacheKeyCodec<Long, Long> redisCodec;
+	private final RedisClientRegistry clientRegistry;
+	private final RedisClusterReactiveCommands<Long, Long> reactiveCommands;
+	private final long timeToLive;
+	private final AtomicBoolean closed = new AtomicBoolean();
+
+	/**
+	 * @param cacheConfig
+	 */
+	public LongCounterRedisCache(RedisCacheConfig cacheConfig) {
+		this.cacheId = cacheConfig.getCacheId() != null ? cacheConfig.getCacheId() : UUID.randomUUID().toString();
+		this.timeToLive = cacheConfig.getExpirationInMs();
+
+		// the counts are written as decimal digits, the only representation INCRBY accepts
+		this.redisCodec = new CacheKeyCodec<>(cacheId, KeyCodec.LONG, e -> Long.toString(e).getBytes(StandardCharsets.US_ASCII),
+				e -> Long.parseLong(new String(e, StandardCharsets.US_ASCII)));
+		this.clientRegistry = RedisClientRegistry.acquire(cacheConfig);
+		this.reactiveCommands = clientRegistry.getReactiveCommands(Arrays.asList(LongCounterRedisCache.class, cacheId, cacheConfig.getReadPolicy()),
+				redisCodec, cacheConfig);
+	}
+
+	public String getCacheId() {
+		return cacheId;
+	}
+
+	@Override
+	public long get(long key) {
+		Long value = reactiveCommands.get(key).block();
+		return value == null ? 0 : value;
+	}
+
+	@Override
+	public long incrementBy(long key, long delta) {
+		if (timeToLive == 0)
+			return reactiveCommands.incrby(key, delta).block();
+
+		CommandArgs<Long, Long> args = new CommandArgs<>(this.redisCodec).add(INCREMENT_WITH_TTL_SCRIPT).add(1)
+				.addKey(key).add(delta).add(timeToLive);
+		return reactiveCommands.<Long>dispatch(CommandType.EVAL, new IntegerOutput<>(this.redisCodec), args).next().block();
+	}
+
+	@Override
+	public void set(long key, long value) {
+		if (timeToLive != 0)
+			reactiveCommands.set(key, value, SetArgs.Builder.px(timeToLive)).block();
+		else
+			reactiveCommands.set(key, value).block();
+	}
+
+	@Override
+	public boolean deleteIfPresent(long key) {
+		return reactiveCommands.del(key).block() != 0;
+	}
+
+	/**
+	 * Delete all keys of all existing databases
+	 */
+	@Override
+	public void purgeCache() {
+		reactiveCommands.flushall().block();
+	}
+
+	/**
+	 * Releases the connections to the Redis Cache
+	 */
+	public void closeClient() {
+		if (closed.compareAndSet(false, true))
+			clientRegistry.release();
+	}
+
+	@Override
+	protected void finalize() throws Throwable {
+		super.finalize();
+		closeClient();
+	}
+}
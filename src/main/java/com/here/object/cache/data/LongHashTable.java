@@ -0,0 +1,205 @@
+package com.here.object.cache.data;
+
+/**
+ * Open addressing hash table keyed by primitive longs, the base of the local long keyed caches.
+ * <p>
+ * The keys and their expiry times are held in parallel primitive arrays and the collisions are resolved by linear probing,
+ * hence no object is allocated per entry and the keys are neither boxed nor hashed through {@link Object#hashCode()}.
+ * The subclasses hold the values in a parallel array of their own and keep it in sync through the slot hooks.
+ * <p>
+ * The table is not thread safe, the callers serialize the access to it.
+ * Once the max size is reached, the entry under a clock hand sweeping the table is evicted to make room for a new key.
+ *
+ * @author amajha
+ */
+abstract class LongHashTable {
+
+	private static final int MIN_CAPACITY = 16;
+	private static final int MAX_CAPACITY = 1 << 30;
+
+	private final int maxSize;
+	private final long expirationInMs;
+	private long[] keys;
+	private long[] expiresAt;
+	private boolean[] used;
+	private int mask;
+	private int size;
+	private int clockHand;
+
+	/**
+	 * @param maxSize        the max number of entries
+	 * @param expirationInMs the time to live of the entries, 0 for no expiry
+	 */
+	LongHashTable(int maxSize, long expirationInMs) {
+		this.maxSize = Math.max(maxSize, 1);
+		this.expirationInMs = expirationInMs;
+		allocate(MIN_CAPACITY);
+	}
+
+	private void allocate(int capacity) {
+		this.keys = new long[capacity];
+		this.expiresAt = new long[capacity];
+		this.used = new boolean[capacity];
+		this.mask = capacity - 1;
+		this.clockHand = 0;
+	}
+
+	/**
+	 * Spread the bits of the key, the high bits are used by the callers to pick a table and the low bits to pick the slot
+	 */
+	static int hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	/**
+	 * Allocate a new array of values with the given capacity
+	 *
+	 * @return the array of values being replaced
+	 */
+	protected abstract Object replaceValues(int capacity);
+
+	/**
+	 * Copy the value of a slot of the replaced array of values to a slot of the current one
+	 */
+	protected abstract void transferValue(Object oldValues, int from, int to);
+
+	protected abstract void moveValue(int from, int to);
+
+	protected abstract void clearValue(int slot);
+
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Find the slot of the given key, the key is removed if it has expired
+	 *
+	 * @return the slot, -1 if the key is not present
+	 */
+	final int indexOf(long key) {
+		int slot = hash(key) & mask;
+		while (used[slot]) {
+			if (keys[slot] == key) {
+				if (expiresAt[slot] != 0 && expiresAt[slot] <= System.currentTimeMillis()) {
+					removeAt(slot);
+					return -1;
+				}
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * Find the slot of the given key, adding the key if it is not present yet.
+	 * The expiry time of a newly added key is set, the callers reset it through {@link #touch(int)} on further writes.
+	 *
+	 * @return the slot, the complement of the slot (a negative value) if the key has been added
+	 */
+	final int insert(long key) {
+		int slot = indexOf(key);
+		if (slot >= 0)
+			return slot;
+
+		if (size >= maxSize)
+			evict();
+		if ((size + 1) * 2 > keys.length && keys.length < MAX_CAPACITY)
+			rehash(keys.length * 2);
+
+		slot = hash(key) & mask;
+		while (used[slot])
+			slot = (slot + 1) & mask;
+
+		used[slot] = true;
+		keys[slot] = key;
+		size++;
+		touch(slot);
+		return ~slot;
+	}
+
+	/**
+	 * Reset the expiry time of the entry at the given slot
+	 */
+	final void touch(int slot) {
+		expiresAt[slot] = expirationInMs == 0 ? 0 : System.currentTimeMillis() + expirationInMs;
+	}
+
+	/**
+	 * Remove the entry at the given slot, the entries following it in the probe sequence are shifted back
+	 * so that no tombstone is required
+	 */
+	final void removeAt(int slot) {
+		int hole = slot;
+		int next = (hole + 1) & mask;
+		while (used[next]) {
+			int home = hash(keys[next]) & mask;
+			// move the entry to the hole unless its home slot lies cyclically in (hole, next]
+			if (((next - home) & mask) >= ((next - hole) & mask)) {
+				keys[hole] = keys[next];
+				expiresAt[hole] = expiresAt[next];
+				moveValue(next, hole);
+				hole = next;
+			}
+			next = (next + 1) & mask;
+		}
+		used[hole] = false;
+		clearValue(hole);
+		size--;
+	}
+
+	final void clear() {
+		allocate(MIN_CAPACITY);
+		replaceValues(MIN_CAPACITY);
+		size = 0;
+	}
+
+	private void evict() {
+		long now = System.currentTimeMillis();
+		int victim = -1;
+		// prefer an expired entry close to the clock hand
+		for (int i = 0; i < keys.length && i < MIN_CAPACITY * 4; i++) {
+			int slot = (clockHand + i) & mask;
+			if (!used[slot])
+				continue;
+			if (victim == -1)
+				victim = slot;
+			if (expiresAt[slot] != 0 && expiresAt[slot] <= now) {
+				victim = slot;
+				break;
+			}
+		}
+		while (victim == -1) {
+			clockHand = (clockHand + 1) & mask;
+			if (used[clockHand])
+				victim = clockHand;
+		}
+		clockHand = (victim + 1) & mask;
+		removeAt(victim);
+	}
+
+	private void rehash(int capacity) {
+		long[] oldKeys = keys;
+		long[] oldExpiresAt = expiresAt;
+		boolean[] oldUsed = used;
+		Object oldValues = replaceValues(capacity);
+		allocate(capacity);
+
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (!oldUsed[i])
+				continue;
+			int slot = hash(oldKeys[i]) & mask;
+			while (used[slot])
+				slot = (slot + 1) & mask;
+			used[slot] = true;
+			keys[slot] = oldKeys[i];
+			expiresAt[slot] = oldExpiresAt[i];
+			transferValue(oldValues, i, slot);
+		}
+	}
+
+	final int capacity() {
+		return keys.length;
+	}
+}
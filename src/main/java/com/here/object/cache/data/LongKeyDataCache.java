@@ -0,0 +1,73 @@
+package com.here.object.cache.data;
+
+import com.here.object.cache.exceptions.NonUniqueKeyException;
+import com.here.object.cache.exceptions.ObjectNotSerialzableException;
+
+/**
+ * A cache keyed by numeric ids, the keys are held as primitive longs locally and encoded as 8 bytes on redis,
+ * saving the conversion of the ids to {@link String} keys required by {@link DataCache}.
+ *
+ * @param <T> The Data type to be stored inside the cache
+ * @author amajha
+ */
+public interface LongKeyDataCache<T> {
+
+	/**
+	 * Store Object in the Cache
+	 *
+	 * @param key the key against which the given object will be stored
+	 * @param t   The value to be stored
+	 * @return The stored Value
+	 * @throws ObjectNotSerialzableException when the object that is being stored cannot be serialized
+	 * @throws NonUniqueKeyException         if the given key is already present in the cache
+	 */
+	public T store(long key, T t);
+
+	/**
+	 * Fetch the value from the cache for a given key
+	 *
+	 * @param key The key for which the value is to be fetched
+	 * @return The fetched object from the cache, <code>null</code> if the key is not present
+	 */
+	public T get(long key);
+
+	/**
+	 * Replace the value stored in the cache with the new Value. A new Object is created in the cache if the key does not exist already
+	 *
+	 * @param key the key against which the given object will be stored
+	 * @param t   the new value
+	 * @return the stored value
+	 * @throws ObjectNotSerialzableException when the object that is being stored cannot be serialized
+	 */
+	public T replace(long key, T t);
+
+	/**
+	 * Store the value only if the key is not present in the cache, the check and the write are done atomically
+	 *
+	 * @param key the key against which the given object will be stored
+	 * @param t   the value to be stored
+	 * @return the value already present, <code>null</code> if the given value has been stored
+	 */
+	public T putIfAbsent(long key, T t);
+
+	/**
+	 * Delete the object for the given key
+	 *
+	 * @param key the key to be deleted
+	 * @return true if the key was present
+	 */
+	public boolean deleteIfPresent(long key);
+
+	/**
+	 * Delete the objects for the given keys
+	 *
+	 * @param keys the keys to be deleted
+	 * @return the number of keys deleted
+	 */
+	public long deleteByKeys(long... keys);
+
+	/**
+	 * Delete all the objects held by the cache
+	 */
+	public void purgeCache();
+}
@@ -0,0 +1,161 @@
+package com.here.object.cache.data;
+
+import com.here.object.cache.config.local.LocalCacheConfig;
+import com.here.object.cache.exceptions.NonUniqueKeyException;
+
+/**
+ * Local {@link LongKeyDataCache} backed by primitive open addressing tables, the tables are striped by the hash of the key
+ * so that the writers of different keys seldom contend for the same lock.
+ *
+ * @param <T> The datatype that can be held by this class
+ * @author amajha
+ */
+public class LongKeyLocalCache<T> implements LongKeyDataCache<T> {
+
+	private static final int SEGMENT_BITS = 4;
+
+	private final Segment[] segments;
+
+	private static final class Segment extends LongHashTable {
+		private Object[] values;
+
+		private Segment(int maxSize, long expirationInMs) {
+			super(maxSize, expirationInMs);
+			this.values = new Object[capacity()];
+		}
+
+		@Override
+		protected Object replaceValues(int capacity) {
+			Object[] oldValues = values;
+			values = new Object[capacity];
+			return oldValues;
+		}
+
+		@Override
+		protected void transferValue(Object oldValues, int from, int to) {
+			values[to] = ((Object[]) oldValues)[from];
+		}
+
+		@Override
+		protected void moveValue(int from, int to) {
+			values[to] = values[from];
+		}
+
+		@Override
+		protected void clearValue(int slot) {
+			values[slot] = null;
+		}
+	}
+
+	/**
+	 * @param cacheConfig the size and the expiry of the cache
+	 */
+	public LongKeyLocalCache(LocalCacheConfig cacheConfig) {
+		int segmentCount = 1 << SEGMENT_BITS;
+		int segmentSize = (int) ((cacheConfig.getCacheSize() + (long) segmentCount - 1) / segmentCount);
+		this.segments = new Segment[segmentCount];
+		for (int i = 0; i < segmentCount; i++)
+			segments[i] = new Segment(segmentSize, cacheConfig.getExpirationInMs());
+	}
+
+	private Segment segmentFor(long key) {
+		return segments[LongHashTable.hash(key) >>> (32 - SEGMENT_BITS)];
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T valueAt(Segment segment, int slot) {
+		return (T) segment.values[slot];
+	}
+
+	@Override
+	public T store(long key, T t) {
+		Segment segment = segmentFor(key);
+		synchronized (segment) {
+			int slot = segment.insert(key);
+			if (slot >= 0)
+				throw new NonUniqueKeyException("Key : " + key + " already present in the cache, to replace the value, use LongKeyDataCache::replace() instead.");
+			segment.values[~slot] = t;
+		}
+		return t;
+	}
+
+	@Override
+	public T get(long key) {
+		Segment segment = segmentFor(key);
+		synchronized (segment) {
+			int slot = segment.indexOf(key);
+			return slot < 0 ? null : valueAt(segment, slot);
+		}
+	}
+
+	@Override
+	public T replace(long key, T t) {
+		Segment segment = segmentFor(key);
+		synchronized (segment) {
+			int slot = segment.insert(key);
+			if (slot < 0) {
+				slot = ~slot;
+			} else {
+				segment.touch(slot);
+			}
+			segment.values[slot] = t;
+		}
+		return t;
+	}
+
+	@Override
+	public T putIfAbsent(long key, T t) {
+		Segment segment = segmentFor(key);
+		synchronized (segment) {
+			int slot = segment.insert(key);
+			if (slot >= 0)
+				return valueAt(segment, slot);
+			segment.values[~slot] = t;
+			return null;
+		}
+	}
+
+	@Override
+	public boolean deleteIfPresent(long key) {
+		Segment segment = segmentFor(key);
+		synchronized (segment) {
+			int slot = segment.indexOf(key);
+			if (slot < 0)
+				return false;
+			segment.removeAt(slot);
+			return true;
+		}
+	}
+
+	@Override
+	public long deleteByKeys(long... keys) {
+		long deleteCount = 0;
+		for (long key : keys) {
+			if (deleteIfPresent(key))
+				deleteCount++;
+		}
+		return deleteCount;
+	}
+
+	/**
+	 * @return the number of entries held by the cache, including the expired entries which are not yet removed
+	 */
+	public long size() {
+		long size = 0;
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				size += segment.size();
+			}
+		}
+		return size;
+	}
+
+	@Override
+	public void purgeCache() {
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				segment.clear();
+			}
+		}
+	}
+}
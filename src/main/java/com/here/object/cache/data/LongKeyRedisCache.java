@@ -0,0 +1,74 @@
+package com.here.object.cache.data;
+
+import com.here.object.cache.config.redis.RedisCacheConfig;
+import com.here.object.cache.serializer.KeyCodec;
+
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Redis backed {@link LongKeyDataCache}, the keys are stored as the id of the cache followed by the 8 bytes of the key.
+ *
+ * @param <T> The datatype that can be held within this cache
+ * @author amajha
+ */
+public class LongKeyRedisCache<T> implements LongKeyDataCache<T> {
+
+	private final TypedRedisCache<Long, T> redisCache;
+
+	/**
+	 * @param cacheConfig
+	 */
+	public LongKeyRedisCache(RedisCacheConfig cacheConfig) {
+		this.redisCache = new TypedRedisCache<>(cacheConfig, KeyCodec.LONG);
+	}
+
+	public String getCacheId() {
+		return redisCache.getCacheId();
+	}
+
+	@Override
+	public T store(long key, T t) {
+		return redisCache.store(key, t);
+	}
+
+	@Override
+	public T get(long key) {
+		return redisCache.get(key);
+	}
+
+	@Override
+	public T replace(long key, T t) {
+		return redisCache.replace(key, t);
+	}
+
+	@Override
+	public T putIfAbsent(long key, T t) {
+		return redisCache.putIfAbsent(key, t);
+	}
+
+	@Override
+	public boolean deleteIfPresent(long key) {
+		return redisCache.deleteIfPresent(key);
+	}
+
+	@Override
+	public long deleteByKeys(long... keys) {
+		return redisCache.deleteByKeys(LongStream.of(keys).boxed().collect(Collectors.toList()));
+	}
+
+	/**
+	 * Delete all keys of all existing databases
+	 */
+	@Override
+	public void purgeCache() {
+		redisCache.purgeCache();
+	}
+
+	/**
+	 * Releases the connections to the Redis Cache
+	 */
+	public void closeClient() {
+		redisCache.closeClient();
+	}
+}
@@ -0,0 +1,113 @@
+package com.here.object.cache.data;
+
+import com.google.common.cache.Weigher;
+import com.here.object.cache.config.local.WeightEstimate;
+import com.here.object.cache.serializer.Serializer;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Measures the entries of the local caches bounded by a number of bytes, see {@link WeightEstimate}.
+ * <p>
+ * The estimates assume a 64 bit JVM with compressed references : 12 bytes of object header, 4 bytes per reference
+ * and objects aligned on 8 bytes.
+ *
+ * @author amajha
+ */
+final class ObjectSizeEstimator {
+
+	private static final int HEADER = 12;
+	private static final int ARRAY_HEADER = 16;
+	private static final int REFERENCE = 4;
+	// the entry of the guava cache holding the key and the value, along with its slot in the table
+	private static final int ENTRY_OVERHEAD = 64;
+	private static final int COLLECTION_ENTRY_OVERHEAD = 32;
+	// the objects nested deeper are measured by their serialized length
+	private static final int MAX_DEPTH = 4;
+	private static final int UNKNOWN_SIZE = 64;
+
+	private ObjectSizeEstimator() {
+	}
+
+	/**
+	 * @param estimate   how the values are measured
+	 * @param serializer the serializer of the cache
+	 * @return the weigher of the entries, in bytes
+	 */
+	static Weigher<Object, Object> weigher(WeightEstimate estimate, Serializer serializer) {
+		return (key, value) -> {
+			long size = ENTRY_OVERHEAD + estimate(key, 0, serializer);
+			size += WeightEstimate.SERIALIZED.equals(estimate) && value instanceof Serializable ?
+					serializedSize(value, serializer) : estimate(value, 0, serializer);
+			return (int) Math.min(size, Integer.MAX_VALUE);
+		};
+	}
+
+	private static long align(long size) {
+		return (size + 7) & ~7L;
+	}
+
+	private static long serializedSize(Object value, Serializer serializer) {
+		try {
+			return serializer.serialize((Serializable) value).length;
+		} catch (RuntimeException e) {
+			return UNKNOWN_SIZE;
+		}
+	}
+
+	private static long estimate(Object value, int depth, Serializer serializer) {
+		if (value == null)
+			return 0;
+		if (value instanceof String)
+			// the string and its array, 2 bytes per char at most
+			return align(HEADER + 12) + align(ARRAY_HEADER + 2L * ((String) value).length());
+		if (value instanceof Long || value instanceof Double)
+			return align(HEADER + 8);
+		if (value instanceof Number || value instanceof Boolean || value instanceof Character)
+			return align(HEADER + 4);
+		if (value instanceof byte[])
+			return align(ARRAY_HEADER + ((byte[]) value).length);
+		if (value instanceof boolean[])
+			return align(ARRAY_HEADER + ((boolean[]) value).length);
+		if (value instanceof char[])
+			return align(ARRAY_HEADER + 2L * ((char[]) value).length);
+		if (value instanceof short[])
+			return align(ARRAY_HEADER + 2L * ((short[]) value).length);
+		if (value instanceof int[])
+			return align(ARRAY_HEADER + 4L * ((int[]) value).length);
+		if (value instanceof float[])
+			return align(ARRAY_HEADER + 4L * ((float[]) value).length);
+		if (value instanceof long[])
+			return align(ARRAY_HEADER + 8L * ((long[]) value).length);
+		if (value instanceof double[])
+			return align(ARRAY_HEADER + 8L * ((double[]) value).length);
+
+		if (depth < MAX_DEPTH) {
+			if (value instanceof Object[]) {
+				Object[] array = (Object[]) value;
+				long size = align(ARRAY_HEADER + (long) REFERENCE * array.length);
+				for (Object element : array)
+					size += estimate(element, depth + 1, serializer);
+				return size;
+			}
+			if (value instanceof Collection) {
+				long size = align(HEADER + 4 * REFERENCE);
+				for (Object element : (Collection<?>) value)
+					size += COLLECTION_ENTRY_OVERHEAD + estimate(element, depth + 1, serializer);
+				return size;
+			}
+			if (value instanceof Map) {
+				long size = align(HEADER + 4 * REFERENCE);
+				for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet())
+					size += COLLECTION_ENTRY_OVERHEAD + estimate(entry.getKey(), depth + 1, serializer) + estimate(entry.getValue(), depth + 1, serializer);
+				return size;
+			}
+		}
+
+		if (value instanceof Serializable)
+			return serializedSize(value, serializer);
+		return UNKNOWN_SIZE;
+	}
+}
@@ -0,0 +1,166 @@
+package com.here.object.cache.data;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Reports the operations of a cache to its {@link CacheOperationListener}, the caches hold no tracer while no listener is registered.
+ * <p>
+ * The state of the operation running on a thread is kept in a reusable holder per thread, the tiers serving the operation mark it
+ * as they go, the first mark wins. The size of the value is recorded in the same way by the command which sent or read it,
+ * on the thread of the operation, the first size recorded wins.
+ *
+ * @author amajha
+ */
+final class OperationTracer {
+
+	private final String cacheId;
+	private final CacheTier defaultTier;
+	private final CacheOperationListener[] listeners;
+	private final ThreadLocal<Call> calls;
+
+	private static final class Call {
+		private final Object[] contexts;
+		private boolean running;
+		private CacheTier tier;
+		private long bytes;
+
+		private Call(int listenerCount) {
+			this.contexts = new Object[listenerCount];
+		}
+	}
+
+	/**
+	 * @param defaultTier the tier of the values written, and of the values read unless another tier marked the operation
+	 */
+	private OperationTracer(String cacheId, CacheTier defaultTier, CacheOperationListener[] listeners) {
+		this.cacheId = cacheId;
+		this.defaultTier = defaultTier;
+		this.listeners = listeners;
+		this.calls = ThreadLocal.withInitial(() -> new Call(listeners.length));
+	}
+
+	/**
+	 * @param tracer the current tracer, <code>null</code> if none
+	 * @return a tracer with the listener added
+	 */
+	static OperationTracer with(OperationTracer tracer, String cacheId, CacheTier defaultTier, CacheOperationListener listener) {
+		if (tracer == null)
+			return new OperationTracer(cacheId, defaultTier, new CacheOperationListener[]{listener});
+		CacheOperationListener[] listeners = Arrays.copyOf(tracer.listeners, tracer.listeners.length + 1);
+		listeners[tracer.listeners.length] = listener;
+		return new OperationTracer(cacheId, defaultTier, listeners);
+	}
+
+	/**
+	 * @param tracer the current tracer, <code>null</code> if none
+	 * @return a tracer without the listener, <code>null</code> if no listener is left
+	 */
+	static OperationTracer without(OperationTracer tracer, CacheOperationListener listener) {
+		if (tracer == null)
+			return null;
+		CacheOperationListener[] listeners = Arrays.stream(tracer.listeners).filter(e -> e != listener).toArray(CacheOperationListener[]::new);
+		if (listeners.length != 0)
+			return new OperationTracer(tracer.cacheId, tracer.defaultTier, listeners);
+		return null;
+	}
+
+	/**
+	 * Report the failure of a task run by the cache in the background
+	 *
+	 * @param tracer the tracer of the cache, the failure is printed if <code>null</code>
+	 * @param key    the key, <code>null</code> if the task covers several keys
+	 */
+	static void reportFailure(OperationTracer tracer, String cacheId, CacheOperation operation, String key, Throwable error) {
+		if (tracer == null) {
+			System.err.println(operation + " failed for the cache " + cacheId + (key != null ? " and the key " + key : "") + " : " + error);
+			return;
+		}
+		for (CacheOperationListener listener : tracer.listeners) {
+			try {
+				listener.onBackgroundFailure(cacheId, operation, key, error);
+			} catch (RuntimeException e) {
+				System.err.println("Operation listener failed for the cache " + cacheId + " : " + e);
+			}
+		}
+	}
+
+	/**
+	 * Mark the operation running on the thread as served by the given tier
+	 */
+	void markTier(CacheTier tier) {
+		Call call = calls.get();
+		if (call.running && call.tier == null)
+			call.tier = tier;
+	}
+
+	/**
+	 * Record the size of the serialized value sent or read by the operation running on the thread
+	 *
+	 * @param bytes the size, nothing is recorded if negative
+	 */
+	void recordBytes(long bytes) {
+		Call call = calls.get();
+		if (call.running && call.bytes < 0)
+			call.bytes = bytes;
+	}
+
+	/**
+	 * Trace an operation reading a value, the size reported is the one of the value returned
+	 */
+	<R> R traceRead(CacheOperation operation, String key, Supplier<R> call) {
+		return trace(operation, key, false, call);
+	}
+
+	/**
+	 * Trace an operation writing a value, the size reported is the one of the value written
+	 */
+	<R> R traceWrite(CacheOperation operation, String key, Supplier<R> call) {
+		return trace(operation, key, true, call);
+	}
+
+	/**
+	 * @param write true if the operation writes, the tier of its value is then the default one
+	 */
+	private <R> R trace(CacheOperation operation, String key, boolean write, Supplier<R> supplier) {
+		Call call = calls.get();
+		if (call.running)
+			return supplier.get();
+
+		call.running = true;
+		call.tier = null;
+		call.bytes = -1;
+		for (int i = 0; i < listeners.length; i++) {
+			try {
+				call.contexts[i] = listeners[i].onStart(cacheId, operation, key);
+			} catch (RuntimeException e) {
+				System.err.println("Operation listener failed for the cache " + cacheId + " : " + e);
+			}
+		}
+
+		long start = System.nanoTime();
+		R result = null;
+		Throwable error = null;
+		try {
+			result = supplier.get();
+			return result;
+		} catch (RuntimeException | Error e) {
+			error = e;
+			throw e;
+		} finally {
+			long duration = System.nanoTime() - start;
+			CacheTier tier = !write && result == null ? null : call.tier != null ? call.tier : defaultTier;
+			// the heap holds the values deserialized
+			long bytes = tier != null && tier != CacheTier.LOCAL ? call.bytes : -1;
+			for (int i = 0; i < listeners.length; i++) {
+				try {
+					listeners[i].onEnd(cacheId, operation, key, call.contexts[i], tier, bytes, duration, error);
+				} catch (RuntimeException e) {
+					System.err.println("Operation listener failed for the cache " + cacheId + " : " + e);
+				}
+				call.contexts[i] = null;
+			}
+			call.running = false;
+		}
+	}
+}
@@ -0,0 +1,69 @@
+package com.here.object.cache.data;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The writes held back while redis is not available, only the last write of each key is kept.
+ * Once the max size is reached the oldest write is dropped.
+ *
+ * @author amajha
+ */
+final class PendingWrites {
+
+	private final Map<String, Runnable> writes;
+
+	/**
+	 * @param maxSize the max number of keys with a pending write
+	 */
+	PendingWrites(int maxSize) {
+		this.writes = new LinkedHashMap<String, Runnable>() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Runnable> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	/**
+	 * @param key   the key
+	 * @param write sends the write to redis, replaces the pending write of the key if any
+	 */
+	synchronized void add(String key, Runnable write) {
+		// the key moves to the end of the queue
+		writes.remove(key);
+		writes.put(key, write);
+	}
+
+	synchronized boolean isEmpty() {
+		return writes.isEmpty();
+	}
+
+	/**
+	 * Send the pending writes in the order in which they were made, the writes which could not be sent
+	 * are kept unless the key has been written again in the meantime
+	 */
+	void replay() {
+		List<Map.Entry<String, Runnable>> drained;
+		synchronized (this) {
+			drained = new ArrayList<>(writes.entrySet());
+			writes.clear();
+		}
+
+		for (int i = 0; i < drained.size(); i++) {
+			try {
+				drained.get(i).getValue().run();
+			} catch (RuntimeException e) {
+				synchronized (this) {
+					for (Map.Entry<String, Runnable> write : drained.subList(i, drained.size()))
+						writes.putIfAbsent(write.getKey(), write.getValue());
+				}
+				return;
+			}
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package com.here.object.cache.data;
+
+/**
+ * Snapshot of the statistics of the automatic pipelining of a cache, the counts are cumulative since the connections were opened.
+ * The connections are shared by the caches using the same settings, hence the counts include their commands.
+ *
+ * @author amajha
+ */
+public final class PipelineStats {
+
+	private final long flushCount;
+	private final long commandCount;
+	private final long maxBatchSize;
+
+	PipelineStats(long flushCount, long commandCount, long maxBatchSize) {
+		this.flushCount = flushCount;
+		this.commandCount = commandCount;
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * @return a copy of these statistics with the statistics of another connection added
+	 */
+	PipelineStats plus(PipelineStats other) {
+		return new PipelineStats(flushCount + other.flushCount, commandCount + other.commandCount, Math.max(maxBatchSize, other.maxBatchSize));
+	}
+
+	/**
+	 * @return the number of flushes, each of them writes the pending commands in a single system call
+	 */
+	public long getFlushCount() {
+		return flushCount;
+	}
+
+	/**
+	 * @return the number of commands flushed
+	 */
+	public long getCommandCount() {
+		return commandCount;
+	}
+
+	/**
+	 * @return the largest number of commands flushed at once
+	 */
+	public long getMaxBatchSize() {
+		return maxBatchSize;
+	}
+
+	/**
+	 * @return the mean number of commands flushed at once, 0 if there was no flush
+	 */
+	public double getAverageBatchSize() {
+		return flushCount == 0 ? 0 : (double) commandCount / flushCount;
+	}
+
+	@Override
+	public String toString() {
+		return "PipelineStats{flushCount=" + flushCount + ", commandCount=" + commandCount + ", maxBatchSize=" + maxBatchSize
+				+ ", averageBatchSize=" + getAverageBatchSize() + "}";
+	}
+}
@@ -0,0 +1,117 @@
+package com.here.object.cache.data;
+
+import com.here.object.cache.exceptions.NonUniqueKeyException;
+import com.here.object.cache.exceptions.ObjectNotSerialzableException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non blocking view of a {@link DataCache}, nothing is sent to the cache until the returned publisher is subscribed to.
+ * The {@link Flux} returned by the bulk operations honour the demand of the subscriber, the keys are fetched
+ * from redis one batch at a time as the subscriber requests more elements.
+ *
+ * @param <T> The Data type to be stored inside the cache
+ * @author amajha
+ */
+public interface ReactiveDataCache<T> {
+
+	/**
+	 * Fetch the value from the cache for a given key
+	 *
+	 * @param key the key for which the value is to be fetched
+	 * @return the value, empty if the key is not present
+	 */
+	Mono<T> get(String key);
+
+	/**
+	 * Fetch the values for the given keys, the keys which are not present are skipped
+	 *
+	 * @param keys the keys for which the values are to be fetched
+	 * @return the key value pairs
+	 */
+	Flux<Map.Entry<String, T>> getAll(Collection<String> keys);
+
+	/**
+	 * Store Object in the Cache
+	 *
+	 * @param key the key against which the given object will be stored
+	 * @param t   the value to be stored
+	 * @return the stored value, fails with {@link NonUniqueKeyException} if the key is already present
+	 * and with {@link ObjectNotSerialzableException} if the value cannot be serialized
+	 */
+	Mono<T> store(String key, T t);
+
+	/**
+	 * Store Object in the Cache
+	 *
+	 * @param key        the key against which the given object will be stored
+	 * @param t          the value to be stored
+	 * @param timeToLive the time for which this object will live in cache, this will override all global TTL settings
+	 * @param timeUnit   the time unit for timeToLive param
+	 * @return the stored value, fails with {@link NonUniqueKeyException} if the key is already present
+	 */
+	Mono<T> store(String key, T t, long timeToLive, TimeUnit timeUnit);
+
+	/**
+	 * Replace the value stored in the cache with the new Value. A new Object is created in the cache if the key does not exist already
+	 *
+	 * @param key the key against which the given object will be stored
+	 * @param t   the new value
+	 * @return the stored value
+	 */
+	Mono<T> replace(String key, T t);
+
+	/**
+	 * Replace the value stored in the cache with the new Value. A new Object is created in the cache if the key does not exist already
+	 *
+	 * @param key        the key against which the given object will be stored
+	 * @param t          the new value
+	 * @param timeToLive the time for which this object will live in cache, this will override all global TTL settings
+	 * @param timeUnit   the time unit for timeToLive param
+	 * @return the stored value
+	 */
+	Mono<T> replace(String key, T t, long timeToLive, TimeUnit timeUnit);
+
+	/**
+	 * Replace the values of the given keys, new objects are created in the cache if the keys do not exist already
+	 *
+	 * @param dataToInsert the map of key value pairs
+	 * @return completes once all the values are written
+	 */
+	Mono<Void> storeBatch(Map<String, T> dataToInsert);
+
+	/**
+	 * Delete the object for the given key
+	 *
+	 * @param key the key to be deleted
+	 * @return true if the key was present
+	 */
+	Mono<Boolean> delete(String key);
+
+	/**
+	 * Delete the objects for the given keys
+	 *
+	 * @param keys the keys to be deleted
+	 * @return the number of keys deleted
+	 */
+	Mono<Long> deleteByKeys(String... keys);
+
+	/**
+	 * Scan the keys starting with the given glob-style pattern, the keys are scanned page by page as per the demand of the subscriber
+	 *
+	 * @param keyPattern the key pattern to match for
+	 * @return the matching keys
+	 */
+	Flux<String> scan(String keyPattern);
+
+	/**
+	 * Clean-up The Cache, on redis all the keys of all the databases are deleted
+	 *
+	 * @return completes once the cache is cleaned up
+	 */
+	Mono<Void> purgeCache();
+}
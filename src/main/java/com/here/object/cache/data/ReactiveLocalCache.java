@@ -0,0 +1,117 @@
+package com.here.object.cache.data;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * {@link ReactiveDataCache} view of a {@link LocalCache}, the operations run on the subscribing thread since they only touch the heap.
+ * The value loader of the cache, if any, is invoked on the subscribing thread as well.
+ *
+ * @param <T> The datatype that can be held by this class
+ * @author amajha
+ */
+final class ReactiveLocalCache<T> implements ReactiveDataCache<T> {
+
+	private final LocalCache<T> localCache;
+
+	ReactiveLocalCache(LocalCache<T> localCache) {
+		this.localCache = localCache;
+	}
+
+	@Override
+	public Mono<T> get(String key) {
+		return Mono.fromSupplier(() -> localCache.get(key));
+	}
+
+	@Override
+	public Flux<Map.Entry<String, T>> getAll(Collection<String> keys) {
+		return Flux.fromIterable(keys)
+				.<Map.Entry<String, T>>handle((key, sink) -> {
+					T t = localCache.get(key);
+					if (t != null)
+						sink.next(new AbstractMap.SimpleImmutableEntry<>(key, t));
+				});
+	}
+
+	@Override
+	public Mono<T> store(String key, T t) {
+		return Mono.fromSupplier(() -> localCache.store(key, t));
+	}
+
+	@Override
+	public Mono<T> store(String key, T t, long timeToLive, TimeUnit timeUnit) {
+		return Mono.error(new UnsupportedOperationException("Per key time to live not supported by the local cache"));
+	}
+
+	@Override
+	public Mono<T> replace(String key, T t) {
+		return Mono.fromSupplier(() -> localCache.replace(key, t));
+	}
+
+	@Override
+	public Mono<T> replace(String key, T t, long timeToLive, TimeUnit timeUnit) {
+		return Mono.error(new UnsupportedOperationException("Per key time to live not supported by the local cache"));
+	}
+
+	@Override
+	public Mono<Void> storeBatch(Map<String, T> dataToInsert) {
+		return Mono.fromRunnable(() -> dataToInsert.forEach(localCache::replace));
+	}
+
+	@Override
+	public Mono<Boolean> delete(String key) {
+		return Mono.fromSupplier(() -> localCache.deleteIfPresent(key));
+	}
+
+	@Override
+	public Mono<Long> deleteByKeys(String... keys) {
+		return Mono.fromSupplier(() -> localCache.deleteByKeys(keys));
+	}
+
+	@Override
+	public Flux<String> scan(String keyPattern) {
+		return Flux.defer(() -> {
+			Pattern pattern = Pattern.compile(globToRegex(keyPattern + "*"));
+			return Flux.fromIterable(localCache.getAllKeys()).filter(e -> pattern.matcher(e).matches());
+		});
+	}
+
+	/**
+	 * Translates the redis glob-style patterns (*, ?, [...]) to a regular expression
+	 */
+	private static String globToRegex(String glob) {
+		StringBuilder regex = new StringBuilder();
+		boolean inBrackets = false;
+		for (int i = 0; i < glob.length(); i++) {
+			char c = glob.charAt(i);
+			if (c == '\\' && i + 1 < glob.length()) {
+				regex.append(Pattern.quote(String.valueOf(glob.charAt(++i))));
+			} else if (inBrackets) {
+				if (c == ']')
+					inBrackets = false;
+				regex.append(c == '^' ? "\\^" : String.valueOf(c));
+			} else if (c == '*') {
+				regex.append(".*");
+			} else if (c == '?') {
+				regex.append('.');
+			} else if (c == '[') {
+				inBrackets = true;
+				regex.append('[');
+			} else {
+				regex.append(Pattern.quote(String.valueOf(c)));
+			}
+		}
+		return regex.toString();
+	}
+
+	@Override
+	public Mono<Void> purgeCache() {
+		return Mono.fromRunnable(localCache::purgeCache);
+	}
+}
@@ -0,0 +1,229 @@
+package com.here.object.cache.data;
+
+import com.here.object.cache.exceptions.NonUniqueKeyException;
+import com.here.object.cache.exceptions.ObjectNotSerialzableException;
+import io.lettuce.core.KeyValue;
+import io.lettuce.core.ScanArgs;
+import io.lettuce.core.ScanStream;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.cluster.api.reactive.RedisClusterReactiveCommands;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.output.StatusOutput;
+import io.lettuce.core.protocol.CommandType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * {@link ReactiveDataCache} view of a {@link RedisCache}, sharing its connection and its local cache.
+ * The value loader of the cache is not applied, since it may block.
+ *
+ * @param <T> The datatype that can be held within this cache
+ * @author amajha
+ */
+final class ReactiveRedisCache<T> implements ReactiveDataCache<T> {
+
+	private static final int BATCH_SIZE = 100;
+	private static final int WRITE_CONCURRENCY = 64;
+
+	private final ConsistentHashRing<? extends RedisClusterReactiveCommands<String, T>> servers;
+	private final String keyPrefix;
+	private final ExpiryPolicy expiry;
+	private final LocalCache<T> localCache;
+	private final BloomFilterGuard<T> bloomFilter;
+	private final ChangeFeedPublisher<T> changeFeed;
+	private final RedisCodec<String, T> codec;
+	private final BiFunction<String, T, EncodedValue<T>> valueEncoder;
+
+	/**
+	 * @param servers    the commands of the connections of the cache, a single one unless the sharded mode is used
+	 * @param keyPrefix  the prefix of the keys of the cache
+	 * @param expiry     the expiry of the writes with the default time to live
+	 * @param localCache the local cache, <code>null</code> if the local cache is disabled
+	 * @param bloomFilter the bloom filter of the keys, <code>null</code> if disabled
+	 * @param changeFeed the publisher of the change feed, <code>null</code> if disabled
+	 * @param codec      the codec of the connections
+	 * @param valueEncoder the validation of the values written, returning the value to be sent, see {@link RedisCache#encodeValue(String, Object)}
+	 */
+	ReactiveRedisCache(ConsistentHashRing<? extends RedisClusterReactiveCommands<String, T>> servers, String keyPrefix, ExpiryPolicy expiry,
+					   LocalCache<T> localCache, BloomFilterGuard<T> bloomFilter, ChangeFeedPublisher<T> changeFeed,
+					   RedisCodec<String, T> codec, BiFunction<String, T, EncodedValue<T>> valueEncoder) {
+		this.servers = servers;
+		this.keyPrefix = keyPrefix;
+		this.expiry = expiry;
+		this.localCache = localCache;
+		this.bloomFilter = bloomFilter;
+		this.changeFeed = changeFeed;
+		this.codec = codec;
+		this.valueEncoder = valueEncoder;
+	}
+
+	private void publishChange(ChangeEvent.Type type, String... keys) {
+		if (changeFeed != null)
+			changeFeed.publish(type, keys);
+	}
+
+	private void recordKey(String key) {
+		if (bloomFilter != null)
+			bloomFilter.record(key);
+	}
+
+	private RedisClusterReactiveCommands<String, T> commands(String key) {
+		return servers.get(key);
+	}
+
+	@Override
+	public Mono<T> get(String key) {
+		if (bloomFilter != null && !bloomFilter.mightContain(key))
+			return Mono.empty();
+
+		Mono<T> remote = commands(keyPrefix + key).get(keyPrefix + key).doOnNext(e -> {
+			if (localCache != null)
+				localCache.replace(key, e);
+		});
+		if (localCache == null)
+			return remote;
+
+		// like the blocking cache, a local hit is only served if the key still exists on redis
+		return Mono.defer(() -> {
+			T t = localCache.getIfPresent(key);
+			if (t == null)
+				return remote;
+			return commands(keyPrefix + key).exists(keyPrefix + key).flatMap(e -> {
+				if (e != 0)
+					return Mono.just(t);
+				localCache.deleteIfPresent(key);
+				return Mono.empty();
+			});
+		});
+	}
+
+	@Override
+	public Flux<Map.Entry<String, T>> getAll(Collection<String> keys) {
+		return Flux.fromIterable(keys)
+				.buffer(BATCH_SIZE)
+				// a single batch is fetched at a time, the next one is only requested once the subscriber asks for more
+				.concatMap(this::mget)
+				.filter(KeyValue::hasValue)
+				.map(e -> new AbstractMap.SimpleImmutableEntry<>(e.getKey().substring(keyPrefix.length()), e.getValue()));
+	}
+
+	private Flux<KeyValue<String, T>> mget(List<String> keys) {
+		return Flux.fromIterable(servers.partition(keys, e -> keyPrefix + e).entrySet())
+				.flatMap(e -> e.getKey().mget(e.getValue().stream().map(k -> keyPrefix + k).toArray(String[]::new)));
+	}
+
+	/**
+	 * @return the value to be sent, validated on subscription, the value is serialized by the subscribing thread if its size is tracked
+	 */
+	private Mono<EncodedValue<T>> encodeValue(String key, T t) {
+		if (!(t instanceof Serializable))
+			return Mono.error(new ObjectNotSerialzableException("Non-Serializable objects cannot be stored on Redis"));
+		return Mono.fromCallable(() -> valueEncoder.apply(key, t));
+	}
+
+	private Mono<String> set(String key, EncodedValue<T> value, SetArgs setArgs) {
+		return commands(keyPrefix + key).<String>dispatch(CommandType.SET, new StatusOutput<>(codec), value.toSetArgs(codec, keyPrefix + key, setArgs)).next();
+	}
+
+	private SetArgs withTimeToLive(SetArgs setArgs, long timeToLive) {
+		return timeToLive != 0 ? setArgs.px(timeToLive) : setArgs;
+	}
+
+	@Override
+	public Mono<T> store(String key, T t) {
+		return store(key, t, expiry.nextTimeToLive(), TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public Mono<T> store(String key, T t, long timeToLive, TimeUnit timeUnit) {
+		SetArgs setArgs = withTimeToLive(SetArgs.Builder.nx(), TimeUnit.MILLISECONDS.convert(timeToLive, timeUnit));
+		return encodeValue(key, t)
+				.doOnNext(e -> recordKey(key))
+				.flatMap(e -> set(key, e, setArgs))
+				.switchIfEmpty(Mono.error(() -> new NonUniqueKeyException("Key : " + key + " already present in the cache, to replace the value, use ReactiveDataCache::replace() instead.")))
+				.map(e -> {
+					if (localCache != null)
+						localCache.replace(key, t);
+					publishChange(ChangeEvent.Type.STORED, key);
+					return t;
+				});
+	}
+
+	@Override
+	public Mono<T> replace(String key, T t) {
+		return replace(key, t, expiry.nextTimeToLive(), TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public Mono<T> replace(String key, T t, long timeToLive, TimeUnit timeUnit) {
+		SetArgs setArgs = withTimeToLive(new SetArgs(), TimeUnit.MILLISECONDS.convert(timeToLive, timeUnit));
+		return encodeValue(key, t)
+				.doOnNext(e -> recordKey(key))
+				.flatMap(e -> set(key, e, setArgs))
+				.map(e -> {
+					if (localCache != null)
+						localCache.replace(key, t);
+					publishChange(ChangeEvent.Type.REPLACED, key);
+					return t;
+				});
+	}
+
+	@Override
+	public Mono<Void> storeBatch(Map<String, T> dataToInsert) {
+		return Flux.fromIterable(dataToInsert.entrySet())
+				.flatMap(e -> replace(e.getKey(), e.getValue()), WRITE_CONCURRENCY)
+				.then();
+	}
+
+	@Override
+	public Mono<Boolean> delete(String key) {
+		return deleteByKeys(key).map(e -> e != 0);
+	}
+
+	@Override
+	public Mono<Long> deleteByKeys(String... keys) {
+		String[] keysUpdated = new String[keys.length];
+		for (int i = 0; i < keys.length; i++)
+			keysUpdated[i] = keyPrefix + keys[i];
+
+		return Flux.fromIterable(servers.partition(Arrays.asList(keysUpdated), Function.identity()).entrySet())
+				.flatMap(e -> e.getKey().del(e.getValue().toArray(new String[0])))
+				.reduce(0L, Long::sum)
+				.doOnNext(e -> {
+					if (e != 0)
+						publishChange(ChangeEvent.Type.DELETED, keys);
+				})
+				.doOnSubscribe(e -> {
+					if (localCache != null)
+						localCache.deleteByKeys(keys);
+				});
+	}
+
+	@Override
+	public Flux<String> scan(String keyPattern) {
+		return Flux.fromIterable(servers.getNodes())
+				.concatMap(e -> ScanStream.scan(e, ScanArgs.Builder.limit(BATCH_SIZE).match(keyPrefix + keyPattern + "*")))
+				.map(e -> e.substring(keyPrefix.length()));
+	}
+
+	@Override
+	public Mono<Void> purgeCache() {
+		return Flux.fromIterable(servers.getNodes())
+				.flatMap(RedisClusterReactiveCommands::flushall)
+				.doOnSubscribe(e -> {
+					if (localCache != null)
+						localCache.purgeCache();
+				})
+				.then();
+	}
+}
@@ -1,32 +1,55 @@
 package com.here.object.cache.data;
 
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.here.object.cache.config.CachingMode;
 import com.here.object.cache.config.local.LocalCacheConfig;
+import com.here.object.cache.config.redis.BloomFilterConfig;
+import com.here.object.cache.config.redis.ChangeFeedConfig;
+import com.here.object.cache.config.redis.CircuitBreakerConfig;
+import com.here.object.cache.config.redis.ReadPolicy;
 import com.here.object.cache.config.redis.RedisCacheConfig;
 import com.here.object.cache.config.redis.ServerAddress;
+import com.here.object.cache.exceptions.CacheUnavailableException;
 import com.here.object.cache.exceptions.NonUniqueKeyException;
 import com.here.object.cache.exceptions.ObjectNotSerialzableException;
+import com.here.object.cache.exceptions.ValueTooLargeException;
 import com.here.object.cache.serializer.Serializer;
 import io.lettuce.core.*;
+import io.lettuce.core.api.StatefulConnection;
 import io.lettuce.core.api.StatefulRedisConnection;
-import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.lettuce.core.api.reactive.RedisKeyReactiveCommands;
 import io.lettuce.core.api.reactive.RedisReactiveCommands;
-import io.lettuce.core.cluster.ClusterClientOptions;
-import io.lettuce.core.cluster.RedisClusterClient;
+import io.lettuce.core.api.sync.RedisStreamCommands;
+import io.lettuce.core.cluster.SlotHash;
 import io.lettuce.core.cluster.api.StatefulRedisClusterConnection;
-import io.lettuce.core.cluster.api.async.RedisAdvancedClusterAsyncCommands;
 import io.lettuce.core.cluster.api.reactive.RedisAdvancedClusterReactiveCommands;
+import io.lettuce.core.cluster.api.reactive.RedisClusterReactiveCommands;
+import io.lettuce.core.cluster.models.partitions.RedisClusterNode;
 import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.codec.StringCodec;
+import io.lettuce.core.output.CommandOutput;
+import io.lettuce.core.output.IntegerOutput;
+import io.lettuce.core.output.KeyListOutput;
+import io.lettuce.core.output.StatusOutput;
+import io.lettuce.core.output.ValueOutput;
+import io.lettuce.core.protocol.CommandArgs;
+import io.lettuce.core.protocol.CommandType;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
 
 import java.io.Serializable;
 import java.nio.ByteBuffer;
 import java.time.Duration;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -38,18 +61,80 @@ public class RedisCache<T> implements DataCache<T> {
 
 	private static final String SHARED_COUNTER = "SHARED_COUNTER";
 	private static final int FETCH_SIZE = 10;
+	private static final int WARM_UP_SCAN_SIZE = 1000;
+	private static final int WARM_UP_BATCH_SIZE = 100;
+	private static final String HOT_KEYS_PREFIX = "__object_cache_hot_keys:";
+	private static final String SHARD_CURSOR_SEPARATOR = ":";
+	private static final String MISS_KEY_PREFIX = "__object_cache_miss:";
+
+	// KEYS[1] : key, ARGV[1] : value, ARGV[2] : time to live in ms (0 for no expiry)
+	static final String PUT_IF_ABSENT_SCRIPT =
+			"local v = redis.call('GET', KEYS[1]) " +
+			"if v then return v end " +
+			"if tonumber(ARGV[2]) > 0 then redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2]) else redis.call('SET', KEYS[1], ARGV[1]) end " +
+			"return false";
+
+	// KEYS[1] : key, ARGV[1] : expected value, ARGV[2] : new value, ARGV[3] : time to live in ms (0 for no expiry)
+	private static final String COMPARE_AND_REPLACE_SCRIPT =
+			"if redis.call('GET', KEYS[1]) ~= ARGV[1] then return 0 end " +
+			"if tonumber(ARGV[3]) > 0 then redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3]) else redis.call('SET', KEYS[1], ARGV[2]) end " +
+			"return 1";
+
+	// KEYS[1] : key
+	private static final String GET_AND_DELETE_SCRIPT =
+			"local v = redis.call('GET', KEYS[1]) " +
+			"if v then redis.call('DEL', KEYS[1]) end " +
+			"return v";
+
+	// KEYS[1] : key, ARGV[1] : value, ARGV[2] : time to live in ms (0 for no expiry)
+	private static final String GET_AND_SET_SCRIPT =
+			"local v = redis.call('GET', KEYS[1]) " +
+			"if tonumber(ARGV[2]) > 0 then redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2]) else redis.call('SET', KEYS[1], ARGV[1]) end " +
+			"return v";
 	private final String CACHE_KEY_APPENDER;
 	private String cacheId;
 	private LocalCache<T> localCache;
 	private RedisCacheConfig cacheConfig;
 	private RedisCodec<String, T> redisCodec;
-	private RedisClient client;
-	private RedisClusterClient clusterClient;
+	private RedisClientRegistry clientRegistry;
+	private final AtomicBoolean closed = new AtomicBoolean();
+	private CompletableFuture<Long> warmUpFuture = CompletableFuture.completedFuture(0L);
 	private RedisAdvancedClusterReactiveCommands<String, T> clusterReactiveCommands;
-	private RedisReactiveCommands<String, T> redisReactiveCommands;
-	private long timeToLive = 0;
+	// the servers of the non-clustered modes, holds a single server unless the sharded mode is used
+	private ConsistentHashRing<RedisReactiveCommands<String, T>> shards;
+	// the servers of the sharded mode on the same ring as the shards, null in the other modes
+	private ConsistentHashRing<ServerAddress> shardServers;
+	private ExpiryPolicy expiry;
+	// the keys being refreshed ahead of their expiry
+	private final Set<String> refreshingKeys = ConcurrentHashMap.newKeySet();
+	private Duration commandTimeout;
+	private Duration readTimeout;
+	private Duration writeTimeout;
+	// null if the circuit breaker is disabled
+	private CircuitBreaker circuitBreaker;
+	// null unless the writes are queued while the circuit breaker is open
+	private PendingWrites pendingWrites;
 	private Function<String, T> valueLoader;
 	private Serializer serializer;
+	// null if the bloom filter is disabled
+	private BloomFilterGuard<T> bloomFilter;
+	private final LongAdder negativeHitCount = new LongAdder();
+	private final LongAdder backgroundFailureCount = new LongAdder();
+	// null if the change feed is disabled
+	private ChangeFeedPublisher<T> changeFeed;
+	// identifies this instance in the holders of the locks
+	private final String instanceId = UUID.randomUUID().toString();
+	private final Map<String, RedisCacheLock.Hold> lockHolds = new ConcurrentHashMap<>();
+	// the notifiers of the lock releases per server, created along with the first wait for a lock of the server
+	private final Map<String, LockNotifier> lockNotifiers = new ConcurrentHashMap<>();
+	// the idle connections of the transactions per server, not shared with the other commands since the WATCH and MULTI state is per connection
+	private final Map<String, Queue<StatefulConnection<String, T>>> transactionConnections = new ConcurrentHashMap<>();
+	// null while no operation listener is registered
+	private volatile OperationTracer tracer;
+	// null if the value sizes are not tracked
+	private ValueSizeGuard valueSizeGuard;
+	// the coalescers of the connections, empty unless the auto pipelining is enabled
+	private final List<CommandCoalescer> coalescers = new ArrayList<>();
 
 	/**
 	 * @param cacheConfig
@@ -57,20 +142,22 @@ public class RedisCache<T> implements DataCache<T> {
 	public RedisCache(RedisCacheConfig cacheConfig) {
 		super();
 		this.cacheConfig = cacheConfig;
-		buildRedisClient();
 		this.serializer = cacheConfig.getSerializer();
-
 		this.cacheId = cacheConfig.getCacheId();
 		if (cacheConfig.getCacheId() == null)
 			this.cacheId = UUID.randomUUID().toString();
 
+		buildRedisClient();
+		buildCircuitBreaker();
+
 		if (this.cacheConfig.isEnableLocalCaching())
-			this.localCache = new LocalCache<>(new LocalCacheConfig(cacheConfig.getLocalCacheSize(), 7, TimeUnit.DAYS), this, this.cacheId);
-		if (this.cacheConfig.getExpirationInMs() != 0) {
-			this.timeToLive = this.cacheConfig.getExpirationInMs();
-		}
+			this.localCache = new LocalCache<>(buildLocalCacheConfig(), this, this.cacheId);
+		this.expiry = ExpiryPolicy.of(this.cacheConfig);
 
 		CACHE_KEY_APPENDER = cacheId;
+		buildBloomFilter();
+		buildChangeFeed();
+		startWarmUp();
 	}
 
 	/**
@@ -80,154 +167,628 @@ public class RedisCache<T> implements DataCache<T> {
 	public RedisCache(RedisCacheConfig cacheConfig, Function<String, T> valueLoader) {
 		super();
 		this.cacheConfig = cacheConfig;
-		buildRedisClient();
-
+		this.serializer = cacheConfig.getSerializer();
 		this.cacheId = cacheConfig.getCacheId();
 		if (cacheConfig.getCacheId() == null)
 			this.cacheId = UUID.randomUUID().toString();
 
-		if (this.cacheConfig.isEnableLocalCaching())
-			this.localCache = new LocalCache<>(new LocalCacheConfig(cacheConfig.getLocalCacheSize(), 7, TimeUnit.DAYS), this, valueLoader, this.getCacheId());
-		else
-			this.valueLoader = valueLoader;
+		buildRedisClient();
+		buildCircuitBreaker();
 
-		if (this.cacheConfig.getExpirationInMs() != 0) {
-			this.timeToLive = this.cacheConfig.getExpirationInMs();
-		}
+		if (this.cacheConfig.isEnableLocalCaching())
+			this.localCache = new LocalCache<>(buildLocalCacheConfig(), this, valueLoader, this.getCacheId());
+		// also used by the early refreshes while the local cache is enabled
+		this.valueLoader = valueLoader;
+		this.expiry = ExpiryPolicy.of(this.cacheConfig);
 
 		CACHE_KEY_APPENDER = cacheId;
+		buildBloomFilter();
+		buildChangeFeed();
+		startWarmUp();
 	}
 
 	public String getCacheId() {
 		return cacheId;
 	}
 
-	private void validateStore(String key, T t) {
-		if (!(t instanceof Serializable))
-			throw new ObjectNotSerialzableException("Non-Serializable objects cannot be stored on Redis");
+	private LocalCacheConfig buildLocalCacheConfig() {
+		LocalCacheConfig localCacheConfig = new LocalCacheConfig(cacheConfig.getLocalCacheSize(), 7, TimeUnit.DAYS);
+		localCacheConfig.withCustomSerializer(this.serializer);
+		if (cacheConfig.getLocalCacheSnapshotDirectory() != null)
+			localCacheConfig.withSnapshot(cacheConfig.getLocalCacheSnapshotDirectory(), cacheConfig.getLocalCacheSnapshotIntervalInMs(), TimeUnit.MILLISECONDS);
+		if (cacheConfig.getLocalDiskCacheDirectory() != null)
+			localCacheConfig.withDiskCache(cacheConfig.getLocalDiskCacheDirectory(), cacheConfig.getLocalDiskCacheMaxSizeInBytes());
+		if (cacheConfig.getLocalCacheMaxWeightInBytes() != 0)
+			localCacheConfig.withMaxWeight(cacheConfig.getLocalCacheMaxWeightInBytes(), cacheConfig.getLocalCacheWeightEstimate());
+		if (cacheConfig.isLocalCacheSoftValues())
+			localCacheConfig.withSoftValues();
+		if (cacheConfig.getNegativeCacheTtlInMs() != 0)
+			localCacheConfig.withNegativeCaching(cacheConfig.getNegativeCacheTtlInMs(), TimeUnit.MILLISECONDS);
+		return localCacheConfig;
+	}
+
+	private void buildCircuitBreaker() {
+		this.readTimeout = Duration.ofMillis(cacheConfig.getReadTimeoutInMs());
+		this.writeTimeout = Duration.ofMillis(cacheConfig.getWriteTimeoutInMs());
+
+		CircuitBreakerConfig breakerConfig = cacheConfig.getCircuitBreakerConfig();
+		if (breakerConfig == null)
+			return;
+
+		if (CircuitBreakerConfig.WriteFallback.QUEUE.equals(breakerConfig.getWriteFallback())) {
+			PendingWrites writes = new PendingWrites(breakerConfig.getMaxQueuedWrites());
+			this.pendingWrites = writes;
+			this.circuitBreaker = new CircuitBreaker(breakerConfig, () -> {
+				if (!writes.isEmpty())
+					CacheExecutors.getScheduler().execute(writes::replay);
+			});
+		} else {
+			this.circuitBreaker = new CircuitBreaker(breakerConfig, () -> {
+			});
+		}
+	}
+
+	private void buildBloomFilter() {
+		BloomFilterConfig bloomFilterConfig = cacheConfig.getBloomFilterConfig();
+		if (bloomFilterConfig == null)
+			return;
+
+		String filterKey = BloomFilterGuard.getFilterKey(cacheId);
+		RedisClusterReactiveCommands<String, T> commands;
+		if (CachingMode.CLUSTER_MODE_REDIS_CACHE.equals(this.cacheConfig.getCachingMode()))
+			commands = clusterReactiveCommands;
+		else
+			commands = redisReactiveCommands(filterKey);
+		this.bloomFilter = new BloomFilterGuard<>(this, bloomFilterConfig, cacheId,
+				() -> scanKeys(Collections.singletonList(""), cacheConfig.getWarmUpConcurrency()).map(e -> e.substring(CACHE_KEY_APPENDER.length())),
+				commands, this.redisCodec);
+	}
+
+	/**
+	 * Record a key about to be written in the bloom filter
+	 */
+	void recordKey(String key) {
+		if (bloomFilter != null)
+			bloomFilter.record(key);
+	}
+
+	/**
+	 * @return false if the key has definitely never been written, in which case redis need not be called
+	 */
+	private boolean mightExist(String key) {
+		return bloomFilter == null || bloomFilter.mightContain(key);
+	}
+
+	private void buildChangeFeed() {
+		ChangeFeedConfig changeFeedConfig = cacheConfig.getChangeFeedConfig();
+		if (changeFeedConfig == null)
+			return;
+
+		String streamKey = ChangeFeedPublisher.getStreamKey(cacheId);
+		if (CachingMode.CLUSTER_MODE_REDIS_CACHE.equals(this.cacheConfig.getCachingMode())) {
+			this.changeFeed = new ChangeFeedPublisher<>(this, changeFeedConfig, cacheId, CACHE_KEY_APPENDER, clusterReactiveCommands, this.redisCodec);
+			if (changeFeedConfig.isExpirations())
+				changeFeed.subscribeExpirations(clientRegistry.connectClusterPubSub(StringCodec.UTF8));
+		} else {
+			this.changeFeed = new ChangeFeedPublisher<>(this, changeFeedConfig, cacheId, CACHE_KEY_APPENDER, redisReactiveCommands(streamKey), this.redisCodec);
+			if (changeFeedConfig.isExpirations())
+				changeFeed.subscribeExpirations(clientRegistry.connectPubSub(StringCodec.UTF8, cacheConfig));
+		}
+	}
+
+	/**
+	 * Append the change of the keys to the change feed, if enabled
+	 */
+	private void publishChange(ChangeEvent.Type type, String... keys) {
+		if (changeFeed != null)
+			changeFeed.publish(type, keys);
+	}
+
+	/**
+	 * Read the change feed of this cache as a member of the given consumer group, see {@link ChangeFeedConfig}.
+	 * The consumer holds its own connection and must be closed.
+	 *
+	 * @param group    the consumer group, created if missing
+	 * @param consumer the name of the consumer within the group
+	 * @return the consumer
+	 */
+	public ChangeFeedConsumer consumeChanges(String group, String consumer) {
+		String streamKey = ChangeFeedPublisher.getStreamKey(cacheId);
+		StatefulConnection<String, String> connection;
+		RedisStreamCommands<String, String> commands;
+		if (CachingMode.CLUSTER_MODE_REDIS_CACHE.equals(this.cacheConfig.getCachingMode())) {
+			StatefulRedisClusterConnection<String, String> clusterConnection = clientRegistry.connectCluster(StringCodec.UTF8, ReadPolicy.MASTER, commandTimeout);
+			connection = clusterConnection;
+			commands = clusterConnection.sync();
+		} else {
+			StatefulRedisConnection<String, String> redisConnection;
+			if (CachingMode.SHARDED_REDIS_CACHE.equals(this.cacheConfig.getCachingMode()))
+				redisConnection = clientRegistry.connectShard(StringCodec.UTF8, getShard(streamKey), commandTimeout);
+			else
+				redisConnection = clientRegistry.connectStandAlone(StringCodec.UTF8, cacheConfig);
+			connection = redisConnection;
+			commands = redisConnection.sync();
+		}
+		return new ChangeFeedConsumer(connection, commands, streamKey, group, consumer, cacheConfig.getCommandTimeoutInMs());
+	}
+
+	/**
+	 * @return the server of the sharded mode holding the given key
+	 */
+	private ServerAddress getShard(String key) {
+		return shardServers.get(key);
+	}
+
+	/**
+	 * @return false while the circuit breaker is open, the reads are then served by the local cache and the writes are dropped or queued
+	 */
+	public boolean isRemoteAvailable() {
+		return circuitBreaker == null || !circuitBreaker.isOpen();
+	}
+
+	private <R> R read(String key, Mono<R> command) {
+		return call(key, null, command, readTimeout);
+	}
+
+	/**
+	 * @param output the output of the command reading the value
+	 */
+	private <R> R read(String key, SizedValueOutput<String, T> output, Mono<R> command) {
+		return call(key, output, command, readTimeout);
+	}
+
+	/**
+	 * @param value the value written, <code>null</code> if none
+	 */
+	private <R> R write(String key, EncodedValue<T> value, Mono<R> command) {
+		return call(key, value, command, writeTimeout);
+	}
+
+	/**
+	 * Wait for a command of the given key, recording the command to the flight recorder if it is slower than the threshold,
+	 * and the size of its value to the operation traced
+	 *
+	 * @param key   the key of the command, <code>null</code> if it covers several keys
+	 * @param sized the value written or the output of the value read, see {@link #sizeOf(Object)}
+	 */
+	private <R> R call(String key, Object sized, Mono<R> command, Duration timeout) {
+		OperationTracer tracer = this.tracer;
+		Object event = FlightRecorderEvents.REMOTE_CALL.begin();
+		if (event == null && tracer == null)
+			return call(command, timeout);
+
+		try {
+			R response = call(command, timeout);
+			if (tracer != null)
+				tracer.recordBytes(sizeOf(sized));
+			return response;
+		} finally {
+			FlightRecorderEvents.REMOTE_CALL.end(event, cacheId, key, sizeOf(sized));
+		}
+	}
+
+	/**
+	 * @param sized the value written or the output of the value read
+	 * @return the size in bytes of the value, -1 if unknown such as for a value not serialized by the writing thread
+	 */
+	private static long sizeOf(Object sized) {
+		if (sized instanceof EncodedValue)
+			return ((EncodedValue<?>) sized).getSize();
+		if (sized instanceof SizedValueOutput)
+			return ((SizedValueOutput<?, ?>) sized).getSize();
+		return -1;
+	}
+
+	/**
+	 * The command reading the value of the key, the size of the value is kept by the output,
+	 * a <code>MGET</code> of the value and of the marker of a miss if the output reads the marker
+	 */
+	private Mono<T> get(RedisClusterReactiveCommands<String, T> commands, String key, SizedValueOutput<String, T> output) {
+		CommandArgs<String, T> args = new CommandArgs<>(this.redisCodec).addKey(CACHE_KEY_APPENDER + key);
+		if (!output.isMissMarkerRead())
+			return commands.<T>dispatch(CommandType.GET, output, args).next();
+		return commands.<T>dispatch(CommandType.MGET, output, args.addKey(getMissKey(key))).next();
+	}
+
+	/**
+	 * Wait for a command run on behalf of the cache, such as by its locks, within the read or the write timeout,
+	 * the outcome is reported to the circuit breaker
+	 *
+	 * @throws CacheUnavailableException if the circuit breaker is open
+	 */
+	<R> R await(Mono<R> command, boolean write) {
+		return call(command, write ? writeTimeout : readTimeout);
+	}
+
+	/**
+	 * Wait for a single key command within the given timeout, the outcome is reported to the circuit breaker
+	 *
+	 * @throws CacheUnavailableException if the circuit breaker is open
+	 */
+	private <R> R call(Mono<R> command, Duration timeout) {
+		Mono<R> timedCommand = command.timeout(timeout,
+				Mono.error(() -> new RedisCommandTimeoutException("Command timed out after " + timeout.toMillis() + " ms")));
+		if (circuitBreaker == null)
+			return timedCommand.block();
+
+		if (!circuitBreaker.tryAcquire())
+			throw new CacheUnavailableException("Redis not available for the cache : " + cacheId + ", the circuit breaker is open");
+
+		long start = System.nanoTime();
+		try {
+			R response = timedCommand.block();
+			circuitBreaker.onSuccess(System.nanoTime() - start);
+			return response;
+		} catch (RedisCommandExecutionException e) {
+			// an error reply means the server is up
+			circuitBreaker.onSuccess(System.nanoTime() - start);
+			throw e;
+		} catch (RuntimeException e) {
+			circuitBreaker.onError(System.nanoTime() - start);
+			throw e;
+		}
+	}
+
+	/**
+	 * Keep a write which could not be sent as the circuit breaker is open, it is dropped unless the writes are queued
+	 */
+	private void deferWrite(String key, Runnable write) {
+		if (pendingWrites != null)
+			pendingWrites.add(key, write);
+	}
+
+	private void startWarmUp() {
+		if (!this.cacheConfig.isEnableLocalCaching())
+			return;
+
+		Flux<String> keys = Flux.empty();
+		if (!cacheConfig.getWarmUpPatterns().isEmpty())
+			keys = scanKeys(cacheConfig.getWarmUpPatterns(), cacheConfig.getWarmUpConcurrency());
+		if (cacheConfig.isHotKeyWarmUp())
+			keys = keys.mergeWith(getHotKeys());
+
+		if (!cacheConfig.getWarmUpPatterns().isEmpty() || cacheConfig.isHotKeyWarmUp())
+			this.warmUpFuture = loadIntoLocalCache(keys, cacheConfig.getWarmUpConcurrency());
+	}
+
+	/**
+	 * The warm-up of the local cache started when this cache was created
+	 *
+	 * @return the future completing with the number of entries loaded into the local cache
+	 */
+	public CompletableFuture<Long> getWarmUpFuture() {
+		return warmUpFuture;
+	}
+
+	/**
+	 * Load the keys matching the given patterns from redis into the local cache.
+	 * The patterns are scanned in parallel and the values are fetched in batches, both within the given concurrency limit.
+	 *
+	 * @param concurrency the max number of scans and batch fetches running in parallel
+	 * @param keyPatterns the key patterns to be loaded
+	 * @return the future completing with the number of entries loaded into the local cache
+	 * @throws IllegalStateException if the local cache is not enabled
+	 */
+	public CompletableFuture<Long> warmUp(int concurrency, String... keyPatterns) {
+		return loadIntoLocalCache(scanKeys(Arrays.asList(keyPatterns), concurrency), concurrency);
+	}
+
+	private Flux<String> scanKeys(List<String> keyPatterns, int concurrency) {
+		List<RedisKeyReactiveCommands<String, T>> commands = new ArrayList<>();
+		if (CachingMode.CLUSTER_MODE_REDIS_CACHE.equals(this.cacheConfig.getCachingMode()))
+			commands.add(clusterReactiveCommands);
+		else
+			commands.addAll(shards.getNodes());
+
+		Flux<String> keys = Flux.fromIterable(keyPatterns)
+				.flatMap(e -> Flux.fromIterable(commands)
+						.flatMap(c -> ScanStream.scan(c, ScanArgs.Builder.limit(WARM_UP_SCAN_SIZE).match(CACHE_KEY_APPENDER + e + "*"))), concurrency);
+		if (!FlightRecorderEvents.SCAN.isEnabled())
+			return keys;
+
+		// the scan is recorded once it terminates, with the number of keys scanned
+		return Flux.defer(() -> {
+			Object event = FlightRecorderEvents.SCAN.begin();
+			LongAdder keyCount = new LongAdder();
+			return keys.doOnNext(e -> keyCount.increment())
+					.doFinally(e -> FlightRecorderEvents.SCAN.end(event, cacheId, null, keyCount.sum()));
+		});
+	}
+
+	private CompletableFuture<Long> loadIntoLocalCache(Flux<String> keys, int concurrency) {
+		if (!this.cacheConfig.isEnableLocalCaching())
+			throw new IllegalStateException("Local cache not enabled for the cache : " + cacheId);
+
+		return keys.buffer(WARM_UP_BATCH_SIZE)
+				.flatMap(this::mget, concurrency)
+				.filter(KeyValue::hasValue)
+				// values written by the application in the meantime are fresher than the ones being loaded
+				.filter(e -> localCache.putIfAbsent(e.getKey().substring(CACHE_KEY_APPENDER.length()), e.getValue()) == null)
+				.count()
+				.toFuture();
+	}
+
+	private Flux<KeyValue<String, T>> mget(List<String> keys) {
+		String[] keyArray = keys.toArray(new String[0]);
+		if (CachingMode.CLUSTER_MODE_REDIS_CACHE.equals(this.cacheConfig.getCachingMode()))
+			return clusterReactiveCommands.mget(keyArray);
+		else
+			return Flux.fromIterable(shards.partition(keys, Function.identity()).entrySet())
+					.flatMap(e -> e.getKey().mget(e.getValue().toArray(new String[0])));
+	}
+
+	private Flux<String> getHotKeys() {
+		CommandArgs<String, T> args = new CommandArgs<>(this.redisCodec).addKey(HOT_KEYS_PREFIX + cacheId);
+		Flux<String> hotKeys;
+		if (CachingMode.CLUSTER_MODE_REDIS_CACHE.equals(this.cacheConfig.getCachingMode()))
+			hotKeys = clusterReactiveCommands.dispatch(CommandType.SMEMBERS, new KeyListOutput<>(this.redisCodec), args);
+		else
+			hotKeys = redisReactiveCommands(HOT_KEYS_PREFIX + cacheId).dispatch(CommandType.SMEMBERS, new KeyListOutput<>(this.redisCodec), args);
+		return hotKeys.map(e -> CACHE_KEY_APPENDER + e);
+	}
+
+	/**
+	 * Record the keys currently held by the local cache in redis, these keys are loaded into the local cache
+	 * when a cache with the same id and the hot key warm-up enabled is created.
+	 * This is done automatically when the cache is closed if the hot key warm-up is enabled.
+	 */
+	public void saveHotKeys() {
+		if (!this.cacheConfig.isEnableLocalCaching())
+			throw new IllegalStateException("Local cache not enabled for the cache : " + cacheId);
+
+		String hotKeysKey = HOT_KEYS_PREFIX + cacheId;
+		Flux<Long> added = Flux.fromIterable(Lists.partition(new ArrayList<>(localCache.getAllKeys()), WARM_UP_SCAN_SIZE))
+				.concatMap(e -> {
+					CommandArgs<String, T> args = new CommandArgs<>(this.redisCodec).addKey(hotKeysKey).addKeys(e);
+					if (CachingMode.CLUSTER_MODE_REDIS_CACHE.equals(this.cacheConfig.getCachingMode()))
+						return clusterReactiveCommands.<Long>dispatch(CommandType.SADD, new IntegerOutput<>(this.redisCodec), args);
+					else
+						return redisReactiveCommands(hotKeysKey).<Long>dispatch(CommandType.SADD, new IntegerOutput<>(this.redisCodec), args);
+				});
+
+		if (CachingMode.CLUSTER_MODE_REDIS_CACHE.equals(this.cacheConfig.getCachingMode()))
+			clusterReactiveCommands.del(hotKeysKey).thenMany(added).then().block();
+		else
+			redisReactiveCommands(hotKeysKey).del(hotKeysKey).thenMany(added).then().block();
+	}
+
+	/**
+	 * @return the value to be sent, see {@link #encodeValue(String, Object)}
+	 */
+	private EncodedValue<T> validateStore(String key, T t) {
+		EncodedValue<T> value = encodeValue(key, t);
 
 		// Store in the local cache
 		if (this.cacheConfig.isEnableLocalCaching())
 			localCache.store(key, t);
 
-		//Check in the remote cache
-		if (validateRemoteExistence(key))
+		//Check in the remote cache, the check is skipped while redis is not available
+		boolean exists;
+		try {
+			exists = validateRemoteExistence(key);
+		} catch (CacheUnavailableException e) {
+			exists = false;
+		}
+		if (exists)
 			throw new NonUniqueKeyException("Key : " + key + " already present in the cache, to replace the value, use DataCache::replace() instead.");
+		return value;
 	}
 
-	private void set(String key, T value) {
+	private void set(String key, EncodedValue<T> value) {
 		set(key, value, null);
 	}
 
-	private void set(String key, T value, SetArgs setArgs) {
-		if (CachingMode.CLUSTER_MODE_REDIS_CACHE.equals(this.cacheConfig.getCachingMode())) {
-			if (setArgs != null)
-				clusterReactiveCommands.set(CACHE_KEY_APPENDER + key, value, SetArgs.Builder.ex(TimeUnit.SECONDS.convert(timeToLive, TimeUnit.MILLISECONDS))).block();
-			else
-				clusterReactiveCommands.set(CACHE_KEY_APPENDER + key, value).block();
-		} else {
-			if (setArgs != null)
-				redisReactiveCommands.set(CACHE_KEY_APPENDER + key, value, SetArgs.Builder.ex(TimeUnit.SECONDS.convert(timeToLive, TimeUnit.MILLISECONDS))).block();
-			else
-				redisReactiveCommands.set(CACHE_KEY_APPENDER + key, value).block();
+	/**
+	 * @return false if the write could not be sent as the circuit breaker is open
+	 */
+	private boolean set(String key, EncodedValue<T> value, SetArgs setArgs) {
+		recordKey(key);
+		Mono<String> command;
+		if (CachingMode.CLUSTER_MODE_REDIS_CACHE.equals(this.cacheConfig.getCachingMode()))
+			command = set(clusterReactiveCommands, key, value, setArgs);
+		else
+			command = set(redisReactiveCommands(CACHE_KEY_APPENDER + key), key, value, setArgs);
+
+		try {
+			write(key, value, command);
+			return true;
+		} catch (CacheUnavailableException e) {
+			deferWrite(key, () -> set(key, value, setArgs));
+			return false;
 		}
 	}
 
+	/**
+	 * The <code>SET</code> of the value under the given key
+	 *
+	 * @param setArgs the arguments of the <code>SET</code>, <code>null</code> if none
+	 */
+	private Mono<String> set(RedisClusterReactiveCommands<String, T> commands, String key, EncodedValue<T> value, SetArgs setArgs) {
+		return commands.<String>dispatch(CommandType.SET, new StatusOutput<>(this.redisCodec), value.toSetArgs(this.redisCodec, CACHE_KEY_APPENDER + key, setArgs)).next();
+	}
+
+	/**
+	 * The arguments of a write with the default time to live, the time to live is jittered if configured
+	 */
+	private SetArgs defaultSetArgs() {
+		long timeToLive = expiry.nextTimeToLive();
+		return timeToLive != 0 ? SetArgs.Builder.px(timeToLive) : new SetArgs();
+	}
+
 	@Override
 	public T store(String key, T t) {
-		validateStore(key, t);
+		OperationTracer tracer = this.tracer;
+		if (tracer == null)
+			return doStore(key, t);
+		return tracer.traceWrite(CacheOperation.STORE, key, () -> doStore(key, t));
+	}
 
-		if (timeToLive != 0)
-			set(key, t, SetArgs.Builder.ex(TimeUnit.SECONDS.convert(timeToLive, TimeUnit.MILLISECONDS)));
-		else
-			set(key, t);
+	private T doStore(String key, T t) {
+		EncodedValue<T> value = validateStore(key, t);
+		if (set(key, value, defaultSetArgs()))
+			publishChange(ChangeEvent.Type.STORED, key);
 		return t;
 	}
 
 
 	@Override
 	public T store(String key, T t, long timeToLive, TimeUnit timeUnit) {
-		validateStore(key, t);
-		set(key, t, SetArgs.Builder.ex(TimeUnit.SECONDS.convert(timeToLive, timeUnit)));
+		OperationTracer tracer = this.tracer;
+		if (tracer == null)
+			return doStore(key, t, timeToLive, timeUnit);
+		return tracer.traceWrite(CacheOperation.STORE, key, () -> doStore(key, t, timeToLive, timeUnit));
+	}
+
+	private T doStore(String key, T t, long timeToLive, TimeUnit timeUnit) {
+		EncodedValue<T> value = validateStore(key, t);
+		if (set(key, value, SetArgs.Builder.px(TimeUnit.MILLISECONDS.convert(timeToLive, timeUnit))))
+			publishChange(ChangeEvent.Type.STORED, key);
 		return t;
 	}
 
 	@Override
 	public boolean storeBatch(Map<String, T> dataToInsert, long timeout, TimeUnit timeUnit) {
+		OperationTracer tracer = this.tracer;
+		if (tracer == null)
+			return doStoreBatch(dataToInsert, timeout, timeUnit);
+		return tracer.traceWrite(CacheOperation.STORE_BATCH, null, () -> doStoreBatch(dataToInsert, timeout, timeUnit));
+	}
+
+	private boolean doStoreBatch(Map<String, T> dataToInsert, long timeout, TimeUnit timeUnit) {
+		Object event = FlightRecorderEvents.BATCH_WRITE.begin();
+		boolean stored;
+		try {
+			stored = writeBatch(dataToInsert, timeout, timeUnit);
+		} finally {
+			FlightRecorderEvents.BATCH_WRITE.end(event, cacheId, null, dataToInsert.size());
+		}
+		if (stored)
+			publishChange(ChangeEvent.Type.STORED, dataToInsert.keySet().toArray(new String[0]));
+		return stored;
+	}
+
+	private boolean writeBatch(Map<String, T> entries, long timeout, TimeUnit timeUnit) {
+		Map<String, EncodedValue<T>> dataToInsert = new LinkedHashMap<>();
+		entries.forEach((key, value) -> dataToInsert.put(key, encodeValue(key, value)));
+		if (!isRemoteAvailable()) {
+			dataToInsert.forEach((key, value) -> deferWrite(key, () -> set(key, value, defaultSetArgs())));
+			return false;
+		}
+		dataToInsert.keySet().forEach(this::recordKey);
+
 		if (CachingMode.CLUSTER_MODE_REDIS_CACHE.equals(this.cacheConfig.getCachingMode())) {
 			return storeBatchForCluster(dataToInsert, timeout, timeUnit);
-		} else if (CachingMode.STAND_ALONE_REDIS_CACHE.equals(this.cacheConfig.getCachingMode())) {
-			StatefulRedisConnection<String, T> connection = client.connect(this.redisCodec);
-			RedisAsyncCommands<String, T> commands = connection.async();
-			commands.setAutoFlushCommands(false);
-			List<RedisFuture<?>> futures = Lists.newArrayList();
-			for (Map.Entry<String, T> entry : dataToInsert.entrySet()) {
-				RedisFuture<String> future = commands.set(CACHE_KEY_APPENDER + entry.getKey(), entry.getValue());
-				futures.add(future);
-			}
-			commands.flushCommands();
-			boolean result = LettuceFutures.awaitAll(timeout, timeUnit, futures.toArray(new RedisFuture[futures.size()]));
-			connection.close();
-			return result;
+		} else if (CachingMode.SHARDED_REDIS_CACHE.equals(this.cacheConfig.getCachingMode()) ||
+				CachingMode.STAND_ALONE_REDIS_CACHE.equals(this.cacheConfig.getCachingMode()) ||
+				CachingMode.SENTINEL.equals(this.cacheConfig.getCachingMode()) ||
+				CachingMode.MASTER_REPLICA.equals(this.cacheConfig.getCachingMode())) {
+			// the non-clustered modes hold a single server in the shards
+			return storeBatchForShards(dataToInsert, timeout, timeUnit);
 		}
 
-		throw new UnsupportedOperationException("Caching mode should be one of : STAND_ALONE_REDIS_CACHE / CLUSTER_MODE_REDIS_CACHE");
+		throw new UnsupportedOperationException("Caching mode should be one of : STAND_ALONE_REDIS_CACHE / CLUSTER_MODE_REDIS_CACHE / SENTINEL / MASTER_REPLICA / SHARDED_REDIS_CACHE");
 	}
 
-	private boolean storeBatchForCluster(Map<String, T> dataToInsert, long timeout, TimeUnit timeUnit) {
-		StatefulRedisClusterConnection<String, T> connection = clusterClient.connect(this.redisCodec);
-		RedisAdvancedClusterAsyncCommands<String, T> commands = connection.async();
-		commands.setAutoFlushCommands(false);
-
-		// perform a series of independent calls
-		List<RedisFuture<?>> futures = Lists.newArrayList();
-		dataToInsert.entrySet()
-				.parallelStream()
-				.forEach(entry -> {
-					commands.set(CACHE_KEY_APPENDER + entry.getKey(), entry.getValue());
-				});
-
-		// write all commands to the transport layer
-		commands.flushCommands();
+	/**
+	 * Writes the entries of each server in parallel, the commands sent to a server are pipelined on its connection
+	 */
+	private boolean storeBatchForShards(Map<String, EncodedValue<T>> dataToInsert, long timeout, TimeUnit timeUnit) {
+		Map<RedisReactiveCommands<String, T>, List<Map.Entry<String, EncodedValue<T>>>> partitions =
+				shards.partition(dataToInsert.entrySet(), e -> CACHE_KEY_APPENDER + e.getKey());
+		return awaitBatch(dataToInsert, Flux.fromIterable(partitions.entrySet())
+				.flatMap(e -> Flux.fromIterable(e.getValue()).flatMap(entry -> set(e.getKey(), entry.getKey(), entry.getValue(), defaultSetArgs())))
+				.then(), timeout, timeUnit);
+	}
 
-		// synchronization example: Wait until all futures complete
-		boolean result = LettuceFutures.awaitAll(timeout, timeUnit, futures.toArray(new RedisFuture[futures.size()]));
+	/**
+	 * Writes the entries on the connection of the cluster shared by the cache, the commands sent to a node are pipelined on its connection
+	 */
+	private boolean storeBatchForCluster(Map<String, EncodedValue<T>> dataToInsert, long timeout, TimeUnit timeUnit) {
+		return awaitBatch(dataToInsert, Flux.fromIterable(dataToInsert.entrySet())
+				.flatMap(e -> set(clusterReactiveCommands, e.getKey(), e.getValue(), defaultSetArgs()))
+				.then(), timeout, timeUnit);
+	}
 
-		// later
-		connection.close();
-		return result;
+	/**
+	 * Wait for all the writes of a batch within the given timeout, the outcome is reported to the circuit breaker
+	 *
+	 * @return false if the batch timed out, or if it could not be sent as the circuit breaker is open, the writes are then deferred
+	 */
+	private boolean awaitBatch(Map<String, EncodedValue<T>> dataToInsert, Mono<Void> batch, long timeout, TimeUnit timeUnit) {
+		try {
+			call(batch, Duration.ofMillis(TimeUnit.MILLISECONDS.convert(timeout, timeUnit)));
+			return true;
+		} catch (RedisCommandTimeoutException e) {
+			return false;
+		} catch (CacheUnavailableException e) {
+			dataToInsert.forEach((key, value) -> deferWrite(key, () -> set(key, value, defaultSetArgs())));
+			return false;
+		}
 	}
 
 	private boolean validateRemoteExistence(String key) {
+		if (!mightExist(key))
+			return false;
+
 		Mono<Long> value;
 		if (CachingMode.CLUSTER_MODE_REDIS_CACHE.equals(this.cacheConfig.getCachingMode()))
 			value = clusterReactiveCommands.exists(CACHE_KEY_APPENDER + key);
 		else
-			value = redisReactiveCommands.exists(CACHE_KEY_APPENDER + key);
-		Long keyCount = value.block();
+			value = redisReactiveCommands(CACHE_KEY_APPENDER + key).exists(CACHE_KEY_APPENDER + key);
+		Long keyCount = read(key, value);
 		return keyCount != null && keyCount != 0;
 	}
 
 	@Override
 	public T get(String key) {
+		OperationTracer tracer = this.tracer;
+		if (tracer == null)
+			return doGet(key);
+		return tracer.traceRead(CacheOperation.GET, key, () -> doGet(key));
+	}
 
-		//Check whether it exists in local cache
-		if (this.cacheConfig.isEnableLocalCaching()) {
-			T t = localCache.get(key);
-			//if found in local cache, validate if it still exists in the remote cache
-			if (t != null && validateRemoteExistence(key)) {
-				return t;
+	private T doGet(String key) {
+		boolean missesRemembered = valueLoader != null && !this.cacheConfig.isEnableLocalCaching() && cacheConfig.getNegativeCacheTtlInMs() != 0;
+		SizedValueOutput<String, T> output = new SizedValueOutput<>(this.redisCodec, missesRemembered);
+		try {
+			//Check whether it exists in local cache
+			if (this.cacheConfig.isEnableLocalCaching()) {
+				T t = localCache.get(key);
+				//if found in local cache, validate if it still exists in the remote cache
+				if (t != null && (isEarlyRefreshEnabled() ? validateRemoteExpiry(key) : validateRemoteExistence(key))) {
+					markTier(CacheTier.LOCAL);
+					return t;
+				}
+				// the local cache has just looked up redis, or remembers that redis has no value
+				if (t == null && cacheConfig.getNegativeCacheTtlInMs() != 0)
+					return null;
 			}
-		}
 
-		// if not found, look in the remote cache
-		T value = getFromRemote(key);
-		if (value != null)
-			return value;
+			// if not found, look in the remote cache, along with the marker of a miss of the loader
+			T value = getFromRemote(key, output);
+			if (value != null)
+				return value;
+		} catch (CacheUnavailableException e) {
+			return getStale(key);
+		} catch (UncheckedExecutionException e) {
+			// raised by the loader of the local cache
+			if (e.getCause() instanceof CacheUnavailableException)
+				return getStale(key);
+			throw e;
+		}
 
 		// If Still not found, try to use the cache loader and load the remote cache before returning the value
 		if (valueLoader != null && !this.cacheConfig.isEnableLocalCaching()) {
-			T t = valueLoader.apply(key);
+			if (output.isMissMarked()) {
+				negativeHitCount.increment();
+				return null;
+			}
+
+			T t = load(key);
+			if (t == null)
+				cacheMiss(key);
+			else
+				markTier(CacheTier.LOADER);
 			Optional.ofNullable(t).ifPresent(e -> store(key, e));
 			return t;
 		}
@@ -235,13 +796,270 @@ public class RedisCache<T> implements DataCache<T> {
 		return null;
 	}
 
+	/**
+	 * The marker of a miss of the key, apart from the keys of the cache but on the slot and on the shard of the key,
+	 * hence read along with the value by a single <code>MGET</code>
+	 */
+	private String getMissKey(String key) {
+		String cacheKey = CACHE_KEY_APPENDER + key;
+		int tagStart = cacheKey.indexOf('{');
+		boolean tagged = tagStart >= 0 && cacheKey.indexOf('}', tagStart + 1) > tagStart + 1;
+		// the slot of a key holding a hash tag is the one of its tag
+		return MISS_KEY_PREFIX + (tagged ? cacheKey : "{" + cacheKey + "}");
+	}
+
+	/**
+	 * Remember the miss of the loader under a marker key holding an empty value
+	 */
+	private void cacheMiss(String key) {
+		if (cacheConfig.getNegativeCacheTtlInMs() == 0)
+			return;
+
+		CommandArgs<String, T> args = new CommandArgs<>(this.redisCodec).addKey(getMissKey(key)).add("")
+				.add("PX").add(cacheConfig.getNegativeCacheTtlInMs());
+		Flux<String> command;
+		if (CachingMode.CLUSTER_MODE_REDIS_CACHE.equals(this.cacheConfig.getCachingMode()))
+			command = clusterReactiveCommands.dispatch(CommandType.SET, new StatusOutput<>(this.redisCodec), args);
+		else
+			command = redisReactiveCommands(CACHE_KEY_APPENDER + key).dispatch(CommandType.SET, new StatusOutput<>(this.redisCodec), args);
+
+		try {
+			write(key, null, command.next());
+		} catch (CacheUnavailableException e) {
+			// the loader is called again on the next get
+		}
+	}
+
+	/**
+	 * The value held by the local cache, which may have been changed or deleted on redis since
+	 */
+	private T getStale(String key) {
+		return this.cacheConfig.isEnableLocalCaching() ? localCache.getIfPresent(key) : null;
+	}
+
 
 	public T getFromRemote(String key) {
+		return getFromRemote(key, new SizedValueOutput<>(this.redisCodec));
+	}
+
+	/**
+	 * @param output the output of the read, reads the marker of a miss as well if required
+	 */
+	private T getFromRemote(String key, SizedValueOutput<String, T> output) {
+		// the marker is not guarded by the bloom filter
+		if (!output.isMissMarkerRead() && !mightExist(key))
+			return null;
+		if (isEarlyRefreshEnabled())
+			return getAndRefreshEarly(key, output);
+		return readRemote(key, output);
+	}
+
+	/**
+	 * Read the value held by redis, neither the loader nor the refresh ahead are run
+	 */
+	private T readRemote(String key, SizedValueOutput<String, T> output) {
+		RedisClusterReactiveCommands<String, T> commands;
+		if (CachingMode.CLUSTER_MODE_REDIS_CACHE.equals(this.cacheConfig.getCachingMode()))
+			commands = clusterReactiveCommands;
+		else
+			commands = redisReactiveCommands(CACHE_KEY_APPENDER + key);
+
+		T value = read(key, output, get(commands, key, output));
+		if (value != null)
+			markTier(CacheTier.REMOTE);
+		return value;
+	}
+
+	private boolean isEarlyRefreshEnabled() {
+		return valueLoader != null && expiry.isEarlyExpirationEnabled();
+	}
+
+	/**
+	 * Reads the value along with its remaining time to live, both commands are written before either reply is read
+	 * hence a single round trip, the key is refreshed in the background if its expiry is near.
+	 */
+	private T getAndRefreshEarly(String key, SizedValueOutput<String, T> output) {
+		RedisClusterReactiveCommands<String, T> commands;
+		if (CachingMode.CLUSTER_MODE_REDIS_CACHE.equals(this.cacheConfig.getCachingMode()))
+			commands = clusterReactiveCommands;
+		else
+			commands = redisReactiveCommands(CACHE_KEY_APPENDER + key);
+
+		Tuple2<Optional<T>, Long> reply = read(key, output, Mono.zip(get(commands, key, output).map(Optional::of).defaultIfEmpty(Optional.empty()),
+				commands.pttl(CACHE_KEY_APPENDER + key)));
+		T value = reply.getT1().orElse(null);
+		if (value != null && expiry.shouldRefresh(reply.getT2()))
+			refreshEarly(key);
+		return value;
+	}
+
+	/**
+	 * Checks the existence of the key held by the local cache through its remaining time to live,
+	 * the key is refreshed in the background if its expiry is near.
+	 */
+	private boolean validateRemoteExpiry(String key) {
+		Mono<Long> command;
+		if (CachingMode.CLUSTER_MODE_REDIS_CACHE.equals(this.cacheConfig.getCachingMode()))
+			command = clusterReactiveCommands.pttl(CACHE_KEY_APPENDER + key);
+		else
+			command = redisReactiveCommands(CACHE_KEY_APPENDER + key).pttl(CACHE_KEY_APPENDER + key);
+
+		Long remainingTimeToLive = read(key, command);
+		// -2 : the key does not exist
+		if (remainingTimeToLive == null || remainingTimeToLive == -2)
+			return false;
+		if (expiry.shouldRefresh(remainingTimeToLive))
+			refreshEarly(key);
+		return true;
+	}
+
+	/**
+	 * Reloads the value of the key in the background, the readers keep getting the current value until it is replaced
+	 */
+	private void refreshEarly(String key) {
+		if (!refreshingKeys.add(key))
+			return;
+
+		try {
+			CacheExecutors.getRefreshExecutor().execute(() -> {
+				try {
+					T t = load(key);
+					if (t != null) {
+						EncodedValue<T> value = encodeValue(key, t);
+						if (this.cacheConfig.isEnableLocalCaching())
+							localCache.replace(key, t);
+						if (set(key, value, defaultSetArgs()))
+							publishChange(ChangeEvent.Type.REPLACED, key);
+					}
+				} catch (RuntimeException e) {
+					reportFailure(CacheOperation.REFRESH_AHEAD, key, e);
+				} finally {
+					refreshingKeys.remove(key);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			refreshingKeys.remove(key);
+		}
+	}
+
+	private T load(String key) {
+		Object event = FlightRecorderEvents.LOAD.begin();
+		long start = System.nanoTime();
+		try {
+			return valueLoader.apply(key);
+		} finally {
+			expiry.recordLoadTime(System.nanoTime() - start);
+			// the value loaded is not serialized yet
+			FlightRecorderEvents.LOAD.end(event, cacheId, key, -1);
+		}
+	}
+
+	@Override
+	public CacheBatch<T> batch() {
+		return new RedisCacheBatch<>(this, CACHE_KEY_APPENDER, this.redisCodec, expiry);
+	}
+
+	/**
+	 * @param key the key, prefixed with the cache id
+	 * @return the shared connection of the server holding the key, the master holding its slot in the cluster mode
+	 */
+	StatefulConnection<String, T> getConnection(String key) {
 		if (CachingMode.CLUSTER_MODE_REDIS_CACHE.equals(this.cacheConfig.getCachingMode())) {
-			return clusterReactiveCommands.get(CACHE_KEY_APPENDER + key).block();
-		} else {
-			return redisReactiveCommands.get(CACHE_KEY_APPENDER + key).block();
+			StatefulRedisClusterConnection<String, T> connection = clusterReactiveCommands.getStatefulConnection();
+			RedisClusterNode node = connection.getPartitions().getPartitionBySlot(SlotHash.getSlot(key));
+			// the cluster connection routes the command itself while the topology is unknown
+			return node != null ? connection.getConnection(node.getNodeId()) : connection;
 		}
+		return redisReactiveCommands(key).getStatefulConnection();
+	}
+
+	/**
+	 * The writes are applied with MULTI/EXEC on a connection of the transaction, see {@link RedisCacheTransaction}
+	 */
+	@Override
+	public CacheTransaction<T> transaction() {
+		return new RedisCacheTransaction<>(this, CACHE_KEY_APPENDER, this.redisCodec, expiry);
+	}
+
+	/**
+	 * @param key the key, prefixed with the cache id
+	 * @return the route of the key, the keys of a transaction must share the same route
+	 */
+	String getTransactionRoute(String key) {
+		if (CachingMode.CLUSTER_MODE_REDIS_CACHE.equals(this.cacheConfig.getCachingMode()))
+			return String.valueOf(SlotHash.getSlot(key));
+		if (CachingMode.SHARDED_REDIS_CACHE.equals(this.cacheConfig.getCachingMode()))
+			return getShard(key).getConnectionString();
+		return "";
+	}
+
+	private String getTransactionPool(String key) {
+		return CachingMode.SHARDED_REDIS_CACHE.equals(this.cacheConfig.getCachingMode()) ? getShard(key).getConnectionString() : "";
+	}
+
+	/**
+	 * Borrow an idle connection for a transaction, opening one if there is none
+	 *
+	 * @param key the key, prefixed with the cache id
+	 * @return the connection to the server holding the key, a connection to the cluster in the cluster mode
+	 */
+	StatefulConnection<String, T> borrowTransactionConnection(String key) {
+		if (closed.get())
+			throw new IllegalStateException("Cache closed : " + cacheId);
+
+		StatefulConnection<String, T> connection = transactionConnections.computeIfAbsent(getTransactionPool(key), e -> new ConcurrentLinkedQueue<>()).poll();
+		if (connection != null)
+			return connection;
+		if (CachingMode.CLUSTER_MODE_REDIS_CACHE.equals(this.cacheConfig.getCachingMode()))
+			return clientRegistry.connectCluster(this.redisCodec, ReadPolicy.MASTER, commandTimeout);
+		if (CachingMode.SHARDED_REDIS_CACHE.equals(this.cacheConfig.getCachingMode()))
+			return clientRegistry.connectShard(this.redisCodec, getShard(key), commandTimeout);
+		return connectStandAlone();
+	}
+
+	/**
+	 * @param connection the connection borrowed
+	 * @param key        the key, prefixed with the cache id
+	 * @return the connection to the server holding the key, the master holding its slot in the cluster mode
+	 */
+	@SuppressWarnings("unchecked")
+	StatefulRedisConnection<String, T> getTransactionConnection(StatefulConnection<String, T> connection, String key) {
+		if (!(connection instanceof StatefulRedisClusterConnection))
+			return (StatefulRedisConnection<String, T>) connection;
+
+		StatefulRedisClusterConnection<String, T> clusterConnection = (StatefulRedisClusterConnection<String, T>) connection;
+		RedisClusterNode node = clusterConnection.getPartitions().getPartitionBySlot(SlotHash.getSlot(key));
+		if (node == null)
+			throw new CacheUnavailableException("No master known for the slot of the key : " + key);
+		return clusterConnection.getConnection(node.getNodeId());
+	}
+
+	/**
+	 * Return a connection borrowed for a transaction
+	 *
+	 * @param reusable false if the state of the connection is unknown, it is then closed
+	 */
+	void releaseTransactionConnection(String key, StatefulConnection<String, T> connection, boolean reusable) {
+		if (!reusable || closed.get() || !connection.isOpen()) {
+			connection.closeAsync();
+			return;
+		}
+		transactionConnections.get(getTransactionPool(key)).offer(connection);
+	}
+
+	/**
+	 * Keeps the local cache and the change feed in line with a write of a batch or a transaction once it completed
+	 *
+	 * @param t the value written, <code>null</code> for a delete
+	 */
+	void onBatchWrite(ChangeEvent.Type type, String key, T t) {
+		if (this.cacheConfig.isEnableLocalCaching()) {
+			if (t != null)
+				localCache.replace(key, t);
+			else
+				localCache.deleteIfPresent(key);
+		}
+		publishChange(type, key);
 	}
 
 	@Override
@@ -251,37 +1069,330 @@ public class RedisCache<T> implements DataCache<T> {
 
 	@Override
 	public T replace(String key, T t) {
-		if (!(t instanceof Serializable))
-			throw new ObjectNotSerialzableException("Non-Serializable objects cannot be stored on Redis");
+		OperationTracer tracer = this.tracer;
+		if (tracer == null)
+			return doReplace(key, t);
+		return tracer.traceWrite(CacheOperation.REPLACE, key, () -> doReplace(key, t));
+	}
+
+	private T doReplace(String key, T t) {
+		EncodedValue<T> value = encodeValue(key, t);
 
 		//Replace in the local cache
 		if (this.cacheConfig.isEnableLocalCaching())
 			localCache.replace(key, t);
 
-		if (timeToLive != 0)
-			set(key, t, SetArgs.Builder.ex(TimeUnit.SECONDS.convert(timeToLive, TimeUnit.MILLISECONDS)));
-		else
-			set(key, t);
-
+		if (set(key, value, defaultSetArgs()))
+			publishChange(ChangeEvent.Type.REPLACED, key);
 		return t;
 	}
 
 	@Override
 	public T replace(String key, T t, long timeToLive, TimeUnit timeUnit) {
-		if (!(t instanceof Serializable))
-			throw new ObjectNotSerialzableException("Non-Serializable objects cannot be stored on Redis");
+		OperationTracer tracer = this.tracer;
+		if (tracer == null)
+			return doReplace(key, t, timeToLive, timeUnit);
+		return tracer.traceWrite(CacheOperation.REPLACE, key, () -> doReplace(key, t, timeToLive, timeUnit));
+	}
+
+	private T doReplace(String key, T t, long timeToLive, TimeUnit timeUnit) {
+		EncodedValue<T> value = encodeValue(key, t);
 
 		//Replace in the local cache
 		if (this.cacheConfig.isEnableLocalCaching())
 			localCache.replace(key, t);
 
 		//Replace in the remote cache
-		set(key, t, SetArgs.Builder.ex(TimeUnit.SECONDS.convert(timeToLive, timeUnit)));
+		if (set(key, value, SetArgs.Builder.px(TimeUnit.MILLISECONDS.convert(timeToLive, timeUnit))))
+			publishChange(ChangeEvent.Type.REPLACED, key);
 		return t;
 	}
 
+	@Override
+	public T putIfAbsent(String key, T t) {
+		OperationTracer tracer = this.tracer;
+		if (tracer == null)
+			return doPutIfAbsent(key, t);
+		return tracer.traceWrite(CacheOperation.PUT_IF_ABSENT, key, () -> doPutIfAbsent(key, t));
+	}
+
+	private T doPutIfAbsent(String key, T t) {
+		T existing = putIfAbsentRemote(key, t);
+		if (this.cacheConfig.isEnableLocalCaching())
+			localCache.replace(key, existing != null ? existing : t);
+		return existing;
+	}
+
+	/**
+	 * Store the value on redis unless the key is present, by a single script, the local cache is left as is
+	 *
+	 * @return the value held by the key, <code>null</code> if the value has been stored
+	 */
+	private T putIfAbsentRemote(String key, T t) {
+		EncodedValue<T> value = encodeValue(key, t);
+		recordKey(key);
+
+		CommandArgs<String, T> args = value.addTo(new CommandArgs<>(this.redisCodec).add(PUT_IF_ABSENT_SCRIPT).add(1)
+				.addKey(CACHE_KEY_APPENDER + key)).add(expiry.nextTimeToLive());
+		T existing = eval(key, value, new ValueOutput<>(this.redisCodec), args);
+		if (existing == null)
+			publishChange(ChangeEvent.Type.STORED, key);
+		return existing;
+	}
+
+	@Override
+	public boolean replaceIfPresent(String key, T t) {
+		OperationTracer tracer = this.tracer;
+		if (tracer == null)
+			return doReplaceIfPresent(key, t);
+		return tracer.traceWrite(CacheOperation.REPLACE_IF_PRESENT, key, () -> doReplaceIfPresent(key, t));
+	}
+
+	private boolean doReplaceIfPresent(String key, T t) {
+		EncodedValue<T> value = encodeValue(key, t);
+
+		long timeToLive = expiry.nextTimeToLive();
+		SetArgs setArgs = timeToLive != 0 ? SetArgs.Builder.xx().px(timeToLive) : SetArgs.Builder.xx();
+		String response;
+		if (CachingMode.CLUSTER_MODE_REDIS_CACHE.equals(this.cacheConfig.getCachingMode()))
+			response = write(key, value, set(clusterReactiveCommands, key, value, setArgs));
+		else
+			response = write(key, value, set(redisReactiveCommands(CACHE_KEY_APPENDER + key), key, value, setArgs));
+
+		boolean replaced = response != null;
+		updateLocalCache(key, t, replaced);
+		if (replaced)
+			publishChange(ChangeEvent.Type.REPLACED, key);
+		return replaced;
+	}
+
+	@Override
+	public boolean compareAndReplace(String key, T expected, T newValue) {
+		OperationTracer tracer = this.tracer;
+		if (tracer == null)
+			return doCompareAndReplace(key, expected, newValue);
+		return tracer.traceWrite(CacheOperation.COMPARE_AND_REPLACE, key, () -> doCompareAndReplace(key, expected, newValue));
+	}
+
+	private boolean doCompareAndReplace(String key, T expected, T newValue) {
+		validateSerializable(expected);
+		EncodedValue<T> value = encodeValue(key, newValue);
+
+		CommandArgs<String, T> args = value.addTo(new CommandArgs<>(this.redisCodec).add(COMPARE_AND_REPLACE_SCRIPT).add(1)
+				.addKey(CACHE_KEY_APPENDER + key).addValue(expected)).add(expiry.nextTimeToLive());
+		Long response = eval(key, value, new IntegerOutput<>(this.redisCodec), args);
+
+		boolean replaced = response != null && response == 1;
+		updateLocalCache(key, newValue, replaced);
+		if (replaced)
+			publishChange(ChangeEvent.Type.REPLACED, key);
+		return replaced;
+	}
+
+	@Override
+	public T getAndDelete(String key) {
+		OperationTracer tracer = this.tracer;
+		if (tracer == null)
+			return doGetAndDelete(key);
+		return tracer.traceRead(CacheOperation.GET_AND_DELETE, key, () -> doGetAndDelete(key));
+	}
+
+	private T doGetAndDelete(String key) {
+		if (this.cacheConfig.isEnableLocalCaching())
+			localCache.deleteIfPresent(key);
+
+		CommandArgs<String, T> args = new CommandArgs<>(this.redisCodec).add(GET_AND_DELETE_SCRIPT).add(1)
+				.addKey(CACHE_KEY_APPENDER + key);
+		SizedValueOutput<String, T> output = new SizedValueOutput<>(this.redisCodec);
+		T previous = eval(key, output, output, args);
+		if (previous != null)
+			publishChange(ChangeEvent.Type.DELETED, key);
+		return previous;
+	}
+
+	@Override
+	public T getAndSet(String key, T t) {
+		OperationTracer tracer = this.tracer;
+		if (tracer == null)
+			return doGetAndSet(key, t);
+		return tracer.traceWrite(CacheOperation.GET_AND_SET, key, () -> doGetAndSet(key, t));
+	}
+
+	private T doGetAndSet(String key, T t) {
+		EncodedValue<T> value = encodeValue(key, t);
+		recordKey(key);
+
+		CommandArgs<String, T> args = value.addTo(new CommandArgs<>(this.redisCodec).add(GET_AND_SET_SCRIPT).add(1)
+				.addKey(CACHE_KEY_APPENDER + key)).add(expiry.nextTimeToLive());
+		T previous = eval(key, value, new ValueOutput<>(this.redisCodec), args);
+
+		if (this.cacheConfig.isEnableLocalCaching())
+			localCache.replace(key, t);
+		publishChange(previous != null ? ChangeEvent.Type.REPLACED : ChangeEvent.Type.STORED, key);
+		return previous;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * The value held by redis is read, without running the loader, and the computed value is stored by a single script unless
+	 * another caller stored one meanwhile, hence at most two round trips. The mapping function runs once per key at a time within
+	 * the process when the local caching is enabled, through the local cache, but may run on several processes for the same key,
+	 * only the first value stored is kept and returned by all of them.
+	 */
+	@Override
+	public T computeIfAbsent(String key, Function<String, T> mappingFunction) {
+		OperationTracer tracer = this.tracer;
+		if (tracer == null)
+			return doComputeIfAbsent(key, mappingFunction);
+		return tracer.traceRead(CacheOperation.COMPUTE_IF_ABSENT, key, () -> doComputeIfAbsent(key, mappingFunction));
+	}
+
+	private T doComputeIfAbsent(String key, Function<String, T> mappingFunction) {
+		if (this.cacheConfig.isEnableLocalCaching())
+			return localCache.computeIfAbsent(key, e -> computeIfAbsentRemote(e, mappingFunction));
+		return computeIfAbsentRemote(key, mappingFunction);
+	}
+
+	private T computeIfAbsentRemote(String key, Function<String, T> mappingFunction) {
+		T value = mightExist(key) ? readRemote(key, new SizedValueOutput<>(this.redisCodec)) : null;
+		if (value != null)
+			return value;
+
+		T computed = mappingFunction.apply(key);
+		if (computed == null)
+			return null;
+
+		T existing = putIfAbsentRemote(key, computed);
+		if (existing != null)
+			return existing;
+		markTier(CacheTier.LOADER);
+		return computed;
+	}
+
+	private void validateSerializable(T t) {
+		if (!(t instanceof Serializable))
+			throw new ObjectNotSerialzableException("Non-Serializable objects cannot be stored on Redis");
+	}
+
+	/**
+	 * Validate a value about to be written, and serialize it on the calling thread if its size is tracked, traced or recorded
+	 *
+	 * @return the value to be sent, holding its bytes if the value was serialized
+	 * @throws ObjectNotSerialzableException if the value cannot be serialized
+	 * @throws ValueTooLargeException        if the value is larger than the max size of the cache
+	 */
+	EncodedValue<T> encodeValue(String key, T t) {
+		validateSerializable(t);
+		if (valueSizeGuard == null && tracer == null && !FlightRecorderEvents.REMOTE_CALL.isEnabled())
+			return EncodedValue.of(t);
+
+		byte[] bytes = serializer.serialize((Serializable) t);
+		if (valueSizeGuard != null)
+			valueSizeGuard.check(key, bytes.length);
+		return EncodedValue.serialized(t, bytes);
+	}
+
+	private ValueSizeGuard getValueSizeGuard() {
+		if (valueSizeGuard == null)
+			throw new IllegalStateException("Value size tracking not enabled for the cache : " + cacheId);
+		return valueSizeGuard;
+	}
+
+	/**
+	 * The statistics of the sizes of the values written by this cache
+	 *
+	 * @return the statistics
+	 * @throws IllegalStateException if the value size tracking is not enabled
+	 */
+	public ValueSizeStats valueSizeStats() {
+		return getValueSizeGuard().stats();
+	}
+
+	/**
+	 * Register a listener notified of the values larger than the threshold, the large values are counted in the stats whether or not a listener is registered
+	 *
+	 * @throws IllegalStateException if the value size tracking is not enabled
+	 */
+	public void addLargeValueListener(LargeValueListener listener) {
+		getValueSizeGuard().addListener(Objects.requireNonNull(listener, "Listener cannot be null"));
+	}
+
+	public void removeLargeValueListener(LargeValueListener listener) {
+		getValueSizeGuard().removeListener(listener);
+	}
+
+	@Override
+	public synchronized void addOperationListener(CacheOperationListener listener) {
+		this.tracer = OperationTracer.with(tracer, cacheId, CacheTier.REMOTE, Objects.requireNonNull(listener, "Listener cannot be null"));
+	}
+
+	@Override
+	public synchronized void removeOperationListener(CacheOperationListener listener) {
+		this.tracer = OperationTracer.without(tracer, listener);
+	}
+
+	/**
+	 * Report the failure of a task run in the background to the operation listeners and to the statistics
+	 *
+	 * @param key the key, <code>null</code> if the task covers several keys
+	 */
+	void reportFailure(CacheOperation operation, String key, Throwable error) {
+		backgroundFailureCount.increment();
+		OperationTracer.reportFailure(tracer, cacheId, operation, key, error);
+	}
+
+	private void markTier(CacheTier tier) {
+		OperationTracer tracer = this.tracer;
+		if (tracer != null)
+			tracer.markTier(tier);
+	}
+
+	/**
+	 * Keeps the local cache in line with the outcome of a conditional write on the remote cache,
+	 * a failed write means the local copy may be stale so it is dropped.
+	 */
+	private void updateLocalCache(String key, T t, boolean written) {
+		if (!this.cacheConfig.isEnableLocalCaching())
+			return;
+
+		if (written)
+			localCache.replace(key, t);
+		else
+			localCache.deleteIfPresent(key);
+	}
+
+	/**
+	 * @param key the key, prefixed with the cache id
+	 * @return the commands of the server holding the key in the non-clustered modes
+	 */
+	private RedisReactiveCommands<String, T> redisReactiveCommands(String key) {
+		return shards.get(key);
+	}
+
+	/**
+	 * Runs a lua script in a single round trip on the server holding the given key, the arguments must start with the script followed by the number of keys.
+	 *
+	 * @param sized the value written or the output of the value read, see {@link #sizeOf(Object)}
+	 */
+	private <R> R eval(String key, Object sized, CommandOutput<String, T, R> output, CommandArgs<String, T> args) {
+		Flux<R> response;
+		if (CachingMode.CLUSTER_MODE_REDIS_CACHE.equals(this.cacheConfig.getCachingMode()))
+			response = clusterReactiveCommands.dispatch(CommandType.EVAL, output, args);
+		else
+			response = redisReactiveCommands(CACHE_KEY_APPENDER + key).dispatch(CommandType.EVAL, output, args);
+		return call(key, sized, response.next(), writeTimeout);
+	}
+
 	@Override
 	public boolean deleteIfPresent(String key) {
+		OperationTracer tracer = this.tracer;
+		if (tracer == null)
+			return doDeleteIfPresent(key);
+		return tracer.traceWrite(CacheOperation.DELETE, key, () -> doDeleteIfPresent(key));
+	}
+
+	private boolean doDeleteIfPresent(String key) {
 
 		//delete from local cache
 		if (this.cacheConfig.isEnableLocalCaching())
@@ -304,7 +1415,12 @@ public class RedisCache<T> implements DataCache<T> {
 		if (CachingMode.CLUSTER_MODE_REDIS_CACHE.equals(this.cacheConfig.getCachingMode()))
 			scan = clusterReactiveCommands.scan(ScanCursor.INITIAL, ScanArgs.Builder.limit(10000000).match(CACHE_KEY_APPENDER + keyPattern + "*"));
 		else
-			scan = redisReactiveCommands.scan(ScanCursor.INITIAL, ScanArgs.Builder.limit(10000000).match(CACHE_KEY_APPENDER + keyPattern + "*"));
+			scan = Flux.fromIterable(shards.getNodes())
+					.flatMap(c -> c.scan(ScanCursor.INITIAL, ScanArgs.Builder.limit(10000000).match(CACHE_KEY_APPENDER + keyPattern + "*")))
+					.reduce((a, b) -> {
+						a.getKeys().addAll(b.getKeys());
+						return a;
+					});
 		Set<String> keys = scan.block().getKeys().stream().map(e -> e.replace(CACHE_KEY_APPENDER, "")).collect(Collectors.toSet());
 		return keys;
 	}
@@ -320,11 +1436,14 @@ public class RedisCache<T> implements DataCache<T> {
 	}
 
 	private ScanResult scanKeyListByPattern(ScanCursor scanCursor, String keyPattern, int limit) {
+		if (CachingMode.SHARDED_REDIS_CACHE.equals(this.cacheConfig.getCachingMode()))
+			return scanShardsByPattern(scanCursor, keyPattern, limit);
+
 		Mono<KeyScanCursor<String>> scan;
 		if (CachingMode.CLUSTER_MODE_REDIS_CACHE.equals(this.cacheConfig.getCachingMode()))
 			scan = clusterReactiveCommands.scan(scanCursor, ScanArgs.Builder.limit(limit).match(keyPattern));
 		else
-			scan = redisReactiveCommands.scan(scanCursor, ScanArgs.Builder.limit(limit).match(keyPattern));
+			scan = shards.getNodes().get(0).scan(scanCursor, ScanArgs.Builder.limit(limit).match(keyPattern));
 
 		KeyScanCursor<String> keyScanCursor = scan.block();
 		List<String> keys = keyScanCursor.getKeys();
@@ -334,6 +1453,31 @@ public class RedisCache<T> implements DataCache<T> {
 		return new ScanResult(keyScanCursor, keySet, keyPattern, this, limit);
 	}
 
+	/**
+	 * Scans the shards one after the other, the cursor handed out is made of the index of the shard being scanned
+	 * and the cursor of the scan on that shard, the scan completes once the last shard has been scanned.
+	 */
+	private ScanResult scanShardsByPattern(ScanCursor scanCursor, String keyPattern, int limit) {
+		List<RedisReactiveCommands<String, T>> nodes = shards.getNodes();
+		int shard = 0;
+		ScanCursor shardCursor = scanCursor;
+		int separator = scanCursor.getCursor().indexOf(SHARD_CURSOR_SEPARATOR);
+		if (separator >= 0) {
+			shard = Integer.parseInt(scanCursor.getCursor().substring(0, separator));
+			shardCursor = ScanCursor.of(scanCursor.getCursor().substring(separator + 1));
+		}
+
+		KeyScanCursor<String> keyScanCursor = nodes.get(shard).scan(shardCursor, ScanArgs.Builder.limit(limit).match(keyPattern)).block();
+		ScanCursor nextCursor;
+		if (!keyScanCursor.isFinished())
+			nextCursor = new ScanCursor(shard + SHARD_CURSOR_SEPARATOR + keyScanCursor.getCursor(), false);
+		else
+			nextCursor = new ScanCursor((shard + 1) + SHARD_CURSOR_SEPARATOR + ScanCursor.INITIAL.getCursor(), shard + 1 == nodes.size());
+
+		Set<String> keySet = keyScanCursor.getKeys().stream().map(e -> e.replaceFirst(CACHE_KEY_APPENDER, "")).collect(Collectors.toSet());
+		return new ScanResult(nextCursor, keySet, keyPattern, this, limit);
+	}
+
 	/**
 	 * Delete multiple objects by a key pattern.
 	 * <p>
@@ -353,7 +1497,7 @@ public class RedisCache<T> implements DataCache<T> {
 		if (CachingMode.CLUSTER_MODE_REDIS_CACHE.equals(this.cacheConfig.getCachingMode()))
 			keys = clusterReactiveCommands.keys(cacheId + keyPattern + "*");
 		else
-			keys = redisReactiveCommands.keys(cacheId + keyPattern + "*");
+			keys = Flux.fromIterable(shards.getNodes()).flatMap(c -> c.keys(cacheId + keyPattern + "*"));
 
 		List<String> keyList = keys.collectList().block();
 		return deleteByKeys(keyList.toArray(new String[0]));
@@ -366,10 +1510,23 @@ public class RedisCache<T> implements DataCache<T> {
 			keysUpdated[i] = CACHE_KEY_APPENDER + keys[i];
 		}
 
+		Mono<Long> command;
 		if (CachingMode.CLUSTER_MODE_REDIS_CACHE.equals(this.cacheConfig.getCachingMode()))
-			return clusterReactiveCommands.del(keysUpdated).block();
+			command = clusterReactiveCommands.del(keysUpdated);
 		else
-			return redisReactiveCommands.del(keysUpdated).block();
+			command = deleteFromShards(keysUpdated);
+
+		try {
+			Long deleted = write(keys.length == 1 ? keys[0] : null, null, command);
+			// the count does not tell which keys existed, all of them are published
+			if (deleted != null && deleted != 0)
+				publishChange(ChangeEvent.Type.DELETED, keys);
+			return deleted;
+		} catch (CacheUnavailableException e) {
+			for (String key : keys)
+				deferWrite(key, () -> deleteByKeys(key));
+			return 0;
+		}
 	}
 
 	@Override
@@ -377,7 +1534,13 @@ public class RedisCache<T> implements DataCache<T> {
 		if (CachingMode.CLUSTER_MODE_REDIS_CACHE.equals(this.cacheConfig.getCachingMode()))
 			return clusterReactiveCommands.del(keys);
 		else
-			return redisReactiveCommands.del(keys);
+			return deleteFromShards(keys);
+	}
+
+	private Mono<Long> deleteFromShards(String... keys) {
+		return Flux.fromIterable(shards.partition(Arrays.asList(keys), Function.identity()).entrySet())
+				.flatMap(e -> e.getKey().del(e.getValue().toArray(new String[0])))
+				.reduce(0L, Long::sum);
 	}
 
 	/**
@@ -395,7 +1558,72 @@ public class RedisCache<T> implements DataCache<T> {
 		if (CachingMode.CLUSTER_MODE_REDIS_CACHE.equals(this.cacheConfig.getCachingMode()))
 			return clusterReactiveCommands.flushall();
 		else
-			return redisReactiveCommands.flushall();
+			return Flux.fromIterable(shards.getNodes()).flatMap(RedisReactiveCommands::flushall).last();
+	}
+
+	@Override
+	public CacheStats stats() {
+		CacheStats stats = this.cacheConfig.isEnableLocalCaching() ? localCache.stats() : CacheStats.EMPTY;
+		return stats.plusNegativeHits(negativeHitCount.sum()).plusBackgroundFailures(backgroundFailureCount.sum());
+	}
+
+	@Override
+	public void addEvictionListener(EvictionListener<T> listener) {
+		getLocalCache().addEvictionListener(listener);
+	}
+
+	@Override
+	public void removeEvictionListener(EvictionListener<T> listener) {
+		getLocalCache().removeEvictionListener(listener);
+	}
+
+	private LocalCache<T> getLocalCache() {
+		if (!this.cacheConfig.isEnableLocalCaching())
+			throw new IllegalStateException("Local cache not enabled for the cache : " + cacheId);
+		return localCache;
+	}
+
+	/**
+	 * The lock is held in redis, see {@link RedisCacheLock}
+	 */
+	@Override
+	public CacheLock getLock(String name) {
+		String lockKey = RedisCacheLock.getLockKey(cacheId, name);
+		RedisClusterReactiveCommands<String, T> commands;
+		if (CachingMode.CLUSTER_MODE_REDIS_CACHE.equals(this.cacheConfig.getCachingMode()))
+			commands = clusterReactiveCommands;
+		else
+			commands = redisReactiveCommands(lockKey);
+		return new RedisCacheLock<>(this, name, cacheId, instanceId, commands, this.redisCodec, () -> getLockNotifier(lockKey), lockHolds);
+	}
+
+	/**
+	 * The releases are published on the server holding the lock, and broadcast to all the nodes of a cluster
+	 */
+	private LockNotifier getLockNotifier(String lockKey) {
+		if (closed.get())
+			throw new IllegalStateException("Cache closed : " + cacheId);
+
+		long commandTimeout = cacheConfig.getCommandTimeoutInMs();
+		if (CachingMode.CLUSTER_MODE_REDIS_CACHE.equals(this.cacheConfig.getCachingMode()))
+			return lockNotifiers.computeIfAbsent("", e -> new LockNotifier(clientRegistry.connectClusterPubSub(StringCodec.UTF8), commandTimeout));
+		else if (CachingMode.SHARDED_REDIS_CACHE.equals(this.cacheConfig.getCachingMode())) {
+			ServerAddress server = getShard(lockKey);
+			return lockNotifiers.computeIfAbsent(server.getConnectionString(),
+					e -> new LockNotifier(clientRegistry.connectPubSub(StringCodec.UTF8, server), commandTimeout));
+		} else if (CachingMode.SENTINEL.equals(this.cacheConfig.getCachingMode()))
+			return lockNotifiers.computeIfAbsent("", e -> new LockNotifier(clientRegistry.connectPubSub(StringCodec.UTF8, cacheConfig).get(0), commandTimeout));
+		else
+			// the messages published on a master also reach its replicas
+			return lockNotifiers.computeIfAbsent("", e -> new LockNotifier(clientRegistry.connectPubSub(StringCodec.UTF8, cacheConfig.getRedisServers().get(0)), commandTimeout));
+	}
+
+	@Override
+	public ReactiveDataCache<T> reactive() {
+		if (CachingMode.CLUSTER_MODE_REDIS_CACHE.equals(this.cacheConfig.getCachingMode()))
+			return new ReactiveRedisCache<>(ConsistentHashRing.singleNode(clusterReactiveCommands), CACHE_KEY_APPENDER, expiry, localCache, bloomFilter, changeFeed, this.redisCodec, this::encodeValue);
+		else
+			return new ReactiveRedisCache<>(shards, CACHE_KEY_APPENDER, expiry, localCache, bloomFilter, changeFeed, this.redisCodec, this::encodeValue);
 	}
 
 	/**
@@ -410,71 +1638,135 @@ public class RedisCache<T> implements DataCache<T> {
 		if (CachingMode.CLUSTER_MODE_REDIS_CACHE.equals(this.cacheConfig.getCachingMode()))
 			clusterReactiveCommands.flushall().block();
 		else
-			redisReactiveCommands.flushall().block();
+			Flux.fromIterable(shards.getNodes()).flatMap(RedisReactiveCommands::flushall).blockLast();
 	}
 
-	private RedisCodec<String, T> buildRedisCodec() {
-		this.redisCodec = new RedisCodec<String, T>() {
-			@Override
-			public String decodeKey(ByteBuffer bytes) {
-				byte[] arr = new byte[bytes.remaining()];
-				bytes.get(arr);
-				return new String(arr);
-			}
+	/**
+	 * The codec of the connections, shared by the caches using the same serializer, hence it refers to the serializer only.
+	 * The values serialized by the writing thread are added to the commands as bytes, see {@link EncodedValue}.
+	 */
+	private static final class ValueCodec<T> implements RedisCodec<String, T> {
 
-			@Override
-			public T decodeValue(ByteBuffer bytes) {
-				byte[] arr = new byte[bytes.remaining()];
-				bytes.get(arr);
-				return serializer.deserialize(arr);
-			}
+		private final Serializer serializer;
 
-			@Override
-			public ByteBuffer encodeKey(String key) {
-				return ByteBuffer.wrap(key.getBytes());
-			}
+		private ValueCodec(Serializer serializer) {
+			this.serializer = serializer;
+		}
 
-			@Override
-			public ByteBuffer encodeValue(T value) {
-				return ByteBuffer.wrap(serializer.serialize((Serializable) value));
-			}
-		};
-		return this.redisCodec;
+		@Override
+		public String decodeKey(ByteBuffer bytes) {
+			byte[] arr = new byte[bytes.remaining()];
+			bytes.get(arr);
+			return new String(arr);
+		}
+
+		@Override
+		public T decodeValue(ByteBuffer bytes) {
+			byte[] arr = new byte[bytes.remaining()];
+			bytes.get(arr);
+			return serializer.deserialize(arr);
+		}
+
+		@Override
+		public ByteBuffer encodeKey(String key) {
+			return ByteBuffer.wrap(key.getBytes());
+		}
+
+		@Override
+		public ByteBuffer encodeValue(T value) {
+			return ByteBuffer.wrap(serializer.serialize((Serializable) value));
+		}
 	}
 
 	private void buildRedisClient() {
-		buildRedisCodec();
+		this.commandTimeout = Duration.ofMillis(cacheConfig.getCommandTimeoutInMs());
+		if (cacheConfig.getValueSizeConfig() != null)
+			this.valueSizeGuard = new ValueSizeGuard(cacheConfig.getValueSizeConfig(), cacheId);
+		this.redisCodec = new ValueCodec<>(serializer);
+		this.clientRegistry = RedisClientRegistry.acquire(cacheConfig);
+
+		// caches using the same serializer, read policy, command timeout and pipelining settings share the same connection
+		Object connectionSettings = RedisClientRegistry.getConnectionSettings(cacheConfig);
+		List<Object> connectionKey = Arrays.asList(serializer, cacheConfig.getReadPolicy(), connectionSettings);
 		if (CachingMode.CLUSTER_MODE_REDIS_CACHE.equals(this.cacheConfig.getCachingMode())) {
-			List<RedisURI> redisURIS = cacheConfig.getRedisServers().stream().map(ServerAddress::getRedisURI).collect(Collectors.toList());
-			clusterClient = RedisClusterClient.create(redisURIS);
-			clusterClient.setOptions(ClusterClientOptions.builder().autoReconnect(true).build());
-			clusterClient.setDefaultTimeout(Duration.of(30, ChronoUnit.MINUTES));
-			clusterClient.setOptions(
-					ClusterClientOptions.builder()
-							.autoReconnect(true).build()
-			);
-			StatefulRedisClusterConnection<String, T> connection = clusterClient.connect(this.redisCodec);
-			clusterReactiveCommands = connection.reactive();
+			StatefulRedisClusterConnection<String, T> connection = clientRegistry.getConnection(connectionKey,
+					() -> clientRegistry.connectCluster(this.redisCodec, cacheConfig.getReadPolicy(), commandTimeout));
+			clusterReactiveCommands = pipeline(connectionKey, connection, connection.reactive(), RedisAdvancedClusterReactiveCommands.class);
+
+		} else if (CachingMode.SHARDED_REDIS_CACHE.equals(this.cacheConfig.getCachingMode())) {
+			ConsistentHashRing<RedisReactiveCommands<String, T>> ring = ConsistentHashRing.create(cacheConfig.getShardVirtualNodes());
+			ConsistentHashRing<ServerAddress> servers = ConsistentHashRing.create(cacheConfig.getShardVirtualNodes());
+			for (ServerAddress server : cacheConfig.getRedisServers()) {
+				List<Object> shardKey = Arrays.asList(serializer, server.getConnectionString(), connectionSettings);
+				StatefulRedisConnection<String, T> connection = clientRegistry.getConnection(shardKey,
+						() -> clientRegistry.connectShard(this.redisCodec, server, commandTimeout));
+				// the points of a shard depend on its address only, so adding a server only remaps the keys moving to it
+				ring = ring.with(server.getConnectionString(), pipeline(shardKey, connection, connection.reactive(), RedisReactiveCommands.class), server.getWeight());
+				servers = servers.with(server.getConnectionString(), server, server.getWeight());
+			}
+			shards = ring;
+			shardServers = servers;
 
 		} else {
-			RedisURI redisURI = cacheConfig.getRedisServers().get(0).getRedisURI();
-			client = RedisClient.create(redisURI);
-			client.setOptions(ClusterClientOptions.builder().autoReconnect(true).build());
-			client.setDefaultTimeout(Duration.of(30, ChronoUnit.MINUTES));
-			client.setOptions(ClientOptions.builder().autoReconnect(true).build());
-			StatefulRedisConnection<String, T> connection = client.connect(this.redisCodec);
-			redisReactiveCommands = connection.reactive();
+			StatefulRedisConnection<String, T> connection = clientRegistry.getConnection(connectionKey, this::connectStandAlone);
+			shards = ConsistentHashRing.singleNode(pipeline(connectionKey, connection, connection.reactive(), RedisReactiveCommands.class));
 		}
 	}
 
+	/**
+	 * Route the commands of the connection through its coalescer if the auto pipelining is enabled
+	 */
+	@SuppressWarnings("unchecked")
+	private <C> C pipeline(Object connectionKey, StatefulConnection<String, T> connection, C commands, Class<? super C> type) {
+		if (!cacheConfig.isAutoPipelining())
+			return commands;
+
+		CommandCoalescer coalescer = clientRegistry.getCoalescer(connectionKey, connection, cacheConfig);
+		coalescers.add(coalescer);
+		return (C) coalescer.wrap(commands, (Class<Object>) type);
+	}
+
+	/**
+	 * The statistics of the automatic pipelining of the connections of this cache
+	 *
+	 * @return the statistics
+	 * @throws IllegalStateException if the auto pipelining is not enabled
+	 */
+	public PipelineStats pipelineStats() {
+		if (!cacheConfig.isAutoPipelining())
+			throw new IllegalStateException("Auto pipelining not enabled for the cache : " + cacheId);
+		return coalescers.stream().map(CommandCoalescer::stats).reduce(PipelineStats::plus).orElse(new PipelineStats(0, 0, 0));
+	}
+
+	private StatefulRedisConnection<String, T> connectStandAlone() {
+		return clientRegistry.connectStandAlone(this.redisCodec, cacheConfig);
+	}
+
 	/**
 	 * Closes all connections to the Redis Cache
 	 */
 	public void closeClient() {
+		if (!closed.compareAndSet(false, true))
+			return;
+
+		if (localCache != null && cacheConfig.isHotKeyWarmUp()) {
+			try {
+				saveHotKeys();
+			} catch (RuntimeException e) {
+				reportFailure(CacheOperation.HOT_KEYS_SAVE, null, e);
+			}
+		}
+
 		if (localCache != null)
 			this.localCache.deleteCacheReference();
-
-		client.shutdown();
+		if (bloomFilter != null)
+			bloomFilter.close();
+		if (changeFeed != null)
+			changeFeed.close();
+		lockNotifiers.values().forEach(LockNotifier::close);
+		transactionConnections.values().forEach(e -> e.forEach(StatefulConnection::close));
+
+		clientRegistry.release();
 	}
 
 	@Override
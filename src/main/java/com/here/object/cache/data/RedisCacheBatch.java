@@ -0,0 +1,154 @@
+package com.here.object.cache.data;
+
+import com.here.object.cache.exceptions.CacheUnavailableException;
+import com.here.object.cache.exceptions.NonUniqueKeyException;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.output.CommandOutput;
+import io.lettuce.core.output.IntegerOutput;
+import io.lettuce.core.output.StatusOutput;
+import io.lettuce.core.output.ValueOutput;
+import io.lettuce.core.protocol.AsyncCommand;
+import io.lettuce.core.protocol.Command;
+import io.lettuce.core.protocol.CommandArgs;
+import io.lettuce.core.protocol.CommandType;
+import io.lettuce.core.protocol.RedisCommand;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CacheBatch} of a {@link RedisCache}, see {@link RedisCache#batch()}.
+ * <p>
+ * The commands are grouped per server when executed, the servers of the sharded mode or the masters of a cluster,
+ * and the commands of a server are written and flushed at once on its shared connection. The reads of a cluster are hence served by the masters.
+ * The local cache, the bloom filter and the change feed are updated as the writes complete.
+ *
+ * @param <T> The datatype that can be held within the cache
+ * @author amajha
+ */
+final class RedisCacheBatch<T> implements CacheBatch<T> {
+
+	private final RedisCache<T> cache;
+	private final String keyPrefix;
+	private final RedisCodec<String, T> codec;
+	private final ExpiryPolicy expiry;
+	private final List<String> keys = new ArrayList<>();
+	private final List<AsyncCommand<String, T, ?>> commands = new ArrayList<>();
+	private final List<CompletableFuture<?>> futures = new ArrayList<>();
+	private boolean executed;
+
+	RedisCacheBatch(RedisCache<T> cache, String keyPrefix, RedisCodec<String, T> codec, ExpiryPolicy expiry) {
+		this.cache = cache;
+		this.keyPrefix = keyPrefix;
+		this.codec = codec;
+		this.expiry = expiry;
+	}
+
+	private <R> AsyncCommand<String, T, R> enqueue(String key, CommandType type, CommandOutput<String, T, R> output, CommandArgs<String, T> args) {
+		if (executed)
+			throw new IllegalStateException("Batch already executed");
+
+		AsyncCommand<String, T, R> command = new AsyncCommand<>(new Command<>(type, output, args));
+		keys.add(keyPrefix + key);
+		commands.add(command);
+		return command;
+	}
+
+	private <R> CompletableFuture<R> track(CompletableFuture<R> future) {
+		futures.add(future);
+		return future;
+	}
+
+	@Override
+	public CompletableFuture<T> get(String key) {
+		return track(enqueue(key, CommandType.GET, new ValueOutput<>(codec), new CommandArgs<>(codec).addKey(keyPrefix + key)));
+	}
+
+	@Override
+	public CompletableFuture<T> store(String key, T t) {
+		return store(key, t, expiry.nextTimeToLive());
+	}
+
+	@Override
+	public CompletableFuture<T> store(String key, T t, long timeToLive, TimeUnit timeUnit) {
+		return store(key, t, TimeUnit.MILLISECONDS.convert(timeToLive, timeUnit));
+	}
+
+	private CompletableFuture<T> store(String key, T t, long timeToLiveInMs) {
+		EncodedValue<T> value = cache.encodeValue(key, t);
+		cache.recordKey(key);
+		CommandArgs<String, T> args = value.addTo(new CommandArgs<>(codec).addKey(keyPrefix + key)).add("NX");
+		if (timeToLiveInMs != 0)
+			args.add("PX").add(timeToLiveInMs);
+
+		return track(enqueue(key, CommandType.SET, new StatusOutput<>(codec), args).thenApply(e -> {
+			if (e == null)
+				throw new NonUniqueKeyException("Key : " + key + " already present in the cache, to replace the value, use CacheBatch::replace() instead.");
+			cache.onBatchWrite(ChangeEvent.Type.STORED, key, t);
+			return t;
+		}));
+	}
+
+	@Override
+	public CompletableFuture<T> replace(String key, T t) {
+		return replace(key, t, expiry.nextTimeToLive());
+	}
+
+	@Override
+	public CompletableFuture<T> replace(String key, T t, long timeToLive, TimeUnit timeUnit) {
+		return replace(key, t, TimeUnit.MILLISECONDS.convert(timeToLive, timeUnit));
+	}
+
+	private CompletableFuture<T> replace(String key, T t, long timeToLiveInMs) {
+		EncodedValue<T> value = cache.encodeValue(key, t);
+		cache.recordKey(key);
+		CommandArgs<String, T> args = value.addTo(new CommandArgs<>(codec).addKey(keyPrefix + key));
+		if (timeToLiveInMs != 0)
+			args.add("PX").add(timeToLiveInMs);
+
+		return track(enqueue(key, CommandType.SET, new StatusOutput<>(codec), args).thenApply(e -> {
+			cache.onBatchWrite(ChangeEvent.Type.REPLACED, key, t);
+			return t;
+		}));
+	}
+
+	@Override
+	public CompletableFuture<Boolean> delete(String key) {
+		return track(enqueue(key, CommandType.DEL, new IntegerOutput<>(codec), new CommandArgs<>(codec).addKey(keyPrefix + key)).thenApply(e -> {
+			boolean deleted = e != null && e != 0;
+			if (deleted)
+				cache.onBatchWrite(ChangeEvent.Type.DELETED, key, null);
+			return deleted;
+		}));
+	}
+
+	@Override
+	public CompletableFuture<Void> execute() {
+		if (executed)
+			throw new IllegalStateException("Batch already executed");
+		executed = true;
+
+		if (!cache.isRemoteAvailable()) {
+			commands.forEach(e -> e.completeExceptionally(new CacheUnavailableException("Redis not available for the cache : " + cache.getCacheId() + ", the circuit breaker is open")));
+		} else {
+			Object event = FlightRecorderEvents.BATCH_WRITE.begin();
+			if (event != null)
+				CompletableFuture.allOf(commands.toArray(new CompletableFuture<?>[0]))
+						.whenComplete((result, error) -> FlightRecorderEvents.BATCH_WRITE.end(event, cache.getCacheId(), null, commands.size()));
+			Map<StatefulConnection<String, T>, List<RedisCommand<String, T, ?>>> partitions = new LinkedHashMap<>();
+			for (int i = 0; i < commands.size(); i++)
+				partitions.computeIfAbsent(cache.getConnection(keys.get(i)), e -> new ArrayList<>()).add(commands.get(i));
+			partitions.forEach((connection, batch) -> {
+				connection.dispatch(batch);
+				// the pipelined connections do not flush on their own, a no-op for the others
+				connection.flushCommands();
+			});
+		}
+		return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+	}
+}
@@ -0,0 +1,279 @@
+package com.here.object.cache.data;
+
+import io.lettuce.core.cluster.api.reactive.RedisClusterReactiveCommands;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.output.IntegerOutput;
+import io.lettuce.core.protocol.CommandArgs;
+import io.lettuce.core.protocol.CommandType;
+
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * {@link CacheLock} held in redis, see {@link RedisCache#getLock(String)}.
+ * <p>
+ * The lock is a key set with <code>NX PX</code> to the id of the holding thread, the acquisition also increments the fencing counter
+ * of the lock and the release checks the holder before deleting the key, both in a single script. A lock acquired without a lease time
+ * is leased for {@link #DEFAULT_LEASE_TIME_IN_MS} and renewed every third of the lease while held.
+ * The reentrant acquisitions are counted in the process, only the first acquisition and the last release call redis, within the write timeout
+ * of the cache and through its circuit breaker. A lease lost or not renewed is reported to the operation listeners of the cache.
+ * <p>
+ * The waiters are woken up by a message published on the release, or once the lease of the holder elapses.
+ *
+ * @param <T> The datatype that can be held within the cache
+ * @author amajha
+ */
+final class RedisCacheLock<T> implements CacheLock {
+
+	static final long DEFAULT_LEASE_TIME_IN_MS = 30000;
+	private static final String LOCK_KEY_PREFIX = "__object_cache_lock:";
+
+	// KEYS[1] : lock, KEYS[2] : fencing counter, ARGV[1] : holder, ARGV[2] : lease time in ms
+	// returns the fencing token if acquired, minus the remaining lease of the holder otherwise
+	private static final String ACQUIRE_SCRIPT =
+			"if redis.call('SET', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then return redis.call('INCR', KEYS[2]) end " +
+			"local ttl = redis.call('PTTL', KEYS[1]) " +
+			"if ttl < 1 then ttl = 1 end " +
+			"return -ttl";
+
+	// KEYS[1] : lock, ARGV[1] : holder, ARGV[2] : release channel
+	private static final String RELEASE_SCRIPT =
+			"if redis.call('GET', KEYS[1]) ~= ARGV[1] then return 0 end " +
+			"redis.call('DEL', KEYS[1]) " +
+			"redis.call('PUBLISH', ARGV[2], '1') " +
+			"return 1";
+
+	// KEYS[1] : lock, ARGV[1] : holder, ARGV[2] : lease time in ms
+	private static final String RENEW_SCRIPT =
+			"if redis.call('GET', KEYS[1]) ~= ARGV[1] then return 0 end " +
+			"redis.call('PEXPIRE', KEYS[1], ARGV[2]) " +
+			"return 1";
+
+	private final RedisCache<T> cache;
+	private final String name;
+	private final String lockKey;
+	private final String fenceKey;
+	private final String channel;
+	private final String instanceId;
+	private final RedisClusterReactiveCommands<String, T> commands;
+	private final RedisCodec<String, T> codec;
+	private final Supplier<LockNotifier> notifier;
+	// the holds of the threads of the process, shared by the instances of the locks of a cache
+	private final Map<String, Hold> holds;
+
+	static final class Hold {
+		private final long token;
+		// only updated by the holder
+		private int count = 1;
+		private volatile ScheduledFuture<?> watchdog;
+
+		private Hold(long token) {
+			this.token = token;
+		}
+	}
+
+	/**
+	 * @param cache      the cache of the lock, runs the commands and is notified of the leases lost
+	 * @param instanceId identifies the cache instance, the holder of a lock is made of this id and of the id of the thread
+	 * @param commands   the commands of the server holding the lock
+	 * @param notifier   the notifier of the server holding the lock
+	 * @param holds      the holds of the locks of the cache
+	 */
+	RedisCacheLock(RedisCache<T> cache, String name, String cacheId, String instanceId, RedisClusterReactiveCommands<String, T> commands, RedisCodec<String, T> codec,
+				   Supplier<LockNotifier> notifier, Map<String, Hold> holds) {
+		this.cache = cache;
+		this.name = name;
+		this.lockKey = getLockKey(cacheId, name);
+		this.fenceKey = lockKey + ":fence";
+		this.channel = lockKey + ":released";
+		this.instanceId = instanceId;
+		this.commands = commands;
+		this.codec = codec;
+		this.notifier = notifier;
+		this.holds = holds;
+	}
+
+	/**
+	 * @return the key of the lock, routes the commands on the lock
+	 */
+	static String getLockKey(String cacheId, String name) {
+		// the counter shares the hash tag of the lock
+		return LOCK_KEY_PREFIX + "{" + cacheId + ":" + name + "}";
+	}
+
+	private String holder() {
+		return instanceId + ":" + Thread.currentThread().getId();
+	}
+
+	private String holdKey() {
+		return lockKey + "|" + Thread.currentThread().getId();
+	}
+
+	/**
+	 * @param leaseTimeInMs the lease time, 0 for a lease renewed while held
+	 * @return 0 if acquired, the remaining lease of the holder otherwise
+	 */
+	private long tryAcquire(long leaseTimeInMs) {
+		Hold hold = holds.get(holdKey());
+		if (hold != null) {
+			hold.count++;
+			return 0;
+		}
+
+		long leaseTime = leaseTimeInMs > 0 ? leaseTimeInMs : DEFAULT_LEASE_TIME_IN_MS;
+		String holder = holder();
+		CommandArgs<String, T> args = new CommandArgs<>(codec).add(ACQUIRE_SCRIPT).add(2).addKey(lockKey).addKey(fenceKey).add(holder).add(leaseTime);
+		Long response = cache.await(commands.<Long>dispatch(CommandType.EVAL, new IntegerOutput<>(codec), args).next(), true);
+		if (response == null || response <= 0)
+			return response == null ? 1 : -response;
+
+		hold = new Hold(response);
+		holds.put(holdKey(), hold);
+		if (leaseTimeInMs <= 0)
+			hold.watchdog = scheduleRenewal(hold, holder, holdKey());
+		return 0;
+	}
+
+	private ScheduledFuture<?> scheduleRenewal(Hold hold, String holder, String holdKey) {
+		long period = DEFAULT_LEASE_TIME_IN_MS / 3;
+		return CacheExecutors.getScheduler().scheduleWithFixedDelay(() -> {
+			CommandArgs<String, T> args = new CommandArgs<>(codec).add(RENEW_SCRIPT).add(1).addKey(lockKey).add(holder).add(DEFAULT_LEASE_TIME_IN_MS);
+			commands.<Long>dispatch(CommandType.EVAL, new IntegerOutput<>(codec), args)
+					.subscribe(e -> {
+						// a renewal may run into the release
+						if (e == 0 && holds.get(holdKey) == hold) {
+							cache.reportFailure(CacheOperation.LOCK_RENEWAL, lockKey,
+									new IllegalMonitorStateException("Lease of the lock " + name + " lost by its holder " + holder));
+							hold.watchdog.cancel(false);
+						}
+					}, e -> cache.reportFailure(CacheOperation.LOCK_RENEWAL, lockKey, e));
+		}, period, period, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * @param waitTimeInMs  the max time to wait, negative to wait until acquired
+	 * @param leaseTimeInMs the lease time, 0 for a lease renewed while held
+	 */
+	private boolean acquire(long waitTimeInMs, long leaseTimeInMs) throws InterruptedException {
+		long remainingLease = tryAcquire(leaseTimeInMs);
+		if (remainingLease == 0)
+			return true;
+		if (waitTimeInMs == 0)
+			return false;
+
+		long deadline = System.nanoTime() + TimeUnit.NANOSECONDS.convert(waitTimeInMs, TimeUnit.MILLISECONDS);
+		LockNotifier lockNotifier = notifier.get();
+		LockNotifier.Subscription subscription = lockNotifier.subscribe(channel);
+		try {
+			while (true) {
+				long generation = subscription.getGeneration();
+				remainingLease = tryAcquire(leaseTimeInMs);
+				if (remainingLease == 0)
+					return true;
+
+				long wait = remainingLease;
+				if (waitTimeInMs > 0) {
+					long remainingWait = TimeUnit.MILLISECONDS.convert(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+					if (remainingWait <= 0)
+						return false;
+					wait = Math.min(wait, remainingWait);
+				}
+				subscription.await(generation, wait);
+			}
+		} finally {
+			lockNotifier.unsubscribe(subscription);
+		}
+	}
+
+	private void acquireUninterruptibly(long leaseTimeInMs) {
+		boolean interrupted = false;
+		while (true) {
+			try {
+				acquire(-1, leaseTimeInMs);
+				break;
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+
+	@Override
+	public void lock() {
+		acquireUninterruptibly(0);
+	}
+
+	@Override
+	public void lock(long leaseTime, TimeUnit timeUnit) {
+		acquireUninterruptibly(TimeUnit.MILLISECONDS.convert(leaseTime, timeUnit));
+	}
+
+	@Override
+	public void lockInterruptibly() throws InterruptedException {
+		acquire(-1, 0);
+	}
+
+	@Override
+	public boolean tryLock() {
+		return tryAcquire(0) == 0;
+	}
+
+	@Override
+	public boolean tryLock(long waitTime, TimeUnit timeUnit) throws InterruptedException {
+		return acquire(TimeUnit.MILLISECONDS.convert(waitTime, timeUnit), 0);
+	}
+
+	@Override
+	public boolean tryLock(long waitTime, long leaseTime, TimeUnit timeUnit) throws InterruptedException {
+		return acquire(TimeUnit.MILLISECONDS.convert(waitTime, timeUnit), TimeUnit.MILLISECONDS.convert(leaseTime, timeUnit));
+	}
+
+	/**
+	 * @throws IllegalMonitorStateException if the current thread does not hold the lock, or if its lease elapsed before the release
+	 */
+	@Override
+	public void unlock() {
+		Hold hold = holds.get(holdKey());
+		if (hold == null)
+			throw new IllegalMonitorStateException("Lock " + name + " not held by the current thread");
+		if (--hold.count > 0)
+			return;
+
+		holds.remove(holdKey());
+		if (hold.watchdog != null)
+			hold.watchdog.cancel(false);
+
+		CommandArgs<String, T> args = new CommandArgs<>(codec).add(RELEASE_SCRIPT).add(1).addKey(lockKey).add(holder()).add(channel);
+		Long released = cache.await(commands.<Long>dispatch(CommandType.EVAL, new IntegerOutput<>(codec), args).next(), true);
+		if (released == null || released == 0)
+			throw new IllegalMonitorStateException("Lease of the lock " + name + " elapsed before its release");
+	}
+
+	@Override
+	public long getFencingToken() {
+		Hold hold = holds.get(holdKey());
+		if (hold == null)
+			throw new IllegalMonitorStateException("Lock " + name + " not held by the current thread");
+		return hold.token;
+	}
+
+	@Override
+	public boolean isLocked() {
+		Long keyCount = cache.await(commands.exists(lockKey), false);
+		return keyCount != null && keyCount != 0;
+	}
+
+	@Override
+	public boolean isHeldByCurrentThread() {
+		return holds.containsKey(holdKey());
+	}
+
+	@Override
+	public int getHoldCount() {
+		Hold hold = holds.get(holdKey());
+		return hold != null ? hold.count : 0;
+	}
+}
@@ -0,0 +1,266 @@
+package com.here.object.cache.data;
+
+import com.here.object.cache.exceptions.CacheUnavailableException;
+import com.here.object.cache.exceptions.NonUniqueKeyException;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.TransactionResult;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.async.RedisAsyncCommands;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.output.StatusOutput;
+import io.lettuce.core.protocol.CommandType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * {@link CacheTransaction} of a {@link RedisCache}, see {@link RedisCache#transaction()}.
+ * <p>
+ * The writes are sent as a MULTI/EXEC block written and flushed at once, hence the transaction costs a single round trip, plus one for the WATCH if any.
+ * The state of the WATCH and the MULTI is held by the connection, so the transaction runs on a connection of its own borrowed from the cache.
+ * All the keys must be held by the same server, in the cluster mode by the same slot, a hash tag such as <code>{order:42}</code> in the keys ensures it.
+ * The local cache, the bloom filter and the change feed are updated as the writes complete.
+ *
+ * @param <T> The datatype that can be held within the cache
+ * @author amajha
+ */
+final class RedisCacheTransaction<T> implements CacheTransaction<T> {
+
+	private final RedisCache<T> cache;
+	private final String keyPrefix;
+	private final RedisCodec<String, T> codec;
+	private final ExpiryPolicy expiry;
+	private final List<Function<RedisAsyncCommands<String, T>, RedisFuture<?>>> commands = new ArrayList<>();
+	private final List<Consumer<Object>> replies = new ArrayList<>();
+	private final List<CompletableFuture<?>> futures = new ArrayList<>();
+	// the first key of the transaction, all the keys must share its route
+	private String routeKey;
+	private String route;
+	private StatefulConnection<String, T> borrowed;
+	private StatefulRedisConnection<String, T> connection;
+	private boolean executed;
+
+	RedisCacheTransaction(RedisCache<T> cache, String keyPrefix, RedisCodec<String, T> codec, ExpiryPolicy expiry) {
+		this.cache = cache;
+		this.keyPrefix = keyPrefix;
+		this.codec = codec;
+		this.expiry = expiry;
+	}
+
+	private void checkNotExecuted() {
+		if (executed)
+			throw new IllegalStateException("Transaction already executed");
+	}
+
+	private void route(String prefixedKey) {
+		String keyRoute = cache.getTransactionRoute(prefixedKey);
+		if (route == null) {
+			route = keyRoute;
+			routeKey = prefixedKey;
+		} else if (!route.equals(keyRoute)) {
+			throw new IllegalArgumentException("The keys of a transaction must be held by the same server, and by the same slot in the cluster mode : "
+					+ prefixedKey.substring(keyPrefix.length()));
+		}
+	}
+
+	private void acquire() {
+		if (connection != null)
+			return;
+		borrowed = cache.borrowTransactionConnection(routeKey);
+		connection = cache.getTransactionConnection(borrowed, routeKey);
+	}
+
+	/**
+	 * @param reusable false if the state of the connection is unknown, it is then closed
+	 */
+	private void release(boolean reusable) {
+		if (borrowed == null)
+			return;
+		cache.releaseTransactionConnection(routeKey, borrowed, reusable);
+		borrowed = null;
+		connection = null;
+	}
+
+	@Override
+	public CacheTransaction<T> watch(String... keys) {
+		checkNotExecuted();
+		if (!commands.isEmpty())
+			throw new IllegalStateException("Keys must be watched before the writes are queued");
+		if (!cache.isRemoteAvailable())
+			throw new CacheUnavailableException("Redis not available for the cache : " + cache.getCacheId() + ", the circuit breaker is open");
+
+		String[] prefixedKeys = Arrays.stream(keys).map(e -> keyPrefix + e).toArray(String[]::new);
+		for (String prefixedKey : prefixedKeys)
+			route(prefixedKey);
+		acquire();
+		try {
+			connection.sync().watch(prefixedKeys);
+		} catch (RuntimeException e) {
+			release(false);
+			throw e;
+		}
+		return this;
+	}
+
+	private <R> CompletableFuture<R> enqueue(String key, Function<RedisAsyncCommands<String, T>, RedisFuture<?>> command, Function<Object, R> reply) {
+		checkNotExecuted();
+		route(keyPrefix + key);
+
+		CompletableFuture<R> future = new CompletableFuture<>();
+		commands.add(command);
+		replies.add(e -> {
+			// the error of a command is returned in place of its reply, the other commands still apply
+			if (e instanceof Throwable) {
+				future.completeExceptionally((Throwable) e);
+				return;
+			}
+			try {
+				future.complete(reply.apply(e));
+			} catch (RuntimeException ex) {
+				future.completeExceptionally(ex);
+			}
+		});
+		futures.add(future);
+		return future;
+	}
+
+	/**
+	 * @param setArgs the arguments of the <code>SET</code>, <code>null</code> if none
+	 */
+	private RedisFuture<String> set(RedisAsyncCommands<String, T> commands, String key, EncodedValue<T> value, SetArgs setArgs) {
+		return commands.dispatch(CommandType.SET, new StatusOutput<>(codec), value.toSetArgs(codec, keyPrefix + key, setArgs));
+	}
+
+	@Override
+	public CompletableFuture<T> store(String key, T t) {
+		return store(key, t, expiry.nextTimeToLive());
+	}
+
+	@Override
+	public CompletableFuture<T> store(String key, T t, long timeToLive, TimeUnit timeUnit) {
+		return store(key, t, TimeUnit.MILLISECONDS.convert(timeToLive, timeUnit));
+	}
+
+	private CompletableFuture<T> store(String key, T t, long timeToLiveInMs) {
+		EncodedValue<T> value = cache.encodeValue(key, t);
+		cache.recordKey(key);
+		SetArgs setArgs = timeToLiveInMs != 0 ? SetArgs.Builder.nx().px(timeToLiveInMs) : SetArgs.Builder.nx();
+		return enqueue(key, e -> set(e, key, value, setArgs), e -> {
+			if (e == null)
+				throw new NonUniqueKeyException("Key : " + key + " already present in the cache, to replace the value, use CacheTransaction::replace() instead.");
+			cache.onBatchWrite(ChangeEvent.Type.STORED, key, t);
+			return t;
+		});
+	}
+
+	@Override
+	public CompletableFuture<T> replace(String key, T t) {
+		return replace(key, t, expiry.nextTimeToLive());
+	}
+
+	@Override
+	public CompletableFuture<T> replace(String key, T t, long timeToLive, TimeUnit timeUnit) {
+		return replace(key, t, TimeUnit.MILLISECONDS.convert(timeToLive, timeUnit));
+	}
+
+	private CompletableFuture<T> replace(String key, T t, long timeToLiveInMs) {
+		EncodedValue<T> value = cache.encodeValue(key, t);
+		cache.recordKey(key);
+		return enqueue(key, e -> set(e, key, value, timeToLiveInMs != 0 ? SetArgs.Builder.px(timeToLiveInMs) : null), e -> {
+			cache.onBatchWrite(ChangeEvent.Type.REPLACED, key, t);
+			return t;
+		});
+	}
+
+	@Override
+	public CompletableFuture<Boolean> delete(String key) {
+		return enqueue(key, e -> e.del(keyPrefix + key), e -> {
+			boolean deleted = e != null && (Long) e != 0;
+			if (deleted)
+				cache.onBatchWrite(ChangeEvent.Type.DELETED, key, null);
+			return deleted;
+		});
+	}
+
+	@Override
+	public CompletableFuture<Boolean> execute() {
+		checkNotExecuted();
+		executed = true;
+
+		if (!cache.isRemoteAvailable()) {
+			release(false);
+			CacheUnavailableException error = new CacheUnavailableException("Redis not available for the cache : " + cache.getCacheId() + ", the circuit breaker is open");
+			futures.forEach(e -> e.completeExceptionally(error));
+			CompletableFuture<Boolean> result = new CompletableFuture<>();
+			result.completeExceptionally(error);
+			return result;
+		}
+		if (commands.isEmpty()) {
+			unwatch();
+			return CompletableFuture.completedFuture(true);
+		}
+
+		RedisFuture<TransactionResult> exec;
+		try {
+			acquire();
+			RedisAsyncCommands<String, T> async = connection.async();
+			connection.setAutoFlushCommands(false);
+			try {
+				async.multi();
+				commands.forEach(e -> e.apply(async));
+				exec = async.exec();
+				connection.flushCommands();
+			} finally {
+				connection.setAutoFlushCommands(true);
+			}
+		} catch (RuntimeException e) {
+			release(false);
+			futures.forEach(f -> f.completeExceptionally(e));
+			throw e;
+		}
+
+		return exec.handle((result, error) -> {
+			// the EXEC clears the watched keys
+			release(error == null);
+			if (error != null) {
+				futures.forEach(e -> e.completeExceptionally(error));
+				throw new CompletionException(error);
+			}
+			if (result.wasDiscarded()) {
+				futures.forEach(e -> e.completeExceptionally(new CancellationException("Transaction aborted, a watched key was written")));
+				return false;
+			}
+			for (int i = 0; i < replies.size(); i++)
+				replies.get(i).accept(result.get(i));
+			return true;
+		}).toCompletableFuture();
+	}
+
+	private void unwatch() {
+		if (connection == null)
+			return;
+		try {
+			connection.sync().unwatch();
+			release(true);
+		} catch (RuntimeException e) {
+			release(false);
+		}
+	}
+
+	@Override
+	public void close() {
+		if (executed)
+			return;
+		executed = true;
+		unwatch();
+	}
+}
@@ -0,0 +1,309 @@
+package com.here.object.cache.data;
+
+import com.here.object.cache.config.CachingMode;
+import com.here.object.cache.config.redis.ReadPolicy;
+import com.here.object.cache.config.redis.RedisCacheConfig;
+import com.here.object.cache.config.redis.ServerAddress;
+import com.here.object.cache.exceptions.InvalidConfigException;
+import io.lettuce.core.AbstractRedisClient;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.TimeoutOptions;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.cluster.ClusterClientOptions;
+import io.lettuce.core.cluster.RedisClusterClient;
+import io.lettuce.core.cluster.api.StatefulRedisClusterConnection;
+import io.lettuce.core.cluster.api.reactive.RedisClusterReactiveCommands;
+import io.lettuce.core.cluster.pubsub.StatefulRedisClusterPubSubConnection;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.masterreplica.MasterReplica;
+import io.lettuce.core.masterreplica.StatefulRedisMasterReplicaConnection;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import io.lettuce.core.resource.ClientResources;
+import io.lettuce.core.resource.DefaultClientResources;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Shares the lettuce client, its event loops and the connections between all the caches pointing to the same servers.
+ * The event loops are sized as per {@link RedisCacheConfig#getNumThreads()}, the caches sharing the servers must ask for the same number of threads,
+ * and use the native epoll transport when it is available on the classpath and the platform.
+ * Every connection applies the command timeout of the cache it is opened for, the caches with different timeouts do not share their connections.
+ * The shared resources are released once the last cache using them is closed.
+ *
+ * @author amajha
+ */
+final class RedisClientRegistry {
+
+	private static final Map<String, RedisClientRegistry> registry = new HashMap<>();
+
+	private final String registryKey;
+	private final ClientResources clientResources;
+	private final AbstractRedisClient client;
+	private final int numThreads;
+	private final Map<Object, StatefulConnection<?, ?>> connections = new HashMap<>();
+	private final Map<Object, CommandCoalescer> coalescers = new HashMap<>();
+	private int referenceCount;
+
+	private RedisClientRegistry(String registryKey, RedisCacheConfig cacheConfig) {
+		this.registryKey = registryKey;
+		this.numThreads = cacheConfig.getNumThreads();
+		this.clientResources = DefaultClientResources.builder()
+				.ioThreadPoolSize(cacheConfig.getNumThreads())
+				.computationThreadPoolSize(cacheConfig.getNumThreads())
+				.build();
+
+		// the commands are cancelled once the timeout of their connection elapsed, rather than piling up while a server does not respond
+		if (CachingMode.CLUSTER_MODE_REDIS_CACHE.equals(cacheConfig.getCachingMode())) {
+			List<RedisURI> redisURIS = cacheConfig.getRedisServers().stream().map(ServerAddress::getRedisURI).collect(Collectors.toList());
+			RedisClusterClient clusterClient = RedisClusterClient.create(clientResources, redisURIS);
+			clusterClient.setOptions(ClusterClientOptions.builder().autoReconnect(true).timeoutOptions(TimeoutOptions.enabled()).build());
+			this.client = clusterClient;
+		} else {
+			RedisClient redisClient = RedisClient.create(clientResources, cacheConfig.getRedisServers().get(0).getRedisURI());
+			redisClient.setOptions(ClientOptions.builder().autoReconnect(true).timeoutOptions(TimeoutOptions.enabled()).build());
+			this.client = redisClient;
+		}
+	}
+
+	/**
+	 * Get the shared client for the servers of the given config, creating it if this is the first cache using them.
+	 * Every call must be matched by a call to {@link #release()}
+	 *
+	 * @param cacheConfig the config of the cache
+	 * @return the shared client
+	 * @throws InvalidConfigException if the client of the servers was created for another number of threads
+	 */
+	static synchronized RedisClientRegistry acquire(RedisCacheConfig cacheConfig) {
+		String registryKey = getRegistryKey(cacheConfig);
+		RedisClientRegistry clientRegistry = registry.computeIfAbsent(registryKey, e -> new RedisClientRegistry(e, cacheConfig));
+		if (clientRegistry.numThreads != cacheConfig.getNumThreads())
+			throw new InvalidConfigException("The client of the servers is shared and already uses " + clientRegistry.numThreads + " threads, "
+					+ cacheConfig.getNumThreads() + " requested");
+		clientRegistry.referenceCount++;
+		return clientRegistry;
+	}
+
+	private static String getRegistryKey(RedisCacheConfig cacheConfig) {
+		String servers = cacheConfig.getRedisServers().stream().map(ServerAddress::getConnectionString).sorted().collect(Collectors.joining(","));
+		return cacheConfig.getCachingMode() + "|" + cacheConfig.getSentinelMasterId() + "|" + servers;
+	}
+
+	RedisClient getClient() {
+		return (RedisClient) client;
+	}
+
+	RedisClusterClient getClusterClient() {
+		return (RedisClusterClient) client;
+	}
+
+	/**
+	 * Get the connection shared by the caches using the same connection key, the connector is invoked only if no such connection exists yet.
+	 *
+	 * @param connectionKey the key identifying the codec and the settings of the connection
+	 * @param connector     opens a new connection
+	 * @return the shared connection
+	 */
+	@SuppressWarnings("unchecked")
+	synchronized <C extends StatefulConnection<?, ?>> C getConnection(Object connectionKey, Supplier<C> connector) {
+		return (C) connections.computeIfAbsent(connectionKey, e -> connector.get());
+	}
+
+	/**
+	 * The settings of the connections to be part of the connection keys, the pipelined connections do not flush
+	 * their commands on their own and every connection applies its own command timeout,
+	 * hence they must not be shared with the caches not using the same settings.
+	 *
+	 * @param cacheConfig the config of the cache
+	 * @return the settings
+	 */
+	static Object getConnectionSettings(RedisCacheConfig cacheConfig) {
+		if (!cacheConfig.isAutoPipelining())
+			return Collections.singletonList(cacheConfig.getCommandTimeoutInMs());
+		return Arrays.asList(cacheConfig.getCommandTimeoutInMs(), cacheConfig.getPipelineMaxBatchSize(), cacheConfig.getPipelineWindowInNanos());
+	}
+
+	/**
+	 * Get the coalescer of the commands of the connection shared by the caches using the same connection key
+	 *
+	 * @param connectionKey the key identifying the codec and the settings of the connection
+	 * @param connection    the connection
+	 * @param cacheConfig   the config of the cache, the auto pipelining must be enabled
+	 * @return the shared coalescer
+	 * @throws IllegalStateException if the connection is not the one registered under a key holding the pipelining settings,
+	 *                               as it could then be handed out to the caches flushing their commands on their own
+	 */
+	synchronized CommandCoalescer getCoalescer(Object connectionKey, StatefulConnection<?, ?> connection, RedisCacheConfig cacheConfig) {
+		if (connections.get(connectionKey) != connection || !(connectionKey instanceof List)
+				|| !((List<?>) connectionKey).contains(getConnectionSettings(cacheConfig)))
+			throw new IllegalStateException("A pipelined connection must be registered under a key holding its pipelining settings");
+		return coalescers.computeIfAbsent(connectionKey,
+				e -> new CommandCoalescer(connection, cacheConfig.getPipelineMaxBatchSize(), cacheConfig.getPipelineWindowInNanos()));
+	}
+
+	/**
+	 * Get the reactive commands of the connection shared by the caches using the same connection key,
+	 * the commands of the cluster and of the non-clustered connections are served through the same interface.
+	 *
+	 * @param connectionKey the key identifying the codec and the settings of the connection
+	 * @param codec         the codec of the connection
+	 * @param cacheConfig   the config of the cache
+	 * @return the reactive commands
+	 */
+	@SuppressWarnings("unchecked")
+	<K, V> RedisClusterReactiveCommands<K, V> getReactiveCommands(Object connectionKey, RedisCodec<K, V> codec, RedisCacheConfig cacheConfig) {
+		Object pipelinedKey = Arrays.asList(connectionKey, getConnectionSettings(cacheConfig));
+		StatefulConnection<K, V> connection;
+		RedisClusterReactiveCommands<K, V> commands;
+		if (CachingMode.CLUSTER_MODE_REDIS_CACHE.equals(cacheConfig.getCachingMode())) {
+			StatefulRedisClusterConnection<K, V> clusterConnection = getConnection(pipelinedKey,
+					() -> connectCluster(codec, cacheConfig.getReadPolicy(), Duration.ofMillis(cacheConfig.getCommandTimeoutInMs())));
+			connection = clusterConnection;
+			commands = clusterConnection.reactive();
+		} else {
+			StatefulRedisConnection<K, V> redisConnection = getConnection(pipelinedKey, () -> connectStandAlone(codec, cacheConfig));
+			connection = redisConnection;
+			commands = redisConnection.reactive();
+		}
+
+		if (!cacheConfig.isAutoPipelining())
+			return commands;
+		return getCoalescer(pipelinedKey, connection, cacheConfig).wrap(commands, RedisClusterReactiveCommands.class);
+	}
+
+	/**
+	 * Connects to the non-clustered servers.
+	 * In the {@link CachingMode#SENTINEL} mode the master is discovered through the sentinels and the connection follows the fail-overs announced by them.
+	 * In the {@link CachingMode#MASTER_REPLICA} mode, or if the reads are to be served by the replicas, the servers are connected
+	 * as a master/replica setup which routes the reads as per the {@link ReadPolicy} and the writes to the master.
+	 *
+	 * The commands time out after the command timeout of the cache.
+	 *
+	 * @param codec       the codec of the connection
+	 * @param cacheConfig the config of the cache
+	 * @return the connection
+	 */
+	<K, V> StatefulRedisConnection<K, V> connectStandAlone(RedisCodec<K, V> codec, RedisCacheConfig cacheConfig) {
+		Duration commandTimeout = Duration.ofMillis(cacheConfig.getCommandTimeoutInMs());
+		StatefulRedisMasterReplicaConnection<K, V> connection;
+		if (CachingMode.SENTINEL.equals(cacheConfig.getCachingMode())) {
+			connection = MasterReplica.connect(getClient(), codec, buildSentinelURI(cacheConfig));
+		} else if (CachingMode.MASTER_REPLICA.equals(cacheConfig.getCachingMode()) || !ReadPolicy.MASTER.equals(cacheConfig.getReadPolicy())) {
+			List<RedisURI> redisURIS = cacheConfig.getRedisServers().stream().map(ServerAddress::getRedisURI).collect(Collectors.toList());
+			connection = MasterReplica.connect(getClient(), codec, redisURIS);
+		} else {
+			return withTimeout(getClient().connect(codec), commandTimeout);
+		}
+
+		connection.setReadFrom(cacheConfig.getReadPolicy().getReadFrom());
+		return withTimeout(connection, commandTimeout);
+	}
+
+	/**
+	 * Connects to one of the servers of the {@link CachingMode#SHARDED_REDIS_CACHE} mode
+	 *
+	 * @param codec          the codec of the connection
+	 * @param server         the server
+	 * @param commandTimeout the time after which the commands of the connection time out
+	 * @return the connection
+	 */
+	<K, V> StatefulRedisConnection<K, V> connectShard(RedisCodec<K, V> codec, ServerAddress server, Duration commandTimeout) {
+		return withTimeout(getClient().connect(codec, server.getRedisURI()), commandTimeout);
+	}
+
+	/**
+	 * Connects to the cluster, the reads are routed as per the given policy.
+	 *
+	 * @param codec          the codec of the connection
+	 * @param readPolicy     the read policy
+	 * @param commandTimeout the time after which the commands of the connection time out
+	 * @return the connection
+	 */
+	<K, V> StatefulRedisClusterConnection<K, V> connectCluster(RedisCodec<K, V> codec, ReadPolicy readPolicy, Duration commandTimeout) {
+		StatefulRedisClusterConnection<K, V> connection = getClusterClient().connect(codec);
+		connection.setReadFrom(readPolicy.getReadFrom());
+		return withTimeout(connection, commandTimeout);
+	}
+
+	/**
+	 * The timeout options of the client apply the timeout of the connection to each of its commands
+	 */
+	private static <C extends StatefulConnection<?, ?>> C withTimeout(C connection, Duration commandTimeout) {
+		connection.setTimeout(commandTimeout);
+		return connection;
+	}
+
+	/**
+	 * Opens a pub/sub connection per server of the non-clustered modes, in the {@link CachingMode#SENTINEL} mode a single connection
+	 * to the master discovered through the sentinels.
+	 *
+	 * @param codec       the codec of the connections
+	 * @param cacheConfig the config of the cache
+	 * @return the connections
+	 */
+	<K, V> List<StatefulRedisPubSubConnection<K, V>> connectPubSub(RedisCodec<K, V> codec, RedisCacheConfig cacheConfig) {
+		if (CachingMode.SENTINEL.equals(cacheConfig.getCachingMode()))
+			return Collections.singletonList(getClient().connectPubSub(codec, buildSentinelURI(cacheConfig)));
+		return cacheConfig.getRedisServers().stream().map(e -> getClient().connectPubSub(codec, e.getRedisURI())).collect(Collectors.toList());
+	}
+
+	/**
+	 * Opens a pub/sub connection to one of the servers of the non-clustered modes
+	 *
+	 * @param codec  the codec of the connection
+	 * @param server the server
+	 * @return the connection
+	 */
+	<K, V> StatefulRedisPubSubConnection<K, V> connectPubSub(RedisCodec<K, V> codec, ServerAddress server) {
+		return getClient().connectPubSub(codec, server.getRedisURI());
+	}
+
+	/**
+	 * Opens a pub/sub connection to the cluster
+	 *
+	 * @param codec the codec of the connection
+	 * @return the connection
+	 */
+	<K, V> StatefulRedisClusterPubSubConnection<K, V> connectClusterPubSub(RedisCodec<K, V> codec) {
+		return getClusterClient().connectPubSub(codec);
+	}
+
+	private static RedisURI buildSentinelURI(RedisCacheConfig cacheConfig) {
+		List<ServerAddress> sentinels = cacheConfig.getRedisServers();
+		ServerAddress first = sentinels.get(0);
+		RedisURI.Builder redisUriBuilder = RedisURI.Builder.sentinel(first.getHost(), first.getPort(), cacheConfig.getSentinelMasterId());
+		sentinels.stream().skip(1).forEach(e -> redisUriBuilder.withSentinel(e.getHost(), e.getPort()));
+		if (first.getDatabase() != -1)
+			redisUriBuilder.withDatabase(first.getDatabase());
+
+		return redisUriBuilder.build();
+	}
+
+	/**
+	 * Release the shared client, the connections, the client and its event loops are shut down when the last cache releases it.
+	 */
+	void release() {
+		synchronized (RedisClientRegistry.class) {
+			if (--referenceCount > 0)
+				return;
+			registry.remove(registryKey);
+		}
+
+		synchronized (this) {
+			connections.values().forEach(StatefulConnection::close);
+			connections.clear();
+			coalescers.clear();
+		}
+		client.shutdown();
+		clientResources.shutdown();
+	}
+}
@@ -0,0 +1,65 @@
+package com.here.object.cache.data;
+
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.output.ValueOutput;
+
+import java.nio.ByteBuffer;
+
+/**
+ * {@link ValueOutput} keeping the size of the value read, hence the size is known to the command which read it.
+ * The output of a <code>MGET</code> of a value and of the marker of a miss of the loader keeps the value and whether the marker exists.
+ *
+ * @param <K> Key type.
+ * @param <V> Value type.
+ * @author amajha
+ */
+final class SizedValueOutput<K, V> extends ValueOutput<K, V> {
+
+	private final boolean missMarkerRead;
+	// written by the event loop, read once the command completed
+	private volatile int size = -1;
+	private volatile boolean missMarked;
+	private int valueCount;
+
+	SizedValueOutput(RedisCodec<K, V> codec) {
+		this(codec, false);
+	}
+
+	/**
+	 * @param missMarkerRead true if the marker of a miss is read after the value
+	 */
+	SizedValueOutput(RedisCodec<K, V> codec, boolean missMarkerRead) {
+		super(codec);
+		this.missMarkerRead = missMarkerRead;
+	}
+
+	@Override
+	public void set(ByteBuffer bytes) {
+		if (valueCount++ > 0) {
+			// the marker holds an empty value, not decoded
+			missMarked = bytes != null;
+			return;
+		}
+		if (bytes != null)
+			size = bytes.remaining();
+		super.set(bytes);
+	}
+
+	boolean isMissMarkerRead() {
+		return missMarkerRead;
+	}
+
+	/**
+	 * @return true if the marker of a miss of the loader was read
+	 */
+	boolean isMissMarked() {
+		return missMarked;
+	}
+
+	/**
+	 * @return the size in bytes of the value read, -1 if no value was read
+	 */
+	int getSize() {
+		return size;
+	}
+}
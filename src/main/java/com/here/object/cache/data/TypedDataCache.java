@@ -0,0 +1,77 @@
+package com.here.object.cache.data;
+
+import com.here.object.cache.exceptions.NonUniqueKeyException;
+import com.here.object.cache.exceptions.ObjectNotSerialzableException;
+import com.here.object.cache.serializer.KeyCodec;
+
+import java.util.Collection;
+
+/**
+ * A cache with keys of any type, on redis the keys are written straight to bytes by a {@link KeyCodec}
+ * rather than being converted to the {@link String} keys required by {@link DataCache}.
+ *
+ * @param <K> The type of the keys, must implement {@link Object#equals(Object)} and {@link Object#hashCode()}
+ * @param <V> The Data type to be stored inside the cache
+ * @author amajha
+ */
+public interface TypedDataCache<K, V> {
+
+	/**
+	 * Store Object in the Cache
+	 *
+	 * @param key the key against which the given object will be stored
+	 * @param v   The value to be stored
+	 * @return The stored Value
+	 * @throws ObjectNotSerialzableException when the object that is being stored cannot be serialized
+	 * @throws NonUniqueKeyException         if the given key is already present in the cache
+	 */
+	public V store(K key, V v);
+
+	/**
+	 * Fetch the value from the cache for a given key
+	 *
+	 * @param key The key for which the value is to be fetched
+	 * @return The fetched object from the cache, <code>null</code> if the key is not present
+	 */
+	public V get(K key);
+
+	/**
+	 * Replace the value stored in the cache with the new Value. A new Object is created in the cache if the key does not exist already
+	 *
+	 * @param key the key against which the given object will be stored
+	 * @param v   the new value
+	 * @return the stored value
+	 * @throws ObjectNotSerialzableException when the object that is being stored cannot be serialized
+	 */
+	public V replace(K key, V v);
+
+	/**
+	 * Store the value only if the key is not present in the cache, the check and the write are done atomically
+	 *
+	 * @param key the key against which the given object will be stored
+	 * @param v   the value to be stored
+	 * @return the value already present, <code>null</code> if the given value has been stored
+	 */
+	public V putIfAbsent(K key, V v);
+
+	/**
+	 * Delete the object for the given key
+	 *
+	 * @param key the key to be deleted
+	 * @return true if the key was present
+	 */
+	public boolean deleteIfPresent(K key);
+
+	/**
+	 * Delete the objects for the given keys
+	 *
+	 * @param keys the keys to be deleted
+	 * @return the number of keys deleted
+	 */
+	public long deleteByKeys(Collection<K> keys);
+
+	/**
+	 * Delete all the objects held by the cache
+	 */
+	public void purgeCache();
+}
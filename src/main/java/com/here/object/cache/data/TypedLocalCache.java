@@ -0,0 +1,75 @@
+package com.here.object.cache.data;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.here.object.cache.config.local.LocalCacheConfig;
+import com.here.object.cache.exceptions.NonUniqueKeyException;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local {@link TypedDataCache}, the keys are held as is hence no codec is involved.
+ *
+ * @param <K> The type of the keys
+ * @param <V> The datatype that can be held by this class
+ * @author amajha
+ */
+public class TypedLocalCache<K, V> implements TypedDataCache<K, V> {
+
+	private final Cache<K, V> localCache;
+
+	/**
+	 * @param cacheConfig the size and the expiry of the cache
+	 */
+	public TypedLocalCache(LocalCacheConfig cacheConfig) {
+		this.localCache = CacheBuilder.newBuilder()
+				.expireAfterWrite(cacheConfig.getExpirationInMs(), TimeUnit.MILLISECONDS)
+				.maximumSize(cacheConfig.getCacheSize())
+				.build();
+	}
+
+	@Override
+	public V store(K key, V v) {
+		if (localCache.asMap().putIfAbsent(key, v) != null)
+			throw new NonUniqueKeyException("Key : " + key + " already present in the cache, to replace the value, use TypedDataCache::replace() instead.");
+		return v;
+	}
+
+	@Override
+	public V get(K key) {
+		return localCache.getIfPresent(key);
+	}
+
+	@Override
+	public V replace(K key, V v) {
+		localCache.put(key, v);
+		return v;
+	}
+
+	@Override
+	public V putIfAbsent(K key, V v) {
+		return localCache.asMap().putIfAbsent(key, v);
+	}
+
+	@Override
+	public boolean deleteIfPresent(K key) {
+		return localCache.asMap().remove(key) != null;
+	}
+
+	@Override
+	public long deleteByKeys(Collection<K> keys) {
+		long deleteCount = 0;
+		for (K key : keys) {
+			if (deleteIfPresent(key))
+				deleteCount++;
+		}
+		return deleteCount;
+	}
+
+	@Override
+	public void purgeCache() {
+		localCache.invalidateAll();
+		localCache.cleanUp();
+	}
+}
@@ -0,0 +1,133 @@
+package com.here.object.cache.data;
+
+import com.here.object.cache.config.redis.RedisCacheConfig;
+import com.here.object.cache.exceptions.NonUniqueKeyException;
+import com.here.object.cache.exceptions.ObjectNotSerialzableException;
+import com.here.object.cache.serializer.KeyCodec;
+import com.here.object.cache.serializer.Serializer;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.cluster.api.reactive.RedisClusterReactiveCommands;
+import io.lettuce.core.output.ValueOutput;
+import io.lettuce.core.protocol.CommandArgs;
+import io.lettuce.core.protocol.CommandType;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Redis backed {@link TypedDataCache}, the keys are stored as the id of the cache followed by the bytes written by the {@link KeyCodec}.
+ *
+ * @param <K> The type of the keys
+ * @param <V> The datatype that can be held within this cache
+ * @author amajha
+ */
+public class TypedRedisCache<K, V> implements TypedDataCache<K, V> {
+
+	private final String cacheId;
+	private final CacheKeyCodec<K, V> redisCodec;
+	private final RedisClientRegistry clientRegistry;
+	private final RedisClusterReactiveCommands<K, V> reactiveCommands;
+	private final long timeToLive;
+	private final AtomicBoolean closed = new AtomicBoolean();
+
+	/**
+	 * @param cacheConfig
+	 * @param keyCodec    encodes the keys
+	 */
+	public TypedRedisCache(RedisCacheConfig cacheConfig, KeyCodec<K> keyCodec) {
+		this.cacheId = cacheConfig.getCacheId() != null ? cacheConfig.getCacheId() : UUID.randomUUID().toString();
+		this.timeToLive = cacheConfig.getExpirationInMs();
+
+		final Serializer serializer = cacheConfig.getSerializer();
+		this.redisCodec = new CacheKeyCodec<>(cacheId, keyCodec, e -> serializer.serialize((Serializable) e), serializer::deserialize);
+		this.clientRegistry = RedisClientRegistry.acquire(cacheConfig);
+		// the codec embeds the cache id and the key codec, hence the connection is only shared with the caches using the same ones
+		this.reactiveCommands = clientRegistry.getReactiveCommands(Arrays.asList(TypedRedisCache.class, cacheId, keyCodec, serializer, cacheConfig.getReadPolicy()),
+				redisCodec, cacheConfig);
+	}
+
+	public String getCacheId() {
+		return cacheId;
+	}
+
+	private void validateSerializable(V v) {
+		if (!(v instanceof Serializable))
+			throw new ObjectNotSerialzableException("Non-Serializable objects cannot be stored on Redis");
+	}
+
+	@Override
+	public V store(K key, V v) {
+		validateSerializable(v);
+
+		SetArgs setArgs = SetArgs.Builder.nx();
+		if (timeToLive != 0)
+			setArgs.px(timeToLive);
+		if (reactiveCommands.set(key, v, setArgs).block() == null)
+			throw new NonUniqueKeyException("Key : " + key + " already present in the cache, to replace the value, use TypedDataCache::replace() instead.");
+		return v;
+	}
+
+	@Override
+	public V get(K key) {
+		return reactiveCommands.get(key).block();
+	}
+
+	@Override
+	public V replace(K key, V v) {
+		validateSerializable(v);
+
+		if (timeToLive != 0)
+			reactiveCommands.set(key, v, SetArgs.Builder.px(timeToLive)).block();
+		else
+			reactiveCommands.set(key, v).block();
+		return v;
+	}
+
+	@Override
+	public V putIfAbsent(K key, V v) {
+		validateSerializable(v);
+
+		CommandArgs<K, V> args = new CommandArgs<>(this.redisCodec).add(RedisCache.PUT_IF_ABSENT_SCRIPT).add(1)
+				.addKey(key).addValue(v).add(timeToLive);
+		return reactiveCommands.<V>dispatch(CommandType.EVAL, new ValueOutput<>(this.redisCodec), args).next().block();
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public boolean deleteIfPresent(K key) {
+		return reactiveCommands.del(key).block() != 0;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public long deleteByKeys(Collection<K> keys) {
+		if (keys.isEmpty())
+			return 0;
+		return reactiveCommands.del((K[]) keys.toArray()).block();
+	}
+
+	/**
+	 * Delete all keys of all existing databases
+	 */
+	@Override
+	public void purgeCache() {
+		reactiveCommands.flushall().block();
+	}
+
+	/**
+	 * Releases the connections to the Redis Cache
+	 */
+	public void closeClient() {
+		if (closed.compareAndSet(false, true))
+			clientRegistry.release();
+	}
+
+	@Override
+	protected void finalize() throws Throwable {
+		super.finalize();
+		closeClient();
+	}
+}
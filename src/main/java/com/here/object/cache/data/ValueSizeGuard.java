@@ -0,0 +1,91 @@
+package com.here.object.cache.data;
+
+import com.here.object.cache.config.redis.ValueSizeConfig;
+import com.here.object.cache.exceptions.ValueTooLargeException;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tracks the size of the values written to a {@link RedisCache}, see {@link ValueSizeConfig}.
+ * <p>
+ * The writes serialize their value on the writing thread and check its size before the value is sent,
+ * the bytes are then handed to the command as an {@link EncodedValue}, hence a value is serialized once
+ * and the bytes sent are always the ones checked.
+ *
+ * @author amajha
+ */
+final class ValueSizeGuard {
+
+	private static final int BUCKETS = 64;
+
+	private final String cacheId;
+	private final long largeValueThreshold;
+	private final long maxValueSize;
+	private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+	private final LongAdder totalBytes = new LongAdder();
+	private final LongAccumulator maxBytes = new LongAccumulator(Math::max, 0);
+	private final LongAdder largeValueCount = new LongAdder();
+	private final LongAdder rejectedCount = new LongAdder();
+	private final List<LargeValueListener> listeners = new CopyOnWriteArrayList<>();
+
+	ValueSizeGuard(ValueSizeConfig config, String cacheId) {
+		this.cacheId = cacheId;
+		this.largeValueThreshold = config.getLargeValueThresholdInBytes();
+		this.maxValueSize = config.getMaxValueSizeInBytes();
+	}
+
+	/**
+	 * Check the size of a value about to be written, the size is recorded unless the value is rejected
+	 *
+	 * @param sizeInBytes the size of the serialized value
+	 * @throws ValueTooLargeException if the value is larger than the max size
+	 */
+	void check(String key, int sizeInBytes) {
+		if (maxValueSize != 0 && sizeInBytes > maxValueSize) {
+			rejectedCount.increment();
+			report(new LargeValueEvent(cacheId, key, sizeInBytes, true));
+			throw new ValueTooLargeException("Value of " + sizeInBytes + " bytes larger than the max size of " + maxValueSize
+					+ " bytes for the key : " + key + " of the cache : " + cacheId);
+		}
+		if (sizeInBytes > largeValueThreshold) {
+			largeValueCount.increment();
+			report(new LargeValueEvent(cacheId, key, sizeInBytes, false));
+		}
+
+		histogram.incrementAndGet(Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(sizeInBytes)));
+		totalBytes.add(sizeInBytes);
+		maxBytes.accumulate(sizeInBytes);
+	}
+
+	/**
+	 * Notify the listeners, the large values are counted in the stats whether or not a listener is registered
+	 */
+	private void report(LargeValueEvent event) {
+		for (LargeValueListener listener : listeners) {
+			try {
+				listener.onLargeValue(event);
+			} catch (RuntimeException e) {
+				System.err.println("Large value listener failed for the cache " + cacheId + " : " + e);
+			}
+		}
+	}
+
+	void addListener(LargeValueListener listener) {
+		listeners.add(listener);
+	}
+
+	void removeListener(LargeValueListener listener) {
+		listeners.remove(listener);
+	}
+
+	ValueSizeStats stats() {
+		long[] counts = new long[BUCKETS];
+		for (int i = 0; i < BUCKETS; i++)
+			counts[i] = histogram.get(i);
+		return new ValueSizeStats(counts, totalBytes.sum(), maxBytes.get(), largeValueCount.sum(), rejectedCount.sum());
+	}
+}
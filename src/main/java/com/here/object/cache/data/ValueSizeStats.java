@@ -0,0 +1,99 @@
+package com.here.object.cache.data;
+
+/**
+ * Snapshot of the sizes of the serialized values written to a cache, the counts are cumulative since the cache was created.
+ * <p>
+ * The histogram has a bucket per power of two, the bucket <code>i</code> counts the sizes from <code>2^(i-1)</code> included
+ * to <code>2^i</code> excluded, the bucket 0 the empty values.
+ *
+ * @author amajha
+ */
+public final class ValueSizeStats {
+
+	private final long[] histogram;
+	private final long totalBytes;
+	private final long maxBytes;
+	private final long largeValueCount;
+	private final long rejectedCount;
+
+	ValueSizeStats(long[] histogram, long totalBytes, long maxBytes, long largeValueCount, long rejectedCount) {
+		this.histogram = histogram;
+		this.totalBytes = totalBytes;
+		this.maxBytes = maxBytes;
+		this.largeValueCount = largeValueCount;
+		this.rejectedCount = rejectedCount;
+	}
+
+	/**
+	 * @return the number of values written
+	 */
+	public long getCount() {
+		long count = 0;
+		for (long e : histogram)
+			count += e;
+		return count;
+	}
+
+	public long getTotalBytes() {
+		return totalBytes;
+	}
+
+	public long getMaxBytes() {
+		return maxBytes;
+	}
+
+	/**
+	 * @return the mean size of the values written, 0 if there was none
+	 */
+	public double getAverageBytes() {
+		long count = getCount();
+		return count == 0 ? 0 : (double) totalBytes / count;
+	}
+
+	/**
+	 * @return the number of values written larger than the threshold
+	 */
+	public long getLargeValueCount() {
+		return largeValueCount;
+	}
+
+	/**
+	 * @return the number of values rejected since larger than the max size, they are not part of the other counts
+	 */
+	public long getRejectedCount() {
+		return rejectedCount;
+	}
+
+	/**
+	 * @return a copy of the histogram of the sizes
+	 */
+	public long[] getHistogram() {
+		return histogram.clone();
+	}
+
+	/**
+	 * Estimate a percentile of the sizes from the histogram
+	 *
+	 * @param percentile the percentile, between 0 and 100
+	 * @return the upper bound of the bucket holding the percentile, hence at most twice the actual size, 0 if there was no value
+	 */
+	public long getPercentile(double percentile) {
+		if (percentile < 0 || percentile > 100)
+			throw new IllegalArgumentException("Percentile should be between 0 and 100 : " + percentile);
+
+		long rank = (long) Math.ceil(getCount() * percentile / 100);
+		long seen = 0;
+		for (int i = 0; i < histogram.length; i++) {
+			seen += histogram[i];
+			if (seen >= rank && seen > 0)
+				return i == 0 ? 0 : Math.min(maxBytes, (1L << i) - 1);
+		}
+		return 0;
+	}
+
+	@Override
+	public String toString() {
+		return "ValueSizeStats{count=" + getCount() + ", totalBytes=" + totalBytes + ", maxBytes=" + maxBytes + ", p99=" + getPercentile(99)
+				+ ", largeValueCount=" + largeValueCount + ", rejectedCount=" + rejectedCount + "}";
+	}
+}
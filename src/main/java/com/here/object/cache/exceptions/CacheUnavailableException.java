@@ -0,0 +1,57 @@
+package com.here.object.cache.exceptions;
+
+/**
+ * Thrown when a call is not sent to redis since the circuit breaker of the cache is open, see
+ * {@link com.here.object.cache.config.redis.CircuitBreakerConfig}
+ *
+ * @author amajha
+ *
+ */
+public class CacheUnavailableException extends RuntimeException {
+
+	/**
+	 * 
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * 
+	 */
+	public CacheUnavailableException() {
+		super();
+	}
+
+	/**
+	 * @param message
+	 * @param cause
+	 * @param enableSuppression
+	 * @param writableStackTrace
+	 */
+	public CacheUnavailableException(String message, Throwable cause, boolean enableSuppression,
+			boolean writableStackTrace) {
+		super(message, cause, enableSuppression, writableStackTrace);
+	}
+
+	/**
+	 * @param message
+	 * @param cause
+	 */
+	public CacheUnavailableException(String message, Throwable cause) {
+		super(message, cause);
+	}
+
+	/**
+	 * @param message
+	 */
+	public CacheUnavailableException(String message) {
+		super(message);
+	}
+
+	/**
+	 * @param cause
+	 */
+	public CacheUnavailableException(Throwable cause) {
+		super(cause);
+	}
+	
+}
@@ -0,0 +1,57 @@
+package com.here.object.cache.exceptions;
+
+/**
+ * Thrown when a value larger than the max size of the cache is written, see
+ * {@link com.here.object.cache.config.redis.ValueSizeConfig}
+ *
+ * @author amajha
+ *
+ */
+public class ValueTooLargeException extends RuntimeException {
+
+	/**
+	 * 
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * 
+	 */
+	public ValueTooLargeException() {
+		super();
+	}
+
+	/**
+	 * @param message
+	 * @param cause
+	 * @param enableSuppression
+	 * @param writableStackTrace
+	 */
+	public ValueTooLargeException(String message, Throwable cause, boolean enableSuppression,
+			boolean writableStackTrace) {
+		super(message, cause, enableSuppression, writableStackTrace);
+	}
+
+	/**
+	 * @param message
+	 * @param cause
+	 */
+	public ValueTooLargeException(String message, Throwable cause) {
+		super(message, cause);
+	}
+
+	/**
+	 * @param message
+	 */
+	public ValueTooLargeException(String message) {
+		super(message);
+	}
+
+	/**
+	 * @param cause
+	 */
+	public ValueTooLargeException(Throwable cause) {
+		super(cause);
+	}
+	
+}
@@ -0,0 +1,158 @@
+package com.here.object.cache.serializer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Encodes the keys of a typed cache straight to bytes, so that composite keys need not be concatenated into strings.
+ * The encoding must be deterministic: equal keys must always be encoded to the same bytes.
+ *
+ * @param <K> the type of the keys
+ * @author amajha
+ */
+public interface KeyCodec<K> {
+
+	/**
+	 * Encodes the keys as 8 bytes
+	 */
+	KeyCodec<Long> LONG = new KeyCodec<Long>() {
+		@Override
+		public int encodedLength(Long key) {
+			return Long.BYTES;
+		}
+
+		@Override
+		public void encode(Long key, ByteBuffer target) {
+			target.putLong(key);
+		}
+
+		@Override
+		public Long decode(ByteBuffer source) {
+			return source.getLong();
+		}
+	};
+
+	/**
+	 * Encodes the keys as 4 bytes
+	 */
+	KeyCodec<Integer> INTEGER = new KeyCodec<Integer>() {
+		@Override
+		public int encodedLength(Integer key) {
+			return Integer.BYTES;
+		}
+
+		@Override
+		public void encode(Integer key, ByteBuffer target) {
+			target.putInt(key);
+		}
+
+		@Override
+		public Integer decode(ByteBuffer source) {
+			return source.getInt();
+		}
+	};
+
+	/**
+	 * Encodes the keys as 16 bytes
+	 */
+	KeyCodec<java.util.UUID> UUID = new KeyCodec<java.util.UUID>() {
+		@Override
+		public int encodedLength(java.util.UUID key) {
+			return 2 * Long.BYTES;
+		}
+
+		@Override
+		public void encode(java.util.UUID key, ByteBuffer target) {
+			target.putLong(key.getMostSignificantBits()).putLong(key.getLeastSignificantBits());
+		}
+
+		@Override
+		public java.util.UUID decode(ByteBuffer source) {
+			return new java.util.UUID(source.getLong(), source.getLong());
+		}
+	};
+
+	/**
+	 * Encodes the keys as UTF-8, the encoded key takes up the rest of the buffer
+	 */
+	KeyCodec<String> STRING = new KeyCodec<String>() {
+		@Override
+		public int encodedLength(String key) {
+			return key.getBytes(StandardCharsets.UTF_8).length;
+		}
+
+		@Override
+		public void encode(String key, ByteBuffer target) {
+			target.put(key.getBytes(StandardCharsets.UTF_8));
+		}
+
+		@Override
+		public String decode(ByteBuffer source) {
+			byte[] bytes = new byte[source.remaining()];
+			source.get(bytes);
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+	};
+
+	/**
+	 * @param key the key
+	 * @return the number of bytes written by {@link #encode(Object, ByteBuffer)} for the key
+	 */
+	int encodedLength(K key);
+
+	/**
+	 * Write the key to the buffer
+	 *
+	 * @param key    the key
+	 * @param target the buffer with at-least {@link #encodedLength(Object)} bytes remaining
+	 */
+	void encode(K key, ByteBuffer target);
+
+	/**
+	 * Read a key from the buffer
+	 *
+	 * @param source the buffer positioned at the start of the encoded key
+	 * @return the key
+	 */
+	K decode(ByteBuffer source);
+
+	/**
+	 * Codec for keys made of two parts, the first part is prefixed by its length so that it may be of variable length.
+	 *
+	 * @param first       extracts the first part of the key
+	 * @param firstCodec  the codec of the first part
+	 * @param second      extracts the second part of the key
+	 * @param secondCodec the codec of the second part, takes up the rest of the buffer
+	 * @param constructor builds the key from its parts
+	 * @return the codec
+	 */
+	static <K, A, B> KeyCodec<K> composite(Function<K, A> first, KeyCodec<A> firstCodec,
+										   Function<K, B> second, KeyCodec<B> secondCodec,
+										   BiFunction<A, B, K> constructor) {
+		return new KeyCodec<K>() {
+			@Override
+			public int encodedLength(K key) {
+				return Integer.BYTES + firstCodec.encodedLength(first.apply(key)) + secondCodec.encodedLength(second.apply(key));
+			}
+
+			@Override
+			public void encode(K key, ByteBuffer target) {
+				A firstPart = first.apply(key);
+				target.putInt(firstCodec.encodedLength(firstPart));
+				firstCodec.encode(firstPart, target);
+				secondCodec.encode(second.apply(key), target);
+			}
+
+			@Override
+			public K decode(ByteBuffer source) {
+				int firstLength = source.getInt();
+				ByteBuffer firstPart = source.slice();
+				firstPart.limit(firstLength);
+				source.position(source.position() + firstLength);
+				return constructor.apply(firstCodec.decode(firstPart), secondCodec.decode(source));
+			}
+		};
+	}
+}
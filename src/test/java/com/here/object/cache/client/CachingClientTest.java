@@ -5,26 +5,68 @@ import com.amazonaws.services.elasticache.model.*;
 import com.here.object.cache.builder.CacheBuilder;
 import com.here.object.cache.config.CachingMode;
 import com.here.object.cache.config.ObjectCacheClientConfig;
+import com.here.object.cache.config.local.LocalCacheConfig;
+import com.here.object.cache.config.local.WeightEstimate;
+import com.here.object.cache.config.redis.BloomFilterConfig;
+import com.here.object.cache.config.redis.ChangeFeedConfig;
+import com.here.object.cache.config.redis.CircuitBreakerConfig;
+import com.here.object.cache.config.redis.ReadPolicy;
 import com.here.object.cache.config.redis.ServerAddress;
+import com.here.object.cache.config.redis.ValueSizeConfig;
+import com.here.object.cache.data.CacheBatch;
+import com.here.object.cache.data.CacheLock;
+import com.here.object.cache.data.CacheOperation;
+import com.here.object.cache.data.CacheOperationListener;
+import com.here.object.cache.data.CacheStats;
+import com.here.object.cache.data.CacheTier;
+import com.here.object.cache.data.CacheTransaction;
+import com.here.object.cache.data.ChangeEvent;
+import com.here.object.cache.data.ChangeFeedConsumer;
 import com.here.object.cache.data.DataCache;
+import com.here.object.cache.data.EvictionEvent;
+import com.here.object.cache.data.LargeValueEvent;
+import com.here.object.cache.data.LocalCache;
+import com.here.object.cache.data.LongCounterCache;
+import com.here.object.cache.data.LongKeyDataCache;
+import com.here.object.cache.data.PipelineStats;
+import com.here.object.cache.data.ReactiveDataCache;
 import com.here.object.cache.data.RedisCache;
+import com.here.object.cache.data.TypedDataCache;
+import com.here.object.cache.data.ValueSizeStats;
+import com.here.object.cache.exceptions.CacheUnavailableException;
+import com.here.object.cache.exceptions.InvalidConfigException;
+import com.here.object.cache.exceptions.NonUniqueKeyException;
+import com.here.object.cache.exceptions.ValueTooLargeException;
 import com.here.object.cache.serializer.ByteSerializer;
+import com.here.object.cache.serializer.KeyCodec;
 import com.here.object.cache.serializer.Serializer;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisException;
 import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.sync.RedisCommands;
 import io.lettuce.core.cluster.RedisClusterClient;
 import io.lettuce.core.codec.RedisCodec;
+import org.apache.commons.lang3.StringUtils;
 import org.junit.*;
 import org.mockito.Mockito;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import redis.embedded.RedisSentinel;
 import redis.embedded.RedisServer;
 
 import java.io.Serializable;
 import java.lang.reflect.Field;
 import java.nio.ByteBuffer;
+import java.nio.file.Files;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 
@@ -339,6 +381,783 @@ public class CachingClientTest {
 
 	}
 
+	@Test
+	public void testReadFromReplica() throws Exception {
+		int replicaPort = redisServerPort + 1;
+		RedisServer replicaServer = RedisServer.builder().port(replicaPort).slaveOf("localhost", redisServerPort).build();
+		replicaServer.start();
+		RedisClient statsClient = RedisClient.create();
+		try {
+			RedisCommands<String, String> master = statsClient.connect(RedisURI.create("localhost", redisServerPort)).sync();
+			RedisCommands<String, String> replica = statsClient.connect(RedisURI.create("localhost", replicaPort)).sync();
+
+			for (ReadPolicy readPolicy : Arrays.asList(ReadPolicy.REPLICA, ReadPolicy.REPLICA_PREFERRED)) {
+				DataCache<String> cache = CacheBuilder.newBuilder().withCachingMode(CachingMode.STAND_ALONE_REDIS_CACHE)
+						.withCacheId("replica-cache-" + readPolicy)
+						.withServerAddresses(new ServerAddress("localhost", redisServerPort, false), new ServerAddress("localhost", replicaPort, false))
+						.withReadPolicy(readPolicy).build();
+
+				String key = "TEST_KEY";
+				String value = "TEST_VALUE";
+				cache.store(key, value);
+
+				//Allow the replica to catch up with the master
+				TimeUnit.SECONDS.sleep(1);
+				master.configResetstat();
+				replica.configResetstat();
+				for (int i = 0; i < 10; i++)
+					Assert.assertEquals(value, cache.get(key));
+				cache.replace(key, "OTHER_VALUE");
+
+				// the reads are served by the replica, the writes by the master
+				Assert.assertEquals(10, getCommandCalls(replica, "get"));
+				Assert.assertEquals(0, getCommandCalls(master, "get"));
+				Assert.assertEquals(1, getCommandCalls(master, "set"));
+				Assert.assertTrue(cache.deleteIfPresent(key));
+			}
+		} finally {
+			statsClient.shutdown();
+			replicaServer.stop();
+		}
+	}
+
+	/**
+	 * @return the number of calls of the command since the last reset of the statistics of the server
+	 */
+	private static long getCommandCalls(RedisCommands<String, String> commands, String command) {
+		for (String line : commands.info("commandstats").split("\r?\n")) {
+			if (line.startsWith("cmdstat_" + command + ":")) {
+				int start = line.indexOf("calls=") + "calls=".length();
+				return Long.parseLong(line.substring(start, line.indexOf(',', start)));
+			}
+		}
+		return 0;
+	}
+
+	@Test
+	public void testSentinelMode() {
+		int sentinelPort = redisServerPort + 2;
+		RedisSentinel sentinel = RedisSentinel.builder().port(sentinelPort).masterPort(redisServerPort).masterName("test-master").build();
+		sentinel.start();
+		try {
+			DataCache<String> cache = CacheBuilder.newBuilder().withCachingMode(CachingMode.SENTINEL)
+					.withCacheId("sentinel-cache").withSentinelMaster("test-master")
+					.withServerAddress(new ServerAddress("localhost", sentinelPort, false)).build();
+
+			String key = "TEST_KEY";
+			String value = "TEST_VALUE";
+			cache.store(key, value);
+			Assert.assertEquals(value, cache.get(key));
+			Assert.assertTrue(cache.deleteIfPresent(key));
+		} finally {
+			sentinel.stop();
+		}
+	}
+
+	@Test
+	public void testMasterReplicaMode() {
+		DataCache<String> cache = CacheBuilder.newBuilder().withCachingMode(CachingMode.MASTER_REPLICA)
+				.withCacheId("master-replica-cache")
+				.withServerAddress(new ServerAddress("localhost", redisServerPort, false)).build();
+
+		String key = "TEST_KEY";
+		String value = "TEST_VALUE";
+		cache.store(key, value);
+		Assert.assertEquals(value, cache.get(key));
+		Assert.assertTrue(cache.deleteIfPresent(key));
+	}
+
+	@Test(expected = InvalidConfigException.class)
+	public void testSentinelModeWithoutMaster() {
+		CacheBuilder.newBuilder().withCachingMode(CachingMode.SENTINEL)
+				.withServerAddress(new ServerAddress("localhost", redisServerPort, false)).build();
+	}
+
+	@Test
+	public void testAtomicOperations() {
+		ServerAddress serverAddress = new ServerAddress("localhost", redisServerPort, false);
+		DataCache<String> remoteCache = CacheBuilder.newBuilder().withCachingMode(CachingMode.STAND_ALONE_REDIS_CACHE)
+				.withCacheId("atomic-cache").withLocalCache().withServerAddress(serverAddress).build();
+		DataCache<String> localCache = CacheBuilder.newBuilder().withCachingMode(CachingMode.LOCAL_JVM_CACHE).build();
+
+		for (DataCache<String> cache : Arrays.asList(remoteCache, localCache)) {
+			String key = "ATOMIC_KEY";
+			cache.deleteIfPresent(key);
+
+			Assert.assertFalse(cache.replaceIfPresent(key, "v0"));
+			Assert.assertNull(cache.putIfAbsent(key, "v1"));
+			Assert.assertEquals("v1", cache.putIfAbsent(key, "v2"));
+			Assert.assertTrue(cache.replaceIfPresent(key, "v2"));
+
+			Assert.assertFalse(cache.compareAndReplace(key, "v1", "v3"));
+			Assert.assertTrue(cache.compareAndReplace(key, "v2", "v3"));
+			Assert.assertEquals("v3", cache.get(key));
+
+			Assert.assertEquals("v3", cache.getAndSet(key, "v4"));
+			Assert.assertEquals("v4", cache.getAndDelete(key));
+			Assert.assertNull(cache.getAndDelete(key));
+
+			Assert.assertEquals("v5", cache.computeIfAbsent(key, e -> "v5"));
+			Assert.assertEquals("v5", cache.computeIfAbsent(key, e -> "v6"));
+			cache.deleteIfPresent(key);
+		}
+
+		// the loader is not run for a missing key, the mapping function is
+		AtomicInteger loads = new AtomicInteger();
+		DataCache<String> loadingCache = CacheBuilder.newBuilder().withCachingMode(CachingMode.STAND_ALONE_REDIS_CACHE)
+				.withCacheId("atomic-loading-cache").withServerAddress(serverAddress).build(key -> "loaded-" + loads.incrementAndGet());
+		loadingCache.deleteIfPresent("ATOMIC_KEY");
+		Assert.assertEquals("computed", loadingCache.computeIfAbsent("ATOMIC_KEY", e -> "computed"));
+		Assert.assertEquals("computed", loadingCache.get("ATOMIC_KEY"));
+		Assert.assertEquals(0, loads.get());
+		loadingCache.deleteIfPresent("ATOMIC_KEY");
+	}
+
+	@Test
+	public void testLocalCacheSnapshot() throws Exception {
+		String snapshotDirectory = Files.createTempDirectory("object-cache").toString();
+		LocalCache<String> cache = (LocalCache<String>) CacheBuilder.newBuilder().withCachingMode(CachingMode.LOCAL_JVM_CACHE)
+				.withCacheId("snapshot-cache").withLocalCacheSnapshot(snapshotDirectory, 0, TimeUnit.SECONDS).<String>build();
+
+		cache.store("key", "value");
+		cache.saveSnapshot();
+		cache.deleteCacheReference();
+
+		DataCache<String> restoredCache = CacheBuilder.newBuilder().withCachingMode(CachingMode.LOCAL_JVM_CACHE)
+				.withCacheId("snapshot-cache").withLocalCacheSnapshot(snapshotDirectory, 0, TimeUnit.SECONDS).build();
+		Assert.assertNotSame(cache, restoredCache);
+		Assert.assertEquals("value", restoredCache.get("key"));
+		Assert.assertNull(restoredCache.get("missing-key"));
+	}
+
+	@Test
+	public void testLocalCacheSnapshotDeleteBeforeLoad() throws Exception {
+		String snapshotDirectory = Files.createTempDirectory("object-cache").toString();
+		LocalCache<String> cache = (LocalCache<String>) CacheBuilder.newBuilder().withCachingMode(CachingMode.LOCAL_JVM_CACHE)
+				.withCacheId("snapshot-delete-cache").withLocalCacheSnapshot(snapshotDirectory, 0, TimeUnit.SECONDS).<String>build();
+
+		cache.store("deleted", "value");
+		cache.store("purged", "value");
+		cache.store("stored", "value");
+		cache.saveSnapshot();
+		cache.deleteCacheReference();
+
+		DataCache<String> restoredCache = CacheBuilder.newBuilder().withCachingMode(CachingMode.LOCAL_JVM_CACHE)
+				.withCacheId("snapshot-delete-cache").withLocalCacheSnapshot(snapshotDirectory, 0, TimeUnit.SECONDS).build();
+		Assert.assertEquals(new HashSet<>(Arrays.asList("deleted", "purged", "stored")), restoredCache.getAllKeys());
+
+		// the restored keys are not loaded yet
+		Assert.assertTrue(restoredCache.deleteIfPresent("deleted"));
+		Assert.assertNull(restoredCache.get("deleted"));
+		try {
+			restoredCache.store("stored", "other");
+			Assert.fail("The key restored from the snapshot is present");
+		} catch (NonUniqueKeyException e) {
+			Assert.assertEquals("value", restoredCache.get("stored"));
+		}
+
+		restoredCache.purgeCache();
+		Assert.assertNull(restoredCache.get("purged"));
+		Assert.assertTrue(restoredCache.getAllKeys().isEmpty());
+	}
+
+	@Test
+	public void testLocalDiskCache() throws Exception {
+		LocalCacheConfig cacheConfig = new LocalCacheConfig(2, 1, TimeUnit.HOURS);
+		cacheConfig.withDiskCache(Files.createTempDirectory("object-cache").toString(), 8 * 1024 * 1024);
+		LocalCache<String> cache = new LocalCache<>(cacheConfig, "disk-cache");
+
+		IntStream.range(0, 100).forEach(e -> cache.store("key" + e, "value" + e));
+		Assert.assertEquals(100, cache.getAllKeys().size());
+		Assert.assertEquals("value10", cache.get("key10"));
+		Assert.assertTrue(cache.deleteIfPresent("key20"));
+		Assert.assertNull(cache.get("key20"));
+		cache.deleteCacheReference();
+
+		// the segments fit a budget smaller than the default segment size
+		java.nio.file.Path smallDirectory = Files.createTempDirectory("object-cache");
+		LocalCacheConfig smallConfig = new LocalCacheConfig(2, 1, TimeUnit.HOURS);
+		smallConfig.withDiskCache(smallDirectory.toString(), 512 * 1024);
+		LocalCache<String> smallCache = new LocalCache<>(smallConfig, "small-disk-cache");
+		char[] chars = new char[4000];
+		Arrays.fill(chars, 'x');
+		IntStream.range(0, 1000).forEach(e -> smallCache.store("key" + e, new String(chars) + e));
+		long diskSize;
+		try (java.util.stream.Stream<java.nio.file.Path> files = Files.walk(smallDirectory)) {
+			diskSize = files.filter(Files::isRegularFile).mapToLong(e -> e.toFile().length()).sum();
+		}
+		Assert.assertTrue(diskSize <= 512 * 1024);
+		Assert.assertEquals(4003, smallCache.get("key999").length());
+		smallCache.deleteCacheReference();
+	}
+
+	@Test
+	public void testLocalCacheMaxWeight() {
+		DataCache<String> cache = CacheBuilder.newBuilder().withCachingMode(CachingMode.LOCAL_JVM_CACHE)
+				.withMaxWeight(100 * 1024, WeightEstimate.ESTIMATED).withSoftValues().build();
+
+		// each entry weighs about 2KB
+		char[] chars = new char[1000];
+		Arrays.fill(chars, 'x');
+		IntStream.range(0, 1000).forEach(e -> cache.store("key" + e, new String(chars) + e));
+		int size = cache.getAllKeys().size();
+		Assert.assertTrue(size > 0 && size < 100);
+		Assert.assertEquals(1003, cache.get("key999").length());
+	}
+
+	@Test
+	public void testLocalCacheStats() throws InterruptedException {
+		LocalCache<String> cache = new LocalCache<>(new LocalCacheConfig(2, 1, TimeUnit.HOURS), "stats-cache");
+		CountDownLatch evicted = new CountDownLatch(1);
+		cache.addEvictionListener(event -> {
+			if (event.getCause() == EvictionEvent.Cause.SIZE && "key2".equals(event.getKey()))
+				evicted.countDown();
+		});
+
+		cache.store("key1", "value1");
+		cache.store("key2", "value2");
+		Assert.assertEquals("value1", cache.get("key1"));
+		Assert.assertNull(cache.get("key3"));
+		cache.store("key3", "value3");
+		Assert.assertTrue(evicted.await(5, TimeUnit.SECONDS));
+
+		CacheStats stats = cache.stats();
+		Assert.assertEquals(1, stats.getHitCount());
+		Assert.assertEquals(1, stats.getMissCount());
+		Assert.assertEquals(1, stats.getSizeEvictionCount());
+		Assert.assertEquals(0, stats.getDroppedEventCount());
+	}
+
+	@Test
+	public void testLongKeyCache() {
+		LongKeyDataCache<String> localCache = CacheBuilder.newBuilder().withCachingMode(CachingMode.LOCAL_JVM_CACHE).buildLongKeyCache();
+		localCache.store(42L, "value");
+		Assert.assertEquals("value", localCache.get(42L));
+		Assert.assertEquals("value", localCache.putIfAbsent(42L, "other"));
+		Assert.assertTrue(localCache.deleteIfPresent(42L));
+		Assert.assertNull(localCache.get(42L));
+
+		ServerAddress serverAddress = new ServerAddress("localhost", redisServerPort, false);
+		LongKeyDataCache<String> remoteCache = CacheBuilder.newBuilder().withCachingMode(CachingMode.STAND_ALONE_REDIS_CACHE)
+				.withCacheId("long-key-cache").withServerAddress(serverAddress).buildLongKeyCache();
+		remoteCache.replace(Long.MAX_VALUE, "value");
+		Assert.assertEquals("value", remoteCache.get(Long.MAX_VALUE));
+		Assert.assertNull(remoteCache.putIfAbsent(-1L, "other"));
+		Assert.assertEquals(2, remoteCache.deleteByKeys(Long.MAX_VALUE, -1L));
+
+		LongCounterCache counterCache = CacheBuilder.newBuilder().withCachingMode(CachingMode.STAND_ALONE_REDIS_CACHE)
+				.withCacheId("counter-cache").withServerAddress(serverAddress).withTTL(1, TimeUnit.MINUTES).buildCounterCache();
+		Assert.assertEquals(1, counterCache.increment(7L));
+		Assert.assertEquals(11, counterCache.incrementBy(7L, 10));
+		Assert.assertEquals(11, counterCache.get(7L));
+		Assert.assertTrue(counterCache.deleteIfPresent(7L));
+	}
+
+	@Test
+	public void testTypedKeyCache() {
+		KeyCodec<Map.Entry<String, Long>> keyCodec = KeyCodec.composite(Map.Entry::getKey, KeyCodec.STRING,
+				Map.Entry::getValue, KeyCodec.LONG, AbstractMap.SimpleImmutableEntry::new);
+		ServerAddress serverAddress = new ServerAddress("localhost", redisServerPort, false);
+		TypedDataCache<Map.Entry<String, Long>, String> cache = CacheBuilder.newBuilder().withCachingMode(CachingMode.STAND_ALONE_REDIS_CACHE)
+				.withCacheId("typed-cache").withServerAddress(serverAddress).buildTypedCache(keyCodec);
+
+		Map.Entry<String, Long> key = new AbstractMap.SimpleImmutableEntry<>("tenant", 42L);
+		cache.store(key, "value");
+		Assert.assertEquals("value", cache.get(new AbstractMap.SimpleImmutableEntry<>("tenant", 42L)));
+		Assert.assertNull(cache.get(new AbstractMap.SimpleImmutableEntry<>("tenant", 43L)));
+		Assert.assertEquals(1, cache.deleteByKeys(Collections.singletonList(key)));
+	}
+
+	@Test
+	public void testReactiveCache() {
+		ServerAddress serverAddress = new ServerAddress("localhost", redisServerPort, false);
+		ReactiveDataCache<String> cache = CacheBuilder.newBuilder().withCachingMode(CachingMode.STAND_ALONE_REDIS_CACHE)
+				.withCacheId("reactive-cache").withServerAddress(serverAddress).withLocalCache().buildReactive();
+
+		Assert.assertEquals("value", cache.store("key", "value").block());
+		try {
+			cache.store("key", "other").block();
+			Assert.fail("NonUniqueKeyException expected");
+		} catch (NonUniqueKeyException e) {
+			// expected
+		}
+		Assert.assertEquals("value", cache.get("key").block());
+
+		Map<String, String> batch = new HashMap<>();
+		IntStream.range(0, 250).forEach(e -> batch.put("batch" + e, "value" + e));
+		cache.storeBatch(batch).block();
+		Assert.assertEquals(250, cache.getAll(batch.keySet()).count().block().longValue());
+		Assert.assertEquals(10, cache.scan("batch").take(10).count().block().longValue());
+
+		Assert.assertTrue(cache.delete("key").block());
+		Assert.assertNull(cache.get("key").block());
+	}
+
+	@Test
+	public void testShardedMode() {
+		int shardPort = redisServerPort + 3;
+		RedisServer shardServer = RedisServer.builder().port(shardPort).build();
+		shardServer.start();
+		try {
+			DataCache<String> cache = CacheBuilder.newBuilder().withCachingMode(CachingMode.SHARDED_REDIS_CACHE)
+					.withCacheId("sharded-cache")
+					.withServerAddresses(new ServerAddress("localhost", redisServerPort, false), new ServerAddress("localhost", shardPort, false).withWeight(2))
+					.build();
+
+			Map<String, String> batch = new HashMap<>();
+			IntStream.range(0, 300).forEach(e -> batch.put("shard" + e, "value" + e));
+			Assert.assertTrue(cache.storeBatch(batch, 10, TimeUnit.SECONDS));
+			Assert.assertEquals("value10", cache.get("shard10"));
+			Assert.assertEquals(300, cache.getKeyListByPattern("shard").size());
+
+			// both servers hold a share of the keys
+			DataCache<String> shardCache = CacheBuilder.newBuilder().withCachingMode(CachingMode.STAND_ALONE_REDIS_CACHE)
+					.withCacheId("sharded-cache").withServerAddress(new ServerAddress("localhost", shardPort, false)).build();
+			int shardKeys = shardCache.getKeyListByPattern("shard").size();
+			Assert.assertTrue(shardKeys > 0 && shardKeys < 300);
+
+			Assert.assertEquals(300, cache.deleteByKeys(batch.keySet().toArray(new String[0])));
+		} finally {
+			shardServer.stop();
+		}
+	}
+
+	@Test
+	public void testEarlyExpiration() throws InterruptedException {
+		ServerAddress serverAddress = new ServerAddress("localhost", redisServerPort, false);
+		AtomicInteger loads = new AtomicInteger();
+		// the expected load time outweighs the time to live, hence every read triggers a refresh
+		DataCache<String> cache = CacheBuilder.newBuilder().withCachingMode(CachingMode.STAND_ALONE_REDIS_CACHE)
+				.withCacheId("early-expiration-cache").withServerAddress(serverAddress).withTTL(1, TimeUnit.MINUTES)
+				.withTtlJitter(0.5).withEarlyExpiration(1, 1, TimeUnit.HOURS)
+				.build(key -> "loaded-" + loads.incrementAndGet());
+
+		cache.store("key", "value");
+		Assert.assertEquals("value", cache.get("key"));
+		for (int i = 0; i < 50 && !cache.get("key").startsWith("loaded-"); i++)
+			Thread.sleep(100);
+		Assert.assertTrue(cache.get("key").startsWith("loaded-"));
+		Assert.assertTrue(loads.get() >= 1);
+		cache.deleteIfPresent("key");
+	}
+
+	@Test
+	public void testNegativeCaching() {
+		AtomicInteger loads = new AtomicInteger();
+		DataCache<String> localCache = CacheBuilder.newBuilder().withCachingMode(CachingMode.LOCAL_JVM_CACHE)
+				.withNegativeCaching(1, TimeUnit.MINUTES).build(key -> {
+					loads.incrementAndGet();
+					return null;
+				});
+		Assert.assertNull(localCache.get("missing"));
+		Assert.assertNull(localCache.get("missing"));
+		Assert.assertEquals(1, loads.get());
+		Assert.assertEquals(1, localCache.stats().getNegativeHitCount());
+		// a write clears the miss
+		localCache.store("missing", "value");
+		Assert.assertEquals("value", localCache.get("missing"));
+
+		ServerAddress serverAddress = new ServerAddress("localhost", redisServerPort, false);
+		DataCache<String> remoteCache = CacheBuilder.newBuilder().withCachingMode(CachingMode.STAND_ALONE_REDIS_CACHE)
+				.withCacheId("negative-cache").withServerAddress(serverAddress).withNegativeCaching(1, TimeUnit.MINUTES)
+				.build(key -> {
+					loads.incrementAndGet();
+					return null;
+				});
+		Assert.assertNull(remoteCache.get("missing"));
+		Assert.assertNull(remoteCache.get("missing"));
+		Assert.assertEquals(2, loads.get());
+		Assert.assertEquals(1, remoteCache.stats().getNegativeHitCount());
+	}
+
+	@Test
+	public void testBloomFilterGuard() throws InterruptedException {
+		ServerAddress serverAddress = new ServerAddress("localhost", redisServerPort, false);
+		DataCache<String> guardedCache = CacheBuilder.newBuilder().withCachingMode(CachingMode.STAND_ALONE_REDIS_CACHE)
+				.withCacheId("bloom-cache").withServerAddress(serverAddress)
+				.withBloomFilter(new BloomFilterConfig(1000, 0.01).withRebuildInterval(1, TimeUnit.HOURS)).build();
+		DataCache<String> otherCache = CacheBuilder.newBuilder().withCachingMode(CachingMode.STAND_ALONE_REDIS_CACHE)
+				.withCacheId("bloom-cache").withServerAddress(serverAddress).build();
+		// let the first rebuild of the filter complete
+		Thread.sleep(1000);
+
+		guardedCache.store("key", "value");
+		Assert.assertEquals("value", guardedCache.get("key"));
+		Assert.assertNull(guardedCache.get("absent"));
+
+		// a key written without the filter is unknown to it until the next rebuild
+		otherCache.store("other", "value");
+		Assert.assertNull(guardedCache.get("other"));
+		Assert.assertEquals("value", otherCache.get("other"));
+		guardedCache.deleteByKeys("key", "other");
+	}
+
+	@Test
+	public void testCacheBatch() throws Exception {
+		DataCache<String> cache = CacheBuilder.newBuilder().withCachingMode(CachingMode.STAND_ALONE_REDIS_CACHE)
+				.withCacheId("batch-cache").withServerAddress(new ServerAddress("localhost", redisServerPort, false)).build();
+		cache.store("a", "1");
+		cache.store("c", "3");
+
+		CacheBatch<String> batch = cache.batch();
+		CompletableFuture<String> a = batch.get("a");
+		CompletableFuture<String> b = batch.store("b", "2");
+		CompletableFuture<String> duplicate = batch.store("a", "other");
+		CompletableFuture<Boolean> c = batch.delete("c");
+		CompletableFuture<String> missing = batch.get("missing");
+		Assert.assertFalse(a.isDone());
+
+		try {
+			batch.execute().get(5, TimeUnit.SECONDS);
+			Assert.fail("the duplicate store should fail the batch");
+		} catch (ExecutionException e) {
+			Assert.assertTrue(e.getCause() instanceof NonUniqueKeyException);
+		}
+		Assert.assertEquals("1", a.get());
+		Assert.assertEquals("2", b.get());
+		Assert.assertTrue(duplicate.isCompletedExceptionally());
+		Assert.assertTrue(c.get());
+		Assert.assertNull(missing.get());
+		Assert.assertEquals("2", cache.get("b"));
+		Assert.assertNull(cache.get("c"));
+		cache.deleteByKeys("a", "b");
+	}
+
+	@Test
+	public void testCacheTransaction() throws Exception {
+		DataCache<String> cache = CacheBuilder.newBuilder().withCachingMode(CachingMode.STAND_ALONE_REDIS_CACHE)
+				.withCacheId("transaction-cache").withServerAddress(new ServerAddress("localhost", redisServerPort, false)).build();
+		DataCache<String> localCache = CacheBuilder.newBuilder().withCachingMode(CachingMode.LOCAL_JVM_CACHE).build();
+
+		for (DataCache<String> dataCache : Arrays.asList(cache, localCache)) {
+			dataCache.replace("from", "10");
+			dataCache.replace("to", "0");
+
+			try (CacheTransaction<String> transaction = dataCache.transaction().watch("from", "to")) {
+				dataCache.replace("from", "5");
+				transaction.replace("from", "0");
+				CompletableFuture<String> to = transaction.replace("to", "10");
+				Assert.assertFalse(transaction.execute().get(5, TimeUnit.SECONDS));
+				Assert.assertTrue(to.isCompletedExceptionally());
+			}
+			Assert.assertEquals("5", dataCache.get("from"));
+
+			CacheTransaction<String> transaction = dataCache.transaction().watch("from", "to");
+			transaction.replace("from", "0");
+			transaction.replace("to", "5");
+			CompletableFuture<String> duplicate = transaction.store("to", "other");
+			CompletableFuture<Boolean> deleted = transaction.delete("missing");
+			Assert.assertTrue(transaction.execute().get(5, TimeUnit.SECONDS));
+			Assert.assertTrue(duplicate.isCompletedExceptionally());
+			Assert.assertFalse(deleted.get());
+			Assert.assertEquals("0", dataCache.get("from"));
+			Assert.assertEquals("5", dataCache.get("to"));
+			dataCache.deleteByKeys("from", "to");
+		}
+	}
+
+	@Test
+	public void testLocalTransactionDuringComputeIfAbsent() throws Exception {
+		DataCache<String> cache = CacheBuilder.newBuilder().withCachingMode(CachingMode.LOCAL_JVM_CACHE).build();
+		CacheTransaction<String> transaction = cache.transaction().watch("b");
+		transaction.replace("b", "2");
+
+		// the mapping function writes the cache while the commit waits for the lock it holds
+		CountDownLatch computing = new CountDownLatch(1);
+		CompletableFuture<String> computed = CompletableFuture.supplyAsync(() -> cache.computeIfAbsent("a", key -> {
+			computing.countDown();
+			try {
+				Thread.sleep(200);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			cache.store("b", "1");
+			return "x";
+		}));
+		computing.await(5, TimeUnit.SECONDS);
+		CompletableFuture<Boolean> committed = CompletableFuture.supplyAsync(() -> transaction.execute().join());
+
+		Assert.assertEquals("x", computed.get(5, TimeUnit.SECONDS));
+		Assert.assertFalse(committed.get(5, TimeUnit.SECONDS));
+		Assert.assertEquals("1", cache.get("b"));
+	}
+
+	@Test
+	public void testCacheLock() throws Exception {
+		DataCache<String> cache = CacheBuilder.newBuilder().withCachingMode(CachingMode.STAND_ALONE_REDIS_CACHE)
+				.withCacheId("lock-cache").withServerAddress(new ServerAddress("localhost", redisServerPort, false)).build();
+
+		CacheLock lock = cache.getLock("job");
+		Assert.assertTrue(lock.tryLock());
+		long token = lock.getFencingToken();
+		lock.lock();
+		Assert.assertEquals(2, lock.getHoldCount());
+
+		// another thread waits for the release
+		CompletableFuture<Long> other = CompletableFuture.supplyAsync(() -> {
+			CacheLock otherLock = cache.getLock("job");
+			otherLock.lock();
+			try {
+				return otherLock.getFencingToken();
+			} finally {
+				otherLock.unlock();
+			}
+		});
+		Thread.sleep(200);
+		Assert.assertFalse(other.isDone());
+
+		lock.unlock();
+		Assert.assertTrue(lock.isLocked());
+		lock.unlock();
+		Assert.assertTrue(other.get(5, TimeUnit.SECONDS) > token);
+		Assert.assertFalse(lock.isLocked());
+	}
+
+	@Test
+	public void testChangeFeed() {
+		RedisCache<String> cache = (RedisCache<String>) CacheBuilder.newBuilder().withCachingMode(CachingMode.STAND_ALONE_REDIS_CACHE)
+				.withCacheId("feed-cache").withServerAddress(new ServerAddress("localhost", redisServerPort, false))
+				.withChangeFeed(new ChangeFeedConfig().withMaxLength(1000)).<String>build();
+
+		try (ChangeFeedConsumer consumer = cache.consumeChanges("derived", "consumer-1")) {
+			cache.store("key", "value");
+			cache.replace("key", "other");
+			cache.deleteByKeys("key");
+
+			// the events are appended asynchronously
+			List<ChangeEvent> events = new ArrayList<>();
+			for (int i = 0; i < 10 && events.size() < 3; i++)
+				events.addAll(consumer.poll(10, 500, TimeUnit.MILLISECONDS));
+			Assert.assertEquals(Arrays.asList(ChangeEvent.Type.STORED, ChangeEvent.Type.REPLACED, ChangeEvent.Type.DELETED),
+					events.stream().map(ChangeEvent::getType).collect(Collectors.toList()));
+			Assert.assertTrue(events.stream().allMatch(e -> "key".equals(e.getKey())));
+
+			// the events stay pending until acknowledged
+			Assert.assertEquals(3, consumer.pollPending(10).size());
+			Assert.assertEquals(3, consumer.acknowledge(events));
+			Assert.assertTrue(consumer.pollPending(10).isEmpty());
+		}
+	}
+
+	@Test
+	public void testCircuitBreakerFallback() throws Exception {
+		int breakerPort = redisServerPort + 4;
+		RedisServer breakerServer = RedisServer.builder().port(breakerPort).build();
+		breakerServer.start();
+
+		RedisCache<String> cache = (RedisCache<String>) CacheBuilder.newBuilder().withCachingMode(CachingMode.STAND_ALONE_REDIS_CACHE)
+				.withCacheId("breaker-cache").withServerAddress(new ServerAddress("localhost", breakerPort, false)).withLocalCache()
+				.withTimeouts(200, 200, TimeUnit.MILLISECONDS)
+				.withCircuitBreaker(new CircuitBreakerConfig().withSlidingWindow(4, 2).withWaitInOpenState(1, TimeUnit.MINUTES, 1)
+						.withWriteFallback(CircuitBreakerConfig.WriteFallback.QUEUE, 100))
+				.<String>build();
+		cache.store("key", "value");
+
+		breakerServer.stop();
+		// the failed calls open the breaker
+		for (int i = 0; i < 4 && cache.isRemoteAvailable(); i++) {
+			try {
+				cache.replace("other", "value");
+			} catch (RedisException e) {
+				// expected while the breaker is closed
+			}
+		}
+		Assert.assertFalse(cache.isRemoteAvailable());
+
+		// the local copy is served and the writes are held back
+		Assert.assertEquals("value", cache.get("key"));
+		Assert.assertEquals("new-value", cache.replace("key", "new-value"));
+		Assert.assertEquals("new-value", cache.get("key"));
+		try {
+			cache.putIfAbsent("absent", "value");
+			Assert.fail("CacheUnavailableException expected");
+		} catch (CacheUnavailableException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testLocalCacheWarmUp() throws Exception {
+		ServerAddress serverAddress = new ServerAddress("localhost", redisServerPort, false);
+		DataCache<String> cache = CacheBuilder.newBuilder().withCachingMode(CachingMode.STAND_ALONE_REDIS_CACHE)
+				.withCacheId("warm-up-cache").withServerAddress(serverAddress).build();
+		IntStream.range(0, 250).forEach(e -> cache.replace("warm" + e, "value" + e));
+		IntStream.range(0, 50).forEach(e -> cache.replace("cold" + e, "value" + e));
+
+		RedisCache<String> warmCache = (RedisCache<String>) CacheBuilder.newBuilder().withCachingMode(CachingMode.STAND_ALONE_REDIS_CACHE)
+				.withCacheId("warm-up-cache").withServerAddress(serverAddress).withLocalCache()
+				.withWarmUp("warm").withWarmUpConcurrency(2).<String>build();
+
+		Assert.assertEquals(Long.valueOf(250), warmCache.getWarmUpFuture().get(10, TimeUnit.SECONDS));
+		Assert.assertEquals("value10", warmCache.get("warm10"));
+	}
+
+	@Test
+	public void testAutoPipelining() throws Exception {
+		RedisCache<String> cache = (RedisCache<String>) CacheBuilder.newBuilder().withCachingMode(CachingMode.STAND_ALONE_REDIS_CACHE)
+				.withCacheId("pipelined-cache").withServerAddress(new ServerAddress("localhost", redisServerPort, false))
+				.withAutoPipelining(64, 1, TimeUnit.MILLISECONDS).<String>build();
+
+		IntStream.range(0, 200).parallel().forEach(e -> cache.replace("key" + e, "value" + e));
+		IntStream.range(0, 200).parallel().forEach(e -> Assert.assertEquals("value" + e, cache.get("key" + e)));
+
+		PipelineStats stats = cache.pipelineStats();
+		Assert.assertTrue(stats.getCommandCount() >= 400);
+		Assert.assertTrue(stats.getMaxBatchSize() <= 64);
+		Assert.assertTrue(stats.getFlushCount() > 0);
+
+		try {
+			CacheBuilder.newBuilder().withCachingMode(CachingMode.LOCAL_JVM_CACHE).withAutoPipelining(64, 1, TimeUnit.MILLISECONDS).build();
+			Assert.fail("the auto pipelining is remote only");
+		} catch (InvalidConfigException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testSharedClient() {
+		ServerAddress serverAddress = new ServerAddress("localhost", redisServerPort, false);
+		RedisCache<String> first = (RedisCache<String>) CacheBuilder.newBuilder().withCachingMode(CachingMode.STAND_ALONE_REDIS_CACHE)
+				.withCacheId("shared-cache-1").withServerAddress(serverAddress).<String>build();
+		RedisCache<String> second = (RedisCache<String>) CacheBuilder.newBuilder().withCachingMode(CachingMode.STAND_ALONE_REDIS_CACHE)
+				.withCacheId("shared-cache-2").withServerAddress(serverAddress).<String>build();
+
+		first.store("key", "first");
+		second.store("key", "second");
+		first.closeClient();
+
+		Assert.assertEquals("second", second.get("key"));
+		second.replace("key", "updated");
+		Assert.assertEquals("updated", second.get("key"));
+
+		try {
+			CacheBuilder.newBuilder().withCachingMode(CachingMode.STAND_ALONE_REDIS_CACHE).withCacheId("shared-cache-3")
+					.withServerAddress(serverAddress).withNumThreads(CacheBuilder.MAX_NETTY_THREADS).build();
+			Assert.fail("the client of the servers is already created with another number of threads");
+		} catch (InvalidConfigException e) {
+			// expected
+		}
+		second.closeClient();
+	}
+
+	@Test
+	public void testValueSizeTracking() {
+		RedisCache<String> cache = (RedisCache<String>) CacheBuilder.newBuilder().withCachingMode(CachingMode.STAND_ALONE_REDIS_CACHE)
+				.withCacheId("sized-cache").withServerAddress(new ServerAddress("localhost", redisServerPort, false))
+				.withValueSizeTracking(new ValueSizeConfig().withLargeValueThreshold(1024).withMaxValueSize(64 * 1024)).<String>build();
+		List<LargeValueEvent> events = new CopyOnWriteArrayList<>();
+		cache.addLargeValueListener(events::add);
+
+		cache.replace("small", "value");
+		cache.replace("large", StringUtils.repeat('a', 4096));
+		try {
+			cache.replace("huge", StringUtils.repeat('a', 128 * 1024));
+			Assert.fail("the value is larger than the max size");
+		} catch (ValueTooLargeException e) {
+			// expected
+		}
+
+		Assert.assertEquals(StringUtils.repeat('a', 4096), cache.get("large"));
+		Assert.assertNull(cache.get("huge"));
+		Assert.assertEquals(2, events.size());
+		Assert.assertEquals("large", events.get(0).getKey());
+		Assert.assertTrue(events.get(1).isRejected());
+
+		ValueSizeStats stats = cache.valueSizeStats();
+		Assert.assertEquals(2, stats.getCount());
+		Assert.assertEquals(1, stats.getLargeValueCount());
+		Assert.assertEquals(1, stats.getRejectedCount());
+		Assert.assertTrue(stats.getMaxBytes() > 4096);
+		cache.deleteByKeys("small", "large");
+	}
+
+	@Test
+	public void testOperationListener() {
+		List<String> calls = new CopyOnWriteArrayList<>();
+		CacheOperationListener listener = new CacheOperationListener() {
+			@Override
+			public Object onStart(String cacheId, CacheOperation operation, String key) {
+				return System.nanoTime();
+			}
+
+			@Override
+			public void onEnd(String cacheId, CacheOperation operation, String key, Object context, CacheTier tier, long bytes, long durationInNanos, Throwable error) {
+				Assert.assertTrue(context instanceof Long);
+				Assert.assertTrue(durationInNanos >= 0);
+				calls.add(operation + ":" + key + ":" + tier + ":" + (bytes > 0));
+			}
+		};
+		DataCache<String> cache = CacheBuilder.newBuilder().withCachingMode(CachingMode.STAND_ALONE_REDIS_CACHE)
+				.withCacheId("traced-cache").withServerAddress(new ServerAddress("localhost", redisServerPort, false))
+				.withOperationListener(listener).build(e -> e.startsWith("loaded") ? "value" : null);
+
+		cache.replace("key", "value");
+		cache.get("key");
+		cache.get("loaded");
+		cache.get("missing");
+		cache.deleteByKeys("key", "loaded");
+		Assert.assertEquals(Arrays.asList("REPLACE:key:REMOTE:true", "GET:key:REMOTE:true", "GET:loaded:LOADER:true", "GET:missing:null:false"), calls);
+
+		cache.removeOperationListener(listener);
+		cache.get("key");
+		Assert.assertEquals(4, calls.size());
+	}
+
+	@Test
+	public void testFlightRecorderInstrumentedCalls() throws Exception {
+		// the library targets java 8, hence the recording is driven by reflection, and skipped without a flight recorder
+		Class<?> recordingClass;
+		try {
+			recordingClass = Class.forName("jdk.jfr.Recording");
+		} catch (ClassNotFoundException e) {
+			Assume.assumeNoException(e);
+			return;
+		}
+		Object recording = recordingClass.getConstructor().newInstance();
+		for (String event : Arrays.asList("RemoteCall", "Load", "BatchWrite")) {
+			Object settings = recordingClass.getMethod("enable", String.class).invoke(recording, "com.here.object.cache." + event);
+			settings.getClass().getMethod("withThreshold", java.time.Duration.class).invoke(settings, java.time.Duration.ZERO);
+		}
+
+		AtomicInteger loads = new AtomicInteger();
+		DataCache<String> cache = CacheBuilder.newBuilder().withCachingMode(CachingMode.STAND_ALONE_REDIS_CACHE)
+				.withCacheId("recorded-cache").withServerAddress(new ServerAddress("localhost", redisServerPort, false))
+				.build(key -> "loaded-" + loads.incrementAndGet());
+
+		java.nio.file.Path file = Files.createTempFile("object-cache", ".jfr");
+		recordingClass.getMethod("start").invoke(recording);
+		try {
+			Map<String, String> batch = new HashMap<>();
+			batch.put("first", "1");
+			batch.put("second", "2");
+			Assert.assertTrue(cache.storeBatch(batch, 5, TimeUnit.SECONDS));
+			Assert.assertEquals("1", cache.get("first"));
+			Assert.assertEquals("loaded-1", cache.get("missing"));
+			Assert.assertEquals(3, cache.deleteByKeys("first", "second", "missing"));
+		} finally {
+			recordingClass.getMethod("stop").invoke(recording);
+			recordingClass.getMethod("dump", java.nio.file.Path.class).invoke(recording, file);
+			recordingClass.getMethod("close").invoke(recording);
+		}
+
+		// the name, the key hash and the size of the events of the cache
+		List<String> events = new ArrayList<>();
+		Class<?> recordedObjectClass = Class.forName("jdk.jfr.consumer.RecordedObject");
+		for (Object event : (List<?>) Class.forName("jdk.jfr.consumer.RecordingFile").getMethod("readAllEvents", java.nio.file.Path.class).invoke(null, file)) {
+			Object eventType = event.getClass().getMethod("getEventType").invoke(event);
+			String name = (String) eventType.getClass().getMethod("getName").invoke(eventType);
+			if (!name.startsWith("com.here.object.cache.") || !"recorded-cache".equals(recordedObjectClass.getMethod("getValue", String.class).invoke(event, "cacheId")))
+				continue;
+			events.add(name.substring("com.here.object.cache.".length()) + " " + recordedObjectClass.getMethod("getValue", String.class).invoke(event, "keyHash")
+					+ " " + recordedObjectClass.getMethod("getValue", String.class).invoke(event, "size"));
+		}
+		Files.delete(file);
+
+		Assert.assertTrue(events.toString(), events.contains("BatchWrite 0 2"));
+		Assert.assertTrue(events.toString(), events.contains("Load " + "missing".hashCode() + " -1"));
+		Assert.assertTrue(events.toString(), events.stream().anyMatch(e -> e.startsWith("RemoteCall " + "first".hashCode() + " ") && !e.endsWith(" -1")));
+	}
+
 	@Ignore
 	@Test
 	public void elasticacheClusterTest(){